@@ -0,0 +1,92 @@
+import benchmarks.MatrixBridge;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+// Реализация MatrixBridge над классами приложения, см. benchmarks.MatrixBridge
+public class JmhBridge implements MatrixBridge {
+
+    @Override
+    public Object random(int n, long seed) {
+        Random random = new Random(seed);
+        double[] data = new double[n * n];
+        for (int k = 0; k < data.length; k++) {
+            data[k] = random.nextDouble() * 2.0 - 1.0;
+        }
+        return Matrix.wrap(data, n, n);
+    }
+
+    @Override
+    public Object nearSingular(int n, long seed) {
+        Matrix matrix = (Matrix) random(n, seed);
+        if (n < 3) {
+            return matrix;
+        }
+        Random random = new Random(seed + 1);
+        double[] data = matrix.toArray();
+        for (int j = 0; j < n; j++) {
+            data[(n - 1) * n + j] = data[j] + data[n + j] + random.nextGaussian() * 1e-12;
+        }
+        return Matrix.wrap(data, n, n);
+    }
+
+    @Override
+    public Object copy(Object matrix) {
+        Matrix m = (Matrix) matrix;
+        return Matrix.wrap(m.toArray(), m.getRows(), m.getCols());
+    }
+
+    @Override
+    public Object multiply(Object a, Object b) {
+        return MatrixOperations.multiply((Matrix) a, (Matrix) b);
+    }
+
+    @Override
+    public double determinant(Object matrix) {
+        return MatrixOperations.determinant((Matrix) matrix);
+    }
+
+    @Override
+    public void setCacheEnabled(boolean enabled) {
+        ResultCache cache = ResultCache.shared();
+        cache.clear();
+        cache.setEnabled(enabled);
+    }
+
+    @Override
+    public String render(Object matrix) {
+        return matrix.toString();
+    }
+
+    @Override
+    public long writeText(Object matrix, Path path) {
+        Matrix m = (Matrix) matrix;
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+            for (int i = 0; i < m.getRows(); i++) {
+                for (int j = 0; j < m.getCols(); j++) {
+                    if (j > 0) {
+                        writer.write(' ');
+                    }
+                    writer.write(Double.toString(m.get(i, j)));
+                }
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Object readText(Path path) {
+        return MatrixIO.readMatrixFromFile(path.toString());
+    }
+}
@@ -0,0 +1,73 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Стоимость попадания в общий кэш результатов. sameInstance — повтор над теми же объектами (хеш уже посчитан),
+// equalContent — над копиями, загруженными заново: хеширование и сравнение содержимого с записью кэша.
+// Сравнивать с MultiplyBenchmark и DeterminantBenchmark, которые выполняются без кэша
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheBenchmark {
+    @Param({"128", "512", "1024"})
+    public int size;
+
+    private MatrixBridge bridge;
+    private Object a;
+    private Object b;
+    private Object aCopy;
+    private Object bCopy;
+
+    @Setup
+    public void setUp() {
+        bridge = MatrixBridge.load();
+        bridge.setCacheEnabled(true);
+        a = bridge.random(size, 1);
+        b = bridge.random(size, 2);
+        bridge.multiply(a, b);
+        bridge.determinant(a);
+    }
+
+    // Новые объекты на каждый вызов: иначе хеш копии запоминается после первого вызова
+    @Setup(Level.Invocation)
+    public void copyOperands() {
+        aCopy = bridge.copy(a);
+        bCopy = bridge.copy(b);
+    }
+
+    @TearDown
+    public void tearDown() {
+        bridge.setCacheEnabled(false);
+    }
+
+    @Benchmark
+    public Object multiplySameInstance() {
+        return bridge.multiply(a, b);
+    }
+
+    @Benchmark
+    public Object multiplyEqualContent() {
+        return bridge.multiply(aCopy, bCopy);
+    }
+
+    @Benchmark
+    public double determinantEqualContent() {
+        return bridge.determinant(aCopy);
+    }
+}
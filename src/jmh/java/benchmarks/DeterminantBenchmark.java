@@ -0,0 +1,43 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Почти вырожденные входы проверяют, что ранняя остановка и выбор опорного элемента не меняют стоимость
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeterminantBenchmark {
+    @Param({"8", "32", "128", "512", "1024", "2048", "4096"})
+    public int size;
+
+    @Param({"dense", "nearSingular"})
+    public String input;
+
+    private MatrixBridge bridge;
+    private Object matrix;
+
+    @Setup
+    public void setUp() {
+        bridge = MatrixBridge.load();
+        matrix = "dense".equals(input) ? bridge.random(size, 3) : bridge.nearSingular(size, 3);
+    }
+
+    @Benchmark
+    public double determinant() {
+        return bridge.determinant(matrix);
+    }
+}
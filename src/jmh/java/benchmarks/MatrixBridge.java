@@ -0,0 +1,38 @@
+package benchmarks;
+
+import java.nio.file.Path;
+
+// JMH не допускает бенчмарки в пакете по умолчанию, а классы из именованного пакета не видят классы
+// приложения (они лежат в пакете по умолчанию). Поэтому бенчмарки работают через этот интерфейс,
+// реализация которого (JmhBridge) находится в пакете по умолчанию и загружается по имени
+public interface MatrixBridge {
+    static MatrixBridge load() {
+        try {
+            return (MatrixBridge) Class.forName("JmhBridge").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Не найден класс JmhBridge в наборе исходников jmh", e);
+        }
+    }
+
+    Object random(int n, long seed);
+
+    // Матрица, близкая к вырожденной: последняя строка — сумма первых двух плюс шум порядка 1e-12
+    Object nearSingular(int n, long seed);
+
+    // Копия с тем же содержимым в новом массиве: хеш и сравнение с записью кэша выполняются заново
+    Object copy(Object matrix);
+
+    Object multiply(Object a, Object b);
+
+    double determinant(Object matrix);
+
+    // Включает общий кэш результатов и очищает его; false выключает
+    void setCacheEnabled(boolean enabled);
+
+    String render(Object matrix);
+
+    // Записывает матрицу в текстовом формате приложения и возвращает размер файла в байтах
+    long writeText(Object matrix, Path path);
+
+    Object readText(Path path);
+}
@@ -0,0 +1,41 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiplyBenchmark {
+    @Param({"8", "32", "128", "512", "1024", "2048", "4096"})
+    public int size;
+
+    private MatrixBridge bridge;
+    private Object a;
+    private Object b;
+
+    @Setup
+    public void setUp() {
+        bridge = MatrixBridge.load();
+        a = bridge.random(size, 1);
+        b = bridge.random(size, 2);
+    }
+
+    @Benchmark
+    public Object multiply() {
+        return bridge.multiply(a, b);
+    }
+}
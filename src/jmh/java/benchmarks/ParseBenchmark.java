@@ -0,0 +1,71 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Пропускная способность разбора текстового файла: вспомогательные счётчики bytes и megabytes
+// JMH нормирует на время и выводит как байт/с и МБ/с рядом с ops/s
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+    @Param({"8", "64", "256", "1024", "2048", "4096"})
+    public int size;
+
+    private MatrixBridge bridge;
+    private Path file;
+    private long fileBytes;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Throughput {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            bytes = 0;
+        }
+
+        public double megabytes() {
+            return bytes / 1e6;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        bridge = MatrixBridge.load();
+        file = Files.createTempFile("matrix-jmh-", ".txt");
+        fileBytes = bridge.writeText(bridge.random(size, 4), file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Object parse(Throughput throughput) {
+        Object matrix = bridge.readText(file);
+        throughput.bytes += fileBytes;
+        return matrix;
+    }
+}
@@ -0,0 +1,219 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Двоичный формат: заголовок из 24 байт (magic "MTXB", версия, строки, столбцы, тип элементов, резерв),
+// затем элементы в построчном порядке (float64 или float32); все числа little-endian
+public class BinaryMatrixFormat {
+    private static final Logger logger = LogManager.getLogger(BinaryMatrixFormat.class);
+    static final byte[] MAGIC = {'M', 'T', 'X', 'B'};
+    static final int VERSION = 1;
+    static final int DTYPE_FLOAT64 = 1;
+    static final int DTYPE_FLOAT32 = 2;
+    static final int HEADER_SIZE = 24;
+    // Отображаем файл частями, так как один MappedByteBuffer ограничен 2 ГБ
+    private static final long MAP_CHUNK_BYTES = 1L << 30;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    public static boolean isBinaryFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return hasMagic(channel, MAGIC);
+        }
+    }
+
+    static boolean hasMagic(FileChannel channel, byte[] magic) throws IOException {
+        if (channel.size() < magic.length) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(magic.length);
+        readFully(channel, buffer, 0);
+        for (int i = 0; i < magic.length; i++) {
+            if (buffer.get(i) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Файл float32 расширяется до double без потерь
+    public static Matrix read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            double[] data = new double[header.elementCount()];
+            if (header.dtype == DTYPE_FLOAT64) {
+                forEachChunk(channel, data.length, Double.BYTES,
+                        (mapped, filled, count) -> mapped.asDoubleBuffer().get(data, filled, count));
+            } else {
+                forEachChunk(channel, data.length, Float.BYTES, (mapped, filled, count) -> {
+                    for (int k = 0; k < count; k++) {
+                        data[filled + k] = mapped.getFloat(k * Float.BYTES);
+                    }
+                });
+            }
+            logger.debug("Двоичная матрица {}x{} загружена из {}", header.rows, header.cols, path);
+            return Matrix.wrap(data, header.rows, header.cols);
+        }
+    }
+
+    // Файл float64 округляется до float при чтении, без промежуточного массива double
+    public static FloatMatrix readFloat(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            float[] data = new float[header.elementCount()];
+            if (header.dtype == DTYPE_FLOAT32) {
+                forEachChunk(channel, data.length, Float.BYTES,
+                        (mapped, filled, count) -> mapped.asFloatBuffer().get(data, filled, count));
+            } else {
+                forEachChunk(channel, data.length, Double.BYTES, (mapped, filled, count) -> {
+                    for (int k = 0; k < count; k++) {
+                        data[filled + k] = (float) mapped.getDouble(k * Double.BYTES);
+                    }
+                });
+            }
+            logger.debug("Двоичная матрица float32 {}x{} загружена из {}", header.rows, header.cols, path);
+            return FloatMatrix.wrap(data, header.rows, header.cols);
+        }
+    }
+
+    private static void forEachChunk(FileChannel channel, int length, int elementBytes, ChunkReader reader) throws IOException {
+        long position = HEADER_SIZE;
+        int filled = 0;
+        while (filled < length) {
+            int count = (int) Math.min(length - filled, MAP_CHUNK_BYTES / elementBytes);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) count * elementBytes);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            reader.read(mapped, filled, count);
+            filled += count;
+            position += (long) count * elementBytes;
+        }
+    }
+
+    static Header readHeader(FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_SIZE || !hasMagic(channel, MAGIC)) {
+            throw new MatrixException("Файл не является двоичным файлом матрицы.");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, buffer, 0);
+        int version = buffer.getInt(4);
+        int rows = buffer.getInt(8);
+        int cols = buffer.getInt(12);
+        int dtype = buffer.getInt(16);
+        if (version != VERSION) {
+            logger.error("Неподдерживаемая версия двоичного формата: {}", version);
+            throw new MatrixException("Неподдерживаемая версия двоичного формата матрицы: " + version);
+        }
+        if (dtype != DTYPE_FLOAT64 && dtype != DTYPE_FLOAT32) {
+            logger.error("Неподдерживаемый тип элементов двоичного файла: {}", dtype);
+            throw new MatrixException("Неподдерживаемый тип элементов двоичного файла матрицы: " + dtype);
+        }
+        // Размер не ограничен одним массивом: внешнее умножение читает файл тайлами по long-позициям
+        if (rows <= 0 || cols <= 0) {
+            throw new MatrixException("Недопустимая размерность в заголовке двоичного файла матрицы.");
+        }
+        long expectedSize = HEADER_SIZE + (long) rows * cols * (dtype == DTYPE_FLOAT32 ? Float.BYTES : Double.BYTES);
+        if (channel.size() != expectedSize) {
+            logger.error("Размер двоичного файла {} не соответствует заголовку ({}x{}, ожидалось {} байт).",
+                    channel.size(), rows, cols, expectedSize);
+            throw new MatrixException("Размер двоичного файла матрицы не соответствует заголовку.");
+        }
+        return new Header(rows, cols, dtype);
+    }
+
+    public static void write(Matrix matrix, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(MAGIC).putInt(VERSION).putInt(matrix.getRows()).putInt(matrix.getCols())
+                    .putInt(DTYPE_FLOAT64).putInt(0).flip();
+            writeFully(channel, header);
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < matrix.getRows(); i++) {
+                for (int j = 0; j < matrix.getCols(); j++) {
+                    if (!buffer.hasRemaining()) {
+                        buffer.flip();
+                        writeFully(channel, buffer);
+                        buffer.clear();
+                    }
+                    buffer.putDouble(matrix.get(i, j));
+                }
+            }
+            buffer.flip();
+            writeFully(channel, buffer);
+        }
+        logger.debug("Матрица {}x{} записана в двоичном формате в {}", matrix.getRows(), matrix.getCols(), path);
+    }
+
+    public static void write(FloatMatrix matrix, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(MAGIC).putInt(VERSION).putInt(matrix.getRows()).putInt(matrix.getCols())
+                    .putInt(DTYPE_FLOAT32).putInt(0).flip();
+            writeFully(channel, header);
+
+            float[] data = matrix.rawData();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            int chunk = WRITE_BUFFER_BYTES / Float.BYTES;
+            int length = matrix.getRows() * matrix.getCols();
+            for (int from = 0; from < length; from += chunk) {
+                int count = Math.min(chunk, length - from);
+                buffer.clear();
+                buffer.asFloatBuffer().put(data, from, count);
+                buffer.limit(count * Float.BYTES);
+                writeFully(channel, buffer);
+            }
+        }
+        logger.debug("Матрица float32 {}x{} записана в двоичном формате в {}", matrix.getRows(), matrix.getCols(), path);
+    }
+
+    static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, current);
+            if (read < 0) {
+                throw new EOFException("Неожиданный конец файла на позиции " + current);
+            }
+            current += read;
+        }
+    }
+
+    static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkReader {
+        void read(MappedByteBuffer mapped, int filled, int count);
+    }
+
+    static class Header {
+        final int rows;
+        final int cols;
+        final int dtype;
+
+        Header(int rows, int cols, int dtype) {
+            this.rows = rows;
+            this.cols = cols;
+            this.dtype = dtype;
+        }
+
+        // Число элементов для загрузки в один массив в памяти
+        int elementCount() {
+            if ((long) rows * cols > Integer.MAX_VALUE - 8) {
+                logger.error("Двоичная матрица {}x{} не помещается в один массив.", rows, cols);
+                throw new MatrixException("Матрица слишком велика для загрузки в память: " + rows + "x" + cols);
+            }
+            return rows * cols;
+        }
+    }
+}
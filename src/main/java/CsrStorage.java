@@ -0,0 +1,211 @@
+import java.util.Arrays;
+
+// Сжатое построчное хранение (CSR): ненулевые элементы строки i лежат в values[rowPtr[i]..rowPtr[i + 1]),
+// индексы столбцов внутри строки строго возрастают
+public class CsrStorage {
+    private final int rows;
+    private final int cols;
+    private final int[] rowPtr;
+    private final int[] colIdx;
+    private final double[] values;
+
+    CsrStorage(int rows, int cols, int[] rowPtr, int[] colIdx, double[] values) {
+        this.rows = rows;
+        this.cols = cols;
+        this.rowPtr = rowPtr;
+        this.colIdx = colIdx;
+        this.values = values;
+    }
+
+    static CsrStorage validated(int rows, int cols, int[] rowPtr, int[] colIdx, double[] values) {
+        if (rows <= 0 || cols <= 0) {
+            throw new MatrixException("Матрица не может быть пустой.");
+        }
+        if (rowPtr.length != rows + 1 || rowPtr[0] != 0 || colIdx.length < rowPtr[rows] || values.length < rowPtr[rows]) {
+            throw new MatrixException("Некорректная структура разреженной матрицы.");
+        }
+        for (int i = 0; i < rows; i++) {
+            if (rowPtr[i] > rowPtr[i + 1]) {
+                throw new MatrixException("Некорректная структура разреженной матрицы.");
+            }
+            for (int p = rowPtr[i]; p < rowPtr[i + 1]; p++) {
+                if (colIdx[p] < 0 || colIdx[p] >= cols || (p > rowPtr[i] && colIdx[p] <= colIdx[p - 1])) {
+                    throw new MatrixException("Некорректная структура разреженной матрицы.");
+                }
+            }
+        }
+        return new CsrStorage(rows, cols, rowPtr, colIdx, values);
+    }
+
+    static CsrStorage fromDense(Matrix matrix) {
+        int rows = matrix.getRows();
+        int cols = matrix.getCols();
+        int[] rowPtr = new int[rows + 1];
+        int nnz = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (matrix.get(i, j) != 0.0) {
+                    nnz++;
+                }
+            }
+            rowPtr[i + 1] = nnz;
+        }
+        int[] colIdx = new int[nnz];
+        double[] values = new double[nnz];
+        int p = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                double v = matrix.get(i, j);
+                if (v != 0.0) {
+                    colIdx[p] = j;
+                    values[p++] = v;
+                }
+            }
+        }
+        return new CsrStorage(rows, cols, rowPtr, colIdx, values);
+    }
+
+    // Построение из координатного списка (COO) с суммированием повторяющихся позиций
+    static CsrStorage fromCoordinates(int rows, int cols, int[] rowIndex, int[] colIndex, double[] entries, int count) {
+        int[] rowPtr = new int[rows + 1];
+        for (int p = 0; p < count; p++) {
+            rowPtr[rowIndex[p] + 1]++;
+        }
+        for (int i = 0; i < rows; i++) {
+            rowPtr[i + 1] += rowPtr[i];
+        }
+        int[] next = Arrays.copyOf(rowPtr, rows);
+        int[] colIdx = new int[count];
+        double[] values = new double[count];
+        for (int p = 0; p < count; p++) {
+            int q = next[rowIndex[p]]++;
+            colIdx[q] = colIndex[p];
+            values[q] = entries[p];
+        }
+        // Сортировка внутри строк и слияние дубликатов
+        int[] compactPtr = new int[rows + 1];
+        int write = 0;
+        for (int i = 0; i < rows; i++) {
+            int from = rowPtr[i];
+            int to = rowPtr[i + 1];
+            sortRow(colIdx, values, from, to);
+            for (int p = from; p < to; p++) {
+                if (write > compactPtr[i] && colIdx[write - 1] == colIdx[p]) {
+                    values[write - 1] += values[p];
+                } else {
+                    colIdx[write] = colIdx[p];
+                    values[write++] = values[p];
+                }
+            }
+            compactPtr[i + 1] = write;
+        }
+        return new CsrStorage(rows, cols, compactPtr, colIdx, values);
+    }
+
+    private static void sortRow(int[] colIdx, double[] values, int from, int to) {
+        if (to - from > 32) {
+            // Длинные строки сортируем упакованными парами (столбец, позиция)
+            long[] keys = new long[to - from];
+            for (int p = from; p < to; p++) {
+                keys[p - from] = ((long) colIdx[p] << 32) | (p - from);
+            }
+            Arrays.sort(keys);
+            double[] sorted = new double[to - from];
+            for (int k = 0; k < keys.length; k++) {
+                sorted[k] = values[from + (int) keys[k]];
+            }
+            for (int k = 0; k < keys.length; k++) {
+                colIdx[from + k] = (int) (keys[k] >>> 32);
+                values[from + k] = sorted[k];
+            }
+            return;
+        }
+        for (int p = from + 1; p < to; p++) {
+            int c = colIdx[p];
+            double v = values[p];
+            int q = p - 1;
+            while (q >= from && colIdx[q] > c) {
+                colIdx[q + 1] = colIdx[q];
+                values[q + 1] = values[q];
+                q--;
+            }
+            colIdx[q + 1] = c;
+            values[q + 1] = v;
+        }
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int nonZeros() { return rowPtr[rows]; }
+
+    public double density() {
+        return nonZeros() / ((double) rows * cols);
+    }
+
+    int[] rowPtr() { return rowPtr; }
+    int[] colIdx() { return colIdx; }
+    double[] values() { return values; }
+
+    double get(int i, int j) {
+        int p = Arrays.binarySearch(colIdx, rowPtr[i], rowPtr[i + 1], j);
+        return p >= 0 ? values[p] : 0.0;
+    }
+
+    // Записывает строку i в плотный массив target начиная с targetOffset (остальные элементы обнуляются)
+    void copyRow(int i, double[] target, int targetOffset) {
+        Arrays.fill(target, targetOffset, targetOffset + cols, 0.0);
+        for (int p = rowPtr[i]; p < rowPtr[i + 1]; p++) {
+            target[targetOffset + colIdx[p]] = values[p];
+        }
+    }
+
+    CsrStorage transpose() {
+        int nnz = nonZeros();
+        int[] tPtr = new int[cols + 1];
+        for (int p = 0; p < nnz; p++) {
+            tPtr[colIdx[p] + 1]++;
+        }
+        for (int j = 0; j < cols; j++) {
+            tPtr[j + 1] += tPtr[j];
+        }
+        int[] next = Arrays.copyOf(tPtr, cols);
+        int[] tCol = new int[nnz];
+        double[] tValues = new double[nnz];
+        // Обход строк по возрастанию сохраняет упорядоченность индексов в строках результата
+        for (int i = 0; i < rows; i++) {
+            for (int p = rowPtr[i]; p < rowPtr[i + 1]; p++) {
+                int q = next[colIdx[p]]++;
+                tCol[q] = i;
+                tValues[q] = values[p];
+            }
+        }
+        return new CsrStorage(cols, rows, tPtr, tCol, tValues);
+    }
+
+    CsrStorage submatrix(int rowFrom, int colFrom, int rowCount, int colCount) {
+        int[] subPtr = new int[rowCount + 1];
+        int nnz = 0;
+        for (int i = 0; i < rowCount; i++) {
+            int r = rowFrom + i;
+            for (int p = rowPtr[r]; p < rowPtr[r + 1]; p++) {
+                if (colIdx[p] >= colFrom && colIdx[p] < colFrom + colCount) {
+                    nnz++;
+                }
+            }
+            subPtr[i + 1] = nnz;
+        }
+        int[] subCol = new int[nnz];
+        double[] subValues = new double[nnz];
+        int q = 0;
+        for (int i = 0; i < rowCount; i++) {
+            int r = rowFrom + i;
+            for (int p = rowPtr[r]; p < rowPtr[r + 1]; p++) {
+                if (colIdx[p] >= colFrom && colIdx[p] < colFrom + colCount) {
+                    subCol[q] = colIdx[p] - colFrom;
+                    subValues[q++] = values[p];
+                }
+            }
+        }
+        return new CsrStorage(rowCount, colCount, subPtr, subCol, subValues);
+    }
+}
@@ -1,62 +1,91 @@
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
 public class DeterminantCalculator {
     private static final Logger logger = LogManager.getLogger(DeterminantCalculator.class);
     public static double calculate(Matrix matrix) {
-        double[][] data = matrix.getData();
-        if (data == null || data.length == 0 || data.length != data[0].length) {
-            logger.error("Попытка вычисления определителя для неквадратной или пустой матрицы. Размер: {}x{}", data.length, (data.length > 0 ? data[0].length : 0));
-            throw new MatrixException("Матрица должна быть квадратной и не пустой.");
-        }
-        logger.info("Начало вычисления определителя для матрицы {}x{}", data.length, data.length);
-        return calculateDeterminantGauss(data);
+        return calculate(matrix, ProgressMonitor.NONE);
     }
 
-    private static double calculateDeterminantGauss(double[][] matrix) {
-        int n = matrix.length;
-        double[][] A = new double[n][n];
-        for (int i = 0; i < n; i++) {
-            System.arraycopy(matrix[i], 0, A[i], 0, n);
+    public static double calculate(Matrix matrix, ProgressMonitor monitor) {
+        if (matrix == null || matrix.getRows() != matrix.getCols()) {
+            logger.error("Попытка вычисления определителя для неквадратной или пустой матрицы. Размер: {}x{}",
+                    matrix == null ? 0 : matrix.getRows(), matrix == null ? 0 : matrix.getCols());
+            throw new MatrixException("Матрица должна быть квадратной и не пустой.");
+        }
+        if (MatrixMetrics.hotPathLogging() && logger.isInfoEnabled()) {
+            logger.info("Начало вычисления определителя для матрицы {}x{}", matrix.getRows(), matrix.getRows());
+        }
+        double determinant = new LUDecomposition(matrix, monitor).determinant();
+        if (MatrixMetrics.hotPathLogging() && logger.isInfoEnabled()) {
+            logger.info("Вычисление определителя завершено. Результат: {}", determinant);
         }
+        return determinant;
+    }
 
-        int rowSwaps = 0;
-        final double wee = 1e-9;
+    // Определитель по float-множителям: вдвое меньше памяти, относительная точность около 1e-6 * cond(A).
+    // Если float не подошёл, расчёт идёт в double
+    public static double calculateMixedPrecision(Matrix matrix) {
+        return decomposeMixedPrecision(matrix).determinant();
+    }
 
-        for (int k = 0; k < n; k++) {
-            int pivotRow = k;
-            for (int i = k + 1; i < n; i++) {
-                if (Math.abs(A[i][k]) > Math.abs(A[pivotRow][k])) {
-                    pivotRow = i;
-                }
-            }
-            if (pivotRow != k) {
-                double[] temp = A[k];
-                A[k] = A[pivotRow];
-                A[pivotRow] = temp;
-                rowSwaps++;
-                logger.trace("Перестановка строк {} и {}. Общее число перестановок: {}", k, pivotRow, rowSwaps);
+    // То же разложение целиком: кроме determinant() вызывающий код получает оценку обратной погрешности
+    // factorizationResidual() и признак перехода на double isFallback()
+    public static MixedPrecisionLU decomposeMixedPrecision(Matrix matrix) {
+        if (matrix == null || matrix.getRows() != matrix.getCols()) {
+            logger.error("Попытка вычисления определителя для неквадратной или пустой матрицы. Размер: {}x{}",
+                    matrix == null ? 0 : matrix.getRows(), matrix == null ? 0 : matrix.getCols());
+            throw new MatrixException("Матрица должна быть квадратной и не пустой.");
+        }
+        MixedPrecisionLU lu = new MixedPrecisionLU(matrix);
+        if (MatrixMetrics.hotPathLogging() && logger.isInfoEnabled()) {
+            if (lu.isFallback()) {
+                logger.info("Определитель матрицы {}x{} вычислен в double: {}", matrix.getRows(), matrix.getCols(),
+                        lu.determinant());
+            } else {
+                logger.info("Определитель матрицы {}x{} со смешанной точностью: {}, невязка разложения {}",
+                        matrix.getRows(), matrix.getCols(), lu.determinant(), lu.factorizationResidual());
             }
+        }
+        return lu;
+    }
 
-            if (Math.abs(A[k][k]) < wee) {
-                logger.debug("Опорный элемент слишком близок к нулю. Определитель равен 0.0.");
-                return 0.0;
-            }
+    // Точный определитель целочисленной матрицы: вычеты по простым модулям и китайская теорема об остатках.
+    // Не зависит от масштаба элементов и не теряет знаков, в отличие от LU в double
+    public static BigInteger calculateExact(Matrix matrix) {
+        return calculateExact(matrix, ProgressMonitor.NONE);
+    }
 
-            for (int i = k + 1; i < n; i++) {
-                double factor = A[i][k] / A[k][k];
-                for (int j = k; j < n; j++) {
-                    A[i][j] -= factor * A[k][j];
-                }
-            }
+    public static BigInteger calculateExact(Matrix matrix, ProgressMonitor monitor) {
+        if (matrix == null || matrix.getRows() != matrix.getCols()) {
+            logger.error("Попытка вычисления определителя для неквадратной или пустой матрицы. Размер: {}x{}",
+                    matrix == null ? 0 : matrix.getRows(), matrix == null ? 0 : matrix.getCols());
+            throw new MatrixException("Матрица должна быть квадратной и не пустой.");
+        }
+        BigInteger determinant = ExactDeterminant.determinant(matrix, monitor);
+        if (MatrixMetrics.hotPathLogging() && logger.isInfoEnabled()) {
+            logger.info("Точный определитель матрицы {}x{}: {} ({} бит)", matrix.getRows(), matrix.getCols(), determinant,
+                    determinant.bitLength());
         }
-        double determinant = 1.0;
-        for (int i = 0; i < n; i++) {
-            determinant *= A[i][i];
+        return determinant;
+    }
+
+    // Параллельный вариант: обновление подматрицы под опорной строкой делится на блоки строк в пуле.
+    // В sequentialNanos добавляется оценка времени однопоточного разложения (0, если пул не использовался)
+    static double calculateParallel(Matrix matrix, ForkJoinPool pool, long threshold, LongAdder busyNanos,
+                                    LongAdder sequentialNanos) {
+        if (MatrixMetrics.hotPathLogging() && logger.isInfoEnabled()) {
+            logger.info("Начало параллельного вычисления определителя для матрицы {}x{}", matrix.getRows(), matrix.getCols());
         }
-        if (rowSwaps % 2 != 0) {
-            determinant = -determinant;
+        LUDecomposition lu = new LUDecomposition(matrix, pool, threshold, busyNanos);
+        double determinant = lu.determinant();
+        sequentialNanos.add(lu.sequentialEstimateNanos());
+        if (MatrixMetrics.hotPathLogging() && logger.isInfoEnabled()) {
+            logger.info("Вычисление определителя завершено. Результат: {}", determinant);
         }
-        logger.info("Вычисление определителя завершено. Результат: {}", determinant);
         return determinant;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,201 @@
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Точный определитель целочисленной матрицы. Определитель вычисляется по модулю нескольких простых чисел
+// меньше 2^31 (исключение Гаусса в вычетах, все операции в long без переполнения), затем восстанавливается
+// по китайской теореме об остатках. Число простых выбирается по оценке Адамара |det A| <= prod ||a_i||,
+// поэтому результат точен без проверок; вычисления по разным модулям независимы и идут параллельно.
+// В отличие от исключения Барейсса в BigInteger промежуточные числа не растут
+public class ExactDeterminant {
+    private static final Logger logger = LogManager.getLogger(ExactDeterminant.class);
+    // Вычеты и их разности меньше 2^31, произведение двух вычетов меньше 2^62
+    static final long MAX_PRIME = Integer.MAX_VALUE;
+    // Элементы меньше 2^62 по модулю приводятся в long, большие — через BigInteger
+    private static final double LONG_LIMIT = 0x1p62;
+
+    private ExactDeterminant() {
+    }
+
+    public static BigInteger determinant(Matrix matrix) {
+        return determinant(matrix, ProgressMonitor.NONE, ForkJoinPool.commonPool());
+    }
+
+    // Прогресс отмечается по модулям; отмена прерывает вычисление с CancellationException
+    public static BigInteger determinant(Matrix matrix, ProgressMonitor monitor) {
+        return determinant(matrix, monitor, ForkJoinPool.commonPool());
+    }
+
+    static BigInteger determinant(Matrix matrix, ProgressMonitor monitor, ForkJoinPool pool) {
+        if (matrix.getRows() != matrix.getCols()) {
+            logger.error("Точный определитель неквадратной матрицы {}x{} невозможен.", matrix.getRows(), matrix.getCols());
+            throw new MatrixException("Матрица должна быть квадратной и не пустой.");
+        }
+        int n = matrix.getRows();
+        double[] values = matrix.toArray();
+        BigInteger[] large = null;
+        for (int k = 0; k < values.length; k++) {
+            double value = values[k];
+            if (!Double.isFinite(value) || value != Math.rint(value)) {
+                logger.error("Элемент ({}, {}) = {} не является целым числом.", k / n + 1, k % n + 1, value);
+                throw new MatrixException("Точный определитель вычисляется только для целочисленной матрицы.");
+            }
+            if (Math.abs(value) >= LONG_LIMIT) {
+                if (large == null) {
+                    large = new BigInteger[values.length];
+                }
+                large[k] = new BigDecimal(value).toBigIntegerExact();
+            }
+        }
+
+        double bits = hadamardBits(values, n);
+        if (bits == Double.NEGATIVE_INFINITY) {
+            // Нулевая строка
+            return BigInteger.ZERO;
+        }
+        // Модуль должен превышать 2 |det A|, чтобы по вычету однозначно восстановить знак; ещё бит — запас
+        // на погрешность оценки в double
+        long[] primes = primes(bits + 2);
+        long[] residues = new long[primes.length];
+        BigInteger[] largeValues = large;
+        monitor.begin(primes.length);
+        pool.invoke(new RowRangeTask(0, primes.length, 1, (from, to) -> {
+            for (int q = from; q < to; q++) {
+                monitor.checkCancelled();
+                residues[q] = determinantModulo(reduce(values, largeValues, primes[q]), n, primes[q]);
+                monitor.worked(1);
+            }
+        }, new LongAdder()));
+        BigInteger result = reconstruct(residues, primes);
+        logger.debug("Точный определитель матрицы {}x{}: оценка Адамара {} бит, {} модулей", n, n, (long) Math.ceil(bits),
+                primes.length);
+        return result;
+    }
+
+    // log2 оценки Адамара: сумма по строкам log2 ||a_i||_2; -inf, если есть нулевая строка
+    static double hadamardBits(double[] values, int n) {
+        double bits = 0.0;
+        for (int i = 0; i < n; i++) {
+            // Масштаб по максимуму строки, чтобы сумма квадратов не переполнилась для элементов около 1e300
+            double max = 0.0;
+            for (int j = 0; j < n; j++) {
+                max = Math.max(max, Math.abs(values[i * n + j]));
+            }
+            if (max == 0.0) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            double sum = 0.0;
+            for (int j = 0; j < n; j++) {
+                double scaled = values[i * n + j] / max;
+                sum += scaled * scaled;
+            }
+            bits += Math.log(max) / Math.log(2) + 0.5 * Math.log(sum) / Math.log(2);
+        }
+        return bits;
+    }
+
+    // Наибольшие простые меньше 2^31, пока их произведение не превысит 2^bits
+    static long[] primes(double bits) {
+        int count = 0;
+        long[] primes = new long[Math.max(1, (int) Math.ceil(bits / 30.0) + 1)];
+        double total = 0.0;
+        for (long candidate = MAX_PRIME; total < bits; candidate -= 2) {
+            if (BigInteger.valueOf(candidate).isProbablePrime(40)) {
+                if (count == primes.length) {
+                    primes = Arrays.copyOf(primes, count * 2);
+                }
+                primes[count++] = candidate;
+                total += Math.log(candidate) / Math.log(2);
+            }
+        }
+        return Arrays.copyOf(primes, Math.max(1, count));
+    }
+
+    private static long[] reduce(double[] values, BigInteger[] large, long p) {
+        long[] residues = new long[values.length];
+        BigInteger modulus = large == null ? null : BigInteger.valueOf(p);
+        for (int k = 0; k < values.length; k++) {
+            residues[k] = large != null && large[k] != null
+                    ? large[k].mod(modulus).longValue()
+                    : Math.floorMod((long) values[k], p);
+        }
+        return residues;
+    }
+
+    // Исключение Гаусса над полем вычетов: ведущим берётся любой ненулевой элемент столбца
+    static long determinantModulo(long[] a, int n, long p) {
+        long det = 1;
+        for (int k = 0; k < n; k++) {
+            int pivotRow = k;
+            while (pivotRow < n && a[pivotRow * n + k] == 0) {
+                pivotRow++;
+            }
+            if (pivotRow == n) {
+                return 0;
+            }
+            if (pivotRow != k) {
+                for (int j = k; j < n; j++) {
+                    long temp = a[k * n + j];
+                    a[k * n + j] = a[pivotRow * n + j];
+                    a[pivotRow * n + j] = temp;
+                }
+                det = p - det;
+            }
+            long pivot = a[k * n + k];
+            det = det * pivot % p;
+            long inverse = inverse(pivot, p);
+            for (int i = k + 1; i < n; i++) {
+                long factor = a[i * n + k] * inverse % p;
+                if (factor == 0) {
+                    continue;
+                }
+                // a_ij + (p - f) * a_kj < 2^31 + 2^62: переполнения нет, приведение одно на элемент
+                long negated = p - factor;
+                int ri = i * n;
+                int rk = k * n;
+                for (int j = k + 1; j < n; j++) {
+                    a[ri + j] = (a[ri + j] + negated * a[rk + j]) % p;
+                }
+            }
+        }
+        return det % p;
+    }
+
+    // Обратный по модулю простого p расширенным алгоритмом Евклида
+    static long inverse(long value, long p) {
+        long r0 = p, r1 = value, t0 = 0, t1 = 1;
+        while (r1 != 0) {
+            long quotient = r0 / r1;
+            long r = r0 - quotient * r1;
+            r0 = r1;
+            r1 = r;
+            long t = t0 - quotient * t1;
+            t0 = t1;
+            t1 = t;
+        }
+        return t0 < 0 ? t0 + p : t0;
+    }
+
+    // Схема Гарнера: x = r_0 + p_0 (t_1 + p_1 (t_2 + ...)), затем перевод в симметричный диапазон (-M/2, M/2]
+    static BigInteger reconstruct(long[] residues, long[] primes) {
+        BigInteger x = BigInteger.valueOf(residues[0]);
+        BigInteger modulus = BigInteger.valueOf(primes[0]);
+        for (int q = 1; q < primes.length; q++) {
+            long p = primes[q];
+            BigInteger prime = BigInteger.valueOf(p);
+            long current = x.mod(prime).longValue();
+            long difference = Math.floorMod(residues[q] - current, p);
+            long t = difference * inverse(modulus.mod(prime).longValue(), p) % p;
+            x = x.add(modulus.multiply(BigInteger.valueOf(t)));
+            modulus = modulus.multiply(prime);
+        }
+        if (x.shiftLeft(1).compareTo(modulus) > 0) {
+            x = x.subtract(modulus);
+        }
+        return x;
+    }
+}
@@ -0,0 +1,113 @@
+import java.util.Objects;
+
+// Плотная неизменяемая матрица с элементами float32, построчно в одном массиве. Занимает вдвое меньше памяти,
+// чем Matrix, и вдвое уменьшает объём читаемых данных в умножении; точность — около 7 значащих цифр.
+// Значения вне диапазона float при преобразовании становятся бесконечностями
+public class FloatMatrix {
+    private final float[] data;
+    private final int rows;
+    private final int cols;
+
+    public FloatMatrix(float[][] data) {
+        if (data == null || data.length == 0 || data[0].length == 0) {
+            throw new MatrixException("Матрица не может быть пустой.");
+        }
+        this.rows = data.length;
+        this.cols = data[0].length;
+        this.data = new float[Math.multiplyExact(rows, cols)];
+        for (int i = 0; i < rows; i++) {
+            if (data[i].length != cols) {
+                throw new MatrixException("Входной массив не является прямоугольным.");
+            }
+            System.arraycopy(data[i], 0, this.data, i * cols, cols);
+        }
+    }
+
+    private FloatMatrix(float[] data, int rows, int cols) {
+        this.data = data;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    // Оборачивает массив в построчном порядке без копирования (для результатов ядер и загрузки файлов)
+    static FloatMatrix wrap(float[] data, int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new MatrixException("Матрица не может быть пустой.");
+        }
+        if ((long) rows * cols > data.length) {
+            throw new MatrixException("Размер массива не соответствует размерности матрицы.");
+        }
+        return new FloatMatrix(data, rows, cols);
+    }
+
+    // Массив под плотный результат rows x cols; как и Matrix.newDenseData, переполнение размера — MatrixException
+    static float[] newDenseData(int rows, int cols) {
+        try {
+            return new float[Math.multiplyExact(rows, cols)];
+        } catch (ArithmeticException e) {
+            throw new MatrixException("Слишком большая матрица: " + rows + "x" + cols);
+        }
+    }
+
+    // Округление каждого элемента до ближайшего float
+    public static FloatMatrix of(Matrix matrix) {
+        int rows = matrix.getRows();
+        int cols = matrix.getCols();
+        float[] data = newDenseData(rows, cols);
+        if (matrix.isSparse()) {
+            CsrStorage csr = matrix.csr();
+            for (int i = 0; i < rows; i++) {
+                for (int p = csr.rowPtr()[i]; p < csr.rowPtr()[i + 1]; p++) {
+                    data[i * cols + csr.colIdx()[p]] = (float) csr.values()[p];
+                }
+            }
+        } else {
+            double[] source = matrix.rawData();
+            for (int i = 0; i < rows; i++) {
+                int si = matrix.offset() + i * matrix.rowStride();
+                int cs = matrix.colStride();
+                for (int j = 0; j < cols; j++) {
+                    data[i * cols + j] = (float) source[si + j * cs];
+                }
+            }
+        }
+        return new FloatMatrix(data, rows, cols);
+    }
+
+    // Точное расширение до double
+    public Matrix toMatrix() {
+        double[] wide = new double[data.length];
+        for (int k = 0; k < wide.length; k++) {
+            wide[k] = data[k];
+        }
+        return Matrix.wrap(wide, rows, cols);
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+
+    public float get(int i, int j) {
+        Objects.checkIndex(i, rows);
+        Objects.checkIndex(j, cols);
+        return data[i * cols + j];
+    }
+
+    public float[] toArray() {
+        return data.clone();
+    }
+
+    float[] rawData() { return data; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder((int) Math.min(1 << 24, (long) rows * cols * 8 + rows));
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                MatrixFormat.appendFixed2(sb, data[i * cols + j]);
+                sb.append('\t');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,213 @@
+import java.util.Arrays;
+import java.util.Objects;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Определитель матрицы, которую правят по ячейке или строке. После полного LU-разложения хранится A^-1,
+// и каждая правка A + u v^T обновляет определитель по лемме о детерминанте, det(A + u v^T) = (1 + v^T A^-1 u) det A,
+// а обратную матрицу — по формуле Шермана–Моррисона; это O(n^2) вместо O(n^3) на правку.
+// Если множитель 1 + v^T A^-1 u близок к нулю (обновление теряет точность), матрица вырождена или накопилось
+// max(32, n) обновлений, следующая правка выполняет полное разложение заново
+public class IncrementalDeterminant {
+    private static final Logger logger = LogManager.getLogger(IncrementalDeterminant.class);
+    static final double UPDATE_TOLERANCE = 1e-6;
+    // Не реже чем раз в столько обновлений разложение пересчитывается, чтобы погрешность A^-1 не накапливалась
+    private static final int MIN_REFRESH_INTERVAL = 32;
+
+    private final int n;
+    private final double[] data;
+    private final int refreshInterval;
+    // null, если текущая матрица вырождена и обновлять нечего
+    private double[] inverse;
+    private double determinant;
+    private int updatesSinceFactorization;
+    private int updates;
+    private int factorizations;
+
+    public IncrementalDeterminant(Matrix matrix) {
+        this(matrix, ProgressMonitor.NONE);
+    }
+
+    // Прогресс отмечается только для начального разложения
+    public IncrementalDeterminant(Matrix matrix, ProgressMonitor monitor) {
+        if (matrix.getRows() != matrix.getCols()) {
+            logger.error("Определитель неквадратной матрицы {}x{} невозможен.", matrix.getRows(), matrix.getCols());
+            throw new MatrixException("Матрица должна быть квадратной и не пустой.");
+        }
+        this.n = matrix.getRows();
+        this.data = matrix.toArray();
+        this.refreshInterval = Math.max(MIN_REFRESH_INTERVAL, n);
+        factorize(monitor);
+    }
+
+    private void factorize(ProgressMonitor monitor) {
+        // LUDecomposition копирует элементы, поэтому data можно передать без копии
+        LUDecomposition lu = new LUDecomposition(Matrix.wrap(data, n, n), monitor);
+        determinant = lu.determinant();
+        inverse = lu.isSingular() ? null : lu.inverse().rawData();
+        updatesSinceFactorization = 0;
+        factorizations++;
+        logger.debug("Полное разложение матрицы {}x{}: определитель {}", n, n, determinant);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public synchronized double determinant() {
+        return determinant;
+    }
+
+    public synchronized double get(int i, int j) {
+        Objects.checkIndex(i, n);
+        Objects.checkIndex(j, n);
+        return data[i * n + j];
+    }
+
+    // Снимок текущей матрицы; дальнейшие правки его не меняют
+    public synchronized Matrix toMatrix() {
+        return Matrix.wrap(data.clone(), n, n);
+    }
+
+    // A(i, j) = value: u = delta * e_i, v = e_j, поэтому A^-1 u — столбец i, а v^T A^-1 — строка j обратной матрицы
+    public synchronized double set(int i, int j, double value) {
+        Objects.checkIndex(i, n);
+        Objects.checkIndex(j, n);
+        requireFinite(value);
+        double delta = value - data[i * n + j];
+        if (delta == 0.0) {
+            return determinant;
+        }
+        data[i * n + j] = value;
+        if (!canUpdate()) {
+            return refactorize();
+        }
+        double[] w = new double[n];
+        for (int k = 0; k < n; k++) {
+            w[k] = delta * inverse[k * n + i];
+        }
+        double[] z = Arrays.copyOfRange(inverse, j * n, j * n + n);
+        return apply(w, z, 1.0 + delta * inverse[j * n + i]);
+    }
+
+    // Потребует ли set(i, j, value) полного разложения O(n^3): вызывающий код может выполнить такую правку в фоне.
+    // Множитель обновления для ячейки считается за O(1), поэтому проверка дешевле самой правки
+    public synchronized boolean needsFactorization(int i, int j, double value) {
+        Objects.checkIndex(i, n);
+        Objects.checkIndex(j, n);
+        double delta = value - data[i * n + j];
+        if (delta == 0.0 || !Double.isFinite(value)) {
+            // Правка без изменений или некорректное значение: set вернёт результат или исключение сразу
+            return false;
+        }
+        if (!canUpdate()) {
+            return true;
+        }
+        double g = 1.0 + delta * inverse[j * n + i];
+        return !(Math.abs(g) >= UPDATE_TOLERANCE) || !Double.isFinite(g);
+    }
+
+    // Строка i заменяется целиком: u = e_i, v = новая строка - старая
+    public synchronized double setRow(int i, double[] values) {
+        Objects.checkIndex(i, n);
+        if (values.length != n) {
+            throw new MatrixException("Длина строки должна совпадать с размерностью матрицы.");
+        }
+        double[] difference = new double[n];
+        boolean changed = false;
+        for (int k = 0; k < n; k++) {
+            requireFinite(values[k]);
+            difference[k] = values[k] - data[i * n + k];
+            changed |= difference[k] != 0.0;
+        }
+        if (!changed) {
+            return determinant;
+        }
+        System.arraycopy(values, 0, data, i * n, n);
+        if (!canUpdate()) {
+            return refactorize();
+        }
+        double[] w = new double[n];
+        for (int k = 0; k < n; k++) {
+            w[k] = inverse[k * n + i];
+        }
+        double[] z = leftMultiply(difference);
+        return apply(w, z, 1.0 + z[i]);
+    }
+
+    // A += u v^T в общем виде
+    public synchronized double rankOneUpdate(double[] u, double[] v) {
+        if (u.length != n || v.length != n) {
+            throw new MatrixException("Длина векторов обновления должна совпадать с размерностью матрицы.");
+        }
+        for (int k = 0; k < n; k++) {
+            requireFinite(u[k]);
+            requireFinite(v[k]);
+        }
+        for (int i = 0; i < n; i++) {
+            if (u[i] != 0.0) {
+                VectorKernels.axpy(u[i], v, 0, data, i * n, n);
+            }
+        }
+        if (!canUpdate()) {
+            return refactorize();
+        }
+        double[] w = new double[n];
+        for (int k = 0; k < n; k++) {
+            w[k] = VectorKernels.dot(inverse, k * n, u, 0, n);
+        }
+        double[] z = leftMultiply(v);
+        return apply(w, z, 1.0 + VectorKernels.dot(v, 0, w, 0, n));
+    }
+
+    int getUpdates() {
+        return updates;
+    }
+
+    int getFactorizations() {
+        return factorizations;
+    }
+
+    private boolean canUpdate() {
+        return inverse != null && updatesSinceFactorization < refreshInterval;
+    }
+
+    private double refactorize() {
+        factorize(ProgressMonitor.NONE);
+        return determinant;
+    }
+
+    // v^T A^-1 как сумма строк обратной матрицы с весами v
+    private double[] leftMultiply(double[] v) {
+        double[] z = new double[n];
+        for (int k = 0; k < n; k++) {
+            if (v[k] != 0.0) {
+                VectorKernels.axpy(v[k], inverse, k * n, z, 0, n);
+            }
+        }
+        return z;
+    }
+
+    // w = A^-1 u, z = v^T A^-1, g = 1 + v^T A^-1 u; новая обратная A^-1 - w z^T / g
+    private double apply(double[] w, double[] z, double g) {
+        if (!(Math.abs(g) >= UPDATE_TOLERANCE) || !Double.isFinite(g)) {
+            logger.debug("Множитель обновления {} близок к нулю, выполняется полное разложение.", g);
+            return refactorize();
+        }
+        determinant *= g;
+        for (int k = 0; k < n; k++) {
+            if (w[k] != 0.0) {
+                VectorKernels.axpy(-w[k] / g, z, 0, inverse, k * n, n);
+            }
+        }
+        updatesSinceFactorization++;
+        updates++;
+        return determinant;
+    }
+
+    private static void requireFinite(double value) {
+        if (!Double.isFinite(value)) {
+            throw new MatrixException("Элемент матрицы должен быть конечным числом.");
+        }
+    }
+}
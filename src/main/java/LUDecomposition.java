@@ -0,0 +1,322 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Разложение PA = LU с частичным выбором ведущего элемента. Множители L хранятся под диагональю,
+// U — на диагонали и выше; одно разложение используется для определителя, решения систем и обращения
+public class LUDecomposition {
+    private static final Logger logger = LogManager.getLogger(LUDecomposition.class);
+    static final double PIVOT_TOLERANCE = 1e-9;
+    // Начиная с этого размера используется блочное разложение с параллельным обновлением хвостовой подматрицы
+    static final int BLOCKED_THRESHOLD = 2000;
+    static final int BLOCK_SIZE = 64;
+    private static final int UPDATE_COLS = 256;
+    // Первый параллельный шаг выполняет remaining / CALIBRATION_DIVISOR строк в вызывающем потоке для оценки ускорения
+    static final int CALIBRATION_DIVISOR = 128;
+
+    private final double[][] lu;
+    private final int[] pivot;
+    private final int n;
+    private int rowSwaps;
+    private boolean singular;
+    // Оценка однопоточного разложения в наносекундах; 0 — параллельных шагов не было
+    private long sequentialEstimateNanos;
+    private Double determinant;
+    private final ProgressMonitor monitor;
+
+    public LUDecomposition(Matrix matrix) {
+        this(matrix, ProgressMonitor.NONE);
+    }
+
+    // Прогресс отмечается по исключённым столбцам; отмена прерывает разложение с CancellationException
+    public LUDecomposition(Matrix matrix, ProgressMonitor monitor) {
+        this(matrix, null, 0, null, matrix.getRows() >= BLOCKED_THRESHOLD ? BLOCK_SIZE : 0, monitor);
+    }
+
+    LUDecomposition(Matrix matrix, ForkJoinPool pool, long threshold, LongAdder busyNanos) {
+        this(matrix, pool, threshold, busyNanos, matrix.getRows() >= BLOCKED_THRESHOLD ? BLOCK_SIZE : 0);
+    }
+
+    LUDecomposition(Matrix matrix, ForkJoinPool pool, long threshold, LongAdder busyNanos, int blockSize) {
+        this(matrix, pool, threshold, busyNanos, blockSize, ProgressMonitor.NONE);
+    }
+
+    // blockSize == 0 — классическое построчное исключение, иначе блочное с панелями указанной ширины
+    LUDecomposition(Matrix matrix, ForkJoinPool pool, long threshold, LongAdder busyNanos, int blockSize,
+                    ProgressMonitor monitor) {
+        if (matrix.getRows() != matrix.getCols()) {
+            logger.error("LU-разложение неквадратной матрицы {}x{} невозможно.", matrix.getRows(), matrix.getCols());
+            throw new MatrixException("Матрица должна быть квадратной и не пустой.");
+        }
+        this.n = matrix.getRows();
+        this.lu = matrix.getData();
+        this.pivot = new int[n];
+        this.monitor = monitor;
+        for (int i = 0; i < n; i++) {
+            pivot[i] = i;
+        }
+        monitor.begin(n);
+        if (blockSize > 0) {
+            factorizeBlocked(blockSize, pool != null ? pool : ForkJoinPool.commonPool(),
+                    busyNanos != null ? busyNanos : new LongAdder());
+        } else {
+            factorize(pool, threshold, busyNanos);
+        }
+    }
+
+    private void factorize(ForkJoinPool pool, long threshold, LongAdder busyNanos) {
+        double[][] A = lu;
+        for (int k = 0; k < n; k++) {
+            int pivotRow = k;
+            for (int i = k + 1; i < n; i++) {
+                if (Math.abs(A[i][k]) > Math.abs(A[pivotRow][k])) {
+                    pivotRow = i;
+                }
+            }
+            if (pivotRow != k) {
+                swapRows(k, pivotRow);
+                logger.trace("Перестановка строк {} и {}. Общее число перестановок: {}", k, pivotRow, rowSwaps);
+            }
+
+            if (Math.abs(A[k][k]) < PIVOT_TOLERANCE) {
+                // Дальнейшие множители не нужны: вырожденное разложение даёт только нулевой определитель
+                logger.debug("Опорный элемент слишком близок к нулю. Матрица вырождена.");
+                singular = true;
+                return;
+            }
+
+            int remaining = n - k - 1;
+            if (pool != null && (long) remaining * (n - k) >= threshold) {
+                final int pivotIndex = k;
+                int grain = Math.max(1, remaining / (pool.getParallelism() * 4));
+                int first = k + 1;
+                if (sequentialEstimateNanos == 0) {
+                    int rows = Math.max(1, remaining / CALIBRATION_DIVISOR);
+                    long start = System.nanoTime();
+                    eliminateRows(A, k, first, first + rows);
+                    sequentialEstimateNanos = calibrate(System.nanoTime() - start, (long) rows * remaining, busyNanos);
+                    first += rows;
+                }
+                pool.invoke(new RowRangeTask(first, n, grain,
+                        (from, to) -> eliminateRows(A, pivotIndex, from, to), busyNanos));
+            } else {
+                eliminateRows(A, k, k + 1, n);
+            }
+            monitor.worked(1);
+        }
+    }
+
+    // Правостороннее блочное разложение: факторизация панели, решение для блока U12 и обновление
+    // A22 -= L21 * U12 ранга blockSize, разбитое по полосам строк в пуле
+    private void factorizeBlocked(int blockSize, ForkJoinPool pool, LongAdder busyNanos) {
+        double[][] A = lu;
+        for (int kb = 0; kb < n; kb += blockSize) {
+            int panelEnd = Math.min(kb + blockSize, n);
+            for (int k = kb; k < panelEnd; k++) {
+                int pivotRow = k;
+                for (int i = k + 1; i < n; i++) {
+                    if (Math.abs(A[i][k]) > Math.abs(A[pivotRow][k])) {
+                        pivotRow = i;
+                    }
+                }
+                if (pivotRow != k) {
+                    swapRows(k, pivotRow);
+                }
+                if (Math.abs(A[k][k]) < PIVOT_TOLERANCE) {
+                    logger.debug("Опорный элемент слишком близок к нулю. Матрица вырождена.");
+                    singular = true;
+                    return;
+                }
+                double[] pivotRowData = A[k];
+                double pivotValue = pivotRowData[k];
+                for (int i = k + 1; i < n; i++) {
+                    double[] row = A[i];
+                    double factor = row[k] / pivotValue;
+                    row[k] = factor;
+                    VectorKernels.axpy(-factor, pivotRowData, k + 1, row, k + 1, panelEnd - k - 1);
+                }
+            }
+            monitor.worked(panelEnd - kb);
+            if (panelEnd == n) {
+                break;
+            }
+            // U12 = L11^-1 * A12, L11 — единичная нижнетреугольная
+            for (int k = kb; k < panelEnd; k++) {
+                double[] pivotRowData = A[k];
+                for (int i = k + 1; i < panelEnd; i++) {
+                    double[] row = A[i];
+                    VectorKernels.axpy(-row[k], pivotRowData, panelEnd, row, panelEnd, n - panelEnd);
+                }
+            }
+            int from = kb;
+            int to = panelEnd;
+            int remaining = n - panelEnd;
+            int grain = Math.max(16, remaining / (pool.getParallelism() * 4));
+            int first = panelEnd;
+            if (sequentialEstimateNanos == 0) {
+                int rows = Math.max(1, remaining / CALIBRATION_DIVISOR);
+                long start = System.nanoTime();
+                updateTrailing(A, from, to, first, first + rows);
+                sequentialEstimateNanos = calibrate(System.nanoTime() - start, (long) rows * (to - from) * remaining, busyNanos);
+                first += rows;
+            }
+            pool.invoke(new RowRangeTask(first, n, grain,
+                    (rowFrom, rowTo) -> updateTrailing(A, from, to, rowFrom, rowTo), busyNanos));
+        }
+    }
+
+    // Скорость блока, выполненного в вызывающем потоке (элементов axpy в наносекунду), переносится на весь объём
+    // исключения: sum_{m < n} m^2 ~ n^3 / 3 элементов при любом разбиении на панели
+    private long calibrate(long elapsedNanos, long elements, LongAdder busyNanos) {
+        if (busyNanos != null) {
+            busyNanos.add(elapsedNanos);
+        }
+        double total = (double) (n - 1) * n * (2.0 * n - 1) / 6;
+        return Math.max(1, (long) (elapsedNanos * total / Math.max(1, elements)));
+    }
+
+    long sequentialEstimateNanos() {
+        return sequentialEstimateNanos;
+    }
+
+    private void updateTrailing(double[][] A, int panelFrom, int panelTo, int rowFrom, int rowTo) {
+        for (int jj = panelTo; jj < n; jj += UPDATE_COLS) {
+            int jEnd = Math.min(jj + UPDATE_COLS, n);
+            for (int i = rowFrom; i < rowTo; i++) {
+                double[] row = A[i];
+                for (int k = panelFrom; k < panelTo; k++) {
+                    double factor = row[k];
+                    if (factor == 0.0) {
+                        continue;
+                    }
+                    VectorKernels.axpy(-factor, A[k], jj, row, jj, jEnd - jj);
+                }
+            }
+        }
+    }
+
+    private void swapRows(int k, int pivotRow) {
+        double[] temp = lu[k];
+        lu[k] = lu[pivotRow];
+        lu[pivotRow] = temp;
+        int index = pivot[k];
+        pivot[k] = pivot[pivotRow];
+        pivot[pivotRow] = index;
+        rowSwaps++;
+    }
+
+    static void eliminateRows(double[][] A, int k, int from, int to) {
+        double[] pivotRow = A[k];
+        for (int i = from; i < to; i++) {
+            double[] row = A[i];
+            double factor = row[k] / pivotRow[k];
+            row[k] = factor;
+            // row - factor * p и row + (-factor) * p совпадают до бита
+            VectorKernels.axpy(-factor, pivotRow, k + 1, row, k + 1, row.length - k - 1);
+        }
+    }
+
+    public boolean isSingular() {
+        return singular;
+    }
+
+    public int[] getPivot() {
+        return pivot.clone();
+    }
+
+    public double determinant() {
+        if (determinant == null) {
+            double result = 0.0;
+            if (!singular) {
+                result = 1.0;
+                for (int i = 0; i < n; i++) {
+                    result *= lu[i][i];
+                }
+                if (rowSwaps % 2 != 0) {
+                    result = -result;
+                }
+            }
+            determinant = result;
+        }
+        return determinant;
+    }
+
+    // Знак определителя: -1, 0 или 1
+    public int determinantSign() {
+        if (singular) {
+            return 0;
+        }
+        int sign = rowSwaps % 2 == 0 ? 1 : -1;
+        for (int i = 0; i < n; i++) {
+            if (lu[i][i] < 0) {
+                sign = -sign;
+            }
+        }
+        return sign;
+    }
+
+    // ln|det A| без переполнения, которое даёт прямое произведение диагонали при больших n
+    public double logAbsDeterminant() {
+        if (singular) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) {
+            sum += Math.log(Math.abs(lu[i][i]));
+        }
+        return sum;
+    }
+
+    public Matrix solve(Matrix b) {
+        if (b.getRows() != n) {
+            logger.error("Размерность правой части {}x{} не согласована с матрицей {}x{}.", b.getRows(), b.getCols(), n, n);
+            throw new MatrixException("Количество строк правой части должно совпадать с размерностью матрицы.");
+        }
+        if (singular) {
+            logger.error("Решение системы с вырожденной матрицей {}x{} невозможно.", n, n);
+            throw new MatrixException("Матрица вырождена, решение невозможно.");
+        }
+        int m = b.getCols();
+        double[][] x = new double[n][];
+        for (int i = 0; i < n; i++) {
+            x[i] = b.row(pivot[i]).toArray();
+        }
+        // Прямой ход L y = P b, затем обратный U x = y; все правые части обрабатываются строками сразу
+        for (int k = 0; k < n; k++) {
+            double[] xk = x[k];
+            for (int i = k + 1; i < n; i++) {
+                double factor = lu[i][k];
+                if (factor != 0.0) {
+                    VectorKernels.axpy(-factor, xk, 0, x[i], 0, m);
+                }
+            }
+        }
+        for (int k = n - 1; k >= 0; k--) {
+            double[] xk = x[k];
+            double diagonal = lu[k][k];
+            for (int j = 0; j < m; j++) {
+                xk[j] /= diagonal;
+            }
+            for (int i = 0; i < k; i++) {
+                double factor = lu[i][k];
+                if (factor != 0.0) {
+                    VectorKernels.axpy(-factor, xk, 0, x[i], 0, m);
+                }
+            }
+        }
+        double[] result = new double[n * m];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(x[i], 0, result, i * m, m);
+        }
+        return Matrix.wrap(result, n, m);
+    }
+
+    public Matrix inverse() {
+        double[] identity = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            identity[i * n + i] = 1.0;
+        }
+        return solve(Matrix.wrap(identity, n, n));
+    }
+}
@@ -1,15 +1,30 @@
-import java.util.stream.IntStream;
+import java.util.Arrays;
+import java.util.Objects;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 public class Matrix {
     private static final Logger logger = LogManager.getLogger(Matrix.class);
-    private final double[][] data;
+    private static final long HASH_SEED = 0x27D4EB2F165667C5L;
+    // Элемент (i, j) хранится в data[offset + i * rowStride + j * colStride]
+    private final double[] data;
+    private final int offset;
+    private final int rowStride;
+    private final int colStride;
     private final int rows;
     private final int cols;
+    // Для разреженных матриц плотное хранение не используется, элементы лежат в CSR
+    private final CsrStorage sparse;
+    // Массив принадлежит MutableMatrix и может измениться: хеш содержимого не запоминается
+    private final boolean mutable;
+    // Хеш содержимого, вычисляется при первом обращении; 0 — ещё не вычислен
+    private volatile long contentHash;
 
     public Matrix(double[][] data) {
-        logger.debug("Инициализация нового объекта Matrix.");
+        if (MatrixMetrics.hotPathLogging() && logger.isDebugEnabled()) {
+            logger.debug("Инициализация нового объекта Matrix.");
+        }
+        long start = System.nanoTime();
 
         if (data == null || data.length == 0 || data[0].length == 0) {
             logger.error("Ошибка инициализации: Матрица не может быть пустой.");
@@ -18,7 +33,12 @@ public class Matrix {
 
         this.rows = data.length;
         this.cols = data[0].length;
-        this.data = new double[rows][cols];
+        this.data = new double[Math.multiplyExact(rows, cols)];
+        this.offset = 0;
+        this.rowStride = cols;
+        this.colStride = 1;
+        this.sparse = null;
+        this.mutable = false;
 
         for (int i = 0; i < rows; i++) {
             if (data[i].length != cols) {
@@ -26,33 +46,289 @@ public class Matrix {
                         i, data[i].length, cols);
                 throw new MatrixException("Входной массив не является прямоугольным.");
             }
-            System.arraycopy(data[i], 0, this.data[i], 0, cols);
+            System.arraycopy(data[i], 0, this.data, i * cols, cols);
+        }
+        MatrixMetrics.record("create", start, 0, 8L * this.data.length, this.data.length);
+        if (MatrixMetrics.hotPathLogging() && logger.isInfoEnabled()) {
+            logger.info("Матрица успешно инициализирована. Размерность: {}x{}", this.rows, this.cols);
+        }
+    }
+
+    Matrix(double[] data, int offset, int rows, int cols, int rowStride, int colStride) {
+        this(data, offset, rows, cols, rowStride, colStride, false);
+    }
+
+    Matrix(double[] data, int offset, int rows, int cols, int rowStride, int colStride, boolean mutable) {
+        this.mutable = mutable;
+        this.data = data;
+        this.offset = offset;
+        this.rows = rows;
+        this.cols = cols;
+        this.rowStride = rowStride;
+        this.colStride = colStride;
+        this.sparse = null;
+    }
+
+    private Matrix(CsrStorage sparse) {
+        this.data = null;
+        this.offset = 0;
+        this.rows = sparse.getRows();
+        this.cols = sparse.getCols();
+        this.rowStride = 0;
+        this.colStride = 0;
+        this.sparse = sparse;
+        this.mutable = false;
+    }
+
+    public static Matrix sparse(int rows, int cols, int[] rowPtr, int[] colIdx, double[] values) {
+        return new Matrix(CsrStorage.validated(rows, cols, rowPtr.clone(), colIdx.clone(), values.clone()));
+    }
+
+    static Matrix wrapSparse(CsrStorage storage) {
+        return new Matrix(storage);
+    }
+
+    // Оборачивает плотный массив в построчном порядке без копирования (для результатов вычислительных ядер)
+    static Matrix wrap(double[] data, int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new MatrixException("Матрица не может быть пустой.");
+        }
+        if ((long) rows * cols > data.length) {
+            throw new MatrixException("Размер массива не соответствует размерности матрицы.");
+        }
+        return new Matrix(data, 0, rows, cols, cols, 1);
+    }
+
+    // Массив под плотный результат rows x cols; размер сверх int — ошибка матрицы, а не переполнение индекса
+    static double[] newDenseData(int rows, int cols) {
+        try {
+            return new double[Math.multiplyExact(rows, cols)];
+        } catch (ArithmeticException e) {
+            logger.error("Результат {}x{} не помещается в один массив.", rows, cols);
+            throw new MatrixException("Слишком большая матрица: " + rows + "x" + cols);
         }
-        logger.info("Матрица успешно инициализирована. Размерность: {}x{}", this.rows, this.cols);
     }
 
     public int getRows() { return rows; }
     public int getCols() { return cols; }
-    public double get(int i, int j) { return data[i][j]; }
+
+    public double get(int i, int j) {
+        Objects.checkIndex(i, rows);
+        Objects.checkIndex(j, cols);
+        if (sparse != null) {
+            return sparse.get(i, j);
+        }
+        return data[offset + i * rowStride + j * colStride];
+    }
 
     public double[][] getData() {
         logger.trace("Создание глубокой копии данных матрицы ({}x{})", rows, cols);
         double[][] copy = new double[rows][cols];
         for (int i = 0; i < rows; i++) {
-            System.arraycopy(this.data[i], 0, copy[i], 0, cols);
+            copyRow(i, copy[i], 0);
+        }
+        return copy;
+    }
+
+    // Копия элементов в построчном порядке в один массив длины rows * cols
+    public double[] toArray() {
+        double[] copy = new double[Math.multiplyExact(rows, cols)];
+        for (int i = 0; i < rows; i++) {
+            copyRow(i, copy, i * cols);
         }
         return copy;
     }
 
+    public Matrix submatrix(int rowFrom, int colFrom, int rowCount, int colCount) {
+        if (rowFrom < 0 || colFrom < 0 || rowCount <= 0 || colCount <= 0
+                || rowFrom + rowCount > rows || colFrom + colCount > cols) {
+            logger.error("Подматрица [{}+{}, {}+{}] выходит за границы матрицы {}x{}.",
+                    rowFrom, rowCount, colFrom, colCount, rows, cols);
+            throw new MatrixException("Подматрица выходит за границы матрицы.");
+        }
+        if (sparse != null) {
+            return new Matrix(sparse.submatrix(rowFrom, colFrom, rowCount, colCount));
+        }
+        return new Matrix(data, offset + rowFrom * rowStride + colFrom * colStride,
+                rowCount, colCount, rowStride, colStride, mutable);
+    }
+
+    public Matrix row(int i) {
+        return submatrix(i, 0, 1, cols);
+    }
+
+    public Matrix column(int j) {
+        return submatrix(0, j, rows, 1);
+    }
+
+    public Matrix transpose() {
+        if (sparse != null) {
+            return new Matrix(sparse.transpose());
+        }
+        return new Matrix(data, offset, cols, rows, colStride, rowStride, mutable);
+    }
+
+    // Представление без копирования, если строки уже лежат подряд; иначе плотная копия
+    public Matrix compact() {
+        if (sparse != null || isCompact()) {
+            return this;
+        }
+        return new Matrix(toArray(), 0, rows, cols, cols, 1);
+    }
+
+    public boolean isSparse() {
+        return sparse != null;
+    }
+
+    public Matrix toDense() {
+        if (sparse == null) {
+            return this;
+        }
+        return new Matrix(toArray(), 0, rows, cols, cols, 1);
+    }
+
+    public Matrix toSparse() {
+        if (sparse != null) {
+            return this;
+        }
+        return new Matrix(CsrStorage.fromDense(this));
+    }
+
+    // 64-битный хеш содержимого (размеры, представление и все элементы) для ключей кэша результатов.
+    // Для неизменяемых матриц вычисляется один раз; четыре независимые цепочки позволяют процессору
+    // перекрывать умножения, поэтому хеширование близко по скорости к чтению памяти
+    public long contentHash() {
+        long hash = contentHash;
+        if (hash == 0) {
+            hash = computeContentHash();
+            if (hash == 0) {
+                hash = 1;
+            }
+            if (!mutable) {
+                contentHash = hash;
+            }
+        }
+        return hash;
+    }
+
+    boolean isMutable() {
+        return mutable;
+    }
+
+    // Поэлементное сравнение с тем же смыслом равенства, что у contentHash (по битам, как Arrays.equals):
+    // подтверждает совпадение хешей в кэше результатов и при склейке запросов сервера
+    boolean contentEquals(Matrix other) {
+        if (this == other) {
+            return true;
+        }
+        if (rows != other.rows || cols != other.cols || (sparse == null) != (other.sparse == null)) {
+            return false;
+        }
+        if (sparse != null) {
+            int nnz = sparse.nonZeros();
+            return nnz == other.sparse.nonZeros()
+                    && Arrays.equals(sparse.rowPtr(), 0, rows + 1, other.sparse.rowPtr(), 0, rows + 1)
+                    && Arrays.equals(sparse.colIdx(), 0, nnz, other.sparse.colIdx(), 0, nnz)
+                    && Arrays.equals(sparse.values(), 0, nnz, other.sparse.values(), 0, nnz);
+        }
+        for (int i = 0; i < rows; i++) {
+            int start = offset + i * rowStride;
+            int otherStart = other.offset + i * other.rowStride;
+            if (colStride == 1 && other.colStride == 1) {
+                if (!Arrays.equals(data, start, start + cols, other.data, otherStart, otherStart + cols)) {
+                    return false;
+                }
+                continue;
+            }
+            for (int j = 0; j < cols; j++) {
+                if (Double.doubleToLongBits(data[start + j * colStride])
+                        != Double.doubleToLongBits(other.data[otherStart + j * other.colStride])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private long computeContentHash() {
+        long h0 = HASH_SEED, h1 = HASH_SEED + 1, h2 = HASH_SEED + 2, h3 = HASH_SEED + 3;
+        if (sparse != null) {
+            for (int i = 0; i < rows; i++) {
+                h0 = mixHash(h0, sparse.rowPtr()[i + 1]);
+            }
+            int nnz = sparse.nonZeros();
+            for (int p = 0; p < nnz; p++) {
+                h1 = mixHash(h1, sparse.colIdx()[p]);
+                h2 = mixHash(h2, Double.doubleToLongBits(sparse.values()[p]));
+            }
+        } else {
+            for (int i = 0; i < rows; i++) {
+                int start = offset + i * rowStride;
+                int j = 0;
+                for (; j + 3 < cols; j += 4) {
+                    int k = start + j * colStride;
+                    h0 = mixHash(h0, Double.doubleToLongBits(data[k]));
+                    h1 = mixHash(h1, Double.doubleToLongBits(data[k + colStride]));
+                    h2 = mixHash(h2, Double.doubleToLongBits(data[k + 2 * colStride]));
+                    h3 = mixHash(h3, Double.doubleToLongBits(data[k + 3 * colStride]));
+                }
+                for (; j < cols; j++) {
+                    h0 = mixHash(h0, Double.doubleToLongBits(data[start + j * colStride]));
+                }
+            }
+        }
+        long hash = Long.rotateLeft(h0, 1) + Long.rotateLeft(h1, 7) + Long.rotateLeft(h2, 12) + Long.rotateLeft(h3, 18);
+        hash = mixHash(hash, ((long) rows << 32) | cols);
+        hash = mixHash(hash, sparse != null ? 1 : 0);
+        // Финальное перемешивание, как в SplitMix64
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    private static long mixHash(long accumulator, long value) {
+        return Long.rotateLeft(accumulator + value * 0xC2B2AE3D27D4EB4FL, 31) * 0x9E3779B185EBCA87L;
+    }
+
+    boolean isCompact() {
+        return sparse == null && colStride == 1 && rowStride == cols;
+    }
+
+    boolean isRowContiguous() {
+        return sparse == null && (colStride == 1 || cols == 1);
+    }
+
+    double[] rawData() { return data; }
+    int offset() { return offset; }
+    int rowStride() { return rowStride; }
+    int colStride() { return colStride; }
+    CsrStorage csr() { return sparse; }
+
+    private void copyRow(int i, double[] target, int targetOffset) {
+        if (sparse != null) {
+            sparse.copyRow(i, target, targetOffset);
+            return;
+        }
+        int start = offset + i * rowStride;
+        if (colStride == 1) {
+            System.arraycopy(data, start, target, targetOffset, cols);
+        } else {
+            for (int j = 0; j < cols; j++) {
+                target[targetOffset + j] = data[start + j * colStride];
+            }
+        }
+    }
+
     public String toString() {
         logger.trace("Генерация строкового представления матрицы {}x{}", rows, cols);
-        StringBuilder sb = new StringBuilder();
-        IntStream.range(0, rows).forEach(i -> {
-            IntStream.range(0, cols).forEach(j ->
-                    sb.append(String.format("%.2f", data[i][j])).append("\t")
-            );
-            sb.append("\n");
-        });
+        StringBuilder sb = new StringBuilder((int) Math.min(1 << 24, (long) rows * cols * 8 + rows));
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                MatrixFormat.appendFixed2(sb, get(i, j));
+                sb.append('\t');
+            }
+            sb.append('\n');
+        }
         return sb.toString();
     }
-}
\ No newline at end of file
+}
@@ -1,4 +1,5 @@
 import javafx.application.Application;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -8,6 +9,10 @@ import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import java.io.File;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -15,11 +20,29 @@ public class MatrixApp extends Application {
     private static final Logger logger = LogManager.getLogger(MatrixApp.class);
     private Matrix matrixA;
     private Matrix matrixB;
+    // Разложения для пересчёта определителя после правки ячеек; создаются при первой правке матрицы
+    private IncrementalDeterminant determinantA;
+    private IncrementalDeterminant determinantB;
     private TextField fileAPath;
-    private TextArea matrixADisplay;
+    private MatrixGridView matrixADisplay;
+    private Label matrixAStatus;
     private TextField fileBPath;
-    private TextArea matrixBDisplay;
-    private TextArea resultArea;
+    private MatrixGridView matrixBDisplay;
+    private Label matrixBStatus;
+    private MatrixGridView resultGrid;
+    private Label resultStatus;
+    private ProgressBar progressBar;
+    private Button cancelButton;
+    // Загрузка и вычисления выполняются в фоне; поток JavaFX только запускает задачу и отображает результат
+    private final ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() / 2)), runnable -> {
+                Thread thread = new Thread(runnable, "matrix-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private BackgroundTask<?> currentTask;
+    // Фоновая правка с полным разложением ещё не завершена: следующие правки ждут её, иначе она была бы потеряна
+    private boolean editPending;
 
     public static void main(String[] args) {
         launch(args);
@@ -40,6 +63,15 @@ public class MatrixApp extends Application {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        if (currentTask != null) {
+            currentTask.cancel();
+        }
+        executor.shutdownNow();
+        logger.info("--- Приложение Matrix Calculator завершено. ---");
+    }
+
     private VBox createMatrixPanel(String name, Runnable loadAction) {
         TextField pathField = new TextField();
         pathField.setPromptText("Путь к файлу " + name + "...");
@@ -47,23 +79,27 @@ public class MatrixApp extends Application {
         selectButton.setOnAction(e -> selectFile(pathField));
         Button loadButton = new Button("Загрузить матрицу");
         loadButton.setOnAction(e -> loadAction.run());
-        TextArea displayArea = new TextArea("Здесь вы увидите свою загруженную матрицу (или нет)");
-        displayArea.setEditable(false);
+        MatrixGridView displayArea = new MatrixGridView("Здесь вы увидите свою загруженную матрицу (или нет)");
+        displayArea.setOnCellEdit((row, col, value) -> editCell(name, row, col, value));
         displayArea.setPrefHeight(250);
         displayArea.setPrefWidth(500);
+        Label statusLabel = new Label();
 
         if ("A".equals(name)) {
             this.fileAPath = pathField;
             this.matrixADisplay = displayArea;
+            this.matrixAStatus = statusLabel;
         } else {
             this.fileBPath = pathField;
             this.matrixBDisplay = displayArea;
+            this.matrixBStatus = statusLabel;
         }
 
         VBox layout = new VBox(5,
                 new Label("Матрица " + name),
                 pathField,
                 new HBox(10, selectButton, loadButton),
+                statusLabel,
                 displayArea
         );
         return layout;
@@ -76,11 +112,11 @@ public class MatrixApp extends Application {
         operationPane.setPadding(new Insets(10, 0, 10, 0));
 
         Button addButton = new Button("Сложение матриц");
-        addButton.setOnAction(e -> performOperation(() -> MatrixOperations.sum(matrixA, matrixB), "Сложение"));
+        addButton.setOnAction(e -> performOperation(MatrixOperations::sum, "Сложение"));
         Button subtractButton = new Button("Вычитание матриц");
-        subtractButton.setOnAction(e -> performOperation(() -> MatrixOperations.subtract(matrixA, matrixB), "Вычитание"));
+        subtractButton.setOnAction(e -> performOperation(MatrixOperations::subtract, "Вычитание"));
         Button multiplyButton = new Button("Умножение матриц");
-        multiplyButton.setOnAction(e -> performOperation(() -> MatrixOperations.multiply(matrixA, matrixB), "Умножение"));
+        multiplyButton.setOnAction(e -> performOperation(MatrixOperations::multiply, "Умножение"));
         Button detAButton = new Button("Определитель матрицы 'A'");
         detAButton.setOnAction(e -> calculateDeterminant(matrixA, "A"));
         Button detBButton = new Button("Определитель матрицы 'B'");
@@ -92,17 +128,26 @@ public class MatrixApp extends Application {
         operationPane.add(detAButton, 0, 1);
         operationPane.add(detBButton, 1, 1);
 
-        resultArea = new TextArea("  Результаты операций   ");
-        resultArea.setEditable(false);
-        resultArea.setPrefHeight(250);
+        progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(300);
+        progressBar.setVisible(false);
+        cancelButton = new Button("Отмена");
+        cancelButton.setDisable(true);
+        cancelButton.setOnAction(e -> cancelCurrentTask());
+
+        resultGrid = new MatrixGridView("  Результаты операций   ");
+        resultGrid.setPrefHeight(250);
+        resultStatus = new Label();
 
         VBox layout = new VBox(5,
                 new Separator(),
                 new Label("  Операции  "),
                 operationPane,
+                new HBox(10, progressBar, cancelButton),
                 new Separator(),
                 new Label("  Результат вывода   "),
-                resultArea
+                resultStatus,
+                resultGrid
         );
         return layout;
     }
@@ -119,15 +164,22 @@ public class MatrixApp extends Application {
 
     private void loadMatrixA() {
         logger.info("Пользователь инициировал загрузку матрицы A.");
-        matrixA = loadAndDisplayMatrix(fileAPath, matrixADisplay, "A");
+        loadAndDisplayMatrix(fileAPath, matrixADisplay, matrixAStatus, "A", matrix -> {
+            matrixA = matrix;
+            determinantA = null;
+        });
     }
 
     private void loadMatrixB() {
         logger.info("Пользователь инициировал загрузку матрицы B.");
-        matrixB = loadAndDisplayMatrix(fileBPath, matrixBDisplay, "B");
+        loadAndDisplayMatrix(fileBPath, matrixBDisplay, matrixBStatus, "B", matrix -> {
+            matrixB = matrix;
+            determinantB = null;
+        });
     }
 
-    private Matrix loadAndDisplayMatrix(TextField pathField, TextArea displayArea, String name) {
+    private void loadAndDisplayMatrix(TextField pathField, MatrixGridView displayArea, Label statusLabel, String name,
+                                      Consumer<Matrix> onLoaded) {
         String path = pathField.getText();
         if (path.isEmpty()) {
             logger.warn("Невозможно загрузить матрицу {} - Путь к файлу не указан.", name);
@@ -135,28 +187,24 @@ public class MatrixApp extends Application {
                     "Ошибка загрузки матрицы " + name,
                     "Путь к файлу не указан."
             );
-            return null;
+            return;
         }
 
-        try {
-            logger.debug("Попытка загрузки матрицы {} из пути: {}", name, path);
-            Matrix matrix = MatrixIO.readMatrixFromFile(path);
-            displayArea.setText(String.format("✅ %s загружена (%dx%d):\n\n%s",
-                    name, matrix.getRows(), matrix.getCols(), matrix.toString()));
-            logger.info("Матрица {} успешно загружена. Размерность: {}x{}",
-                    name, matrix.getRows(), matrix.getCols());
-            return matrix;
-        } catch (MatrixException e) {
-            logger.error("Ошибка загрузки матрицы {}: {}", name, e.getMessage());
-            ErrorDialog.show(
-                    "Ошибка загрузки матрицы " + name,
-                    e.getMessage()
-            );
-            return null;
-        }
+        logger.debug("Попытка загрузки матрицы {} из пути: {}", name, path);
+        statusLabel.setText("Загрузка матрицы " + name + "...");
+        runInBackground("Ошибка загрузки матрицы " + name,
+                monitor -> MatrixIO.readMatrixFromFile(path, monitor),
+                matrix -> {
+                    onLoaded.accept(matrix);
+                    statusLabel.setText(String.format("✅ %s загружена (%dx%d):", name, matrix.getRows(), matrix.getCols()));
+                    displayArea.setMatrix(matrix);
+                    logger.info("Матрица {} успешно загружена. Размерность: {}x{}",
+                            name, matrix.getRows(), matrix.getCols());
+                },
+                statusLabel);
     }
 
-    private void performOperation(MatrixSupplier operation, String opName) {
+    private void performOperation(MatrixOperation operation, String opName) {
         logger.info("Пользователь инициировал операцию: {}", opName);
 
         if (matrixA == null || matrixB == null) {
@@ -168,21 +216,19 @@ public class MatrixApp extends Application {
             return;
         }
 
-        try {
-            logger.debug("Выполнение операции {} для A({}x{}) и B({}x{})",
-                    opName, matrixA.getRows(), matrixA.getCols(), matrixB.getRows(), matrixB.getCols());
-            Matrix result = operation.get();
-            String output = String.format("     Результат операции %s   \n\n", opName) +
-                    result.toString();
-            resultArea.setText(output);
-            logger.info("Операция {} успешно завершена и результат отображен.", opName);
-        } catch (MatrixException e) {
-            logger.error("Ошибка при выполнении операции {}: {}", opName, e.getMessage());
-            ErrorDialog.show(
-                    "Ошибка операции " + opName,
-                    e.getMessage()
-            );
-        }
+        Matrix a = matrixA;
+        Matrix b = matrixB;
+        logger.debug("Выполнение операции {} для A({}x{}) и B({}x{})",
+                opName, a.getRows(), a.getCols(), b.getRows(), b.getCols());
+        resultStatus.setText(String.format("     Выполняется операция %s...   ", opName));
+        runInBackground("Ошибка операции " + opName,
+                monitor -> operation.apply(a, b, monitor),
+                result -> {
+                    resultStatus.setText(String.format("     Результат операции %s   ", opName));
+                    resultGrid.setMatrix(result);
+                    logger.info("Операция {} успешно завершена и результат отображен.", opName);
+                },
+                resultStatus);
     }
 
     private void calculateDeterminant(Matrix matrix, String name) {
@@ -196,26 +242,196 @@ public class MatrixApp extends Application {
             );
             return;
         }
+        logger.debug("Запуск расчета определителя для Матрицы {} ({}x{})",
+                name, matrix.getRows(), matrix.getCols());
+        resultStatus.setText("  Вычисляется определитель матрицы " + name + "...");
+        runInBackground("Ошибка вычисления определителя матрицы " + name,
+                monitor -> MatrixOperations.determinant(matrix, monitor),
+                det -> {
+                    resultStatus.setText(String.format("  Определитель матрицы   %s:   Det(%s) = %.4f", name, name, det));
+                    resultGrid.setMatrix(matrix);
+                    logger.info("Определитель Матрицы {} успешно вычислен: Det={}", name, det);
+                },
+                resultStatus);
+    }
+
+    // Правка ячейки: для квадратной матрицы определитель обновляется за O(n^2) через IncrementalDeterminant в потоке JavaFX.
+    // Правки, которым нужно полное разложение (первая после загрузки, плановое переразложение, потеря точности
+    // обновления, вырожденная матрица), строят новый трекер по изменённой матрице в фоне с прогрессом и отменой;
+    // результат принимается только после успеха, поэтому отмена или ошибка не меняют текущую матрицу
+    private void editCell(String name, int row, int col, double value) {
+        boolean isA = "A".equals(name);
+        Matrix matrix = isA ? matrixA : matrixB;
+        if (matrix == null) {
+            return;
+        }
+        logger.info("Пользователь изменил элемент ({}, {}) матрицы {} на {}", row + 1, col + 1, name, value);
+        MatrixGridView display = isA ? matrixADisplay : matrixBDisplay;
+        Label status = isA ? matrixAStatus : matrixBStatus;
+        if (matrix.getRows() != matrix.getCols()) {
+            double[] data = matrix.toArray();
+            data[row * matrix.getCols() + col] = value;
+            Matrix edited = Matrix.wrap(data, matrix.getRows(), matrix.getCols());
+            if (isA) {
+                matrixA = edited;
+            } else {
+                matrixB = edited;
+            }
+            display.replaceMatrix(edited);
+            status.setText(String.format("✏ %s(%d, %d) = %s", name, row + 1, col + 1, value));
+            return;
+        }
+        if (editPending) {
+            ErrorDialog.show("Ошибка изменения матрицы " + name, "Дождитесь завершения предыдущей правки или отмените её.");
+            display.replaceMatrix(matrix);
+            return;
+        }
+        IncrementalDeterminant tracker = isA ? determinantA : determinantB;
+        if (tracker != null && !tracker.needsFactorization(row, col, value)) {
+            applyEdit(tracker, isA, name, row, col, value);
+            return;
+        }
+        if (!Double.isFinite(value)) {
+            ErrorDialog.show("Ошибка изменения матрицы " + name, "Элемент матрицы должен быть конечным числом.");
+            return;
+        }
+        double[] data = matrix.toArray();
+        data[row * matrix.getCols() + col] = value;
+        Matrix edited = Matrix.wrap(data, matrix.getRows(), matrix.getCols());
+        String previousStatus = status.getText();
+        status.setText("Обновление матрицы " + name + "...");
+        boolean started = runInBackground("Ошибка изменения матрицы " + name,
+                monitor -> new IncrementalDeterminant(edited, monitor),
+                created -> {
+                    // Матрица могла быть загружена или изменена заново, пока строилось разложение
+                    if ((isA ? matrixA : matrixB) != matrix) {
+                        return;
+                    }
+                    if (isA) {
+                        determinantA = created;
+                    } else {
+                        determinantB = created;
+                    }
+                    showEdit(created, isA, name, row, col, value, created.determinant());
+                },
+                status);
+        if (started) {
+            editPending = true;
+        } else {
+            status.setText(previousStatus);
+        }
+    }
+
+    private void applyEdit(IncrementalDeterminant tracker, boolean isA, String name, int row, int col, double value) {
+        double determinant;
         try {
-            logger.debug("Запуск расчета определителя для Матрицы {} ({}x{})",
-                    name, matrix.getRows(), matrix.getCols());
-            double det = MatrixOperations.determinant(matrix);
-            String output = String.format("  Определитель матрицы   %s \n\n" +
-                            "Матрица:\n%s\n" +
-                            "Det(%s) = %.4f\n",
-                    name, matrix.toString(), name, det);
-            resultArea.setText(output);
-            logger.info("Определитель Матрицы {} успешно вычислен: Det={:.4f}", name, det);
+            determinant = tracker.set(row, col, value);
         } catch (MatrixException e) {
-            logger.error("Ошибка при вычислении определителя Матрицы {}: {}", name, e.getMessage());
-            ErrorDialog.show(
-                    "Ошибка вычисления определителя матрицы " + name,
-                    e.getMessage()
-            );
+            logger.error("Ошибка изменения матрицы {}: {}", name, e.getMessage());
+            ErrorDialog.show("Ошибка изменения матрицы " + name, e.getMessage());
+            return;
+        }
+        showEdit(tracker, isA, name, row, col, value, determinant);
+    }
+
+    private void showEdit(IncrementalDeterminant tracker, boolean isA, String name, int row, int col, double value,
+                          double determinant) {
+        Matrix edited = tracker.toMatrix();
+        if (isA) {
+            matrixA = edited;
+        } else {
+            matrixB = edited;
+        }
+        (isA ? matrixADisplay : matrixBDisplay).replaceMatrix(edited);
+        (isA ? matrixAStatus : matrixBStatus).setText(String.format("✏ %s(%d, %d) = %s:   Det(%s) = %.4f",
+                name, row + 1, col + 1, value, name, determinant));
+        logger.info("Определитель матрицы {} после правки: Det={}", name, determinant);
+    }
+
+    // Одновременно выполняется одна задача: новая операция во время текущей не запускается, метод возвращает false
+    private <T> boolean runInBackground(String errorTitle, BackgroundWork<T> work, Consumer<T> onSuccess, Label statusLabel) {
+        if (currentTask != null && currentTask.isRunning()) {
+            ErrorDialog.show(errorTitle, "Дождитесь завершения текущей операции или отмените её.");
+            return false;
+        }
+        BackgroundTask<T> task = new BackgroundTask<>(work);
+        task.setOnSucceeded(e -> {
+            finishTask(task);
+            onSuccess.accept(task.getValue());
+        });
+        task.setOnCancelled(e -> {
+            finishTask(task);
+            statusLabel.setText("Операция отменена.");
+            logger.info("Фоновая операция отменена пользователем.");
+        });
+        task.setOnFailed(e -> {
+            finishTask(task);
+            Throwable error = task.getException();
+            if (error instanceof CancellationException) {
+                statusLabel.setText("Операция отменена.");
+                return;
+            }
+            statusLabel.setText("");
+            logger.error("{}: {}", errorTitle, error.getMessage(), error);
+            ErrorDialog.show(errorTitle, error instanceof MatrixException
+                    ? error.getMessage()
+                    : "Непредвиденная ошибка: " + error);
+        });
+        currentTask = task;
+        progressBar.progressProperty().bind(task.progressProperty());
+        progressBar.setVisible(true);
+        cancelButton.setDisable(false);
+        executor.execute(task);
+        return true;
+    }
+
+    private void finishTask(BackgroundTask<?> task) {
+        if (currentTask == task) {
+            currentTask = null;
+            editPending = false;
+            progressBar.progressProperty().unbind();
+            progressBar.setProgress(0);
+            progressBar.setVisible(false);
+            cancelButton.setDisable(true);
+        }
+    }
+
+    private void cancelCurrentTask() {
+        if (currentTask != null) {
+            logger.info("Пользователь запросил отмену текущей операции.");
+            currentTask.cancel();
         }
     }
+
+    @FunctionalInterface
+    private interface MatrixOperation {
+        Matrix apply(Matrix a, Matrix b, ProgressMonitor monitor);
+    }
+
     @FunctionalInterface
-    private interface MatrixSupplier {
-        Matrix get();
+    private interface BackgroundWork<T> {
+        T run(ProgressMonitor monitor);
+    }
+
+    // Задача JavaFX, передающая прогресс ядер в progressProperty; отмена задачи отменяет и монитор,
+    // так что ядро прекращает работу на ближайшей проверке, а не досчитывает результат впустую
+    private static class BackgroundTask<T> extends Task<T> {
+        private final BackgroundWork<T> work;
+        private final ProgressMonitor monitor = new ProgressMonitor(this::updateProgress);
+
+        BackgroundTask(BackgroundWork<T> work) {
+            this.work = work;
+        }
+
+        @Override
+        protected T call() {
+            return work.run(monitor);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            monitor.cancel();
+            return super.cancel(false);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,270 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Сжатый архив матрицы: заголовок из 24 байт (magic "MTXZ", версия, строки, столбцы, строк в блоке, флаги),
+// затем блоки строк, каждый сжат Deflater независимо, и в конце индекс блоков (смещение и длина каждого),
+// за которым следуют смещение индекса и magic. Независимые блоки позволяют сжимать и распаковывать их
+// параллельно и читать только нужный диапазон строк. Перед сжатием байты double перекладываются по
+// разрядам (сначала младшие байты всех элементов блока, затем следующие): знак и порядок соседних
+// элементов обычно совпадают, и Deflater сжимает такие полосы заметно лучше. Все числа little-endian
+public class MatrixArchive {
+    private static final Logger logger = LogManager.getLogger(MatrixArchive.class);
+    static final byte[] MAGIC = {'M', 'T', 'X', 'Z'};
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    static final int FLAG_SHUFFLE = 1;
+    // Смещение индекса и magic в конце файла
+    private static final int TRAILER_SIZE = Long.BYTES + 4;
+    private static final int INDEX_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+    // Около мегабайта несжатых данных на блок: достаточно для хорошего сжатия и мелко для параллельности
+    static final int TARGET_CHUNK_BYTES = 1 << 20;
+
+    public static boolean isArchiveFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return BinaryMatrixFormat.hasMagic(channel, MAGIC);
+        }
+    }
+
+    public static void write(Matrix matrix, Path path) throws IOException {
+        write(matrix, path, Deflater.DEFAULT_COMPRESSION, ForkJoinPool.commonPool());
+    }
+
+    // Блоки сжимаются в пуле; одновременно в памяти не больше двух блоков на поток, запись идёт по порядку
+    static void write(Matrix matrix, Path path, int level, ForkJoinPool pool) throws IOException {
+        int rows = matrix.getRows();
+        int cols = matrix.getCols();
+        int rowsPerChunk = (int) Math.max(1, Math.min(rows, TARGET_CHUNK_BYTES / ((long) cols * Double.BYTES)));
+        int chunks = (rows + rowsPerChunk - 1) / rowsPerChunk;
+        long[] offsets = new long[chunks];
+        int[] lengths = new int[chunks];
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(MAGIC).putInt(VERSION).putInt(rows).putInt(cols).putInt(rowsPerChunk).putInt(FLAG_SHUFFLE).flip();
+            BinaryMatrixFormat.writeFully(channel, header);
+
+            long position = HEADER_SIZE;
+            int window = Math.max(2, 2 * pool.getParallelism());
+            Deque<ForkJoinTask<byte[]>> pending = new ArrayDeque<>();
+            int submitted = 0;
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                while (submitted < chunks && pending.size() < window) {
+                    int row = submitted * rowsPerChunk;
+                    int count = Math.min(rowsPerChunk, rows - row);
+                    pending.add(pool.submit(() -> compress(matrix.submatrix(row, 0, count, cols).toArray(), level)));
+                    submitted++;
+                }
+                byte[] compressed = pending.poll().join();
+                offsets[chunk] = position;
+                lengths[chunk] = compressed.length;
+                BinaryMatrixFormat.writeFully(channel, ByteBuffer.wrap(compressed));
+                position += compressed.length;
+            }
+
+            ByteBuffer index = ByteBuffer.allocate(Integer.BYTES + chunks * INDEX_ENTRY_SIZE + TRAILER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            index.putInt(chunks);
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                index.putLong(offsets[chunk]).putInt(lengths[chunk]);
+            }
+            index.putLong(position).put(MAGIC).flip();
+            BinaryMatrixFormat.writeFully(channel, index);
+            logger.debug("Матрица {}x{} записана в архив {}: {} блоков, {} байт вместо {}, {} мс", rows, cols, path,
+                    chunks, channel.size(), (long) rows * cols * Double.BYTES, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    public static Matrix read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Index index = readIndex(channel);
+            return read(channel, index, 0, index.rows, ForkJoinPool.commonPool());
+        }
+    }
+
+    // Строки [rowFrom, rowFrom + rowCount): читаются и распаковываются только блоки, которые их содержат
+    public static Matrix read(Path path, int rowFrom, int rowCount) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Index index = readIndex(channel);
+            if (rowFrom < 0 || rowCount <= 0 || (long) rowFrom + rowCount > index.rows) {
+                logger.error("Диапазон строк [{}, {}) выходит за границы матрицы {}x{} в архиве {}.",
+                        rowFrom, (long) rowFrom + rowCount, index.rows, index.cols, path);
+                throw new MatrixException("Диапазон строк выходит за границы матрицы.");
+            }
+            return read(channel, index, rowFrom, rowCount, ForkJoinPool.commonPool());
+        }
+    }
+
+    private static Matrix read(FileChannel channel, Index index, int rowFrom, int rowCount, ForkJoinPool pool) {
+        int cols = index.cols;
+        double[] data = new double[Math.multiplyExact(rowCount, cols)];
+        int firstChunk = rowFrom / index.rowsPerChunk;
+        int lastChunk = (rowFrom + rowCount - 1) / index.rowsPerChunk;
+        // Каждый блок пишет в свои строки результата, поэтому блоки распаковываются без синхронизации
+        pool.invoke(new RowRangeTask(firstChunk, lastChunk + 1, 1, (from, to) -> {
+            Inflater inflater = new Inflater();
+            try {
+                for (int chunk = from; chunk < to; chunk++) {
+                    int chunkRow = chunk * index.rowsPerChunk;
+                    int chunkRows = Math.min(index.rowsPerChunk, index.rows - chunkRow);
+                    double[] values = inflate(channel, index, chunk, chunkRows * cols, inflater);
+                    int copyFrom = Math.max(rowFrom, chunkRow);
+                    int copyTo = Math.min(rowFrom + rowCount, chunkRow + chunkRows);
+                    System.arraycopy(values, (copyFrom - chunkRow) * cols, data, (copyFrom - rowFrom) * cols,
+                            (copyTo - copyFrom) * cols);
+                }
+            } finally {
+                inflater.end();
+            }
+        }, new LongAdder()));
+        return Matrix.wrap(data, rowCount, cols);
+    }
+
+    static byte[] compress(double[] values, int level) {
+        byte[] shuffled = new byte[values.length * Double.BYTES];
+        int m = values.length;
+        for (int k = 0; k < m; k++) {
+            long bits = Double.doubleToRawLongBits(values[k]);
+            for (int b = 0; b < Double.BYTES; b++) {
+                shuffled[b * m + k] = (byte) (bits >>> (8 * b));
+            }
+        }
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(shuffled);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, shuffled.length / 2)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static double[] inflate(FileChannel channel, Index index, int chunk, int count, Inflater inflater) {
+        byte[] compressed = new byte[index.lengths[chunk]];
+        byte[] shuffled = new byte[count * Double.BYTES];
+        try {
+            BinaryMatrixFormat.readFully(channel, ByteBuffer.wrap(compressed), index.offsets[chunk]);
+            inflater.reset();
+            inflater.setInput(compressed);
+            int length = 0;
+            while (length < shuffled.length && !inflater.finished()) {
+                int inflated = inflater.inflate(shuffled, length, shuffled.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != shuffled.length || !inflater.finished()) {
+                throw new MatrixException("Повреждённый блок " + chunk + " в архиве матрицы.");
+            }
+        } catch (IOException | DataFormatException e) {
+            logger.error("Ошибка чтения блока {} архива матрицы: {}", chunk, e.getMessage());
+            throw new MatrixException("Повреждённый блок " + chunk + " в архиве матрицы.");
+        }
+        double[] values = new double[count];
+        if ((index.flags & FLAG_SHUFFLE) != 0) {
+            for (int k = 0; k < count; k++) {
+                long bits = 0;
+                for (int b = 0; b < Double.BYTES; b++) {
+                    bits |= (shuffled[b * count + k] & 0xFFL) << (8 * b);
+                }
+                values[k] = Double.longBitsToDouble(bits);
+            }
+        } else {
+            ByteBuffer.wrap(shuffled).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(values);
+        }
+        return values;
+    }
+
+    static Index readIndex(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE + Integer.BYTES + TRAILER_SIZE || !BinaryMatrixFormat.hasMagic(channel, MAGIC)) {
+            throw new MatrixException("Файл не является архивом матрицы.");
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        BinaryMatrixFormat.readFully(channel, header, 0);
+        int version = header.getInt(4);
+        int rows = header.getInt(8);
+        int cols = header.getInt(12);
+        int rowsPerChunk = header.getInt(16);
+        int flags = header.getInt(20);
+        if (version != VERSION) {
+            logger.error("Неподдерживаемая версия архива матрицы: {}", version);
+            throw new MatrixException("Неподдерживаемая версия архива матрицы: " + version);
+        }
+        if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE - 8 || rowsPerChunk <= 0
+                || (long) rowsPerChunk * cols > Integer.MAX_VALUE / Double.BYTES) {
+            throw new MatrixException("Недопустимая размерность в заголовке архива матрицы.");
+        }
+
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        BinaryMatrixFormat.readFully(channel, trailer, size - TRAILER_SIZE);
+        long indexOffset = trailer.getLong(0);
+        int chunks = (rows + rowsPerChunk - 1) / rowsPerChunk;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (trailer.get(Long.BYTES + i) != MAGIC[i]) {
+                throw new MatrixException("Архив матрицы повреждён или записан не полностью.");
+            }
+        }
+        if (indexOffset != size - TRAILER_SIZE - Integer.BYTES - (long) chunks * INDEX_ENTRY_SIZE) {
+            throw new MatrixException("Архив матрицы повреждён или записан не полностью.");
+        }
+        ByteBuffer entries = ByteBuffer.allocate(Integer.BYTES + chunks * INDEX_ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        BinaryMatrixFormat.readFully(channel, entries, indexOffset);
+        entries.flip();
+        if (entries.getInt() != chunks) {
+            throw new MatrixException("Индекс архива матрицы не соответствует заголовку.");
+        }
+        long[] offsets = new long[chunks];
+        int[] lengths = new int[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            offsets[chunk] = entries.getLong();
+            lengths[chunk] = entries.getInt();
+            if (offsets[chunk] < HEADER_SIZE || lengths[chunk] < 0 || offsets[chunk] + lengths[chunk] > indexOffset) {
+                throw new MatrixException("Индекс архива матрицы не соответствует заголовку.");
+            }
+        }
+        return new Index(rows, cols, rowsPerChunk, flags, offsets, lengths);
+    }
+
+    static final class Index {
+        final int rows;
+        final int cols;
+        final int rowsPerChunk;
+        final int flags;
+        final long[] offsets;
+        final int[] lengths;
+
+        Index(int rows, int cols, int rowsPerChunk, int flags, long[] offsets, int[] lengths) {
+            this.rows = rows;
+            this.cols = cols;
+            this.rowsPerChunk = rowsPerChunk;
+            this.flags = flags;
+            this.offsets = offsets;
+            this.lengths = lengths;
+        }
+    }
+}
@@ -0,0 +1,414 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Пакетный режим без графического интерфейса: MatrixBatch [параметры] <сценарий | шаблон файлов>...
+// Сценарий — текстовый файл со строками "det A", "mul A B [результат]", "sum A B [результат]", "sub A B [результат]";
+// пустые строки и строки с # пропускаются. Аргумент, который не является файлом, считается шаблоном
+// (glob, например data/*.txt или data/**.bin), и для каждого найденного файла вычисляется определитель.
+// Задания выдаются по одному и выполняются в пуле фиксированного размера; перед запуском задание занимает
+// оценку своей памяти в семафоре, поэтому одновременно в памяти находится ограниченный объём матриц,
+// а чтение следующих заданий приостанавливается, пока предыдущие не освободят место.
+// Результаты пишутся строками "номер<TAB>операция<TAB>файлы<TAB>OK|ERROR<TAB>значение<TAB>мс" по мере готовности
+public class MatrixBatch {
+    private static final Logger logger = LogManager.getLogger(MatrixBatch.class);
+    static final long DEFAULT_MEMORY = Runtime.getRuntime().maxMemory() / 2;
+    private static final String USAGE = "Использование: MatrixBatch [--threads N] [--memory МБ] [--output файл] <сценарий | шаблон>...";
+
+    private final int threads;
+    private final long memoryBytes;
+    private final PrintWriter out;
+    private final Semaphore memory;
+    private final int memoryPermits;
+    private final AtomicInteger succeeded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private int submitted;
+
+    MatrixBatch(int threads, long memoryBytes, Writer out) {
+        if (threads <= 0 || memoryBytes <= 0) {
+            throw new MatrixException("Число потоков и лимит памяти должны быть положительными.");
+        }
+        this.threads = threads;
+        this.memoryBytes = memoryBytes;
+        this.out = new PrintWriter(out);
+        // Разрешения семафора считаются в килобайтах, чтобы лимит в десятки гигабайт помещался в int
+        this.memoryPermits = (int) Math.min(Integer.MAX_VALUE, Math.max(1, memoryBytes >> 10));
+        this.memory = new Semaphore(memoryPermits);
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, new OutputStreamWriter(System.out, StandardCharsets.UTF_8)));
+    }
+
+    // Код завершения: 0 — все задания выполнены, 1 — часть заданий с ошибкой, 2 — неверные аргументы
+    static int run(String[] args, Writer defaultOut) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        long memoryBytes = DEFAULT_MEMORY;
+        String output = null;
+        List<String> sources = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--threads":
+                        threads = Integer.parseInt(requireValue(args, ++i));
+                        break;
+                    case "--memory":
+                        memoryBytes = Long.parseLong(requireValue(args, ++i)) << 20;
+                        break;
+                    case "--output":
+                        output = requireValue(args, ++i);
+                        break;
+                    default:
+                        sources.add(args[i]);
+                }
+            }
+        } catch (NumberFormatException | MatrixException e) {
+            System.err.println(USAGE);
+            return 2;
+        }
+        if (sources.isEmpty()) {
+            System.err.println(USAGE);
+            return 2;
+        }
+        try (Writer writer = output == null ? defaultOut
+                : Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+            MatrixBatch batch = new MatrixBatch(threads, memoryBytes, writer);
+            batch.process(sources);
+            return batch.failed.get() == 0 ? 0 : 1;
+        } catch (IOException | MatrixException e) {
+            logger.error("Ошибка пакетной обработки: {}", e.getMessage(), e);
+            System.err.println(e.getMessage());
+            return 2;
+        }
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new MatrixException("Не указано значение параметра " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    void process(List<String> sources) throws IOException {
+        logger.info("Пакетная обработка: {} потоков, лимит памяти {} МБ", threads, memoryBytes >> 20);
+        long start = System.nanoTime();
+        AtomicInteger counter = new AtomicInteger();
+        // Платформенные потоки в фиксированном пуле: задания упираются в процессор, а их число в памяти
+        // ограничивает семафор, так что отдельный поток на задание ничего бы не дал
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "matrix-batch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (String source : sources) {
+                Path path = Paths.get(source);
+                if (Files.isRegularFile(path)) {
+                    for (Job job : readScript(path)) {
+                        submit(executor, job);
+                    }
+                } else {
+                    submitGlob(executor, source);
+                }
+            }
+        } finally {
+            executor.shutdown();
+            try {
+                while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    logger.info("Ожидание завершения заданий: выполнено {} из {}", succeeded.get() + failed.get(), submitted);
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            out.flush();
+        }
+        logger.info("Пакетная обработка завершена за {} мс: успешно {}, с ошибкой {}",
+                (System.nanoTime() - start) / 1_000_000, succeeded.get(), failed.get());
+    }
+
+    // Блокирует чтение заданий, пока в памяти не освободится место под очередное
+    private void submit(ExecutorService executor, Job job) {
+        job.permits = permitsFor(job);
+        memory.acquireUninterruptibly(job.permits);
+        submitted++;
+        executor.execute(() -> {
+            try {
+                execute(job);
+            } finally {
+                memory.release(job.permits);
+            }
+        });
+    }
+
+    int getSucceeded() {
+        return succeeded.get();
+    }
+
+    int getFailed() {
+        return failed.get();
+    }
+
+    private List<Job> readScript(Path script) throws IOException {
+        Path base = script.toAbsolutePath().getParent();
+        List<Job> jobs = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(script, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                jobs.add(parseJob(trimmed, base, submitted + jobs.size() + 1, script.getFileName() + ":" + lineNumber));
+            }
+        }
+        return jobs;
+    }
+
+    static Job parseJob(String line, Path base, int number, String location) {
+        String[] tokens = line.split("\\s+");
+        String operation = tokens[0].toLowerCase(Locale.ROOT);
+        boolean valid;
+        switch (operation) {
+            case "det":
+                valid = tokens.length == 2;
+                break;
+            case "mul":
+            case "sum":
+            case "sub":
+                valid = tokens.length == 3 || tokens.length == 4;
+                break;
+            default:
+                throw new MatrixException(location + ": неизвестная операция " + tokens[0]);
+        }
+        if (!valid) {
+            throw new MatrixException(location + ": неверное число аргументов операции " + tokens[0]);
+        }
+        int inputs = operation.equals("det") ? 1 : 2;
+        List<Path> files = new ArrayList<>(inputs);
+        for (int i = 1; i <= inputs; i++) {
+            files.add(base.resolve(tokens[i]));
+        }
+        Path result = tokens.length == inputs + 2 ? base.resolve(tokens[inputs + 1]) : null;
+        return new Job(number, operation, files, result);
+    }
+
+    // Обход каталога ленивый: следующий файл берётся, когда семафор разрешает новое задание
+    private void submitGlob(ExecutorService executor, String pattern) throws IOException {
+        int wildcard = indexOfWildcard(pattern);
+        if (wildcard < 0) {
+            throw new MatrixException("Файл не найден: " + pattern);
+        }
+        int separator = Math.max(pattern.lastIndexOf('/', wildcard), pattern.lastIndexOf('\\', wildcard));
+        Path base = separator < 0 ? Paths.get(".") : Paths.get(pattern.substring(0, separator + 1));
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern.substring(separator + 1));
+        try (Stream<Path> files = Files.walk(base)) {
+            Iterator<Path> iterator = files
+                    .filter(file -> matcher.matches(base.relativize(file)) && Files.isRegularFile(file))
+                    .iterator();
+            while (iterator.hasNext()) {
+                submit(executor, new Job(submitted + 1, "det", List.of(iterator.next()), null));
+            }
+        }
+    }
+
+    private static int indexOfWildcard(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' || c == '?' || c == '[' || c == '{') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Оценка сверху до чтения: двоичный файл занимает в памяти 8 байт на элемент (float32 расширяется до double),
+    // текст — не больше чем вчетверо больше своего размера (не меньше двух байт на элемент против восьми).
+    // Результат (или копия для LU) бывает намного больше операндов, например у произведения столбца на строку.
+    // Для двоичных операндов его размер известен из заголовков и резервируется сразу, для текстовых — после разбора
+    int permitsFor(Job job) {
+        if (job.operation.equals("mul") && isOutOfCore(job)) {
+            return memoryPermits;
+        }
+        long bytes = 0;
+        int[][] shapes = new int[job.inputs.size()][];
+        for (int i = 0; i < shapes.length; i++) {
+            Path file = job.inputs.get(i);
+            shapes[i] = binaryShape(file);
+            if (shapes[i] != null) {
+                bytes += 8L * shapes[i][0] * shapes[i][1];
+            } else {
+                try {
+                    bytes += 4 * Files.size(file);
+                } catch (IOException e) {
+                    // Ошибка будет сообщена при выполнении задания
+                }
+            }
+        }
+        if (Arrays.stream(shapes).allMatch(Objects::nonNull)) {
+            bytes += resultBytes(job.operation, shapes[0][0], shapes[0][1], shapes[shapes.length - 1][1]);
+            job.resultReserved = true;
+        }
+        return toPermits(bytes);
+    }
+
+    private static long resultBytes(String operation, int rows, int cols, int otherCols) {
+        return 8L * rows * (operation.equals("mul") ? otherCols : cols);
+    }
+
+    // Задание крупнее всего лимита выполняется в одиночку, а не ждёт вечно
+    private int toPermits(long bytes) {
+        return (int) Math.min(Math.max(1, (bytes + 1023) >> 10), memoryPermits);
+    }
+
+    // Размерность из заголовка двоичного файла; null для текстового или недоступного файла
+    private static int[] binaryShape(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (!BinaryMatrixFormat.hasMagic(channel, BinaryMatrixFormat.MAGIC)) {
+                return null;
+            }
+            BinaryMatrixFormat.Header header = BinaryMatrixFormat.readHeader(channel);
+            return new int[]{header.rows, header.cols};
+        } catch (IOException | MatrixException e) {
+            // Ошибка будет сообщена при выполнении задания
+            return null;
+        }
+    }
+
+    // Резерв под результат текстовых операндов, когда их размерность стала известна. Без ожидания с удержанным
+    // резервом: иначе два задания могли бы бесконечно ждать друг друга. Если места не хватает сразу, резерв
+    // возвращается и задание ждёт весь объём целиком
+    private void reserveResult(Job job, Matrix a, Matrix b) {
+        if (job.resultReserved) {
+            return;
+        }
+        int needed = toPermits(resultBytes(job.operation, a.getRows(), a.getCols(), b.getCols()));
+        job.resultReserved = true;
+        if (job.permits + needed <= memoryPermits && memory.tryAcquire(needed)) {
+            job.permits += needed;
+            return;
+        }
+        memory.release(job.permits);
+        job.permits = (int) Math.min((long) job.permits + needed, memoryPermits);
+        memory.acquireUninterruptibly(job.permits);
+    }
+
+    // Произведение двоичных файлов в двоичный файл, которое вместе с операндами не помещается в лимит памяти,
+    // считается тайлами с диска; такое задание занимает весь семафор и выполняется в одиночку
+    private boolean isOutOfCore(Job job) {
+        if (job.output == null || !job.output.toString().toLowerCase(Locale.ROOT).endsWith(".bin")) {
+            return false;
+        }
+        int[] a = binaryShape(job.inputs.get(0));
+        int[] b = binaryShape(job.inputs.get(1));
+        if (a == null || b == null) {
+            return false;
+        }
+        long elements = (long) a[0] * a[1] + (long) b[0] * b[1] + (long) a[0] * b[1];
+        return 8 * elements > memoryBytes;
+    }
+
+    private void execute(Job job) {
+        long start = System.nanoTime();
+        String value;
+        boolean ok = true;
+        try {
+            value = compute(job);
+            succeeded.incrementAndGet();
+        } catch (RuntimeException e) {
+            ok = false;
+            value = e.getMessage();
+            failed.incrementAndGet();
+            logger.error("Задание {} ({} {}) завершилось ошибкой: {}", job.number, job.operation, job.inputs, e.getMessage());
+        } catch (OutOfMemoryError e) {
+            ok = false;
+            value = "Недостаточно памяти";
+            failed.incrementAndGet();
+            logger.error("Задание {} ({} {}): недостаточно памяти", job.number, job.operation, job.inputs);
+        }
+        StringBuilder line = new StringBuilder(128);
+        line.append(job.number).append('\t').append(job.operation).append('\t');
+        for (int i = 0; i < job.inputs.size(); i++) {
+            line.append(i == 0 ? "" : " ").append(job.inputs.get(i));
+        }
+        line.append('\t').append(ok ? "OK" : "ERROR").append('\t').append(value)
+                .append('\t').append((System.nanoTime() - start) / 1_000_000);
+        synchronized (out) {
+            out.println(line);
+        }
+    }
+
+    private String compute(Job job) {
+        if (job.operation.equals("mul") && isOutOfCore(job)) {
+            MatrixOperations.multiplyOutOfCore(job.inputs.get(0).toString(), job.inputs.get(1).toString(),
+                    job.output.toString(), memoryBytes);
+            return "out-of-core -> " + job.output;
+        }
+        Matrix a = MatrixIO.readMatrixFromFile(job.inputs.get(0).toString());
+        if (job.operation.equals("det")) {
+            reserveResult(job, a, a);
+            return Double.toString(MatrixOperations.determinant(a));
+        }
+        Matrix b = MatrixIO.readMatrixFromFile(job.inputs.get(1).toString());
+        reserveResult(job, a, b);
+        Matrix result;
+        switch (job.operation) {
+            case "mul":
+                result = MatrixOperations.multiply(a, b);
+                break;
+            case "sum":
+                result = MatrixOperations.sum(a, b);
+                break;
+            default:
+                result = MatrixOperations.subtract(a, b);
+        }
+        if (job.output != null) {
+            MatrixIO.writeMatrix(result, job.output.toString());
+            return result.getRows() + "x" + result.getCols() + " -> " + job.output;
+        }
+        return result.getRows() + "x" + result.getCols();
+    }
+
+    static final class Job {
+        final int number;
+        final String operation;
+        final List<Path> inputs;
+        final Path output;
+        // Резерв памяти в килобайтах: задаётся при постановке в очередь, дальше меняется только потоком задания
+        int permits;
+        boolean resultReserved;
+
+        Job(int number, String operation, List<Path> inputs, Path output) {
+            this.number = number;
+            this.operation = operation;
+            this.inputs = inputs;
+            this.output = output;
+        }
+    }
+}
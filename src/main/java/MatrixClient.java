@@ -0,0 +1,148 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Клиент MatrixServer. Асинхронные методы позволяют отправить много запросов подряд по одному соединению:
+// сервер соберёт их в пачку, а ответы сопоставляются с запросами по id в отдельном потоке чтения
+public class MatrixClient implements Closeable {
+    private static final Logger logger = LogManager.getLogger(MatrixClient.class);
+
+    private final Socket socket;
+    private final DataOutputStream out;
+    private final Map<Integer, CompletableFuture<Object>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private volatile boolean closed;
+
+    public MatrixClient(int port) throws IOException {
+        this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setTcpNoDelay(true);
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+        MatrixProtocol.writeInt(out, MatrixProtocol.MAGIC);
+        out.flush();
+        Thread reader = new Thread(this::readLoop, "matrix-client-" + socket.getLocalPort());
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    public Matrix sum(Matrix a, Matrix b) {
+        return (Matrix) join(sumAsync(a, b));
+    }
+
+    public Matrix subtract(Matrix a, Matrix b) {
+        return (Matrix) join(subtractAsync(a, b));
+    }
+
+    public Matrix multiply(Matrix a, Matrix b) {
+        return (Matrix) join(multiplyAsync(a, b));
+    }
+
+    public double determinant(Matrix matrix) {
+        return (Double) join(determinantAsync(matrix));
+    }
+
+    public CompletableFuture<Matrix> sumAsync(Matrix a, Matrix b) {
+        return send(MatrixProtocol.OP_SUM, a, b).thenApply(Matrix.class::cast);
+    }
+
+    public CompletableFuture<Matrix> subtractAsync(Matrix a, Matrix b) {
+        return send(MatrixProtocol.OP_SUBTRACT, a, b).thenApply(Matrix.class::cast);
+    }
+
+    public CompletableFuture<Matrix> multiplyAsync(Matrix a, Matrix b) {
+        return send(MatrixProtocol.OP_MULTIPLY, a, b).thenApply(Matrix.class::cast);
+    }
+
+    public CompletableFuture<Double> determinantAsync(Matrix matrix) {
+        return send(MatrixProtocol.OP_DETERMINANT, matrix).thenApply(Double.class::cast);
+    }
+
+    private CompletableFuture<Object> send(byte operation, Matrix... operands) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new MatrixException("Соединение с сервером закрыто."));
+            return future;
+        }
+        int id = nextId.incrementAndGet();
+        pending.put(id, future);
+        synchronized (out) {
+            try {
+                MatrixProtocol.writeInt(out, id);
+                out.writeByte(operation);
+                out.writeByte(operands.length);
+                for (Matrix operand : operands) {
+                    MatrixProtocol.writeMatrix(out, operand);
+                }
+                out.flush();
+            } catch (IOException e) {
+                pending.remove(id);
+                future.completeExceptionally(new MatrixException("Ошибка отправки запроса на сервер.", e));
+            }
+        }
+        return future;
+    }
+
+    private static Object join(CompletableFuture<?> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof MatrixException) {
+                throw (MatrixException) e.getCause();
+            }
+            throw new MatrixException("Ошибка выполнения запроса на сервере.", e.getCause());
+        }
+    }
+
+    private void readLoop() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16))) {
+            while (true) {
+                int id = MatrixProtocol.readInt(in);
+                byte status = in.readByte();
+                Object result;
+                MatrixException error = null;
+                if (status == MatrixProtocol.STATUS_MATRIX) {
+                    result = MatrixProtocol.readMatrix(in);
+                } else if (status == MatrixProtocol.STATUS_SCALAR) {
+                    result = MatrixProtocol.readDouble(in);
+                } else {
+                    result = null;
+                    error = new MatrixException(in.readUTF());
+                }
+                CompletableFuture<Object> future = pending.remove(id);
+                if (future == null) {
+                    logger.warn("Получен ответ на неизвестный запрос {}", id);
+                } else if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(result);
+                }
+            }
+        } catch (IOException | MatrixException e) {
+            if (!closed) {
+                logger.debug("Соединение с сервером прервано: {}", e.getMessage());
+            }
+        } finally {
+            closed = true;
+            MatrixException error = new MatrixException("Соединение с сервером закрыто.");
+            pending.values().forEach(future -> future.completeExceptionally(error));
+            pending.clear();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        socket.close();
+    }
+}
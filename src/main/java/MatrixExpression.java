@@ -0,0 +1,354 @@
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Ленивое выражение над матрицами. Построение только проверяет размеры; вычисление происходит в evaluate().
+// Цепочки сложений/вычитаний сливаются в одну линейную комбинацию, вычисляемую за один проход по результату,
+// а цепочки умножений перемножаются в порядке, найденном динамическим программированием по размерностям
+public abstract class MatrixExpression {
+    private static final Logger logger = LogManager.getLogger(MatrixExpression.class);
+
+    private final int rows;
+    private final int cols;
+
+    private MatrixExpression(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    public static MatrixExpression of(Matrix matrix) {
+        if (matrix == null) {
+            throw new MatrixException("Матрица не может быть пустой.");
+        }
+        return new Leaf(matrix);
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+
+    public MatrixExpression plus(Matrix other) {
+        return plus(of(other));
+    }
+
+    public MatrixExpression plus(MatrixExpression other) {
+        if (rows != other.rows || cols != other.cols) {
+            logger.error("Ошибка сложения: Матрицы должны быть одинакового размера. A: {}x{}, B: {}x{}", rows, cols, other.rows, other.cols);
+            throw new MatrixException("Для сложения матрицы должны быть одного размера.");
+        }
+        return Linear.combine(this, other, 1.0);
+    }
+
+    public MatrixExpression minus(Matrix other) {
+        return minus(of(other));
+    }
+
+    public MatrixExpression minus(MatrixExpression other) {
+        if (rows != other.rows || cols != other.cols) {
+            logger.error("Ошибка вычитания: Матрицы должны быть одинакового размера. A: {}x{}, B: {}x{}", rows, cols, other.rows, other.cols);
+            throw new MatrixException("Для вычитания матрицы должны быть одного размера.");
+        }
+        return Linear.combine(this, other, -1.0);
+    }
+
+    public MatrixExpression scale(double factor) {
+        return Linear.combine(this, null, factor);
+    }
+
+    public MatrixExpression times(Matrix other) {
+        return times(of(other));
+    }
+
+    public MatrixExpression times(MatrixExpression other) {
+        if (cols != other.rows) {
+            logger.error("Ошибка умножения: Количество столбцов A ({}) не равно количеству строк B ({}).", cols, other.rows);
+            throw new MatrixException("Для умножения количество столбцов A должно совпадать с количеством строк B.");
+        }
+        List<MatrixExpression> factors = new ArrayList<>();
+        Product.collect(this, factors);
+        Product.collect(other, factors);
+        return new Product(factors);
+    }
+
+    public Matrix evaluate() {
+        logger.debug("Вычисление выражения {}x{}, оценка {} FLOP", rows, cols, estimatedFlops());
+        return compute();
+    }
+
+    // Оценка числа операций с плавающей точкой для выбранного плана (плотное хранение)
+    public long estimatedFlops() {
+        return flops();
+    }
+
+    // Текстовое описание плана: порядок умножений, слитые линейные комбинации и оценки FLOP
+    public String explain() {
+        StringBuilder sb = new StringBuilder();
+        describe(sb, "", new IdentityHashMap<>());
+        sb.append("Итого: ≈ ").append(estimatedFlops()).append(" FLOP\n");
+        return sb.toString();
+    }
+
+    abstract Matrix compute();
+
+    abstract long flops();
+
+    abstract void describe(StringBuilder sb, String indent, Map<Matrix, String> names);
+
+    abstract String label(Map<Matrix, String> names);
+
+    private static final class Leaf extends MatrixExpression {
+        private final Matrix matrix;
+
+        Leaf(Matrix matrix) {
+            super(matrix.getRows(), matrix.getCols());
+            this.matrix = matrix;
+        }
+
+        @Override
+        Matrix compute() {
+            return matrix;
+        }
+
+        @Override
+        long flops() {
+            return 0;
+        }
+
+        @Override
+        void describe(StringBuilder sb, String indent, Map<Matrix, String> names) {
+            sb.append(indent).append(label(names)).append('\n');
+        }
+
+        @Override
+        String label(Map<Matrix, String> names) {
+            return names.computeIfAbsent(matrix, m -> "M" + (names.size() + 1))
+                    + "[" + getRows() + "x" + getCols() + (matrix.isSparse() ? ", CSR" : "") + "]";
+        }
+    }
+
+    // Сумма coefficients[t] * terms[t]; вложенные линейные комбинации раскрываются при построении
+    private static final class Linear extends MatrixExpression {
+        private final List<MatrixExpression> terms;
+        private final double[] coefficients;
+
+        private Linear(List<MatrixExpression> terms, double[] coefficients) {
+            super(terms.get(0).getRows(), terms.get(0).getCols());
+            this.terms = terms;
+            this.coefficients = coefficients;
+        }
+
+        static MatrixExpression combine(MatrixExpression left, MatrixExpression right, double factor) {
+            List<MatrixExpression> terms = new ArrayList<>();
+            List<Double> coefficients = new ArrayList<>();
+            if (right == null) {
+                append(left, factor, terms, coefficients);
+            } else {
+                append(left, 1.0, terms, coefficients);
+                append(right, factor, terms, coefficients);
+            }
+            double[] c = new double[coefficients.size()];
+            for (int t = 0; t < c.length; t++) {
+                c[t] = coefficients.get(t);
+            }
+            return new Linear(terms, c);
+        }
+
+        private static void append(MatrixExpression e, double factor, List<MatrixExpression> terms, List<Double> coefficients) {
+            if (e instanceof Linear) {
+                Linear linear = (Linear) e;
+                for (int t = 0; t < linear.terms.size(); t++) {
+                    terms.add(linear.terms.get(t));
+                    coefficients.add(factor * linear.coefficients[t]);
+                }
+            } else {
+                terms.add(e);
+                coefficients.add(factor);
+            }
+        }
+
+        @Override
+        Matrix compute() {
+            int count = terms.size();
+            Matrix[] values = new Matrix[count];
+            boolean allSparseUnit = true;
+            for (int t = 0; t < count; t++) {
+                values[t] = terms.get(t).compute();
+                allSparseUnit &= values[t].isSparse() && Math.abs(coefficients[t]) == 1.0;
+            }
+            if (allSparseUnit && coefficients[0] == 1.0) {
+                // Полностью разреженная комбинация остаётся в CSR
+                Matrix result = values[0];
+                for (int t = 1; t < count; t++) {
+                    result = SparseOperations.combine(result, values[t], coefficients[t]);
+                }
+                return result;
+            }
+            // Один проход по строкам результата: строка out остаётся в кэше, пока к ней добавляются все слагаемые
+            int rows = getRows();
+            int cols = getCols();
+            double[] out = new double[Math.multiplyExact(rows, cols)];
+            for (int i = 0; i < rows; i++) {
+                int oi = i * cols;
+                for (int t = 0; t < count; t++) {
+                    Matrix m = values[t];
+                    double c = coefficients[t];
+                    if (m.isSparse()) {
+                        CsrStorage csr = m.csr();
+                        for (int p = csr.rowPtr()[i]; p < csr.rowPtr()[i + 1]; p++) {
+                            out[oi + csr.colIdx()[p]] += c * csr.values()[p];
+                        }
+                        continue;
+                    }
+                    double[] x = m.rawData();
+                    int xi = m.offset() + i * m.rowStride();
+                    int xs = m.colStride();
+                    if (xs == 1) {
+                        VectorKernels.axpy(c, x, xi, out, oi, cols);
+                        continue;
+                    }
+                    for (int j = 0; j < cols; j++) {
+                        out[oi + j] += c * x[xi + j * xs];
+                    }
+                }
+            }
+            return Matrix.wrap(out, rows, cols);
+        }
+
+        @Override
+        long flops() {
+            long total = 2L * terms.size() * getRows() * getCols();
+            for (MatrixExpression term : terms) {
+                total += term.flops();
+            }
+            return total;
+        }
+
+        @Override
+        void describe(StringBuilder sb, String indent, Map<Matrix, String> names) {
+            sb.append(indent).append("Слитая линейная комбинация ").append(getRows()).append('x').append(getCols())
+                    .append(" из ").append(terms.size()).append(" слагаемых за один проход (≈ ")
+                    .append(2L * terms.size() * getRows() * getCols()).append(" FLOP)\n");
+            for (int t = 0; t < terms.size(); t++) {
+                sb.append(indent).append("  ").append(coefficients[t] >= 0 ? "+" : "-")
+                        .append(Math.abs(coefficients[t])).append(" *\n");
+                terms.get(t).describe(sb, indent + "    ", names);
+            }
+        }
+
+        @Override
+        String label(Map<Matrix, String> names) {
+            return "(линейная комбинация " + getRows() + "x" + getCols() + ")";
+        }
+    }
+
+    // Цепочка умножений F1 * F2 * ... * Fn; порядок выбирается задачей об оптимальной расстановке скобок
+    private static final class Product extends MatrixExpression {
+        private final List<MatrixExpression> factors;
+        private final long[][] cost;
+        private final int[][] split;
+
+        Product(List<MatrixExpression> factors) {
+            super(factors.get(0).getRows(), factors.get(factors.size() - 1).getCols());
+            this.factors = factors;
+            int n = factors.size();
+            long[] dims = new long[n + 1];
+            dims[0] = factors.get(0).getRows();
+            for (int f = 0; f < n; f++) {
+                dims[f + 1] = factors.get(f).getCols();
+            }
+            cost = new long[n][n];
+            split = new int[n][n];
+            for (int length = 2; length <= n; length++) {
+                for (int i = 0; i + length - 1 < n; i++) {
+                    int j = i + length - 1;
+                    cost[i][j] = Long.MAX_VALUE;
+                    for (int k = i; k < j; k++) {
+                        long candidate = cost[i][k] + cost[k + 1][j] + 2 * dims[i] * dims[k + 1] * dims[j + 1];
+                        if (candidate < cost[i][j]) {
+                            cost[i][j] = candidate;
+                            split[i][j] = k;
+                        }
+                    }
+                }
+            }
+        }
+
+        static void collect(MatrixExpression e, List<MatrixExpression> factors) {
+            if (e instanceof Product) {
+                factors.addAll(((Product) e).factors);
+            } else {
+                factors.add(e);
+            }
+        }
+
+        @Override
+        Matrix compute() {
+            Matrix[] values = new Matrix[factors.size()];
+            for (int f = 0; f < values.length; f++) {
+                values[f] = factors.get(f).compute();
+            }
+            return multiplyRange(values, 0, values.length - 1);
+        }
+
+        private Matrix multiplyRange(Matrix[] values, int i, int j) {
+            if (i == j) {
+                return values[i];
+            }
+            int k = split[i][j];
+            return MatrixOperations.multiply(multiplyRange(values, i, k), multiplyRange(values, k + 1, j));
+        }
+
+        @Override
+        long flops() {
+            long total = cost[0][factors.size() - 1];
+            for (MatrixExpression factor : factors) {
+                total += factor.flops();
+            }
+            return total;
+        }
+
+        // FLOP при умножении строго слева направо, для сравнения с выбранным порядком
+        long leftToRightFlops() {
+            long total = 0;
+            long inner = factors.get(0).getCols();
+            for (int f = 1; f < factors.size(); f++) {
+                total += 2 * (long) getRows() * inner * factors.get(f).getCols();
+                inner = factors.get(f).getCols();
+            }
+            return total;
+        }
+
+        @Override
+        void describe(StringBuilder sb, String indent, Map<Matrix, String> names) {
+            for (MatrixExpression factor : factors) {
+                if (factor instanceof Leaf) {
+                    factor.label(names);
+                }
+            }
+            sb.append(indent).append("Цепочка умножений ").append(getRows()).append('x').append(getCols())
+                    .append(": ").append(order(0, factors.size() - 1, names))
+                    .append(" (≈ ").append(cost[0][factors.size() - 1]).append(" FLOP, слева направо ≈ ")
+                    .append(leftToRightFlops()).append(" FLOP)\n");
+            for (MatrixExpression factor : factors) {
+                if (!(factor instanceof Leaf)) {
+                    factor.describe(sb, indent + "  ", names);
+                }
+            }
+        }
+
+        private String order(int i, int j, Map<Matrix, String> names) {
+            if (i == j) {
+                return factors.get(i).label(names);
+            }
+            int k = split[i][j];
+            return "(" + order(i, k, names) + " * " + order(k + 1, j, names) + ")";
+        }
+
+        @Override
+        String label(Map<Matrix, String> names) {
+            return "(цепочка умножений " + getRows() + "x" + getCols() + ")";
+        }
+    }
+}
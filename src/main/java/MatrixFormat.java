@@ -0,0 +1,79 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+// Быстрое форматирование чисел с двумя знаками после запятой, дающее тот же текст, что и String.format("%.2f")
+// в локали по умолчанию, но без разбора шаблона и создания Formatter на каждый элемент.
+// Formatter округляет половину вверх кратчайшую десятичную запись числа (Double.toString), а не точное
+// двоичное значение: 1.005 даёт "1.01". Быстрый путь умножает на 100 и совпадает с этим везде, кроме
+// дробей, близких к половине, — их решает BigDecimal.valueOf, использующий ту же кратчайшую запись
+public class MatrixFormat {
+    // До этой величины погрешность умножения на 100 заведомо меньше окна проверки близости к половине
+    private static final double FAST_LIMIT = 1e7;
+    // Дальше long перестаёт вмещать число сотых, используется String.format
+    private static final double EXACT_LIMIT = 1e15;
+    private static final long[] POWERS = {1, 10, 100};
+    // Символы последней использованной локали: DecimalFormatSymbols.getInstance создаёт копию при каждом вызове
+    private static volatile LocaleSymbols symbols = new LocaleSymbols(Locale.ROOT);
+
+    private static final class LocaleSymbols {
+        final Locale locale;
+        final char decimalSeparator;
+        final boolean asciiDigits;
+
+        LocaleSymbols(Locale locale) {
+            DecimalFormatSymbols formatSymbols = DecimalFormatSymbols.getInstance(locale);
+            this.locale = locale;
+            this.decimalSeparator = formatSymbols.getDecimalSeparator();
+            this.asciiDigits = formatSymbols.getZeroDigit() == '0';
+        }
+    }
+
+    public static String formatFixed2(double value) {
+        StringBuilder sb = new StringBuilder(16);
+        appendFixed2(sb, value);
+        return sb.toString();
+    }
+
+    public static void appendFixed2(StringBuilder sb, double value) {
+        appendFixed(sb, value, 2);
+    }
+
+    // digits — от 0 до 2 знаков после запятой
+    public static void appendFixed(StringBuilder sb, double value, int digits) {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        LocaleSymbols current = symbols;
+        if (!current.locale.equals(locale)) {
+            current = new LocaleSymbols(locale);
+            symbols = current;
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= EXACT_LIMIT
+                || !current.asciiDigits || digits < 0 || digits >= POWERS.length) {
+            sb.append(String.format(locale, "%." + digits + "f", value));
+            return;
+        }
+        long scale = POWERS[digits];
+        double scaled = Math.abs(value) * scale;
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        long units;
+        if (Math.abs(value) >= FAST_LIMIT || Math.abs(fraction - 0.5) < 1e-6) {
+            units = BigDecimal.valueOf(Math.abs(value)).setScale(digits, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } else {
+            units = fraction > 0.5 ? (long) floor + 1 : (long) floor;
+        }
+        if (Double.doubleToRawLongBits(value) < 0) {
+            sb.append('-');
+        }
+        sb.append(units / scale);
+        if (digits > 0) {
+            sb.append(current.decimalSeparator);
+            long remainder = units % scale;
+            if (digits == 2 && remainder < 10) {
+                sb.append('0');
+            }
+            sb.append(remainder);
+        }
+    }
+}
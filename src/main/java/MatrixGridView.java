@@ -0,0 +1,263 @@
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+// Виртуализированное отображение матрицы: на холсте размером с видимую область рисуются только попадающие
+// в неё ячейки, числа форматируются при отрисовке. Стоимость кадра пропорциональна окну, а не rows * cols.
+// Если задан обработчик правки, двойной щелчок по ячейке открывает поле ввода поверх неё
+public class MatrixGridView extends Region {
+    private static final double CELL_WIDTH = 84;
+    private static final double CELL_HEIGHT = 22;
+    private static final double HEADER_WIDTH = 56;
+    private static final double HEADER_HEIGHT = 22;
+    private static final double PADDING = 6;
+
+    private final Canvas canvas = new Canvas();
+    private final ScrollBar horizontal = new ScrollBar();
+    private final ScrollBar vertical = new ScrollBar();
+    private final StringBuilder cellText = new StringBuilder(24);
+    private final TextField editor = new TextField();
+    private Matrix matrix;
+    private String message;
+    private CellEditListener editListener;
+    private int editRow = -1;
+    private int editCol = -1;
+
+    @FunctionalInterface
+    public interface CellEditListener {
+        void cellEdited(int row, int col, double value);
+    }
+
+    public MatrixGridView(String message) {
+        this.message = message;
+        horizontal.setOrientation(Orientation.HORIZONTAL);
+        vertical.setOrientation(Orientation.VERTICAL);
+        horizontal.valueProperty().addListener((obs, oldValue, newValue) -> {
+            cancelEdit();
+            draw();
+        });
+        vertical.valueProperty().addListener((obs, oldValue, newValue) -> {
+            cancelEdit();
+            draw();
+        });
+        setOnScroll(event -> {
+            vertical.setValue(clamp(vertical.getValue() - event.getDeltaY(), vertical.getMax()));
+            horizontal.setValue(clamp(horizontal.getValue() - event.getDeltaX(), horizontal.getMax()));
+        });
+        canvas.setOnMouseClicked(event -> {
+            if (event.getButton() == MouseButton.PRIMARY && event.getClickCount() == 2) {
+                startEdit(event.getX(), event.getY());
+            }
+        });
+        editor.setVisible(false);
+        editor.setManaged(false);
+        editor.setOnAction(event -> commitEdit());
+        editor.setOnKeyPressed(event -> {
+            if (event.getCode() == KeyCode.ESCAPE) {
+                cancelEdit();
+            }
+        });
+        editor.focusedProperty().addListener((obs, wasFocused, focused) -> {
+            if (!focused) {
+                cancelEdit();
+            }
+        });
+        getChildren().addAll(canvas, horizontal, vertical, editor);
+        setStyle("-fx-border-color: #c8c8c8; -fx-background-color: white;");
+    }
+
+    public void setMatrix(Matrix matrix) {
+        cancelEdit();
+        this.matrix = matrix;
+        this.message = null;
+        horizontal.setValue(0);
+        vertical.setValue(0);
+        requestLayout();
+        draw();
+    }
+
+    // Замена матрицы той же размерности после правки: положение прокрутки сохраняется
+    public void replaceMatrix(Matrix matrix) {
+        if (this.matrix == null || this.matrix.getRows() != matrix.getRows() || this.matrix.getCols() != matrix.getCols()) {
+            setMatrix(matrix);
+            return;
+        }
+        this.matrix = matrix;
+        draw();
+    }
+
+    public void setOnCellEdit(CellEditListener listener) {
+        this.editListener = listener;
+    }
+
+    public void setMessage(String message) {
+        cancelEdit();
+        this.matrix = null;
+        this.message = message;
+        requestLayout();
+        draw();
+    }
+
+    public Matrix getMatrix() {
+        return matrix;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double width = getWidth();
+        double height = getHeight();
+        double barWidth = vertical.prefWidth(-1);
+        double barHeight = horizontal.prefHeight(-1);
+        double viewWidth = Math.max(0, width - barWidth);
+        double viewHeight = Math.max(0, height - barHeight);
+        canvas.setWidth(viewWidth);
+        canvas.setHeight(viewHeight);
+        canvas.relocate(0, 0);
+        horizontal.resizeRelocate(0, viewHeight, viewWidth, barHeight);
+        vertical.resizeRelocate(viewWidth, 0, barWidth, viewHeight);
+
+        double contentWidth = matrix == null ? 0 : HEADER_WIDTH + matrix.getCols() * CELL_WIDTH;
+        double contentHeight = matrix == null ? 0 : HEADER_HEIGHT + matrix.getRows() * CELL_HEIGHT;
+        configure(horizontal, contentWidth, viewWidth, CELL_WIDTH);
+        configure(vertical, contentHeight, viewHeight, CELL_HEIGHT);
+        draw();
+    }
+
+    private void startEdit(double x, double y) {
+        if (editListener == null || matrix == null || x < HEADER_WIDTH || y < HEADER_HEIGHT) {
+            return;
+        }
+        int col = (int) ((x - HEADER_WIDTH + horizontal.getValue()) / CELL_WIDTH);
+        int row = (int) ((y - HEADER_HEIGHT + vertical.getValue()) / CELL_HEIGHT);
+        if (row >= matrix.getRows() || col >= matrix.getCols()) {
+            return;
+        }
+        editRow = row;
+        editCol = col;
+        editor.setText(Double.toString(matrix.get(row, col)));
+        editor.setStyle(null);
+        editor.resizeRelocate(HEADER_WIDTH + col * CELL_WIDTH - horizontal.getValue(),
+                HEADER_HEIGHT + row * CELL_HEIGHT - vertical.getValue(), CELL_WIDTH, CELL_HEIGHT);
+        editor.setVisible(true);
+        editor.requestFocus();
+        editor.selectAll();
+    }
+
+    private void commitEdit() {
+        if (editRow < 0) {
+            return;
+        }
+        double value;
+        try {
+            // Запятая допускается как десятичный разделитель, как в русской раскладке
+            value = Double.parseDouble(editor.getText().trim().replace(',', '.'));
+        } catch (NumberFormatException e) {
+            value = Double.NaN;
+        }
+        if (!Double.isFinite(value)) {
+            editor.setStyle("-fx-border-color: red;");
+            return;
+        }
+        int row = editRow;
+        int col = editCol;
+        cancelEdit();
+        editListener.cellEdited(row, col, value);
+    }
+
+    private void cancelEdit() {
+        editRow = -1;
+        editCol = -1;
+        editor.setVisible(false);
+    }
+
+    private static void configure(ScrollBar bar, double content, double viewport, double unit) {
+        double max = Math.max(0, content - viewport);
+        bar.setMin(0);
+        bar.setMax(max);
+        bar.setValue(clamp(bar.getValue(), max));
+        bar.setVisibleAmount(content <= 0 ? 1 : viewport * Math.max(max, 1) / content);
+        bar.setUnitIncrement(unit);
+        bar.setBlockIncrement(Math.max(unit, viewport - unit));
+        bar.setDisable(max == 0);
+    }
+
+    private static double clamp(double value, double max) {
+        return Math.max(0, Math.min(max, value));
+    }
+
+    private void draw() {
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        g.setFill(Color.WHITE);
+        g.fillRect(0, 0, width, height);
+        g.setFont(Font.font("Monospaced", 12));
+        g.setTextBaseline(VPos.CENTER);
+        if (matrix == null) {
+            if (message != null) {
+                g.setFill(Color.GRAY);
+                g.setTextAlign(TextAlignment.LEFT);
+                g.fillText(message, PADDING, HEADER_HEIGHT / 2 + PADDING);
+            }
+            return;
+        }
+
+        double scrollX = horizontal.getValue();
+        double scrollY = vertical.getValue();
+        int firstCol = (int) (scrollX / CELL_WIDTH);
+        int firstRow = (int) (scrollY / CELL_HEIGHT);
+        int lastCol = Math.min(matrix.getCols(), firstCol + (int) Math.ceil((width - HEADER_WIDTH) / CELL_WIDTH) + 1);
+        int lastRow = Math.min(matrix.getRows(), firstRow + (int) Math.ceil((height - HEADER_HEIGHT) / CELL_HEIGHT) + 1);
+        double originX = HEADER_WIDTH - (scrollX - firstCol * CELL_WIDTH);
+        double originY = HEADER_HEIGHT - (scrollY - firstRow * CELL_HEIGHT);
+
+        g.setTextAlign(TextAlignment.RIGHT);
+        g.setFill(Color.BLACK);
+        g.save();
+        g.beginPath();
+        g.rect(HEADER_WIDTH, HEADER_HEIGHT, Math.max(0, width - HEADER_WIDTH), Math.max(0, height - HEADER_HEIGHT));
+        g.clip();
+        for (int i = firstRow; i < lastRow; i++) {
+            double y = originY + (i - firstRow) * CELL_HEIGHT + CELL_HEIGHT / 2;
+            for (int j = firstCol; j < lastCol; j++) {
+                double x = originX + (j - firstCol + 1) * CELL_WIDTH - PADDING;
+                cellText.setLength(0);
+                MatrixFormat.appendFixed2(cellText, matrix.get(i, j));
+                g.fillText(cellText.toString(), x, y, CELL_WIDTH - PADDING);
+            }
+        }
+        g.restore();
+
+        // Заголовки строк и столбцов с номерами от 1, как в файлах с матрицами
+        g.setFill(Color.rgb(240, 240, 240));
+        g.fillRect(0, 0, width, HEADER_HEIGHT);
+        g.fillRect(0, 0, HEADER_WIDTH, height);
+        g.setFill(Color.DIMGRAY);
+        g.setTextAlign(TextAlignment.CENTER);
+        for (int j = firstCol; j < lastCol; j++) {
+            double x = originX + (j - firstCol) * CELL_WIDTH + CELL_WIDTH / 2;
+            if (x > HEADER_WIDTH) {
+                g.fillText(Integer.toString(j + 1), x, HEADER_HEIGHT / 2);
+            }
+        }
+        for (int i = firstRow; i < lastRow; i++) {
+            double y = originY + (i - firstRow) * CELL_HEIGHT + CELL_HEIGHT / 2;
+            if (y > HEADER_HEIGHT) {
+                g.fillText(Integer.toString(i + 1), HEADER_WIDTH / 2, y);
+            }
+        }
+        g.setFill(Color.rgb(240, 240, 240));
+        g.fillRect(0, 0, HEADER_WIDTH, HEADER_HEIGHT);
+        g.setFill(Color.DIMGRAY);
+        g.fillText(matrix.getRows() + "x" + matrix.getCols(), HEADER_WIDTH / 2, HEADER_HEIGHT / 2);
+    }
+}
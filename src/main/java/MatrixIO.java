@@ -1,75 +1,202 @@
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 public class MatrixIO {
     private static final Logger logger = LogManager.getLogger(MatrixIO.class);
     public static Matrix readMatrixFromFile(String filePath) throws MatrixException {
+        return readMatrixFromFile(filePath, ProgressMonitor.NONE);
+    }
+
+    // Прогресс отслеживается для текстовых файлов; двоичные, архивы и Matrix Market проверяют только отмену
+    public static Matrix readMatrixFromFile(String filePath, ProgressMonitor monitor) throws MatrixException {
         logger.info("Начало загрузки матрицы из файла: {}", filePath);
-        List<String> lines = readLinesFromPath(filePath);
-        List<double[]> rowData = parseAndValidateLines(lines);
-        if (rowData.isEmpty()) {
-            logger.error("В файле '{}' не найдено действительных строк матрицы.", filePath);
-            throw new MatrixException("В файле не найдено действительных строк матрицы.");
+        monitor.checkCancelled();
+        if (isBinaryFile(filePath)) {
+            return readMatrixBinary(filePath);
+        }
+        if (isArchiveFile(filePath)) {
+            return readMatrixArchive(filePath);
+        }
+        if (isMatrixMarketFile(filePath)) {
+            return readMatrixMarket(filePath);
+        }
+        try {
+            Matrix matrix = TextMatrixParser.parse(Paths.get(filePath), monitor);
+            logger.info("Матрица успешно загружена. Размерность: {}x{}", matrix.getRows(), matrix.getCols());
+            return matrix;
+        } catch (IOException e) {
+            logger.error("Ошибка I/O при чтении файла: {}", filePath, e);
+            throw new MatrixException("Ошибка чтения файла: ");
         }
-        double[][] data = rowData.toArray(new double[0][0]);
-        logger.info("Матрица успешно загружена. Размерность: {}x{}", data.length, data[0].length);
-        return new Matrix(data);
     }
 
-    private static List<String> readLinesFromPath(String filePath) throws MatrixException {
+    public static Matrix readMatrixBinary(String filePath) throws MatrixException {
         try {
-            return Files.readAllLines(Paths.get(filePath)).stream()
-                    .map(String::trim)
-                    .filter(line -> !line.isEmpty())
-                    .collect(Collectors.toList());
+            Matrix matrix = BinaryMatrixFormat.read(Paths.get(filePath));
+            logger.info("Двоичная матрица успешно загружена. Размерность: {}x{}", matrix.getRows(), matrix.getCols());
+            return matrix;
         } catch (IOException e) {
-            logger.error("Ошибка I/O при чтении файла: {}", filePath, e);
+            logger.error("Ошибка I/O при чтении двоичного файла: {}", filePath, e);
             throw new MatrixException("Ошибка чтения файла: ");
         }
     }
 
-    private static List<double[]> parseAndValidateLines(List<String> lines) throws MatrixException {
-        if (lines.isEmpty()) {
-            throw new MatrixException("Файл пуст или не содержит данных.");
+    // Двоичный файл float32 загружается без промежуточного double; остальные форматы читаются обычным путём
+    // и округляются до float, так что пиковая память для них та же, что у readMatrixFromFile
+    public static FloatMatrix readFloatMatrixFromFile(String filePath) throws MatrixException {
+        if (!isBinaryFile(filePath)) {
+            return FloatMatrix.of(readMatrixFromFile(filePath));
+        }
+        try {
+            FloatMatrix matrix = BinaryMatrixFormat.readFloat(Paths.get(filePath));
+            logger.info("Двоичная матрица float32 успешно загружена. Размерность: {}x{}", matrix.getRows(), matrix.getCols());
+            return matrix;
+        } catch (IOException e) {
+            logger.error("Ошибка I/O при чтении двоичного файла: {}", filePath, e);
+            throw new MatrixException("Ошибка чтения файла: ");
+        }
+    }
+
+    public static void writeMatrixBinary(FloatMatrix matrix, String filePath) throws MatrixException {
+        try {
+            BinaryMatrixFormat.write(matrix, Paths.get(filePath));
+            logger.info("Матрица float32 {}x{} сохранена в двоичный файл: {}", matrix.getRows(), matrix.getCols(), filePath);
+        } catch (IOException e) {
+            logger.error("Ошибка I/O при записи файла: {}", filePath, e);
+            throw new MatrixException("Ошибка записи файла: ");
         }
-        List<double[]> rowData = new ArrayList<>();
-        int expectedCols = -1;
+    }
 
-        for (String line : lines) {
-            double[] row = parseLineToDouble(line);
+    public static void writeMatrixBinary(Matrix matrix, String filePath) throws MatrixException {
+        try {
+            BinaryMatrixFormat.write(matrix, Paths.get(filePath));
+            logger.info("Матрица {}x{} сохранена в двоичный файл: {}", matrix.getRows(), matrix.getCols(), filePath);
+        } catch (IOException e) {
+            logger.error("Ошибка I/O при записи файла: {}", filePath, e);
+            throw new MatrixException("Ошибка записи файла: ");
+        }
+    }
 
-            if (expectedCols == -1) {
-                expectedCols = row.length;
-                logger.debug("Установлено ожидаемое количество столбцов: {}", expectedCols);
-            } else if (row.length != expectedCols) {
-                logger.error("Нарушена прямоугольность: строка {} содержит {} столбцов, ожидалось {}.", line, row.length, expectedCols);
-                throw new MatrixException("Количество элементов в некоторых строках отличается от большинства");
-            }
-            if (row.length > 0) {
-                rowData.add(row);
-            }
+    public static Matrix readMatrixArchive(String filePath) throws MatrixException {
+        try {
+            Matrix matrix = MatrixArchive.read(Paths.get(filePath));
+            logger.info("Матрица из архива успешно загружена. Размерность: {}x{}", matrix.getRows(), matrix.getCols());
+            return matrix;
+        } catch (IOException e) {
+            logger.error("Ошибка I/O при чтении архива: {}", filePath, e);
+            throw new MatrixException("Ошибка чтения файла: ");
         }
-        return rowData;
     }
 
-    private static double[] parseLineToDouble(String line) throws MatrixException {
-        String[] elements = line.split("\\s+");
-        double[] row = new double[elements.length];
+    // Только строки [rowFrom, rowFrom + rowCount): распаковываются лишь содержащие их блоки архива
+    public static Matrix readMatrixArchive(String filePath, int rowFrom, int rowCount) throws MatrixException {
+        try {
+            Matrix matrix = MatrixArchive.read(Paths.get(filePath), rowFrom, rowCount);
+            logger.info("Строки {}..{} матрицы загружены из архива {}", rowFrom + 1, rowFrom + rowCount, filePath);
+            return matrix;
+        } catch (IOException e) {
+            logger.error("Ошибка I/O при чтении архива: {}", filePath, e);
+            throw new MatrixException("Ошибка чтения файла: ");
+        }
+    }
 
-        for (int i = 0; i < elements.length; i++) {
-            try {
-                row[i] = Double.parseDouble(elements[i].replace(',', '.'));
-            } catch (NumberFormatException e) {
-                logger.error("Неверный формат числа '{}' в строке парсинга.", elements[i], e);
-                throw new MatrixException("Неверный формат числа в файле:");
+    public static void writeMatrixArchive(Matrix matrix, String filePath) throws MatrixException {
+        try {
+            MatrixArchive.write(matrix, Paths.get(filePath));
+            logger.info("Матрица {}x{} сохранена в сжатый архив: {}", matrix.getRows(), matrix.getCols(), filePath);
+        } catch (IOException e) {
+            logger.error("Ошибка I/O при записи файла: {}", filePath, e);
+            throw new MatrixException("Ошибка записи файла: ");
+        }
+    }
+
+    public static Matrix readMatrixMarket(String filePath) throws MatrixException {
+        try {
+            Matrix matrix = MatrixMarketFormat.read(Paths.get(filePath));
+            logger.info("Разреженная матрица успешно загружена. Размерность: {}x{}, ненулевых элементов: {}",
+                    matrix.getRows(), matrix.getCols(), matrix.csr().nonZeros());
+            return matrix;
+        } catch (IOException e) {
+            logger.error("Ошибка I/O при чтении файла Matrix Market: {}", filePath, e);
+            throw new MatrixException("Ошибка чтения файла: ");
+        }
+    }
+
+    public static void writeMatrixMarket(Matrix matrix, String filePath) throws MatrixException {
+        try {
+            MatrixMarketFormat.write(matrix, Paths.get(filePath));
+            logger.info("Матрица {}x{} сохранена в формате Matrix Market: {}", matrix.getRows(), matrix.getCols(), filePath);
+        } catch (IOException e) {
+            logger.error("Ошибка I/O при записи файла: {}", filePath, e);
+            throw new MatrixException("Ошибка записи файла: ");
+        }
+    }
+
+    // Формат выбирается по расширению: .bin — двоичный, .mtxz — сжатый архив, .mtx — Matrix Market, иначе текст
+    public static void writeMatrix(Matrix matrix, String filePath) throws MatrixException {
+        String name = filePath.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".bin")) {
+            writeMatrixBinary(matrix, filePath);
+        } else if (name.endsWith(".mtxz")) {
+            writeMatrixArchive(matrix, filePath);
+        } else if (name.endsWith(".mtx")) {
+            writeMatrixMarket(matrix, filePath);
+        } else {
+            writeMatrixText(matrix, filePath);
+        }
+    }
+
+    // Текст в формате, который читает readMatrixFromFile; значения пишутся без потери точности
+    public static void writeMatrixText(Matrix matrix, String filePath) throws MatrixException {
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(filePath), StandardCharsets.US_ASCII)) {
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < matrix.getRows(); i++) {
+                line.setLength(0);
+                for (int j = 0; j < matrix.getCols(); j++) {
+                    if (j > 0) {
+                        line.append(' ');
+                    }
+                    line.append(matrix.get(i, j));
+                }
+                writer.append(line).append('\n');
             }
+            logger.info("Матрица {}x{} сохранена в текстовый файл: {}", matrix.getRows(), matrix.getCols(), filePath);
+        } catch (IOException e) {
+            logger.error("Ошибка I/O при записи файла: {}", filePath, e);
+            throw new MatrixException("Ошибка записи файла: ");
+        }
+    }
+
+    private static boolean isMatrixMarketFile(String filePath) throws MatrixException {
+        try {
+            return MatrixMarketFormat.isMatrixMarketFile(Paths.get(filePath));
+        } catch (IOException e) {
+            logger.error("Ошибка I/O при чтении файла: {}", filePath, e);
+            throw new MatrixException("Ошибка чтения файла: ");
+        }
+    }
+
+    private static boolean isArchiveFile(String filePath) throws MatrixException {
+        try {
+            return MatrixArchive.isArchiveFile(Paths.get(filePath));
+        } catch (IOException e) {
+            logger.error("Ошибка I/O при чтении файла: {}", filePath, e);
+            throw new MatrixException("Ошибка чтения файла: ");
+        }
+    }
+
+    private static boolean isBinaryFile(String filePath) throws MatrixException {
+        try {
+            return BinaryMatrixFormat.isBinaryFile(Paths.get(filePath));
+        } catch (IOException e) {
+            logger.error("Ошибка I/O при чтении файла: {}", filePath, e);
+            throw new MatrixException("Ошибка чтения файла: ");
         }
-        return row;
     }
 }
\ No newline at end of file
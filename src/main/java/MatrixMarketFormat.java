@@ -0,0 +1,175 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Координатный формат Matrix Market: заголовок "%%MatrixMarket matrix coordinate <field> <symmetry>",
+// строка "rows cols nnz" и далее тройки "i j value" с индексами от 1
+public class MatrixMarketFormat {
+    private static final Logger logger = LogManager.getLogger(MatrixMarketFormat.class);
+    static final String BANNER = "%%MatrixMarket";
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    public static boolean isMatrixMarketFile(Path path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.ISO_8859_1)) {
+            char[] prefix = new char[BANNER.length()];
+            int read = reader.read(prefix);
+            return read == prefix.length && BANNER.equalsIgnoreCase(new String(prefix));
+        }
+    }
+
+    public static Matrix read(Path path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String[] banner = splitTokens(reader.readLine());
+            if (banner.length < 5 || !BANNER.equalsIgnoreCase(banner[0]) || !"matrix".equalsIgnoreCase(banner[1])) {
+                throw new MatrixException("Некорректный заголовок файла Matrix Market.");
+            }
+            if (!"coordinate".equalsIgnoreCase(banner[2])) {
+                throw new MatrixException("Поддерживается только координатный формат Matrix Market.");
+            }
+            String field = banner[3].toLowerCase(Locale.ROOT);
+            String symmetry = banner[4].toLowerCase(Locale.ROOT);
+            boolean pattern = "pattern".equals(field);
+            if (!pattern && !"real".equals(field) && !"integer".equals(field)) {
+                throw new MatrixException("Неподдерживаемый тип элементов Matrix Market: " + field);
+            }
+            boolean symmetric = "symmetric".equals(symmetry);
+            boolean skew = "skew-symmetric".equals(symmetry);
+            if (!symmetric && !skew && !"general".equals(symmetry)) {
+                throw new MatrixException("Неподдерживаемый тип симметрии Matrix Market: " + symmetry);
+            }
+
+            String line = nextDataLine(reader);
+            String[] size = splitTokens(line);
+            if (size.length != 3) {
+                throw new MatrixException("Некорректная строка размерности в файле Matrix Market.");
+            }
+            int rows = parseIndex(size[0]);
+            int cols = parseIndex(size[1]);
+            int declared = parseIndex(size[2]);
+            if (rows <= 0 || cols <= 0) {
+                throw new MatrixException("Матрица не может быть пустой.");
+            }
+
+            if (declared < 0 || declared > (long) rows * cols) {
+                logger.error("Объявлено {} элементов для матрицы {}x{}", declared, rows, cols);
+                throw new MatrixException("Некорректное число элементов в файле Matrix Market: " + declared);
+            }
+
+            // Массивы растут по мере чтения: заголовок не должен заставлять выделять память под элементы, которых нет
+            long limit = Math.min((long) declared * (symmetric || skew ? 2 : 1), Integer.MAX_VALUE - 8);
+            int capacity = (int) Math.min(limit, INITIAL_CAPACITY);
+            int[] rowIndex = new int[capacity];
+            int[] colIndex = new int[capacity];
+            double[] entries = new double[capacity];
+            int count = 0;
+            for (int e = 0; e < declared; e++) {
+                String[] tokens = splitTokens(nextDataLine(reader));
+                if (tokens.length < (pattern ? 2 : 3)) {
+                    throw new MatrixException("Некорректная строка элемента в файле Matrix Market.");
+                }
+                int i = parseIndex(tokens[0]) - 1;
+                int j = parseIndex(tokens[1]) - 1;
+                if (i < 0 || i >= rows || j < 0 || j >= cols) {
+                    logger.error("Индекс ({}, {}) вне матрицы {}x{}", i + 1, j + 1, rows, cols);
+                    throw new MatrixException("Индекс элемента вне границ матрицы в файле Matrix Market.");
+                }
+                double value = pattern ? 1.0 : parseValue(tokens[2]);
+                int needed = count + ((symmetric || skew) && i != j ? 2 : 1);
+                if (needed > capacity) {
+                    if (needed > limit) {
+                        throw new MatrixException("Слишком много элементов в файле Matrix Market.");
+                    }
+                    capacity = (int) Math.min(limit, Math.max((long) capacity * 2, needed));
+                    rowIndex = Arrays.copyOf(rowIndex, capacity);
+                    colIndex = Arrays.copyOf(colIndex, capacity);
+                    entries = Arrays.copyOf(entries, capacity);
+                }
+                rowIndex[count] = i;
+                colIndex[count] = j;
+                entries[count++] = value;
+                if ((symmetric || skew) && i != j) {
+                    rowIndex[count] = j;
+                    colIndex[count] = i;
+                    entries[count++] = skew ? -value : value;
+                }
+            }
+            logger.debug("Прочитано {} элементов Matrix Market для матрицы {}x{}", count, rows, cols);
+            return Matrix.wrapSparse(CsrStorage.fromCoordinates(rows, cols, rowIndex, colIndex, entries, count));
+        }
+    }
+
+    public static void write(Matrix matrix, Path path) throws IOException {
+        CsrStorage csr = matrix.toSparse().csr();
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+            writer.write(BANNER + " matrix coordinate real general\n");
+            writer.write(csr.getRows() + " " + csr.getCols() + " " + csr.nonZeros() + "\n");
+            for (int i = 0; i < csr.getRows(); i++) {
+                for (int p = csr.rowPtr()[i]; p < csr.rowPtr()[i + 1]; p++) {
+                    writer.write((i + 1) + " " + (csr.colIdx()[p] + 1) + " " + Double.toString(csr.values()[p]) + "\n");
+                }
+            }
+        }
+    }
+
+    private static String nextDataLine(BufferedReader reader) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && trimmed.charAt(0) != '%') {
+                return trimmed;
+            }
+        }
+        throw new MatrixException("Файл Matrix Market обрывается раньше объявленного числа элементов.");
+    }
+
+    private static String[] splitTokens(String line) {
+        if (line == null) {
+            throw new MatrixException("Файл пуст или не содержит данных.");
+        }
+        String[] tokens = new String[4];
+        int count = 0;
+        int i = 0;
+        int length = line.length();
+        while (i < length) {
+            while (i < length && Character.isWhitespace(line.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && !Character.isWhitespace(line.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                if (count == tokens.length) {
+                    tokens = Arrays.copyOf(tokens, count * 2);
+                }
+                tokens[count++] = line.substring(start, i);
+            }
+        }
+        return Arrays.copyOf(tokens, count);
+    }
+
+    private static int parseIndex(String token) {
+        try {
+            return Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            logger.error("Неверный формат индекса '{}' в файле Matrix Market.", token, e);
+            throw new MatrixException("Неверный формат числа в файле:");
+        }
+    }
+
+    private static double parseValue(String token) {
+        try {
+            return Double.parseDouble(token);
+        } catch (NumberFormatException e) {
+            logger.error("Неверный формат числа '{}' в файле Matrix Market.", token, e);
+            throw new MatrixException("Неверный формат числа в файле:");
+        }
+    }
+}
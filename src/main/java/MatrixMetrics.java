@@ -0,0 +1,107 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Реестр метрик операций. Каждая операция публикуется как MBean
+// "MatrixCalculator:type=OperationStats,name=<операция>", управление — "MatrixCalculator:type=Metrics".
+// Подробный журнал на горячих путях (конструктор Matrix, MatrixOperations) по умолчанию выключен и
+// включается системным свойством -Dmatrix.hotPathLogging=true или атрибутом HotPathLogging
+public class MatrixMetrics implements MatrixMetricsMBean {
+    private static final Logger logger = LogManager.getLogger(MatrixMetrics.class);
+    static final String DOMAIN = "MatrixCalculator";
+
+    private static final MatrixMetrics INSTANCE = new MatrixMetrics();
+    private static final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private static volatile boolean hotPathLogging = Boolean.getBoolean("matrix.hotPathLogging");
+
+    static {
+        register(INSTANCE, DOMAIN + ":type=Metrics");
+    }
+
+    private MatrixMetrics() {
+    }
+
+    // Проверка перед сообщением журнала на горячем пути: одно чтение volatile вместо форматирования
+    public static boolean hotPathLogging() {
+        return hotPathLogging;
+    }
+
+    public static void setHotPathLoggingEnabled(boolean enabled) {
+        hotPathLogging = enabled;
+        logger.info("Подробный журнал горячих путей {}", enabled ? "включён" : "выключен");
+    }
+
+    public static OperationStats stats(String operation) {
+        OperationStats stats = operations.get(operation);
+        if (stats == null) {
+            stats = operations.computeIfAbsent(operation, name -> {
+                OperationStats created = new OperationStats(name);
+                register(created, DOMAIN + ":type=OperationStats,name=" + ObjectName.quote(name));
+                return created;
+            });
+        }
+        return stats;
+    }
+
+    public static void record(String operation, long startNanos, long flops, long bytes, long elements) {
+        stats(operation).record(System.nanoTime() - startNanos, flops, bytes, elements);
+    }
+
+    // Байты, занятые результатом: плотный массив или три массива CSR
+    static long bytesOf(Matrix result) {
+        if (result.isSparse()) {
+            CsrStorage csr = result.csr();
+            return 12L * csr.nonZeros() + 4L * (csr.getRows() + 1);
+        }
+        return 8L * result.getRows() * result.getCols();
+    }
+
+    static long elementsOf(Matrix result) {
+        return (long) result.getRows() * result.getCols();
+    }
+
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        operations.values().stream()
+                .sorted((x, y) -> x.getName().compareTo(y.getName()))
+                .forEach(stats -> sb.append(stats).append('\n'));
+        return sb.toString();
+    }
+
+    static void register(Object bean, String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(bean, objectName);
+            }
+        } catch (JMException | RuntimeException e) {
+            logger.warn("Не удалось зарегистрировать MBean {}", name, e);
+        }
+    }
+
+    @Override
+    public boolean isHotPathLogging() {
+        return hotPathLogging;
+    }
+
+    @Override
+    public void setHotPathLogging(boolean enabled) {
+        setHotPathLoggingEnabled(enabled);
+    }
+
+    @Override
+    public String[] getOperations() {
+        return operations.keySet().stream().sorted().toArray(String[]::new);
+    }
+
+    @Override
+    public void reset() {
+        operations.values().forEach(OperationStats::reset);
+    }
+}
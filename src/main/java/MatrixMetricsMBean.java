@@ -0,0 +1,10 @@
+// Управление сбором метрик через JMX
+public interface MatrixMetricsMBean {
+    boolean isHotPathLogging();
+
+    void setHotPathLogging(boolean enabled);
+
+    String[] getOperations();
+
+    void reset();
+}
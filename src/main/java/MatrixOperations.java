@@ -1,62 +1,154 @@
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Paths;
 import java.util.stream.IntStream;
 
 public class MatrixOperations {
     private static final Logger logger = LogManager.getLogger(MatrixOperations.class);
 
     public static Matrix sum(Matrix a, Matrix b) throws MatrixException {
-        logger.debug("Начало операции сложения: A({}x{}) + B({}x{})", a.getRows(), a.getCols(), b.getRows(), b.getCols());
+        return sum(a, b, ProgressMonitor.NONE);
+    }
+
+    public static Matrix sum(Matrix a, Matrix b, ProgressMonitor monitor) throws MatrixException {
+        if (MatrixMetrics.hotPathLogging() && logger.isDebugEnabled()) {
+            logger.debug("Начало операции сложения: A({}x{}) + B({}x{})", a.getRows(), a.getCols(), b.getRows(), b.getCols());
+        }
         if (a.getRows() != b.getRows() || a.getCols() != b.getCols()) {
             logger.error("Ошибка сложения: Матрицы должны быть одинакового размера. A: {}x{}, B: {}x{}", a.getRows(), a.getCols(), b.getRows(), b.getCols());
             throw new MatrixException("Для сложения матрицы должны быть одного размера.");
         }
-        int rows = a.getRows();
-        int cols = a.getCols();
-        double[][] resultData = new double[rows][cols];
-
-        IntStream.range(0, rows).forEach(i ->
-                IntStream.range(0, cols).forEach(j ->
-                        resultData[i][j] = a.get(i, j) + b.get(i, j)
-                )
-        );
-        logger.info("Операция сложения успешно завершена. Размерность результата: {}x{}", rows, cols);
-        return new Matrix(resultData);
+        // Без кэша: подтверждение попадания сравнением операндов стоит столько же, сколько само сложение
+        Matrix result = combine(a, b, 1.0, "sum", monitor);
+        if (MatrixMetrics.hotPathLogging() && logger.isInfoEnabled()) {
+            logger.info("Операция сложения успешно завершена. Размерность результата: {}x{}", result.getRows(), result.getCols());
+        }
+        return result;
     }
 
     public static Matrix subtract(Matrix a, Matrix b) throws MatrixException {
-        logger.debug("Начало операции вычитания: A({}x{}) - B({}x{})", a.getRows(), a.getCols(), b.getRows(), b.getCols());
+        return subtract(a, b, ProgressMonitor.NONE);
+    }
+
+    public static Matrix subtract(Matrix a, Matrix b, ProgressMonitor monitor) throws MatrixException {
+        if (MatrixMetrics.hotPathLogging() && logger.isDebugEnabled()) {
+            logger.debug("Начало операции вычитания: A({}x{}) - B({}x{})", a.getRows(), a.getCols(), b.getRows(), b.getCols());
+        }
         if (a.getRows() != b.getRows() || a.getCols() != b.getCols()) {
             logger.error("Ошибка вычитания: Матрицы должны быть одинакового размера. A: {}x{}, B: {}x{}", a.getRows(), a.getCols(), b.getRows(), b.getCols());
             throw new MatrixException("Для вычитания матрицы должны быть одного размера.");
         }
+        Matrix result = combine(a, b, -1.0, "subtract", monitor);
+        if (MatrixMetrics.hotPathLogging() && logger.isInfoEnabled()) {
+            logger.info("Операция вычитания успешно завершена. Размерность результата: {}x{}", result.getRows(), result.getCols());
+        }
+        return result;
+    }
+
+    private static Matrix combine(Matrix a, Matrix b, double sign, String operation, ProgressMonitor monitor) {
+        long start = System.nanoTime();
+        if (a.isSparse() || b.isSparse()) {
+            Matrix result = SparseOperations.combine(a, b, sign);
+            MatrixMetrics.record(operation + "Sparse", start, 0, MatrixMetrics.bytesOf(result), MatrixMetrics.elementsOf(result));
+            return result;
+        }
         int rows = a.getRows();
         int cols = a.getCols();
-        double[][] resultData = new double[rows][cols];
-
-        IntStream.range(0, rows).forEach(i ->
-                IntStream.range(0, cols).forEach(j ->
-                        resultData[i][j] = a.get(i, j) - b.get(i, j)
-                )
-        );
-        logger.info("Операция вычитания успешно завершена. Размерность результата: {}x{}", rows, cols);
-        return new Matrix(resultData);
+        double[] resultData = Matrix.newDenseData(rows, cols);
+        combineRows(a, b, sign, resultData, rows, monitor);
+        MatrixMetrics.record(operation, start, (long) rows * cols, 8L * resultData.length, resultData.length);
+        return Matrix.wrap(resultData, rows, cols);
     }
 
     public static Matrix multiply(Matrix a, Matrix b) throws MatrixException {
-        logger.debug("Начало операции умножения: A({}x{}) * B({}x{})", a.getRows(), a.getCols(), b.getRows(), b.getCols());
+        return multiply(a, b, ProgressMonitor.NONE);
+    }
+
+    public static Matrix multiply(Matrix a, Matrix b, ProgressMonitor monitor) throws MatrixException {
+        if (MatrixMetrics.hotPathLogging() && logger.isDebugEnabled()) {
+            logger.debug("Начало операции умножения: A({}x{}) * B({}x{})", a.getRows(), a.getCols(), b.getRows(), b.getCols());
+        }
 
         if (a.getCols() != b.getRows()) {
             logger.error("Ошибка умножения: Количество столбцов A ({}) не равно количеству строк B ({}).", a.getCols(), b.getRows());
             throw new MatrixException("Для умножения количество столбцов A должно совпадать с количеством строк B.");
         }
+        if (isSmallSquare(a) && isSmallSquare(b)) {
+            // Развёрнутое ядро дешевле хеширования для кэша и записи метрик
+            return SmallMatrixKernels.multiply(a, b);
+        }
 
+        Matrix result = ResultCache.shared().getOrCompute("multiply", a, b, () -> {
+            long start = System.nanoTime();
+            boolean sparse = a.isSparse() || b.isSparse();
+            monitor.checkCancelled();
+            Matrix product = sparse ? SparseOperations.multiply(a, b) : MultiplyKernel.multiply(a, b, monitor);
+            MatrixMetrics.record(sparse ? "multiplySparse" : "multiply", start,
+                    sparse ? 0 : 2L * a.getRows() * a.getCols() * b.getCols(),
+                    MatrixMetrics.bytesOf(product), MatrixMetrics.elementsOf(product));
+            return product;
+        });
+        if (MatrixMetrics.hotPathLogging() && logger.isInfoEnabled()) {
+            logger.info("Операция умножения успешно завершена. Размерность результата: {}x{}", a.getRows(), b.getCols());
+        }
+        return result;
+    }
+
+    // Умножение по Штрассену–Винограду; быстрее классического для больших плотных матриц,
+    // но гарантирует лишь нормовую, а не покомпонентную оценку погрешности (см. StrassenMultiplier)
+    public static Matrix multiplyStrassen(Matrix a, Matrix b) throws MatrixException {
+        if (MatrixMetrics.hotPathLogging() && logger.isDebugEnabled()) {
+            logger.debug("Начало умножения Штрассена–Винограда: A({}x{}) * B({}x{})", a.getRows(), a.getCols(), b.getRows(), b.getCols());
+        }
+        if (a.getCols() != b.getRows()) {
+            logger.error("Ошибка умножения: Количество столбцов A ({}) не равно количеству строк B ({}).", a.getCols(), b.getRows());
+            throw new MatrixException("Для умножения количество столбцов A должно совпадать с количеством строк B.");
+        }
+        Matrix result = ResultCache.shared().getOrCompute("multiplyStrassen", a, b, () -> {
+            long start = System.nanoTime();
+            boolean sparse = a.isSparse() || b.isSparse();
+            Matrix product = sparse ? SparseOperations.multiply(a, b) : StrassenMultiplier.multiply(a, b);
+            MatrixMetrics.record(sparse ? "multiplySparse" : "multiplyStrassen", start,
+                    sparse ? 0 : 2L * a.getRows() * a.getCols() * b.getCols(),
+                    MatrixMetrics.bytesOf(product), MatrixMetrics.elementsOf(product));
+            return product;
+        });
+        if (MatrixMetrics.hotPathLogging() && logger.isInfoEnabled()) {
+            logger.info("Операция умножения успешно завершена. Размерность результата: {}x{}", a.getRows(), b.getCols());
+        }
+        return result;
+    }
+
+    public static void multiplyOutOfCore(String aPath, String bPath, String resultPath, long memoryBytes) throws MatrixException {
+        multiplyOutOfCore(aPath, bPath, resultPath, memoryBytes, ProgressMonitor.NONE);
+    }
+
+    // Умножение двоичных файлов матриц, не помещающихся в память, тайлами в пределах memoryBytes (см. OutOfCoreMultiplier)
+    public static void multiplyOutOfCore(String aPath, String bPath, String resultPath, long memoryBytes,
+                                         ProgressMonitor monitor) throws MatrixException {
+        logger.info("Начало внешнего умножения {} * {} -> {}, лимит памяти {} МБ", aPath, bPath, resultPath, memoryBytes >> 20);
+        long start = System.nanoTime();
+        try {
+            new OutOfCoreMultiplier(memoryBytes).multiply(Paths.get(aPath), Paths.get(bPath), Paths.get(resultPath), monitor);
+        } catch (IOException e) {
+            logger.error("Ошибка I/O при внешнем умножении: {} * {} -> {}", aPath, bPath, resultPath, e);
+            throw new MatrixException("Ошибка ввода-вывода при внешнем умножении: " + e.getMessage());
+        }
+        logger.info("Внешнее умножение успешно завершено за {} мс: {}", (System.nanoTime() - start) / 1_000_000, resultPath);
+    }
+
+    // Эталонная реализация умножения, используется для проверки корректности быстрых ядер
+    public static Matrix multiplyReference(Matrix a, Matrix b) throws MatrixException {
+        if (a.getCols() != b.getRows()) {
+            throw new MatrixException("Для умножения количество столбцов A должно совпадать с количеством строк B.");
+        }
         int rowsA = a.getRows();
         int colsA = a.getCols();
         int colsB = b.getCols();
         double[][] resultData = new double[rowsA][colsB];
 
-        // Основной алгоритм умножения
         IntStream.range(0, rowsA).forEach(i -> {
             IntStream.range(0, colsB).forEach(j -> {
                 double sum = IntStream.range(0, colsA)
@@ -67,20 +159,246 @@ public class MatrixOperations {
             });
         });
 
-        logger.info("Операция умножения успешно завершена. Размерность результата: {}x{}", rowsA, colsB);
         return new Matrix(resultData);
     }
 
     public static double determinant(Matrix matrix) throws MatrixException {
-        logger.debug("Начало вычисления определителя для матрицы {}x{}", matrix.getRows(), matrix.getCols());
+        return determinant(matrix, ProgressMonitor.NONE);
+    }
+
+    public static double determinant(Matrix matrix, ProgressMonitor monitor) throws MatrixException {
+        if (MatrixMetrics.hotPathLogging() && logger.isDebugEnabled()) {
+            logger.debug("Начало вычисления определителя для матрицы {}x{}", matrix.getRows(), matrix.getCols());
+        }
 
         if (matrix.getRows() != matrix.getCols()) {
             logger.error("Ошибка определителя: Матрица не квадратная ({}x{}).", matrix.getRows(), matrix.getCols());
             throw new MatrixException("Определитель можно вычислить только для квадратной матрицы.");
         }
-        double result = DeterminantCalculator.calculate(matrix);
-
-        logger.info("Вычисление определителя завершено. Результат: {}", result);
+        if (isSmallSquare(matrix)) {
+            return SmallMatrixKernels.determinantPivoted(matrix.getRows(), matrix.toArray());
+        }
+        double result = ResultCache.shared().getOrCompute("determinant", matrix, () -> {
+            long start = System.nanoTime();
+            double determinant = DeterminantCalculator.calculate(matrix, monitor);
+            long n = matrix.getRows();
+            MatrixMetrics.record("determinant", start, 2 * n * n * n / 3, 8 * n * n, n * n);
+            return determinant;
+        });
+        if (MatrixMetrics.hotPathLogging() && logger.isInfoEnabled()) {
+            logger.info("Вычисление определителя завершено. Результат: {}", result);
+        }
         return result;
     }
+
+    // Точный определитель целочисленной матрицы без кэша: результат BigInteger, а не double
+    public static BigInteger determinantExact(Matrix matrix) throws MatrixException {
+        return determinantExact(matrix, ProgressMonitor.NONE);
+    }
+
+    public static BigInteger determinantExact(Matrix matrix, ProgressMonitor monitor) throws MatrixException {
+        long start = System.nanoTime();
+        BigInteger determinant = DeterminantCalculator.calculateExact(matrix, monitor);
+        long n = matrix.getRows();
+        MatrixMetrics.record("determinantExact", start, 2 * n * n * n / 3, 8 * n * n, n * n);
+        return determinant;
+    }
+
+    private static boolean isSmallSquare(Matrix m) {
+        return m.getRows() <= SmallMatrixKernels.MAX_SIZE && m.getRows() == m.getCols() && !m.isSparse();
+    }
+
+    // Варианты для FloatMatrix: те же ядра на float, без кэша результатов (он ключуется содержимым Matrix)
+    public static FloatMatrix sum(FloatMatrix a, FloatMatrix b) throws MatrixException {
+        return combine(a, b, 1.0f, "sumFloat");
+    }
+
+    public static FloatMatrix subtract(FloatMatrix a, FloatMatrix b) throws MatrixException {
+        return combine(a, b, -1.0f, "subtractFloat");
+    }
+
+    private static FloatMatrix combine(FloatMatrix a, FloatMatrix b, float sign, String operation) {
+        if (a.getRows() != b.getRows() || a.getCols() != b.getCols()) {
+            logger.error("Ошибка поэлементной операции: Матрицы должны быть одинакового размера. A: {}x{}, B: {}x{}", a.getRows(), a.getCols(), b.getRows(), b.getCols());
+            throw new MatrixException("Матрицы должны быть одного размера.");
+        }
+        long start = System.nanoTime();
+        float[] result = FloatMatrix.newDenseData(a.getRows(), a.getCols());
+        VectorKernels.combine(a.rawData(), 0, b.rawData(), 0, sign, result, 0, result.length);
+        MatrixMetrics.record(operation, start, result.length, 4L * result.length, result.length);
+        return FloatMatrix.wrap(result, a.getRows(), a.getCols());
+    }
+
+    public static FloatMatrix multiply(FloatMatrix a, FloatMatrix b) throws MatrixException {
+        if (a.getCols() != b.getRows()) {
+            logger.error("Ошибка умножения: Количество столбцов A ({}) не равно количеству строк B ({}).", a.getCols(), b.getRows());
+            throw new MatrixException("Для умножения количество столбцов A должно совпадать с количеством строк B.");
+        }
+        long start = System.nanoTime();
+        float[] c = FloatMatrix.newDenseData(a.getRows(), b.getCols());
+        MultiplyKernel.multiplyRows(a, b, c, 0, a.getRows());
+        MatrixMetrics.record("multiplyFloat", start, 2L * a.getRows() * a.getCols() * b.getCols(), 4L * c.length, c.length);
+        return FloatMatrix.wrap(c, a.getRows(), b.getCols());
+    }
+
+    // Решение A X = B: разложение во float, точность double восстанавливается итерационным уточнением
+    public static MixedPrecisionLU.RefinedSolution solveMixedPrecision(Matrix a, Matrix b) throws MatrixException {
+        MixedPrecisionLU.RefinedSolution solution = new MixedPrecisionLU(a).solve(b);
+        if (MatrixMetrics.hotPathLogging() && logger.isInfoEnabled()) {
+            logger.info("Решение со смешанной точностью: шагов уточнения {}, относительная невязка {}, переход на double: {}",
+                    solution.getIterations(), solution.getResidual(), solution.isFallback());
+        }
+        return solution;
+    }
+
+    // Варианты с передачей результата: out перезаписывается на месте, новая память не выделяется,
+    // а успешное выполнение не пишется в журнал, чтобы их можно было вызывать в итерационных циклах
+    public static void sumInto(Matrix a, Matrix b, MutableMatrix out) throws MatrixException {
+        if (a.getRows() != b.getRows() || a.getCols() != b.getCols()) {
+            logger.error("Ошибка сложения: Матрицы должны быть одинакового размера. A: {}x{}, B: {}x{}", a.getRows(), a.getCols(), b.getRows(), b.getCols());
+            throw new MatrixException("Для сложения матрицы должны быть одного размера.");
+        }
+        combineInto(a, b, 1.0, out);
+    }
+
+    public static void subtractInto(Matrix a, Matrix b, MutableMatrix out) throws MatrixException {
+        if (a.getRows() != b.getRows() || a.getCols() != b.getCols()) {
+            logger.error("Ошибка вычитания: Матрицы должны быть одинакового размера. A: {}x{}, B: {}x{}", a.getRows(), a.getCols(), b.getRows(), b.getCols());
+            throw new MatrixException("Для вычитания матрицы должны быть одного размера.");
+        }
+        combineInto(a, b, -1.0, out);
+    }
+
+    public static void multiplyInto(Matrix a, Matrix b, MutableMatrix out) throws MatrixException {
+        gemm(1.0, a, b, 0.0, out);
+    }
+
+    // C = alpha * A * B + beta * C. При beta == 0 прежнее содержимое C не читается (NaN в C не распространяются)
+    public static void gemm(double alpha, Matrix a, Matrix b, double beta, MutableMatrix c) throws MatrixException {
+        if (a.getCols() != b.getRows()) {
+            logger.error("Ошибка умножения: Количество столбцов A ({}) не равно количеству строк B ({}).", a.getCols(), b.getRows());
+            throw new MatrixException("Для умножения количество столбцов A должно совпадать с количеством строк B.");
+        }
+        requireResultShape(c, a.getRows(), b.getCols());
+        requireNoOverlap(a, c);
+        requireNoOverlap(b, c);
+        if (beta == 0.0) {
+            c.fill(0.0);
+        } else if (beta != 1.0) {
+            c.scale(beta);
+        }
+        if (alpha == 0.0) {
+            return;
+        }
+        if (a.isSparse() || b.isSparse()) {
+            SparseOperations.multiplyAdd(a, b, alpha, c.rawData());
+        } else {
+            // Память выделяется только для B со строками не подряд (кроме транспонированной): её копирует ядро
+            MultiplyKernel.multiplyRows(a, b, alpha, c.rawData(), 0, c.getCols(), 0, a.getRows());
+        }
+    }
+
+    // Y += alpha * X
+    public static void axpy(double alpha, Matrix x, MutableMatrix y) throws MatrixException {
+        requireResultShape(y, x.getRows(), x.getCols());
+        double[] target = y.rawData();
+        if (x.isSparse()) {
+            SparseOperations.scatterAdd(x.csr(), alpha, target);
+            return;
+        }
+        if (x != y) {
+            requireNoOverlap(x, y);
+        }
+        double[] source = x.rawData();
+        int cols = x.getCols();
+        int xs = x.colStride();
+        for (int i = 0; i < x.getRows(); i++) {
+            int xi = x.offset() + i * x.rowStride();
+            int oi = i * cols;
+            if (xs == 1) {
+                VectorKernels.axpy(alpha, source, xi, target, oi, cols);
+                continue;
+            }
+            for (int j = 0; j < cols; j++) {
+                target[oi + j] += alpha * source[xi + j * xs];
+            }
+        }
+    }
+
+    private static void combineInto(Matrix a, Matrix b, double sign, MutableMatrix out) {
+        requireResultShape(out, a.getRows(), a.getCols());
+        double[] target = out.rawData();
+        if (!a.isSparse() && !b.isSparse()) {
+            // Поэлементная запись безопасна, когда операнд — сама out; другие представления её массива запрещены
+            if (a != out) {
+                requireNoOverlap(a, out);
+            }
+            if (b != out) {
+                requireNoOverlap(b, out);
+            }
+            combineRows(a, b, sign, target, 0, a.getRows());
+        } else if (a.isSparse() && b.isSparse()) {
+            out.fill(0.0);
+            SparseOperations.scatterAdd(a.csr(), 1.0, target);
+            SparseOperations.scatterAdd(b.csr(), sign, target);
+        } else if (a.isSparse()) {
+            if (b != out) {
+                requireNoOverlap(b, out);
+            }
+            out.assignScaled(b, sign);
+            SparseOperations.scatterAdd(a.csr(), 1.0, target);
+        } else {
+            if (a != out) {
+                requireNoOverlap(a, out);
+            }
+            out.assignScaled(a, 1.0);
+            SparseOperations.scatterAdd(b.csr(), sign, target);
+        }
+    }
+
+    static void requireResultShape(MutableMatrix out, int rows, int cols) {
+        if (out.getRows() != rows || out.getCols() != cols) {
+            logger.error("Размер результата {}x{} не соответствует ожидаемому {}x{}.", out.getRows(), out.getCols(), rows, cols);
+            throw new MatrixException("Размер матрицы результата не соответствует размеру операндов.");
+        }
+    }
+
+    static void requireNoOverlap(Matrix operand, MutableMatrix out) {
+        if (!operand.isSparse() && operand.rawData() == out.rawData()) {
+            logger.error("Матрица результата {}x{} разделяет память с операндом.", out.getRows(), out.getCols());
+            throw new MatrixException("Матрица результата не может разделять память с операндом.");
+        }
+    }
+
+    // Поэлементная операция полосами примерно по миллиону элементов с отметкой прогресса после каждой
+    private static void combineRows(Matrix a, Matrix b, double sign, double[] out, int rows, ProgressMonitor monitor) {
+        int band = Math.max(1, (1 << 20) / a.getCols());
+        monitor.begin(rows);
+        for (int from = 0; from < rows; from += band) {
+            int to = Math.min(rows, from + band);
+            combineRows(a, b, sign, out, from, to);
+            monitor.worked(to - from);
+        }
+    }
+
+    // out[i * cols + j] = a(i, j) + sign * b(i, j) для строк [from, to)
+    static void combineRows(Matrix a, Matrix b, double sign, double[] out, int from, int to) {
+        int cols = a.getCols();
+        double[] x = a.rawData();
+        double[] y = b.rawData();
+        for (int i = from; i < to; i++) {
+            int xi = a.offset() + i * a.rowStride();
+            int yi = b.offset() + i * b.rowStride();
+            int oi = i * cols;
+            if (a.colStride() == 1 && b.colStride() == 1) {
+                VectorKernels.combine(x, xi, y, yi, sign, out, oi, cols);
+            } else {
+                int xs = a.colStride();
+                int ys = b.colStride();
+                for (int j = 0; j < cols; j++) {
+                    out[oi + j] = x[xi + j * xs] + sign * y[yi + j * ys];
+                }
+            }
+        }
+    }
 }
\ No newline at end of file
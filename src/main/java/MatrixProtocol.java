@@ -0,0 +1,121 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Двоичный протокол MatrixServer. Кадры little-endian, как в BinaryMatrixFormat.
+// Запрос:  int id, byte операция, byte число операндов, операнды.
+// Ответ:   int id, byte статус; при STATUS_MATRIX — матрица, при STATUS_SCALAR — double, при STATUS_ERROR — строка UTF.
+// Матрица: int строки, int столбцы, элементы double в построчном порядке.
+// Клиент может отправлять запросы, не дожидаясь ответов; ответы приходят в порядке готовности и сопоставляются по id
+public class MatrixProtocol {
+    static final int MAGIC = 0x4D545853; // "MTXS", первые четыре байта соединения от клиента
+    static final byte OP_SUM = 1;
+    static final byte OP_SUBTRACT = 2;
+    static final byte OP_MULTIPLY = 3;
+    static final byte OP_DETERMINANT = 4;
+    static final byte STATUS_MATRIX = 0;
+    static final byte STATUS_SCALAR = 1;
+    static final byte STATUS_ERROR = 2;
+    // Защита от кадров, требующих заведомо больше памяти, чем допустимо для одного операнда
+    static final long MAX_ELEMENTS = 1L << 27;
+    private static final int CHUNK_DOUBLES = 8192;
+
+    private MatrixProtocol() {
+    }
+
+    static int operandCount(byte operation) {
+        switch (operation) {
+            case OP_SUM:
+            case OP_SUBTRACT:
+            case OP_MULTIPLY:
+                return 2;
+            case OP_DETERMINANT:
+                return 1;
+            default:
+                throw new MatrixException("Неизвестная операция протокола: " + operation);
+        }
+    }
+
+    static String operationName(byte operation) {
+        switch (operation) {
+            case OP_SUM:
+                return "sum";
+            case OP_SUBTRACT:
+                return "subtract";
+            case OP_MULTIPLY:
+                return "multiply";
+            case OP_DETERMINANT:
+                return "determinant";
+            default:
+                return "unknown";
+        }
+    }
+
+    static void writeInt(DataOutputStream out, int value) throws IOException {
+        out.writeInt(Integer.reverseBytes(value));
+    }
+
+    static int readInt(DataInputStream in) throws IOException {
+        return Integer.reverseBytes(in.readInt());
+    }
+
+    static void writeDouble(DataOutputStream out, double value) throws IOException {
+        out.writeLong(Long.reverseBytes(Double.doubleToRawLongBits(value)));
+    }
+
+    static double readDouble(DataInputStream in) throws IOException {
+        return Double.longBitsToDouble(Long.reverseBytes(in.readLong()));
+    }
+
+    // Элементы передаются блоками через промежуточный буфер, а не по одному writeDouble
+    static void writeMatrix(DataOutputStream out, Matrix matrix) throws IOException {
+        int rows = matrix.getRows();
+        int cols = matrix.getCols();
+        writeInt(out, rows);
+        writeInt(out, cols);
+        // Плотное представление с подряд идущими строками: элементы лежат в rawData начиная с offset
+        Matrix dense = matrix.toDense().compact();
+        double[] values = dense.rawData();
+        int offset = dense.offset();
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_DOUBLES * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        int total = rows * cols;
+        for (int written = 0; written < total; ) {
+            int count = Math.min(CHUNK_DOUBLES, total - written);
+            buffer.clear();
+            buffer.asDoubleBuffer().put(values, offset + written, count);
+            out.write(buffer.array(), 0, count * Double.BYTES);
+            written += count;
+        }
+    }
+
+    static Matrix readMatrix(DataInputStream in) throws IOException {
+        int[] shape = readShape(in);
+        return readMatrixData(in, shape[0], shape[1]);
+    }
+
+    // Заголовок матрицы отдельно от элементов: сервер резервирует память под операнд до чтения данных
+    static int[] readShape(DataInputStream in) throws IOException {
+        int rows = readInt(in);
+        int cols = readInt(in);
+        if (rows <= 0 || cols <= 0 || (long) rows * cols > MAX_ELEMENTS) {
+            throw new MatrixException("Недопустимый размер матрицы в запросе: " + rows + "x" + cols);
+        }
+        return new int[]{rows, cols};
+    }
+
+    static Matrix readMatrixData(DataInputStream in, int rows, int cols) throws IOException {
+        double[] data = new double[rows * cols];
+        byte[] bytes = new byte[Math.min(data.length, CHUNK_DOUBLES) * Double.BYTES];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int read = 0; read < data.length; ) {
+            int count = Math.min(CHUNK_DOUBLES, data.length - read);
+            in.readFully(bytes, 0, count * Double.BYTES);
+            buffer.clear();
+            buffer.asDoubleBuffer().get(data, read, count);
+            read += count;
+        }
+        return Matrix.wrap(data, rows, cols);
+    }
+}
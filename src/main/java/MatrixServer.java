@@ -0,0 +1,451 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Долгоживущий вычислительный сервер: MatrixOperations по протоколу MatrixProtocol на петлевом интерфейсе.
+// Потоки соединений только читают кадры и кладут запросы в общую очередь. Диспетчер забирает из очереди всё
+// накопившееся (до MAX_BATCH запросов), склеивает одинаковые умножения и определители — по операции и
+// содержимому операндов — с уже выполняющимися и отправляет мелкие задачи пачкой одной задачей пула, а крупные — по одной.
+// Ответы пишет отдельный поток каждого соединения в порядке готовности: медленный или не читающий клиент
+// задерживает только свои ответы, а не потоки вычисления. Объём запросов в памяти ограничен семафором в килобайтах, как
+// в MatrixBatch: поток соединения резервирует место под операнд (и результат) до чтения его элементов и ждёт,
+// пока выполняющиеся запросы не освободят память, поэтому клиент, отправляющий запросы без ожидания ответов,
+// не может переполнить кучу
+public class MatrixServer implements Closeable {
+    private static final Logger logger = LogManager.getLogger(MatrixServer.class);
+    static final int MAX_BATCH = 256;
+    // Запросы меньше этого числа умножений-сложений выполняются пачкой в одном потоке пула
+    static final long SMALL_REQUEST_FLOPS = 1L << 18;
+    static final long DEFAULT_MEMORY = Long.getLong("matrix.server.memoryBytes", Runtime.getRuntime().maxMemory() / 2);
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService compute;
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final ConcurrentHashMap<RequestKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final List<Connection> connections = new ArrayList<>();
+    private final Semaphore memory;
+    private final int memoryPermits;
+    private final Thread acceptor;
+    private final Thread dispatcher;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private volatile boolean running = true;
+    // Для тестов: задачи вычисления ждут открытия защёлки, чтобы одинаковые запросы гарантированно застали друг друга
+    volatile CountDownLatch executionGate;
+
+    // port == 0 — любой свободный порт, см. getPort()
+    public MatrixServer(int port, int threads) throws IOException {
+        this(port, threads, DEFAULT_MEMORY);
+    }
+
+    MatrixServer(int port, int threads, long memoryBytes) throws IOException {
+        if (threads <= 0 || memoryBytes <= 0) {
+            throw new MatrixException("Число потоков и лимит памяти должны быть положительными.");
+        }
+        this.memoryPermits = (int) Math.min(Integer.MAX_VALUE, Math.max(1, memoryBytes >> 10));
+        this.memory = new Semaphore(memoryPermits, true);
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        AtomicInteger counter = new AtomicInteger();
+        this.compute = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "matrix-server-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.acceptor = new Thread(this::acceptLoop, "matrix-server-accept");
+        this.dispatcher = new Thread(this::dispatchLoop, "matrix-server-dispatch");
+        acceptor.setDaemon(true);
+        dispatcher.setDaemon(true);
+        acceptor.start();
+        dispatcher.start();
+        logger.info("Сервер матриц запущен на {}:{}, потоков вычисления: {}, лимит памяти запросов {} МБ",
+                serverSocket.getInetAddress().getHostAddress(), getPort(), threads, memoryBytes >> 20);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7341;
+        MatrixServer server = new MatrixServer(port, Runtime.getRuntime().availableProcessors());
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.acceptor.join();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    // Запросы, получившие результат уже выполняющегося одинакового запроса
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    // Память, зарезервированная прочитанными, но ещё не отвеченными запросами
+    long getReservedBytes() {
+        return (long) (memoryPermits - memory.availablePermits()) << 10;
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Connection connection = new Connection(socket);
+                synchronized (connections) {
+                    connections.add(connection);
+                }
+                Thread reader = new Thread(connection::readLoop, "matrix-server-conn-" + socket.getPort());
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (running) {
+                    logger.error("Ошибка приёма соединения: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void dispatchLoop() {
+        List<Request> batch = new ArrayList<>(MAX_BATCH);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            dispatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void dispatch(List<Request> batch) {
+        batches.increment();
+        List<Runnable> small = new ArrayList<>();
+        for (Request request : batch) {
+            CompletableFuture<Object> created = new CompletableFuture<>();
+            CompletableFuture<Object> future = request.key == null ? null : inFlight.putIfAbsent(request.key, created);
+            if (future != null) {
+                coalesced.increment();
+            } else {
+                future = created;
+                Runnable task = () -> {
+                    try {
+                        awaitGate();
+                        created.complete(execute(request));
+                    } catch (Throwable e) {
+                        // Включая Error (например, OutOfMemoryError): иначе клиент и склеенные с ним запросы
+                        // ждали бы ответа вечно
+                        if (!(e instanceof RuntimeException)) {
+                            logger.error("Сбой выполнения запроса {}: {}", MatrixProtocol.operationName(request.operation), e, e);
+                        }
+                        created.completeExceptionally(e);
+                    } finally {
+                        if (request.key != null) {
+                            inFlight.remove(request.key, created);
+                        }
+                    }
+                };
+                if (request.flops() < SMALL_REQUEST_FLOPS) {
+                    small.add(task);
+                } else {
+                    compute.execute(task);
+                }
+            }
+            // Поток вычисления только передаёт ответ потоку записи соединения; резерв памяти освобождается после записи
+            future.whenComplete((result, error) -> request.connection.respond(request, result, error));
+        }
+        if (!small.isEmpty()) {
+            compute.execute(() -> small.forEach(Runnable::run));
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Пачка из {} запросов, из них мелких {}", batch.size(), small.size());
+        }
+    }
+
+    private void awaitGate() throws InterruptedException {
+        CountDownLatch gate = executionGate;
+        if (gate != null) {
+            gate.await();
+        }
+    }
+
+    private static Object execute(Request request) {
+        Matrix[] operands = request.operands;
+        switch (request.operation) {
+            case MatrixProtocol.OP_SUM:
+                return MatrixOperations.sum(operands[0], operands[1]);
+            case MatrixProtocol.OP_SUBTRACT:
+                return MatrixOperations.subtract(operands[0], operands[1]);
+            case MatrixProtocol.OP_MULTIPLY:
+                return MatrixOperations.multiply(operands[0], operands[1]);
+            default:
+                return MatrixOperations.determinant(operands[0]);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.warn("Ошибка закрытия серверного сокета: {}", e.getMessage());
+        }
+        synchronized (connections) {
+            connections.forEach(Connection::close);
+            connections.clear();
+        }
+        dispatcher.interrupt();
+        compute.shutdown();
+        try {
+            compute.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Сервер матриц остановлен: запросов {}, пачек {}, склеено {}", getRequests(), getBatches(), getCoalesced());
+    }
+
+    // Операнд в килобайтах; к последнему операнду добавляется результат (для определителя — копия под LU)
+    private static int permitsFor(byte operation, boolean last, int[] shape, Matrix[] operands) {
+        long bytes = 8L * shape[0] * shape[1];
+        if (last) {
+            bytes += operation == MatrixProtocol.OP_MULTIPLY ? 8L * operands[0].getRows() * shape[1] : 8L * shape[0] * shape[1];
+        }
+        return (int) Math.max(1, (bytes + 1023) >> 10);
+    }
+
+    // Ожидание памяти только без удержанного резерва: иначе два соединения, каждое с первым операндом,
+    // могли бы бесконечно ждать друг друга. Если второй операнд не помещается сразу, резерв первого
+    // возвращается и запрос ждёт весь объём целиком. Запрос больше всего лимита выполняется в одиночку
+    private int reserve(int held, int needed) {
+        if (held == 0) {
+            int permits = Math.min(needed, memoryPermits);
+            memory.acquireUninterruptibly(permits);
+            return permits;
+        }
+        if (held + needed <= memoryPermits && memory.tryAcquire(needed)) {
+            return held + needed;
+        }
+        memory.release(held);
+        int total = (int) Math.min((long) held + needed, memoryPermits);
+        memory.acquireUninterruptibly(total);
+        return total;
+    }
+
+    private final class Connection {
+        private final Socket socket;
+        private final DataOutputStream out;
+        // Один поток записи: ответы не перемешиваются, блокирующая запись не занимает потоки вычисления
+        private final ExecutorService writer;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+            this.writer = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "matrix-server-write-" + socket.getPort());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        void readLoop() {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16))) {
+                if (MatrixProtocol.readInt(in) != MatrixProtocol.MAGIC) {
+                    logger.warn("Соединение {} отклонено: неверная сигнатура протокола", socket.getRemoteSocketAddress());
+                    return;
+                }
+                while (running) {
+                    int id = MatrixProtocol.readInt(in);
+                    byte operation = in.readByte();
+                    int count = in.readByte();
+                    if (count != MatrixProtocol.operandCount(operation)) {
+                        throw new MatrixException("Неверное число операндов операции " + MatrixProtocol.operationName(operation));
+                    }
+                    Matrix[] operands = new Matrix[count];
+                    int permits = 0;
+                    try {
+                        for (int i = 0; i < count; i++) {
+                            int[] shape = MatrixProtocol.readShape(in);
+                            permits = reserve(permits, permitsFor(operation, i == count - 1, shape, operands));
+                            operands[i] = MatrixProtocol.readMatrixData(in, shape[0], shape[1]);
+                        }
+                        requests.increment();
+                        queue.add(new Request(this, id, operation, operands, permits));
+                        permits = 0;
+                    } finally {
+                        // Кадр не дочитан: запрос не поставлен в очередь, и резерв ему больше не нужен
+                        memory.release(permits);
+                    }
+                }
+            } catch (EOFException | SocketException e) {
+                logger.debug("Соединение {} закрыто", socket.getRemoteSocketAddress());
+            } catch (IOException | MatrixException e) {
+                // После ошибки разбора граница следующего кадра неизвестна, поэтому соединение закрывается
+                logger.error("Ошибка протокола в соединении {}: {}", socket.getRemoteSocketAddress(), e.getMessage());
+            } finally {
+                close();
+                synchronized (connections) {
+                    connections.remove(this);
+                }
+            }
+        }
+
+        void respond(Request request, Object result, Throwable error) {
+            try {
+                writer.execute(() -> {
+                    try {
+                        write(request.id, result, error);
+                    } finally {
+                        memory.release(request.permits);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Соединение уже закрыто: ответ некому отправить
+                memory.release(request.permits);
+            }
+        }
+
+        private void write(int id, Object result, Throwable error) {
+            if (socket.isClosed()) {
+                return;
+            }
+            try {
+                MatrixProtocol.writeInt(out, id);
+                if (error != null) {
+                    out.writeByte(MatrixProtocol.STATUS_ERROR);
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    out.writeUTF(cause instanceof Error
+                            ? "Непредвиденная ошибка сервера: " + cause
+                            : String.valueOf(cause.getMessage()));
+                } else if (result instanceof Matrix) {
+                    out.writeByte(MatrixProtocol.STATUS_MATRIX);
+                    MatrixProtocol.writeMatrix(out, (Matrix) result);
+                } else {
+                    out.writeByte(MatrixProtocol.STATUS_SCALAR);
+                    MatrixProtocol.writeDouble(out, (Double) result);
+                }
+                out.flush();
+            } catch (IOException e) {
+                logger.debug("Не удалось отправить ответ {}: {}", id, e.getMessage());
+                close();
+            }
+        }
+
+        // Уже поставленные ответы дописываются (или пропускаются, если сокет закрыт) и освобождают свой резерв
+        void close() {
+            writer.shutdown();
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.debug("Ошибка закрытия соединения: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static final class Request {
+        final Connection connection;
+        final int id;
+        final byte operation;
+        final Matrix[] operands;
+        final int permits;
+        final RequestKey key;
+
+        Request(Connection connection, int id, byte operation, Matrix[] operands, int permits) {
+            this.connection = connection;
+            this.id = id;
+            this.operation = operation;
+            this.operands = operands;
+            this.permits = permits;
+            // Сложение и вычитание не склеиваются: сравнение операндов стоит столько же, сколько сама операция
+            boolean coalescable = operation == MatrixProtocol.OP_MULTIPLY || operation == MatrixProtocol.OP_DETERMINANT;
+            this.key = coalescable ? new RequestKey(operation, operands) : null;
+        }
+
+        long flops() {
+            Matrix a = operands[0];
+            if (operation == MatrixProtocol.OP_MULTIPLY) {
+                return (long) a.getRows() * a.getCols() * operands[1].getCols();
+            }
+            if (operation == MatrixProtocol.OP_DETERMINANT) {
+                return (long) a.getRows() * a.getRows() * a.getRows() / 3;
+            }
+            return (long) a.getRows() * a.getCols();
+        }
+    }
+
+    // Ключ склейки: операция, размеры и хеши содержимого операндов; как и в ResultCache, равенство
+    // подтверждается поэлементным сравнением, чтобы совпадение хешей не отдало клиенту чужой результат
+    private static final class RequestKey {
+        final byte operation;
+        final long[] fingerprint;
+        final Matrix[] operands;
+
+        RequestKey(byte operation, Matrix[] operands) {
+            this.operation = operation;
+            this.operands = operands;
+            this.fingerprint = new long[operands.length * 2];
+            for (int i = 0; i < operands.length; i++) {
+                fingerprint[2 * i] = operands[i].contentHash();
+                fingerprint[2 * i + 1] = ((long) operands[i].getRows() << 32) | operands[i].getCols();
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof RequestKey)) {
+                return false;
+            }
+            RequestKey other = (RequestKey) o;
+            if (operation != other.operation || !Arrays.equals(fingerprint, other.fingerprint)) {
+                return false;
+            }
+            for (int i = 0; i < operands.length; i++) {
+                if (!operands[i].contentEquals(other.operands[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(fingerprint) + operation;
+        }
+    }
+}
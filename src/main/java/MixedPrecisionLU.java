@@ -0,0 +1,323 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// LU-разложение со смешанной точностью: множители хранятся во float (вдвое меньше памяти и трафика, чем
+// у LUDecomposition), а точность double для решения систем восстанавливается итерационным уточнением —
+// невязка r = b - A x считается в double по исходной матрице, поправка находится по float-множителям.
+// Если матрица не помещается в диапазон float, разложение во float численно вырождено или уточнение не
+// сходится, используется обычное LUDecomposition в double; это отражается флагом fallback
+public class MixedPrecisionLU {
+    private static final Logger logger = LogManager.getLogger(MixedPrecisionLU.class);
+    static final int MAX_REFINEMENT_STEPS = 30;
+    // Опорный элемент меньше этой доли max|a_ij| во float уже не отличим от ошибки округления
+    static final double FLOAT_PIVOT_TOLERANCE = 1e-6;
+    // Начиная с этого объёма обновления исключение строк под опорной делится на блоки в общем пуле
+    private static final long PARALLEL_WORK = 1L << 16;
+
+    private final Matrix matrix;
+    private final int n;
+    private final float[][] lu;
+    private final int[] pivot;
+    private final double normA;
+    private int rowSwaps;
+    private boolean fallback;
+    private LUDecomposition doubleLu;
+
+    public MixedPrecisionLU(Matrix matrix) {
+        if (matrix.getRows() != matrix.getCols()) {
+            logger.error("LU-разложение неквадратной матрицы {}x{} невозможно.", matrix.getRows(), matrix.getCols());
+            throw new MatrixException("Матрица должна быть квадратной и не пустой.");
+        }
+        // Исходная матрица нужна для невязок в double; изменяемую копируем, чтобы её правки не исказили уточнение
+        Matrix dense = matrix.toDense();
+        this.matrix = dense.isMutable() || !dense.isRowContiguous()
+                ? Matrix.wrap(dense.toArray(), dense.getRows(), dense.getCols()) : dense;
+        this.n = matrix.getRows();
+        this.pivot = new int[n];
+        for (int i = 0; i < n; i++) {
+            pivot[i] = i;
+        }
+
+        double maxAbs = 0.0;
+        double norm = 0.0;
+        this.lu = new float[n][n];
+        for (int i = 0; i < n; i++) {
+            double rowSum = 0.0;
+            for (int j = 0; j < n; j++) {
+                double value = this.matrix.get(i, j);
+                lu[i][j] = (float) value;
+                rowSum += Math.abs(value);
+                maxAbs = Math.max(maxAbs, Math.abs(value));
+            }
+            norm = Math.max(norm, rowSum);
+        }
+        this.normA = norm;
+        if (maxAbs > Float.MAX_VALUE || !Double.isFinite(norm)) {
+            logger.info("Элементы матрицы {}x{} выходят за диапазон float, используется разложение в double.", n, n);
+            useDouble();
+        } else if (!factorize(maxAbs * FLOAT_PIVOT_TOLERANCE)) {
+            logger.info("Разложение во float численно вырождено для матрицы {}x{}, используется разложение в double.", n, n);
+            useDouble();
+        }
+    }
+
+    private void useDouble() {
+        fallback = true;
+        doubleLu = new LUDecomposition(matrix);
+    }
+
+    private boolean factorize(double tolerance) {
+        float[][] A = lu;
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        LongAdder busyNanos = new LongAdder();
+        for (int k = 0; k < n; k++) {
+            int pivotRow = k;
+            for (int i = k + 1; i < n; i++) {
+                if (Math.abs(A[i][k]) > Math.abs(A[pivotRow][k])) {
+                    pivotRow = i;
+                }
+            }
+            if (pivotRow != k) {
+                float[] temp = A[k];
+                A[k] = A[pivotRow];
+                A[pivotRow] = temp;
+                int index = pivot[k];
+                pivot[k] = pivot[pivotRow];
+                pivot[pivotRow] = index;
+                rowSwaps++;
+            }
+            float pivotValue = A[k][k];
+            if (!(Math.abs(pivotValue) > tolerance) || !Float.isFinite(pivotValue)) {
+                return false;
+            }
+
+            int remaining = n - k - 1;
+            final int pivotIndex = k;
+            if ((long) remaining * (n - k) >= PARALLEL_WORK) {
+                int grain = Math.max(1, remaining / (pool.getParallelism() * 4));
+                pool.invoke(new RowRangeTask(k + 1, n, grain,
+                        (from, to) -> eliminateRows(A, pivotIndex, from, to), busyNanos));
+            } else {
+                eliminateRows(A, k, k + 1, n);
+            }
+        }
+        return true;
+    }
+
+    private static void eliminateRows(float[][] A, int k, int from, int to) {
+        float[] pivotRow = A[k];
+        for (int i = from; i < to; i++) {
+            float[] row = A[i];
+            float factor = row[k] / pivotRow[k];
+            row[k] = factor;
+            VectorKernels.axpy(-factor, pivotRow, k + 1, row, k + 1, row.length - k - 1);
+        }
+    }
+
+    public boolean isFallback() {
+        return fallback;
+    }
+
+    // Произведение float-диагонали накапливается в double, чтобы не переполнить диапазон float
+    public double determinant() {
+        if (fallback) {
+            return doubleLu.determinant();
+        }
+        double result = 1.0;
+        for (int i = 0; i < n; i++) {
+            result *= lu[i][i];
+        }
+        return rowSwaps % 2 != 0 ? -result : result;
+    }
+
+    // Оценка обратной погрешности разложения ||PAx - LUx||∞ / (||A||∞ ||x||∞) для случайного x из ±1
+    // за O(n^2); порядка 1e-7 для float-множителей. При переходе на double не определена (NaN)
+    public double factorizationResidual() {
+        if (fallback) {
+            return Double.NaN;
+        }
+        Random random = new Random(n);
+        double[] x = new double[n];
+        for (int j = 0; j < n; j++) {
+            x[j] = random.nextBoolean() ? 1.0 : -1.0;
+        }
+        double[] ux = new double[n];
+        for (int i = 0; i < n; i++) {
+            double s = 0.0;
+            for (int j = i; j < n; j++) {
+                s += lu[i][j] * x[j];
+            }
+            ux[i] = s;
+        }
+        double worst = 0.0;
+        for (int i = 0; i < n; i++) {
+            double lux = ux[i];
+            for (int j = 0; j < i; j++) {
+                lux += lu[i][j] * ux[j];
+            }
+            double pax = VectorKernels.dot(matrix.rawData(), matrix.offset() + pivot[i] * matrix.rowStride(), x, 0, n);
+            worst = Math.max(worst, Math.abs(pax - lux));
+        }
+        return normA == 0.0 ? 0.0 : worst / normA;
+    }
+
+    public RefinedSolution solve(Matrix b) {
+        if (b.getRows() != n) {
+            logger.error("Размерность правой части {}x{} не согласована с матрицей {}x{}.", b.getRows(), b.getCols(), n, n);
+            throw new MatrixException("Количество строк правой части должно совпадать с размерностью матрицы.");
+        }
+        int m = b.getCols();
+        double[] rhs = b.toArray();
+        double normB = normInf(rhs, n, m);
+        double tolerance = Math.ulp(1.0) * Math.sqrt(n);
+        if (fallback) {
+            return solveDouble(b, rhs, normB, tolerance, new double[0]);
+        }
+
+        double[] x = new double[n * m];
+        double[] r = rhs.clone();
+        double[] history = new double[MAX_REFINEMENT_STEPS + 1];
+        int steps = 0;
+        while (true) {
+            // x += A^-1 r по float-множителям; на первом шаге r = b
+            addCorrection(r, x, m);
+            r = rhs.clone();
+            MultiplyKernel.multiplyRows(matrix, Matrix.wrap(x, n, m), -1.0, r, 0, m, 0, n);
+            double residual = relativeResidual(r, x, m, normB);
+            history[steps] = residual;
+            if (MatrixMetrics.hotPathLogging() && logger.isDebugEnabled()) {
+                logger.debug("Итерационное уточнение, шаг {}: относительная невязка {}", steps, residual);
+            }
+            if (residual <= tolerance) {
+                return new RefinedSolution(Matrix.wrap(x, n, m), steps, Arrays.copyOf(history, steps + 1), true, false);
+            }
+            // Уточнение сходится линейно; если невязка не уменьшилась хотя бы вдвое, дальше оно не поможет
+            if (!Double.isFinite(residual) || steps == MAX_REFINEMENT_STEPS
+                    || (steps > 0 && residual > 0.5 * history[steps - 1])) {
+                break;
+            }
+            steps++;
+        }
+        logger.info("Итерационное уточнение не сошлось за {} шагов (невязка {}), используется разложение в double.",
+                steps, history[steps]);
+        if (doubleLu == null) {
+            doubleLu = new LUDecomposition(matrix);
+        }
+        return solveDouble(b, rhs, normB, tolerance, Arrays.copyOf(history, steps + 1));
+    }
+
+    private RefinedSolution solveDouble(Matrix b, double[] rhs, double normB, double tolerance, double[] history) {
+        int m = b.getCols();
+        Matrix solution = doubleLu.solve(b);
+        double[] r = rhs.clone();
+        MultiplyKernel.multiplyRows(matrix, solution, -1.0, r, 0, m, 0, n);
+        double[] residuals = Arrays.copyOf(history, history.length + 1);
+        residuals[history.length] = relativeResidual(r, solution.toArray(), m, normB);
+        return new RefinedSolution(solution, history.length, residuals,
+                residuals[history.length] <= tolerance, true);
+    }
+
+    // x += A^-1 r: правая часть масштабируется на max|r|, чтобы малые невязки не исчезали во float
+    private void addCorrection(double[] r, double[] x, int m) {
+        double scale = maxAbs(r);
+        if (scale == 0.0) {
+            return;
+        }
+        float[][] y = new float[n][m];
+        for (int i = 0; i < n; i++) {
+            int source = pivot[i] * m;
+            for (int j = 0; j < m; j++) {
+                y[i][j] = (float) (r[source + j] / scale);
+            }
+        }
+        for (int k = 0; k < n; k++) {
+            float[] yk = y[k];
+            for (int i = k + 1; i < n; i++) {
+                float factor = lu[i][k];
+                if (factor != 0.0f) {
+                    VectorKernels.axpy(-factor, yk, 0, y[i], 0, m);
+                }
+            }
+        }
+        for (int k = n - 1; k >= 0; k--) {
+            float[] yk = y[k];
+            float diagonal = lu[k][k];
+            for (int j = 0; j < m; j++) {
+                yk[j] /= diagonal;
+            }
+            for (int i = 0; i < k; i++) {
+                float factor = lu[i][k];
+                if (factor != 0.0f) {
+                    VectorKernels.axpy(-factor, yk, 0, y[i], 0, m);
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                x[i * m + j] += scale * y[i][j];
+            }
+        }
+    }
+
+    // ||r||∞ / (||A||∞ ||x||∞ + ||b||∞): нормированная обратная погрешность решения
+    private double relativeResidual(double[] r, double[] x, int m, double normB) {
+        double denominator = normA * normInf(x, n, m) + normB;
+        double normR = normInf(r, n, m);
+        return denominator == 0.0 ? normR : normR / denominator;
+    }
+
+    private static double normInf(double[] values, int rows, int cols) {
+        double norm = 0.0;
+        for (int i = 0; i < rows; i++) {
+            double rowSum = 0.0;
+            for (int j = 0; j < cols; j++) {
+                rowSum += Math.abs(values[i * cols + j]);
+            }
+            norm = Math.max(norm, rowSum);
+        }
+        return norm;
+    }
+
+    private static double maxAbs(double[] values) {
+        double max = 0.0;
+        for (double value : values) {
+            max = Math.max(max, Math.abs(value));
+        }
+        return max;
+    }
+
+    public static final class RefinedSolution {
+        private final Matrix solution;
+        private final int iterations;
+        private final double[] residuals;
+        private final boolean converged;
+        private final boolean fallback;
+
+        RefinedSolution(Matrix solution, int iterations, double[] residuals, boolean converged, boolean fallback) {
+            this.solution = solution;
+            this.iterations = iterations;
+            this.residuals = residuals;
+            this.converged = converged;
+            this.fallback = fallback;
+        }
+
+        public Matrix getSolution() { return solution; }
+
+        // Число шагов уточнения после первого решения по float-множителям
+        public int getIterations() { return iterations; }
+
+        // Относительная невязка после каждого шага; последняя — у возвращённого решения
+        public double[] getResiduals() { return residuals.clone(); }
+
+        public double getResidual() { return residuals[residuals.length - 1]; }
+
+        // Невязка итогового решения не превышает eps * sqrt(n)
+        public boolean isConverged() { return converged; }
+
+        public boolean isFallback() { return fallback; }
+    }
+}
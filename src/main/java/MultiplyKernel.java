@@ -0,0 +1,158 @@
+public class MultiplyKernel {
+    // Размеры блоков подобраны так, чтобы полоса строк C и тайл B помещались в L1/L2
+    static final int BLOCK_ROWS = 64;
+    static final int BLOCK_INNER = 128;
+    static final int BLOCK_COLS = 256;
+
+    public static Matrix multiply(Matrix a, Matrix b) {
+        return multiply(a, b, ProgressMonitor.NONE);
+    }
+
+    // Полосы строк подбираются примерно по 2^26 умножений, чтобы отмена срабатывала за доли секунды
+    public static Matrix multiply(Matrix a, Matrix b, ProgressMonitor monitor) {
+        int rowsA = a.getRows();
+        int colsB = b.getCols();
+        double[] c = Matrix.newDenseData(rowsA, colsB);
+        if (monitor == ProgressMonitor.NONE) {
+            multiplyRows(a, b, c, 0, colsB, 0, rowsA);
+            return Matrix.wrap(c, rowsA, colsB);
+        }
+        if (!b.isRowContiguous() && !(b.rowStride() == 1 && a.isRowContiguous())) {
+            b = b.compact();
+        }
+        long rowWork = Math.max(1L, (long) a.getCols() * colsB);
+        int band = (int) Math.max(4, Math.min(BLOCK_ROWS, (1L << 26) / rowWork)) & ~3;
+        monitor.begin(rowsA);
+        for (int from = 0; from < rowsA; from += band) {
+            int to = Math.min(rowsA, from + band);
+            multiplyRows(a, b, c, 0, colsB, from, to);
+            monitor.worked(to - from);
+        }
+        return Matrix.wrap(c, rowsA, colsB);
+    }
+
+    // C[rowFrom..rowTo) += A[rowFrom..rowTo) * B; C — плотный построчный массив с началом cOff и шагом строки ldc
+    static void multiplyRows(Matrix a, Matrix b, double[] c, int cOff, int ldc, int rowFrom, int rowTo) {
+        multiplyRows(a, b, 1.0, c, cOff, ldc, rowFrom, rowTo);
+    }
+
+    // C[rowFrom..rowTo) += alpha * A[rowFrom..rowTo) * B; множитель применяется к элементу A один раз на k
+    static void multiplyRows(Matrix a, Matrix b, double alpha, double[] c, int cOff, int ldc, int rowFrom, int rowTo) {
+        if (!b.isRowContiguous()) {
+            if (b.rowStride() == 1 && a.isRowContiguous()) {
+                // B — транспонированное представление: столбцы B лежат подряд, считаем скалярные произведения
+                multiplyRowsTransposed(a, b, alpha, c, cOff, ldc, rowFrom, rowTo);
+                return;
+            }
+            b = b.compact();
+        }
+        int inner = a.getCols();
+        int colsB = b.getCols();
+        for (int ii = rowFrom; ii < rowTo; ii += BLOCK_ROWS) {
+            int iEnd = Math.min(ii + BLOCK_ROWS, rowTo);
+            for (int kk = 0; kk < inner; kk += BLOCK_INNER) {
+                int kEnd = Math.min(kk + BLOCK_INNER, inner);
+                for (int jj = 0; jj < colsB; jj += BLOCK_COLS) {
+                    int jEnd = Math.min(jj + BLOCK_COLS, colsB);
+                    int i = ii;
+                    for (; i + 3 < iEnd; i += 4) {
+                        kernel4(a, b, alpha, c, cOff, ldc, i, kk, kEnd, jj, jEnd);
+                    }
+                    for (; i < iEnd; i++) {
+                        kernel1(a, b, alpha, c, cOff, ldc, i, kk, kEnd, jj, jEnd);
+                    }
+                }
+            }
+        }
+    }
+
+    // Микроядро 4xN: каждый загруженный элемент строки B используется для четырёх строк C
+    private static void kernel4(Matrix a, Matrix b, double alpha, double[] c, int cOff, int ldc, int i,
+                                int kFrom, int kTo, int jFrom, int jTo) {
+        double[] ad = a.rawData();
+        int ars = a.rowStride();
+        int acs = a.colStride();
+        double[] bd = b.rawData();
+        int brs = b.rowStride();
+        int c0 = cOff + i * ldc, c1 = c0 + ldc, c2 = c1 + ldc, c3 = c2 + ldc;
+        for (int k = kFrom; k < kTo; k++) {
+            int ak = a.offset() + i * ars + k * acs;
+            double v0 = alpha * ad[ak], v1 = alpha * ad[ak + ars], v2 = alpha * ad[ak + 2 * ars], v3 = alpha * ad[ak + 3 * ars];
+            int bk = b.offset() + k * brs;
+            VectorKernels.axpy4(v0, v1, v2, v3, bd, bk + jFrom, c, c0 + jFrom, c1 + jFrom, c2 + jFrom, c3 + jFrom, jTo - jFrom);
+        }
+    }
+
+    private static void kernel1(Matrix a, Matrix b, double alpha, double[] c, int cOff, int ldc, int i,
+                                int kFrom, int kTo, int jFrom, int jTo) {
+        double[] ad = a.rawData();
+        double[] bd = b.rawData();
+        int brs = b.rowStride();
+        int ci = cOff + i * ldc;
+        for (int k = kFrom; k < kTo; k++) {
+            double v = alpha * ad[a.offset() + i * a.rowStride() + k * a.colStride()];
+            int bk = b.offset() + k * brs;
+            VectorKernels.axpy(v, bd, bk + jFrom, c, ci + jFrom, jTo - jFrom);
+        }
+    }
+
+    private static void multiplyRowsTransposed(Matrix a, Matrix b, double alpha, double[] c, int cOff, int ldc,
+                                               int rowFrom, int rowTo) {
+        double[] ad = a.rawData();
+        double[] bd = b.rawData();
+        int inner = a.getCols();
+        int colsB = b.getCols();
+        int bcs = b.colStride();
+        for (int jj = 0; jj < colsB; jj += BLOCK_ROWS) {
+            int jEnd = Math.min(jj + BLOCK_ROWS, colsB);
+            for (int kk = 0; kk < inner; kk += BLOCK_COLS) {
+                int kEnd = Math.min(kk + BLOCK_COLS, inner);
+                for (int i = rowFrom; i < rowTo; i++) {
+                    int ai = a.offset() + i * a.rowStride();
+                    int ci = cOff + i * ldc;
+                    int j = jj;
+                    for (; j + 3 < jEnd; j += 4) {
+                        int b0 = b.offset() + j * bcs + kk;
+                        VectorKernels.dot4(alpha, ad, ai + kk, bd, b0, b0 + bcs, b0 + 2 * bcs, b0 + 3 * bcs,
+                                kEnd - kk, c, ci + j);
+                    }
+                    for (; j < jEnd; j++) {
+                        c[ci + j] += alpha * VectorKernels.dot(ad, ai + kk, bd, b.offset() + j * bcs + kk, kEnd - kk);
+                    }
+                }
+            }
+        }
+    }
+
+    // C[rowFrom..rowTo) += A[rowFrom..rowTo) * B для плотных построчных FloatMatrix, с той же блочной схемой
+    static void multiplyRows(FloatMatrix a, FloatMatrix b, float[] c, int rowFrom, int rowTo) {
+        float[] ad = a.rawData();
+        float[] bd = b.rawData();
+        int inner = a.getCols();
+        int colsB = b.getCols();
+        for (int ii = rowFrom; ii < rowTo; ii += BLOCK_ROWS) {
+            int iEnd = Math.min(ii + BLOCK_ROWS, rowTo);
+            for (int kk = 0; kk < inner; kk += BLOCK_INNER) {
+                int kEnd = Math.min(kk + BLOCK_INNER, inner);
+                for (int jj = 0; jj < colsB; jj += BLOCK_COLS) {
+                    int jEnd = Math.min(jj + BLOCK_COLS, colsB);
+                    int n = jEnd - jj;
+                    int i = ii;
+                    for (; i + 3 < iEnd; i += 4) {
+                        int c0 = i * colsB + jj, c1 = c0 + colsB, c2 = c1 + colsB, c3 = c2 + colsB;
+                        for (int k = kk; k < kEnd; k++) {
+                            int ak = i * inner + k;
+                            VectorKernels.axpy4(ad[ak], ad[ak + inner], ad[ak + 2 * inner], ad[ak + 3 * inner],
+                                    bd, k * colsB + jj, c, c0, c1, c2, c3, n);
+                        }
+                    }
+                    for (; i < iEnd; i++) {
+                        for (int k = kk; k < kEnd; k++) {
+                            VectorKernels.axpy(ad[i * inner + k], bd, k * colsB + jj, c, i * colsB + jj, n);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+import java.util.Arrays;
+import java.util.Objects;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Изменяемая плотная матрица для передачи результата по месту назначения (sumInto, multiplyInto, gemm, axpy).
+// Хранение всегда построчное и компактное; операции над ней не выделяют память и не пишут в журнал на уровне INFO
+public class MutableMatrix extends Matrix {
+    private static final Logger logger = LogManager.getLogger(MutableMatrix.class);
+
+    public MutableMatrix(int rows, int cols) {
+        super(allocate(rows, cols), 0, rows, cols, cols, 1, true);
+    }
+
+    private static double[] allocate(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            logger.error("Ошибка инициализации: Матрица не может быть пустой ({}x{}).", rows, cols);
+            throw new MatrixException("Матрица не может быть пустой.");
+        }
+        return newDenseData(rows, cols);
+    }
+
+    public static MutableMatrix copyOf(Matrix source) {
+        MutableMatrix copy = new MutableMatrix(source.getRows(), source.getCols());
+        copy.assign(source);
+        return copy;
+    }
+
+    public void set(int i, int j, double value) {
+        Objects.checkIndex(i, getRows());
+        Objects.checkIndex(j, getCols());
+        rawData()[i * getCols() + j] = value;
+    }
+
+    public void fill(double value) {
+        Arrays.fill(rawData(), 0, getRows() * getCols(), value);
+    }
+
+    // Копирует элементы source в эту матрицу без выделения памяти
+    public void assign(Matrix source) {
+        MatrixOperations.requireResultShape(this, source.getRows(), source.getCols());
+        if (source.isSparse()) {
+            fill(0.0);
+            SparseOperations.scatterAdd(source.csr(), 1.0, rawData());
+        } else if (source != this) {
+            MatrixOperations.requireNoOverlap(source, this);
+            assignScaled(source, 1.0);
+        }
+    }
+
+    // this = factor * source для плотной source того же размера; совпадение с this допустимо
+    void assignScaled(Matrix source, double factor) {
+        double[] target = rawData();
+        double[] x = source.rawData();
+        int cols = getCols();
+        int xs = source.colStride();
+        for (int i = 0; i < getRows(); i++) {
+            int xi = source.offset() + i * source.rowStride();
+            int oi = i * cols;
+            if (factor == 1.0 && xs == 1) {
+                System.arraycopy(x, xi, target, oi, cols);
+            } else {
+                for (int j = 0; j < cols; j++) {
+                    target[oi + j] = factor * x[xi + j * xs];
+                }
+            }
+        }
+    }
+
+    // this *= factor
+    public void scale(double factor) {
+        double[] target = rawData();
+        int length = getRows() * getCols();
+        for (int k = 0; k < length; k++) {
+            target[k] *= factor;
+        }
+    }
+}
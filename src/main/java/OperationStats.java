@@ -0,0 +1,146 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Счётчики одной операции. Обновление — несколько LongAdder и атомарных инкрементов без блокировок,
+// поэтому запись безопасна из параллельных ядер и дешевле форматирования сообщения журнала
+public class OperationStats implements OperationStatsMBean {
+    private static final int BUCKETS = 64;
+
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder flops = new LongAdder();
+    private final LongAdder flopNanos = new LongAdder();
+    private final LongAdder bytesAllocated = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray latency = new AtomicLongArray(BUCKETS);
+    private final AtomicLongArray sizes = new AtomicLongArray(BUCKETS);
+
+    OperationStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // flopCount == 0 — число операций неизвестно (например, для разреженных матриц), в GFLOP/s не учитывается
+    void record(long nanos, long flopCount, long bytes, long elements) {
+        calls.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        if (flopCount > 0) {
+            flops.add(flopCount);
+            flopNanos.add(nanos);
+        }
+        bytesAllocated.add(bytes);
+        latency.incrementAndGet(bucket(nanos));
+        sizes.incrementAndGet(bucket(elements));
+    }
+
+    private static int bucket(long value) {
+        return value <= 0 ? 0 : 63 - Long.numberOfLeadingZeros(value);
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        long count = calls.sum();
+        return count == 0 ? 0.0 : totalNanos.sum() / (count * 1000.0);
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return maxNanos.get() / 1000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return percentileMicros(0.50);
+    }
+
+    @Override
+    public double getP99Micros() {
+        return percentileMicros(0.99);
+    }
+
+    // Верхняя граница корзины гистограммы, в которую попадает квантиль; точность — в пределах двух раз
+    double percentileMicros(double quantile) {
+        long[] histogram = getLatencyHistogram();
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0.0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int b = 0; b < histogram.length; b++) {
+            seen += histogram[b];
+            if (seen >= rank) {
+                return Math.min((double) (1L << Math.min(b + 1, 62)), (double) maxNanos.get()) / 1000.0;
+            }
+        }
+        return getMaxMicros();
+    }
+
+    @Override
+    public long[] getLatencyHistogram() {
+        return snapshot(latency);
+    }
+
+    @Override
+    public double getGflops() {
+        long nanos = flopNanos.sum();
+        return nanos == 0 ? 0.0 : (double) flops.sum() / nanos;
+    }
+
+    @Override
+    public long getBytesAllocated() {
+        return bytesAllocated.sum();
+    }
+
+    @Override
+    public long[] getSizeHistogram() {
+        return snapshot(sizes);
+    }
+
+    @Override
+    public void reset() {
+        calls.reset();
+        totalNanos.reset();
+        flops.reset();
+        flopNanos.reset();
+        bytesAllocated.reset();
+        maxNanos.reset();
+        for (int b = 0; b < BUCKETS; b++) {
+            latency.set(b, 0);
+            sizes.set(b, 0);
+        }
+    }
+
+    private static long[] snapshot(AtomicLongArray array) {
+        long[] copy = new long[array.length()];
+        for (int b = 0; b < copy.length; b++) {
+            copy[b] = array.get(b);
+        }
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: вызовов %d, среднее %.1f мкс, p99 %.1f мкс, %.2f GFLOP/s, выделено %d байт",
+                name, getCalls(), getMeanMicros(), getP99Micros(), getGflops(), getBytesAllocated());
+    }
+}
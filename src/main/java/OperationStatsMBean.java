@@ -0,0 +1,26 @@
+// Атрибуты статистики одной операции, публикуемые через JMX
+public interface OperationStatsMBean {
+    long getCalls();
+
+    long getTotalNanos();
+
+    double getMeanMicros();
+
+    double getMaxMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    // Число вызовов с задержкой в [2^b, 2^(b+1)) нс для каждого b
+    long[] getLatencyHistogram();
+
+    double getGflops();
+
+    long getBytesAllocated();
+
+    // Число результатов с количеством элементов в [2^b, 2^(b+1)) для каждого b
+    long[] getSizeHistogram();
+
+    void reset();
+}
@@ -0,0 +1,260 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Умножение матриц, которые не помещаются в память: A и B читаются из двоичных файлов тайлами, каждый тайл C
+// накапливается обычным ядром MultiplyKernel и записывается в файл результата. В памяти одновременно два набора
+// тайлов A и B (текущий и загружаемый следующим) и два тайла C (считаемый и записываемый), поэтому чтение
+// и запись идут в отдельном потоке параллельно с вычислением. Сторона тайла выбирается по лимиту памяти
+public class OutOfCoreMultiplier {
+    private static final Logger logger = LogManager.getLogger(OutOfCoreMultiplier.class);
+    // Меньшие тайлы превращают умножение в поток мелких чтений с диска
+    static final int MIN_TILE = 64;
+    // Число одновременно хранимых тайлов: 2 x A, 2 x B, 2 x C
+    private static final int TILE_BUFFERS = 6;
+
+    private final long memoryBytes;
+    private final ForkJoinPool pool;
+
+    public OutOfCoreMultiplier(long memoryBytes) {
+        this(memoryBytes, ForkJoinPool.commonPool());
+    }
+
+    OutOfCoreMultiplier(long memoryBytes, ForkJoinPool pool) {
+        if (tileSize(memoryBytes) < MIN_TILE) {
+            logger.error("Лимит памяти {} байт меньше необходимого для тайлов {}x{}.", memoryBytes, MIN_TILE, MIN_TILE);
+            throw new MatrixException("Лимит памяти слишком мал для внешнего умножения.");
+        }
+        this.memoryBytes = memoryBytes;
+        this.pool = pool;
+    }
+
+    // Наибольшая сторона квадратного тайла, при которой шесть тайлов помещаются в лимит; кратна 4 для микроядра
+    static int tileSize(long memoryBytes) {
+        long side = (long) Math.sqrt((double) memoryBytes / (TILE_BUFFERS * Double.BYTES));
+        return (int) Math.min(side, 1 << 14) & ~3;
+    }
+
+    public void multiply(Path a, Path b, Path result) throws IOException {
+        multiply(a, b, result, ProgressMonitor.NONE);
+    }
+
+    // Прогресс отмечается по парам тайлов; файл результата — двоичный float64
+    public void multiply(Path a, Path b, Path result, ProgressMonitor monitor) throws IOException {
+        try (FileChannel ca = FileChannel.open(a, StandardOpenOption.READ);
+             FileChannel cb = FileChannel.open(b, StandardOpenOption.READ);
+             FileChannel cc = FileChannel.open(result, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                     StandardOpenOption.WRITE)) {
+            BinaryMatrixFormat.Header ha = BinaryMatrixFormat.readHeader(ca);
+            BinaryMatrixFormat.Header hb = BinaryMatrixFormat.readHeader(cb);
+            if (ha.cols != hb.rows) {
+                logger.error("Ошибка умножения: Количество столбцов A ({}) не равно количеству строк B ({}).", ha.cols, hb.rows);
+                throw new MatrixException("Для умножения количество столбцов A должно совпадать с количеством строк B.");
+            }
+            ByteBuffer header = ByteBuffer.allocate(BinaryMatrixFormat.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(BinaryMatrixFormat.MAGIC).putInt(BinaryMatrixFormat.VERSION).putInt(ha.rows).putInt(hb.cols)
+                    .putInt(BinaryMatrixFormat.DTYPE_FLOAT64).putInt(0).flip();
+            BinaryMatrixFormat.writeFully(cc, header);
+            new Run(new TileFile(ca, ha), new TileFile(cb, hb), new TileFile(cc, ha.rows, hb.cols), monitor).execute();
+        }
+    }
+
+    private final class Run {
+        private final TileFile a;
+        private final TileFile b;
+        private final TileFile c;
+        private final ProgressMonitor monitor;
+        private final int tile;
+        private final double[][] aTiles;
+        private final double[][] bTiles;
+        private final double[][] cTiles;
+        private final List<int[]> steps = new ArrayList<>();
+        private long ioWaitNanos;
+        private long computeNanos;
+
+        Run(TileFile a, TileFile b, TileFile c, ProgressMonitor monitor) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.monitor = monitor;
+            this.tile = tileSize(memoryBytes);
+            int rows = Math.min(tile, a.rows);
+            int inner = Math.min(tile, a.cols);
+            int cols = Math.min(tile, b.cols);
+            aTiles = new double[][]{new double[rows * inner], new double[rows * inner]};
+            bTiles = new double[][]{new double[inner * cols], new double[inner * cols]};
+            cTiles = new double[][]{new double[rows * cols], new double[rows * cols]};
+            // Внутренний цикл по k: тайл C дописывается в файл, как только готов
+            for (int i = 0; i < a.rows; i += tile) {
+                for (int j = 0; j < b.cols; j += tile) {
+                    for (int k = 0; k < a.cols; k += tile) {
+                        steps.add(new int[]{i, j, k});
+                    }
+                }
+            }
+        }
+
+        void execute() throws IOException {
+            long start = System.nanoTime();
+            // Один поток ввода-вывода: чтения и записи идут в порядке постановки и не конкурируют за диск
+            ExecutorService io = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "matrix-out-of-core-io");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                monitor.begin(steps.size());
+                Future<?> pending = io.submit(() -> load(0));
+                Future<?>[] writes = new Future<?>[2];
+                int cSet = 0;
+                for (int s = 0; s < steps.size(); s++) {
+                    monitor.checkCancelled();
+                    await(pending);
+                    if (s + 1 < steps.size()) {
+                        int next = s + 1;
+                        pending = io.submit(() -> load(next));
+                    }
+                    int[] step = steps.get(s);
+                    int rows = Math.min(tile, a.rows - step[0]);
+                    int inner = Math.min(tile, a.cols - step[2]);
+                    int cols = Math.min(tile, b.cols - step[1]);
+                    double[] cTile = cTiles[cSet];
+                    if (step[2] == 0) {
+                        // Буфер C можно переиспользовать только после записи предыдущего тайла из него
+                        await(writes[cSet]);
+                        Arrays.fill(cTile, 0, rows * cols, 0.0);
+                    }
+                    long computeStart = System.nanoTime();
+                    Matrix aTile = Matrix.wrap(aTiles[s & 1], rows, inner);
+                    Matrix bTile = Matrix.wrap(bTiles[s & 1], inner, cols);
+                    int grain = Math.max(4, rows / (pool.getParallelism() * 4)) & ~3;
+                    pool.invoke(new RowRangeTask(0, rows, grain,
+                            (from, to) -> MultiplyKernel.multiplyRows(aTile, bTile, cTile, 0, cols, from, to), new LongAdder()));
+                    computeNanos += System.nanoTime() - computeStart;
+                    if (step[2] + tile >= a.cols) {
+                        int row = step[0];
+                        int col = step[1];
+                        writes[cSet] = io.submit(() -> {
+                            c.write(cTile, row, col, rows, cols);
+                            return null;
+                        });
+                        cSet ^= 1;
+                    }
+                    monitor.worked(1);
+                }
+                await(writes[0]);
+                await(writes[1]);
+            } finally {
+                io.shutdownNow();
+            }
+            logger.info("Внешнее умножение {}x{} на {}x{} тайлами {}: {} мс, вычисление {} мс, ожидание ввода-вывода {} мс",
+                    a.rows, a.cols, b.rows, b.cols, tile, (System.nanoTime() - start) / 1_000_000,
+                    computeNanos / 1_000_000, ioWaitNanos / 1_000_000);
+        }
+
+        private Void load(int s) throws IOException {
+            int[] step = steps.get(s);
+            a.read(aTiles[s & 1], step[0], step[2], Math.min(tile, a.rows - step[0]), Math.min(tile, a.cols - step[2]));
+            b.read(bTiles[s & 1], step[2], step[1], Math.min(tile, b.rows - step[2]), Math.min(tile, b.cols - step[1]));
+            return null;
+        }
+
+        private void await(Future<?> future) throws IOException {
+            if (future == null) {
+                return;
+            }
+            long waitStart = System.nanoTime();
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MatrixException("Внешнее умножение прервано.");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new MatrixException("Ошибка ввода-вывода при внешнем умножении: " + e.getCause());
+            } finally {
+                ioWaitNanos += System.nanoTime() - waitStart;
+            }
+        }
+    }
+
+    // Прямоугольные блоки двоичного файла матрицы; строка блока читается или пишется одним позиционным вызовом
+    private static final class TileFile {
+        private final FileChannel channel;
+        private final int rows;
+        private final int cols;
+        private final int elementBytes;
+        private ByteBuffer buffer;
+
+        TileFile(FileChannel channel, BinaryMatrixFormat.Header header) {
+            this.channel = channel;
+            this.rows = header.rows;
+            this.cols = header.cols;
+            this.elementBytes = header.dtype == BinaryMatrixFormat.DTYPE_FLOAT32 ? Float.BYTES : Double.BYTES;
+        }
+
+        TileFile(FileChannel channel, int rows, int cols) {
+            this.channel = channel;
+            this.rows = rows;
+            this.cols = cols;
+            this.elementBytes = Double.BYTES;
+        }
+
+        private ByteBuffer buffer(int count) {
+            if (buffer == null || buffer.capacity() < count * elementBytes) {
+                buffer = ByteBuffer.allocateDirect(count * elementBytes).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            buffer.clear().limit(count * elementBytes);
+            return buffer;
+        }
+
+        private long position(int row, int col) {
+            return BinaryMatrixFormat.HEADER_SIZE + ((long) row * cols + col) * elementBytes;
+        }
+
+        void read(double[] target, int row, int col, int height, int width) throws IOException {
+            for (int i = 0; i < height; i++) {
+                ByteBuffer bytes = buffer(width);
+                BinaryMatrixFormat.readFully(channel, bytes, position(row + i, col));
+                bytes.flip();
+                if (elementBytes == Double.BYTES) {
+                    bytes.asDoubleBuffer().get(target, i * width, width);
+                } else {
+                    for (int j = 0; j < width; j++) {
+                        target[i * width + j] = bytes.getFloat(j * Float.BYTES);
+                    }
+                }
+            }
+        }
+
+        void write(double[] source, int row, int col, int height, int width) throws IOException {
+            for (int i = 0; i < height; i++) {
+                ByteBuffer bytes = buffer(width);
+                bytes.asDoubleBuffer().put(source, i * width, width);
+                long position = position(row + i, col);
+                while (bytes.hasRemaining()) {
+                    position += channel.write(bytes, position);
+                }
+            }
+        }
+    }
+}
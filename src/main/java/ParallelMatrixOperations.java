@@ -0,0 +1,144 @@
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ParallelMatrixOperations {
+    private static final Logger logger = LogManager.getLogger(ParallelMatrixOperations.class);
+    // Порог в элементарных операциях (сложениях или умножениях-сложениях), ниже которого выгоднее последовательный путь
+    public static final long DEFAULT_THRESHOLD = 1L << 18;
+    // Для оценки ускорения засекается задача пула, начинающаяся со строки 0: её время, умноженное на долю строк,
+    // — оценка последовательного выполнения; отдельного последовательного прогона нет
+
+    private final ForkJoinPool pool;
+    private final long threshold;
+    private volatile SpeedupReport lastReport;
+
+    public ParallelMatrixOperations() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    public ParallelMatrixOperations(ForkJoinPool pool, long threshold) {
+        if (pool == null) {
+            throw new MatrixException("Пул потоков не может быть null.");
+        }
+        if (threshold < 0) {
+            throw new MatrixException("Порог параллельного выполнения не может быть отрицательным.");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    public ForkJoinPool getPool() { return pool; }
+    public long getThreshold() { return threshold; }
+    public SpeedupReport getLastReport() { return lastReport; }
+
+    public Matrix sum(Matrix a, Matrix b) throws MatrixException {
+        if (a.getRows() != b.getRows() || a.getCols() != b.getCols() || a.isSparse() || b.isSparse()
+                || (long) a.getRows() * a.getCols() < threshold) {
+            return runSequential("sum", () -> MatrixOperations.sum(a, b));
+        }
+        int rows = a.getRows();
+        int cols = a.getCols();
+        double[] resultData = Matrix.newDenseData(rows, cols);
+        runParallel("sum", rows, 1, (from, to) ->
+                MatrixOperations.combineRows(a, b, 1.0, resultData, from, to));
+        return Matrix.wrap(resultData, rows, cols);
+    }
+
+    public Matrix subtract(Matrix a, Matrix b) throws MatrixException {
+        if (a.getRows() != b.getRows() || a.getCols() != b.getCols() || a.isSparse() || b.isSparse()
+                || (long) a.getRows() * a.getCols() < threshold) {
+            return runSequential("subtract", () -> MatrixOperations.subtract(a, b));
+        }
+        int rows = a.getRows();
+        int cols = a.getCols();
+        double[] resultData = Matrix.newDenseData(rows, cols);
+        runParallel("subtract", rows, 1, (from, to) ->
+                MatrixOperations.combineRows(a, b, -1.0, resultData, from, to));
+        return Matrix.wrap(resultData, rows, cols);
+    }
+
+    public Matrix multiply(Matrix a, Matrix b) throws MatrixException {
+        // Разреженные операнды обрабатываются специализированными ядрами в MatrixOperations
+        if (a.getCols() != b.getRows() || a.isSparse() || b.isSparse()
+                || (long) a.getRows() * a.getCols() * b.getCols() < threshold) {
+            return runSequential("multiply", () -> MatrixOperations.multiply(a, b));
+        }
+        int rows = a.getRows();
+        int colsB = b.getCols();
+        // Транспонированные представления уплотняются один раз, а не в каждой задаче
+        Matrix right = b.isRowContiguous() || b.rowStride() == 1 ? b : b.compact();
+        double[] resultData = Matrix.newDenseData(rows, colsB);
+        // Каждая задача считает полосу строк C целиком, поэтому записи задач не пересекаются
+        runParallel("multiply", rows, MultiplyKernel.BLOCK_ROWS, (from, to) ->
+                MultiplyKernel.multiplyRows(a, right, resultData, 0, colsB, from, to));
+        return Matrix.wrap(resultData, rows, colsB);
+    }
+
+    public double determinant(Matrix matrix) throws MatrixException {
+        int n = matrix.getRows();
+        if (matrix.getRows() != matrix.getCols() || (long) n * n < threshold) {
+            long start = System.nanoTime();
+            double result = MatrixOperations.determinant(matrix);
+            long wall = System.nanoTime() - start;
+            report(new SpeedupReport("determinant", wall, 0, wall, 1, false));
+            return result;
+        }
+        LongAdder busyNanos = new LongAdder();
+        LongAdder sequentialNanos = new LongAdder();
+        long start = System.nanoTime();
+        double result = DeterminantCalculator.calculateParallel(matrix, pool, threshold, busyNanos, sequentialNanos);
+        long wall = System.nanoTime() - start;
+        // Ни один шаг не дошёл до пула (например, матрица вырождена с первого столбца): выполнение было последовательным
+        boolean parallel = sequentialNanos.sum() > 0;
+        report(new SpeedupReport("determinant", wall, busyNanos.sum(), parallel ? sequentialNanos.sum() : wall,
+                parallel ? pool.getParallelism() : 1, parallel));
+        return result;
+    }
+
+    private Matrix runSequential(String operation, MatrixSupplier supplier) {
+        long start = System.nanoTime();
+        Matrix result = supplier.get();
+        long wall = System.nanoTime() - start;
+        report(new SpeedupReport(operation, wall, 0, wall, 1, false));
+        return result;
+    }
+
+    void runParallel(String operation, int rows, int alignment, RowRangeTask.RowRangeBody body) {
+        int grain = Math.max(1, rows / (pool.getParallelism() * 4));
+        // Выравнивание по блоку ядра только когда полос хватает на все потоки: иначе матрица из 64 строк стала бы одной задачей
+        if (grain >= alignment) {
+            grain = (grain / alignment) * alignment;
+        }
+        LongAdder busyNanos = new LongAdder();
+        // Время и число строк задачи, начинающейся со строки 0; видимы после pool.invoke
+        long[] calibration = new long[2];
+        RowRangeTask.RowRangeBody timed = (from, to) -> {
+            if (from != 0) {
+                body.compute(from, to);
+                return;
+            }
+            long begin = System.nanoTime();
+            body.compute(from, to);
+            calibration[0] = System.nanoTime() - begin;
+            calibration[1] = to;
+        };
+        long start = System.nanoTime();
+        pool.invoke(new RowRangeTask(0, rows, grain, timed, busyNanos));
+        // Стоимость строки одинакова, поэтому последовательное время — время первой задачи, умноженное на rows / её строки
+        long sequentialNanos = Math.max(1, (long) ((double) calibration[0] * rows / calibration[1]));
+        report(new SpeedupReport(operation, System.nanoTime() - start, busyNanos.sum(), sequentialNanos,
+                pool.getParallelism(), true));
+    }
+
+    private void report(SpeedupReport report) {
+        lastReport = report;
+        logger.debug("Параллельное выполнение: {}", report);
+    }
+
+    @FunctionalInterface
+    private interface MatrixSupplier {
+        Matrix get();
+    }
+}
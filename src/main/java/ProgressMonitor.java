@@ -0,0 +1,69 @@
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Прогресс и кооперативная отмена длительных операций. Вычислительные ядра вызывают worked() между
+// полосами строк или шагами исключения; после cancel() ближайший вызов бросает CancellationException.
+// Методы потокобезопасны, поэтому один монитор можно передавать в параллельные части одной операции
+public class ProgressMonitor {
+    // Монитор без слушателя, который нельзя отменить; используется вызовами без отслеживания прогресса
+    public static final ProgressMonitor NONE = new ProgressMonitor(null);
+
+    @FunctionalInterface
+    public interface Listener {
+        void progress(long done, long total);
+    }
+
+    private final Listener listener;
+    private final AtomicLong done = new AtomicLong();
+    private volatile long total = 1;
+    private volatile boolean cancelled;
+
+    public ProgressMonitor(Listener listener) {
+        this.listener = listener;
+    }
+
+    // Начало этапа из totalWork единиц работы; счётчик выполненной работы обнуляется
+    public void begin(long totalWork) {
+        if (this == NONE) {
+            return;
+        }
+        checkCancelled();
+        total = Math.max(1, totalWork);
+        done.set(0);
+        report(0);
+    }
+
+    public void worked(long units) {
+        if (this == NONE) {
+            return;
+        }
+        checkCancelled();
+        report(done.addAndGet(units));
+    }
+
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Операция отменена пользователем.");
+        }
+    }
+
+    public void cancel() {
+        if (this != NONE) {
+            cancelled = true;
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public double getProgress() {
+        return Math.min(1.0, (double) done.get() / total);
+    }
+
+    private void report(long value) {
+        if (listener != null) {
+            listener.progress(Math.min(value, total), total);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Кэш результатов операций по хешу содержимого операндов. Вытеснение — LRU с ограничением суммарного
+// объёма в байтах. Операнды меньше minElements элементов не кэшируются: пересчитать их дешевле, чем
+// хешировать. Ключ — 64-битный хеш и размеры каждого операнда; запись хранит ссылки на операнды, и попадание
+// подтверждается поэлементным сравнением (O(n^2), дешевле умножения и определителя), так что совпадение
+// хешей разных матриц даёт промах, а не чужой результат. Операнды удерживаются записью и учитываются в её
+// объёме; изменяемые матрицы не кэшируются, потому что сохранённый операнд мог бы измениться.
+// Общий кэш выключен по умолчанию и включается -Dmatrix.cache.enabled=true или атрибутом Enabled в JMX: иначе
+// повторный вызов над теми же операндами (например, в бенчмарке) измерял бы поиск в таблице, а не операцию
+public class ResultCache implements ResultCacheMBean {
+    private static final Logger logger = LogManager.getLogger(ResultCache.class);
+    public static final long DEFAULT_MAX_BYTES = Long.getLong("matrix.cache.maxBytes", 64L << 20);
+    public static final long DEFAULT_MIN_ELEMENTS = Long.getLong("matrix.cache.minElements", 1L << 14);
+    // Приблизительный размер записи без результата и операндов: ключ, узел LinkedHashMap, обёртка значения
+    private static final long ENTRY_OVERHEAD = 128;
+
+    private static final ResultCache SHARED = new ResultCache(DEFAULT_MAX_BYTES, DEFAULT_MIN_ELEMENTS);
+
+    static {
+        SHARED.setEnabled(Boolean.getBoolean("matrix.cache.enabled"));
+        MatrixMetrics.register(SHARED, MatrixMetrics.DOMAIN + ":type=ResultCache");
+    }
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private long currentBytes;
+    private volatile long maxBytes;
+    private volatile long minElements;
+    private volatile boolean enabled = true;
+
+    public ResultCache(long maxBytes, long minElements) {
+        setMaxBytes(maxBytes);
+        setMinElements(minElements);
+    }
+
+    // Общий кэш, используемый MatrixOperations
+    public static ResultCache shared() {
+        return SHARED;
+    }
+
+    public Matrix getOrCompute(String operation, Matrix a, Matrix b, Supplier<Matrix> computation) {
+        Key key = keyFor(operation, a, b);
+        if (key == null) {
+            return computation.get();
+        }
+        Object cached = lookup(key, a, b);
+        if (cached != null) {
+            return (Matrix) cached;
+        }
+        Matrix result = computation.get();
+        store(key, new Entry(result, MatrixMetrics.bytesOf(result), a, b));
+        return result;
+    }
+
+    public double getOrCompute(String operation, Matrix a, DoubleSupplier computation) {
+        Key key = keyFor(operation, a, null);
+        if (key == null) {
+            return computation.getAsDouble();
+        }
+        Object cached = lookup(key, a, null);
+        if (cached != null) {
+            return (Double) cached;
+        }
+        double result = computation.getAsDouble();
+        store(key, new Entry(result, Double.BYTES, a, null));
+        return result;
+    }
+
+    private Key keyFor(String operation, Matrix a, Matrix b) {
+        long elements = (long) a.getRows() * a.getCols() + (b == null ? 0 : (long) b.getRows() * b.getCols());
+        if (!enabled || maxBytes == 0 || elements < minElements || a.isMutable() || (b != null && b.isMutable())) {
+            skipped.increment();
+            return null;
+        }
+        return new Key(operation, a, b);
+    }
+
+    private Object lookup(Key key, Matrix a, Matrix b) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        // Сравнение содержимого вне блокировки: операнды записи не изменяются
+        if (entry == null || !entry.matches(a, b)) {
+            if (entry != null) {
+                logger.warn("Совпадение хешей разных операндов операции {}: результат вычисляется заново.", key.operation);
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    private synchronized void store(Key key, Entry entry) {
+        if (entry.bytes > maxBytes) {
+            logger.debug("Результат операции {} с операндами ({} байт) больше всего кэша и не сохраняется.",
+                    key.operation, entry.bytes);
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            currentBytes -= previous.bytes;
+        }
+        currentBytes += entry.bytes;
+        evictToLimit();
+    }
+
+    private void evictToLimit() {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            currentBytes -= eldest.bytes;
+            evictions.increment();
+        }
+    }
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    @Override
+    public synchronized int getEntries() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    @Override
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public synchronized void setMaxBytes(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new MatrixException("Размер кэша не может быть отрицательным.");
+        }
+        this.maxBytes = maxBytes;
+        evictToLimit();
+    }
+
+    @Override
+    public long getMinElements() {
+        return minElements;
+    }
+
+    @Override
+    public void setMinElements(long minElements) {
+        if (minElements < 0) {
+            throw new MatrixException("Порог размера для кэширования не может быть отрицательным.");
+        }
+        this.minElements = minElements;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+        skipped.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Кэш результатов: попаданий %d, промахов %d (%.1f%%), записей %d, %d из %d байт, вытеснено %d",
+                getHits(), getMisses(), getHitRate() * 100, getEntries(), getCurrentBytes(), getMaxBytes(), getEvictions());
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long bytes;
+        final Matrix a;
+        final Matrix b;
+
+        Entry(Object value, long resultBytes, Matrix a, Matrix b) {
+            this.value = value;
+            this.a = a;
+            this.b = b;
+            this.bytes = resultBytes + MatrixMetrics.bytesOf(a) + (b == null ? 0 : MatrixMetrics.bytesOf(b)) + ENTRY_OVERHEAD;
+        }
+
+        boolean matches(Matrix otherA, Matrix otherB) {
+            return a.contentEquals(otherA) && (b == null ? otherB == null : otherB != null && b.contentEquals(otherB));
+        }
+    }
+
+    private static final class Key {
+        final String operation;
+        final long hashA;
+        final int rowsA;
+        final int colsA;
+        final long hashB;
+        final int rowsB;
+        final int colsB;
+
+        Key(String operation, Matrix a, Matrix b) {
+            this.operation = operation;
+            this.hashA = a.contentHash();
+            this.rowsA = a.getRows();
+            this.colsA = a.getCols();
+            this.hashB = b == null ? 0 : b.contentHash();
+            this.rowsB = b == null ? 0 : b.getRows();
+            this.colsB = b == null ? 0 : b.getCols();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hashA == other.hashA && hashB == other.hashB
+                    && rowsA == other.rowsA && colsA == other.colsA
+                    && rowsB == other.rowsB && colsB == other.colsB
+                    && operation.equals(other.operation);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (hashA ^ (hashA >>> 32)) * 31 + (int) (hashB ^ (hashB >>> 32)) * 17 + operation.hashCode();
+        }
+    }
+}
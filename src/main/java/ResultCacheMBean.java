@@ -0,0 +1,30 @@
+// Статистика и настройки кэша результатов, публикуемые через JMX
+public interface ResultCacheMBean {
+    long getHits();
+
+    long getMisses();
+
+    double getHitRate();
+
+    long getEvictions();
+
+    long getSkipped();
+
+    int getEntries();
+
+    long getCurrentBytes();
+
+    long getMaxBytes();
+
+    void setMaxBytes(long maxBytes);
+
+    long getMinElements();
+
+    void setMinElements(long minElements);
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    void clear();
+}
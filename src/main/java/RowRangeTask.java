@@ -0,0 +1,40 @@
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RowRangeTask extends RecursiveAction {
+    private final int from;
+    private final int to;
+    private final int grain;
+    private final RowRangeBody body;
+    private final LongAdder busyNanos;
+
+    public RowRangeTask(int from, int to, int grain, RowRangeBody body, LongAdder busyNanos) {
+        this.from = from;
+        this.to = to;
+        this.grain = Math.max(1, grain);
+        this.body = body;
+        this.busyNanos = busyNanos;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= grain) {
+            long start = System.nanoTime();
+            body.compute(from, to);
+            busyNanos.add(System.nanoTime() - start);
+            return;
+        }
+        // Граница разбиения выравнивается по grain, чтобы блоки строк не дробились внутри ядра
+        int mid = from + ((to - from) / grain / 2) * grain;
+        if (mid == from) {
+            mid = from + grain;
+        }
+        invokeAll(new RowRangeTask(from, mid, grain, body, busyNanos),
+                new RowRangeTask(mid, to, grain, body, busyNanos));
+    }
+
+    @FunctionalInterface
+    public interface RowRangeBody {
+        void compute(int from, int to);
+    }
+}
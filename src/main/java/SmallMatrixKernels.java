@@ -0,0 +1,383 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+// Ядра для матриц 1x1–4x4 (геометрические преобразования): определитель в замкнутой форме и полностью
+// развёрнутое умножение без объектов Matrix, журнала и метрик. Определитель считается разложением,
+// а не LU, поэтому порога вырожденности PIVOT_TOLERANCE здесь нет: почти вырожденная матрица даёт малое
+// ненулевое значение. MatrixOperations.determinant для таких размеров использует determinantPivoted
+// с тем же правилом, что у LUDecomposition, чтобы ответ не зависел от размера матрицы.
+// Пакетные методы работают с упакованным массивом из count матриц n x n в одном из двух расположений:
+//   AoS — матрицы подряд, элемент (i, j) матрицы q в packed[q * n * n + i * n + j];
+//   SoA — по массиву на элемент, элемент (i, j) матрицы q в packed[(i * n + j) * count + q].
+// В SoA внутренний цикл идёт по матрицам с единичным шагом и векторизуется JIT. Большие пакеты делятся
+// между потоками пула по диапазонам матриц
+public class SmallMatrixKernels {
+    public static final int MAX_SIZE = 4;
+    // Пакет меньше этого числа умножений-сложений обрабатывается в вызывающем потоке
+    static final long PARALLEL_THRESHOLD = 1L << 17;
+    private static final int MIN_GRAIN = 1024;
+
+    private SmallMatrixKernels() {
+    }
+
+    public static double determinant(Matrix matrix) {
+        int n = matrix.getRows();
+        if (n != matrix.getCols() || n > MAX_SIZE) {
+            throw new MatrixException("Поддерживаются только квадратные матрицы размером до 4x4.");
+        }
+        return determinant(n, matrix.toArray(), 0);
+    }
+
+    public static Matrix multiply(Matrix a, Matrix b) {
+        int n = a.getRows();
+        if (n > MAX_SIZE || a.getCols() != n || b.getRows() != n || b.getCols() != n) {
+            throw new MatrixException("Поддерживаются только квадратные матрицы одного размера до 4x4.");
+        }
+        double[] c = new double[n * n];
+        multiply(n, a.toArray(), 0, b.toArray(), 0, c, 0);
+        return Matrix.wrap(c, n, n);
+    }
+
+    // Определитель матрицы n x n, лежащей построчно в m начиная с off
+    public static double determinant(int n, double[] m, int off) {
+        switch (n) {
+            case 1:
+                return m[off];
+            case 2:
+                return determinant2(m, off);
+            case 3:
+                return determinant3(m, off);
+            case 4:
+                return determinant4(m, off);
+            default:
+                throw unsupportedSize(n);
+        }
+    }
+
+    // Исключение с частичным выбором ведущего элемента в том же порядке, что у LUDecomposition: 0.0, если ведущий
+    // элемент по модулю меньше PIVOT_TOLERANCE. Без объектов разложения и журнала; m (построчно, с нуля) перезаписывается
+    static double determinantPivoted(int n, double[] m) {
+        boolean negate = false;
+        for (int k = 0; k < n; k++) {
+            int pivotRow = k;
+            for (int i = k + 1; i < n; i++) {
+                if (Math.abs(m[i * n + k]) > Math.abs(m[pivotRow * n + k])) {
+                    pivotRow = i;
+                }
+            }
+            if (pivotRow != k) {
+                for (int j = k; j < n; j++) {
+                    double temp = m[k * n + j];
+                    m[k * n + j] = m[pivotRow * n + j];
+                    m[pivotRow * n + j] = temp;
+                }
+                negate = !negate;
+            }
+            double pivot = m[k * n + k];
+            if (Math.abs(pivot) < LUDecomposition.PIVOT_TOLERANCE) {
+                return 0.0;
+            }
+            for (int i = k + 1; i < n; i++) {
+                double factor = m[i * n + k] / pivot;
+                for (int j = k + 1; j < n; j++) {
+                    m[i * n + j] -= factor * m[k * n + j];
+                }
+            }
+        }
+        double result = 1.0;
+        for (int k = 0; k < n; k++) {
+            result *= m[k * n + k];
+        }
+        return negate ? -result : result;
+    }
+
+    // C = A * B для построчно лежащих матриц n x n; все операнды читаются до записи, поэтому C может совпадать с A или B
+    public static void multiply(int n, double[] a, int aOff, double[] b, int bOff, double[] c, int cOff) {
+        switch (n) {
+            case 1:
+                c[cOff] = a[aOff] * b[bOff];
+                break;
+            case 2:
+                multiply2(a, aOff, b, bOff, c, cOff);
+                break;
+            case 3:
+                multiply3(a, aOff, b, bOff, c, cOff);
+                break;
+            case 4:
+                multiply4(a, aOff, b, bOff, c, cOff);
+                break;
+            default:
+                throw unsupportedSize(n);
+        }
+    }
+
+    static double determinant2(double[] m, int o) {
+        return m[o] * m[o + 3] - m[o + 1] * m[o + 2];
+    }
+
+    static double determinant3(double[] m, int o) {
+        double a00 = m[o], a01 = m[o + 1], a02 = m[o + 2];
+        double a10 = m[o + 3], a11 = m[o + 4], a12 = m[o + 5];
+        double a20 = m[o + 6], a21 = m[o + 7], a22 = m[o + 8];
+        return a00 * (a11 * a22 - a12 * a21)
+                - a01 * (a10 * a22 - a12 * a20)
+                + a02 * (a10 * a21 - a11 * a20);
+    }
+
+    // Разложение Лапласа по первым двум строкам: шесть миноров 2x2 сверху и шесть дополнительных снизу
+    static double determinant4(double[] m, int o) {
+        double a00 = m[o], a01 = m[o + 1], a02 = m[o + 2], a03 = m[o + 3];
+        double a10 = m[o + 4], a11 = m[o + 5], a12 = m[o + 6], a13 = m[o + 7];
+        double a20 = m[o + 8], a21 = m[o + 9], a22 = m[o + 10], a23 = m[o + 11];
+        double a30 = m[o + 12], a31 = m[o + 13], a32 = m[o + 14], a33 = m[o + 15];
+        double s0 = a00 * a11 - a10 * a01;
+        double s1 = a00 * a12 - a10 * a02;
+        double s2 = a00 * a13 - a10 * a03;
+        double s3 = a01 * a12 - a11 * a02;
+        double s4 = a01 * a13 - a11 * a03;
+        double s5 = a02 * a13 - a12 * a03;
+        double c5 = a22 * a33 - a32 * a23;
+        double c4 = a21 * a33 - a31 * a23;
+        double c3 = a21 * a32 - a31 * a22;
+        double c2 = a20 * a33 - a30 * a23;
+        double c1 = a20 * a32 - a30 * a22;
+        double c0 = a20 * a31 - a30 * a21;
+        return s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+    }
+
+    static void multiply2(double[] a, int ao, double[] b, int bo, double[] c, int co) {
+        double a00 = a[ao], a01 = a[ao + 1], a10 = a[ao + 2], a11 = a[ao + 3];
+        double b00 = b[bo], b01 = b[bo + 1], b10 = b[bo + 2], b11 = b[bo + 3];
+        c[co] = a00 * b00 + a01 * b10;
+        c[co + 1] = a00 * b01 + a01 * b11;
+        c[co + 2] = a10 * b00 + a11 * b10;
+        c[co + 3] = a10 * b01 + a11 * b11;
+    }
+
+    static void multiply3(double[] a, int ao, double[] b, int bo, double[] c, int co) {
+        double b00 = b[bo], b01 = b[bo + 1], b02 = b[bo + 2];
+        double b10 = b[bo + 3], b11 = b[bo + 4], b12 = b[bo + 5];
+        double b20 = b[bo + 6], b21 = b[bo + 7], b22 = b[bo + 8];
+        double a00 = a[ao], a01 = a[ao + 1], a02 = a[ao + 2];
+        double a10 = a[ao + 3], a11 = a[ao + 4], a12 = a[ao + 5];
+        double a20 = a[ao + 6], a21 = a[ao + 7], a22 = a[ao + 8];
+        c[co] = a00 * b00 + a01 * b10 + a02 * b20;
+        c[co + 1] = a00 * b01 + a01 * b11 + a02 * b21;
+        c[co + 2] = a00 * b02 + a01 * b12 + a02 * b22;
+        c[co + 3] = a10 * b00 + a11 * b10 + a12 * b20;
+        c[co + 4] = a10 * b01 + a11 * b11 + a12 * b21;
+        c[co + 5] = a10 * b02 + a11 * b12 + a12 * b22;
+        c[co + 6] = a20 * b00 + a21 * b10 + a22 * b20;
+        c[co + 7] = a20 * b01 + a21 * b11 + a22 * b21;
+        c[co + 8] = a20 * b02 + a21 * b12 + a22 * b22;
+    }
+
+    static void multiply4(double[] a, int ao, double[] b, int bo, double[] c, int co) {
+        double b00 = b[bo], b01 = b[bo + 1], b02 = b[bo + 2], b03 = b[bo + 3];
+        double b10 = b[bo + 4], b11 = b[bo + 5], b12 = b[bo + 6], b13 = b[bo + 7];
+        double b20 = b[bo + 8], b21 = b[bo + 9], b22 = b[bo + 10], b23 = b[bo + 11];
+        double b30 = b[bo + 12], b31 = b[bo + 13], b32 = b[bo + 14], b33 = b[bo + 15];
+        for (int r = 0; r < 16; r += 4) {
+            // Цикл с постоянным числом итераций JIT разворачивает; строка A читается до записи строки C
+            double x0 = a[ao + r], x1 = a[ao + r + 1], x2 = a[ao + r + 2], x3 = a[ao + r + 3];
+            c[co + r] = x0 * b00 + x1 * b10 + x2 * b20 + x3 * b30;
+            c[co + r + 1] = x0 * b01 + x1 * b11 + x2 * b21 + x3 * b31;
+            c[co + r + 2] = x0 * b02 + x1 * b12 + x2 * b22 + x3 * b32;
+            c[co + r + 3] = x0 * b03 + x1 * b13 + x2 * b23 + x3 * b33;
+        }
+    }
+
+    public static void determinants(int n, double[] packed, double[] out, int count) {
+        determinants(n, packed, out, count, ForkJoinPool.commonPool());
+    }
+
+    // out[q] = det(матрица q) для AoS-пакета
+    public static void determinants(int n, double[] packed, double[] out, int count, ForkJoinPool pool) {
+        checkBatch(n, count, packed.length, out.length, 1);
+        int size = n * n;
+        forRange(count, (long) n * n * n, pool, (from, to) -> {
+            switch (n) {
+                case 1:
+                    System.arraycopy(packed, from, out, from, to - from);
+                    break;
+                case 2:
+                    for (int q = from; q < to; q++) {
+                        out[q] = determinant2(packed, q * size);
+                    }
+                    break;
+                case 3:
+                    for (int q = from; q < to; q++) {
+                        out[q] = determinant3(packed, q * size);
+                    }
+                    break;
+                default:
+                    for (int q = from; q < to; q++) {
+                        out[q] = determinant4(packed, q * size);
+                    }
+            }
+        });
+    }
+
+    public static void multiplyBatch(int n, double[] a, double[] b, double[] c, int count) {
+        multiplyBatch(n, a, b, c, count, ForkJoinPool.commonPool());
+    }
+
+    // C_q = A_q * B_q для AoS-пакетов
+    public static void multiplyBatch(int n, double[] a, double[] b, double[] c, int count, ForkJoinPool pool) {
+        checkBatch(n, count, a.length, c.length, n * n);
+        checkBatch(n, count, b.length, c.length, n * n);
+        int size = n * n;
+        forRange(count, (long) n * n * n, pool, (from, to) -> {
+            for (int q = from; q < to; q++) {
+                multiply(n, a, q * size, b, q * size, c, q * size);
+            }
+        });
+    }
+
+    public static void determinantsSoA(int n, double[] packed, double[] out, int count) {
+        determinantsSoA(n, packed, out, count, ForkJoinPool.commonPool());
+    }
+
+    // out[q] = det(матрица q) для SoA-пакета
+    public static void determinantsSoA(int n, double[] packed, double[] out, int count, ForkJoinPool pool) {
+        checkBatch(n, count, packed.length, out.length, 1);
+        forRange(count, (long) n * n * n, pool, (from, to) -> {
+            switch (n) {
+                case 1:
+                    System.arraycopy(packed, from, out, from, to - from);
+                    break;
+                case 2:
+                    determinants2SoA(packed, count, out, from, to);
+                    break;
+                case 3:
+                    determinants3SoA(packed, count, out, from, to);
+                    break;
+                default:
+                    determinants4SoA(packed, count, out, from, to);
+            }
+        });
+    }
+
+    private static void determinants2SoA(double[] m, int s, double[] out, int from, int to) {
+        for (int q = from; q < to; q++) {
+            out[q] = m[q] * m[3 * s + q] - m[s + q] * m[2 * s + q];
+        }
+    }
+
+    private static void determinants3SoA(double[] m, int s, double[] out, int from, int to) {
+        int e1 = s, e2 = 2 * s, e3 = 3 * s, e4 = 4 * s, e5 = 5 * s, e6 = 6 * s, e7 = 7 * s, e8 = 8 * s;
+        for (int q = from; q < to; q++) {
+            double a10 = m[e3 + q], a11 = m[e4 + q], a12 = m[e5 + q];
+            double a20 = m[e6 + q], a21 = m[e7 + q], a22 = m[e8 + q];
+            out[q] = m[q] * (a11 * a22 - a12 * a21)
+                    - m[e1 + q] * (a10 * a22 - a12 * a20)
+                    + m[e2 + q] * (a10 * a21 - a11 * a20);
+        }
+    }
+
+    // Шаги по 16 массивам элементов; миноры считаются так же, как в determinant4
+    private static void determinants4SoA(double[] m, int s, double[] out, int from, int to) {
+        for (int q = from; q < to; q++) {
+            double a00 = m[q], a01 = m[s + q], a02 = m[2 * s + q], a03 = m[3 * s + q];
+            double a10 = m[4 * s + q], a11 = m[5 * s + q], a12 = m[6 * s + q], a13 = m[7 * s + q];
+            double a20 = m[8 * s + q], a21 = m[9 * s + q], a22 = m[10 * s + q], a23 = m[11 * s + q];
+            double a30 = m[12 * s + q], a31 = m[13 * s + q], a32 = m[14 * s + q], a33 = m[15 * s + q];
+            double s0 = a00 * a11 - a10 * a01;
+            double s1 = a00 * a12 - a10 * a02;
+            double s2 = a00 * a13 - a10 * a03;
+            double s3 = a01 * a12 - a11 * a02;
+            double s4 = a01 * a13 - a11 * a03;
+            double s5 = a02 * a13 - a12 * a03;
+            double c5 = a22 * a33 - a32 * a23;
+            double c4 = a21 * a33 - a31 * a23;
+            double c3 = a21 * a32 - a31 * a22;
+            double c2 = a20 * a33 - a30 * a23;
+            double c1 = a20 * a32 - a30 * a22;
+            double c0 = a20 * a31 - a30 * a21;
+            out[q] = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+        }
+    }
+
+    public static void multiplyBatchSoA(int n, double[] a, double[] b, double[] c, int count) {
+        multiplyBatchSoA(n, a, b, c, count, ForkJoinPool.commonPool());
+    }
+
+    // C_q = A_q * B_q для SoA-пакетов. C не должен совпадать с A или B: элементы C пишутся до чтения всех операндов
+    public static void multiplyBatchSoA(int n, double[] a, double[] b, double[] c, int count, ForkJoinPool pool) {
+        checkBatch(n, count, a.length, c.length, n * n);
+        checkBatch(n, count, b.length, c.length, n * n);
+        if (c == a || c == b) {
+            throw new MatrixException("Пакет результата не может совпадать с пакетом операнда.");
+        }
+        forRange(count, (long) n * n * n, pool, (from, to) -> {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    int co = (i * n + j) * count;
+                    int a0 = i * n * count;
+                    int b0 = j * count;
+                    for (int q = from; q < to; q++) {
+                        c[co + q] = a[a0 + q] * b[b0 + q];
+                    }
+                    for (int k = 1; k < n; k++) {
+                        int ak = (i * n + k) * count;
+                        int bk = (k * n + j) * count;
+                        for (int q = from; q < to; q++) {
+                            c[co + q] += a[ak + q] * b[bk + q];
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    // Перекладка AoS -> SoA
+    public static double[] toSoA(int n, double[] packed, int count) {
+        checkBatch(n, count, packed.length, count * n * n, n * n);
+        int size = n * n;
+        double[] soa = new double[count * size];
+        for (int q = 0; q < count; q++) {
+            for (int e = 0; e < size; e++) {
+                soa[e * count + q] = packed[q * size + e];
+            }
+        }
+        return soa;
+    }
+
+    // Перекладка SoA -> AoS
+    public static double[] toAoS(int n, double[] soa, int count) {
+        checkBatch(n, count, soa.length, count * n * n, n * n);
+        int size = n * n;
+        double[] packed = new double[count * size];
+        for (int e = 0; e < size; e++) {
+            for (int q = 0; q < count; q++) {
+                packed[q * size + e] = soa[e * count + q];
+            }
+        }
+        return packed;
+    }
+
+    private static void forRange(int count, long workPerMatrix, ForkJoinPool pool, RowRangeTask.RowRangeBody body) {
+        if (count == 0) {
+            return;
+        }
+        if (pool == null || pool.getParallelism() == 1 || count * workPerMatrix < PARALLEL_THRESHOLD) {
+            body.compute(0, count);
+            return;
+        }
+        int grain = Math.max(MIN_GRAIN, count / (pool.getParallelism() * 4));
+        pool.invoke(new RowRangeTask(0, count, grain, body, new LongAdder()));
+    }
+
+    private static void checkBatch(int n, int count, int inputLength, int outputLength, int outputPerMatrix) {
+        if (n < 1 || n > MAX_SIZE) {
+            throw unsupportedSize(n);
+        }
+        if (count < 0 || (long) count * n * n > inputLength || (long) count * outputPerMatrix > outputLength) {
+            throw new MatrixException("Размер массива не соответствует числу матриц в пакете.");
+        }
+    }
+
+    private static MatrixException unsupportedSize(int n) {
+        return new MatrixException("Размер малой матрицы должен быть от 1 до " + MAX_SIZE + ", получено " + n + ".");
+    }
+}
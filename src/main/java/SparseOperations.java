@@ -0,0 +1,234 @@
+import java.util.Arrays;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class SparseOperations {
+    private static final Logger logger = LogManager.getLogger(SparseOperations.class);
+    // Доля ненулевых элементов, после которой результат хранится плотно
+    public static final double DEFAULT_DENSIFY_THRESHOLD = 0.25;
+    private static volatile double densifyThreshold = DEFAULT_DENSIFY_THRESHOLD;
+
+    public static double getDensifyThreshold() {
+        return densifyThreshold;
+    }
+
+    public static void setDensifyThreshold(double threshold) {
+        if (threshold < 0.0 || threshold > 1.0) {
+            throw new MatrixException("Порог заполнения должен лежать в диапазоне [0, 1].");
+        }
+        densifyThreshold = threshold;
+    }
+
+    // a + sign * b, хотя бы одна из матриц разреженная; размеры уже проверены
+    static Matrix combine(Matrix a, Matrix b, double sign) {
+        if (!a.isSparse() || !b.isSparse()) {
+            return combineWithDense(a, b, sign);
+        }
+        CsrStorage x = a.csr();
+        CsrStorage y = b.csr();
+        int rows = x.getRows();
+        int[] rowPtr = new int[rows + 1];
+        int capacity = x.nonZeros() + y.nonZeros();
+        int[] colIdx = new int[capacity];
+        double[] values = new double[capacity];
+        int nnz = 0;
+        for (int i = 0; i < rows; i++) {
+            int p = x.rowPtr()[i], pEnd = x.rowPtr()[i + 1];
+            int q = y.rowPtr()[i], qEnd = y.rowPtr()[i + 1];
+            // Слияние двух упорядоченных по столбцам строк
+            while (p < pEnd || q < qEnd) {
+                int cp = p < pEnd ? x.colIdx()[p] : Integer.MAX_VALUE;
+                int cq = q < qEnd ? y.colIdx()[q] : Integer.MAX_VALUE;
+                double v;
+                int c;
+                if (cp == cq) {
+                    c = cp;
+                    v = x.values()[p++] + sign * y.values()[q++];
+                } else if (cp < cq) {
+                    c = cp;
+                    v = x.values()[p++];
+                } else {
+                    c = cq;
+                    v = sign * y.values()[q++];
+                }
+                if (v != 0.0) {
+                    colIdx[nnz] = c;
+                    values[nnz++] = v;
+                }
+            }
+            rowPtr[i + 1] = nnz;
+        }
+        return finish(new CsrStorage(rows, x.getCols(), rowPtr, colIdx, values));
+    }
+
+    private static Matrix combineWithDense(Matrix a, Matrix b, double sign) {
+        int rows = a.getRows();
+        int cols = a.getCols();
+        double[] result = new double[Math.multiplyExact(rows, cols)];
+        if (a.isSparse()) {
+            double[] dense = b.toArray();
+            for (int k = 0; k < dense.length; k++) {
+                result[k] = sign * dense[k];
+            }
+            scatterAdd(a.csr(), 1.0, result);
+        } else {
+            double[] dense = a.toArray();
+            System.arraycopy(dense, 0, result, 0, dense.length);
+            scatterAdd(b.csr(), sign, result);
+        }
+        return Matrix.wrap(result, rows, cols);
+    }
+
+    // target += factor * s, target — плотный построчный массив той же размерности
+    static void scatterAdd(CsrStorage s, double factor, double[] target) {
+        int cols = s.getCols();
+        for (int i = 0; i < s.getRows(); i++) {
+            for (int p = s.rowPtr()[i]; p < s.rowPtr()[i + 1]; p++) {
+                target[i * cols + s.colIdx()[p]] += factor * s.values()[p];
+            }
+        }
+    }
+
+    static Matrix multiply(Matrix a, Matrix b) {
+        if (a.isSparse() && b.isSparse()) {
+            return multiplySparse(a.csr(), b.csr());
+        }
+        if (a.isSparse()) {
+            return multiplySparseDense(a.csr(), b);
+        }
+        return multiplyDenseSparse(a, b.csr());
+    }
+
+    // Алгоритм Густавсона: строка C собирается в плотном аккумуляторе, число операций пропорционально ненулевым произведениям
+    private static Matrix multiplySparse(CsrStorage x, CsrStorage y) {
+        int rows = x.getRows();
+        int cols = y.getCols();
+        double[] accumulator = new double[cols];
+        int[] marker = new int[cols];
+        Arrays.fill(marker, -1);
+        int[] touched = new int[cols];
+        int[] rowPtr = new int[rows + 1];
+        int[] colIdx = new int[Math.max(16, x.nonZeros() + y.nonZeros())];
+        double[] values = new double[colIdx.length];
+        int nnz = 0;
+        for (int i = 0; i < rows; i++) {
+            int touchedCount = 0;
+            for (int p = x.rowPtr()[i]; p < x.rowPtr()[i + 1]; p++) {
+                int k = x.colIdx()[p];
+                double v = x.values()[p];
+                for (int q = y.rowPtr()[k]; q < y.rowPtr()[k + 1]; q++) {
+                    int j = y.colIdx()[q];
+                    if (marker[j] != i) {
+                        marker[j] = i;
+                        accumulator[j] = 0.0;
+                        touched[touchedCount++] = j;
+                    }
+                    accumulator[j] += v * y.values()[q];
+                }
+            }
+            Arrays.sort(touched, 0, touchedCount);
+            if (nnz + touchedCount > colIdx.length) {
+                int capacity = Math.max(nnz + touchedCount, colIdx.length * 2);
+                colIdx = Arrays.copyOf(colIdx, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            for (int t = 0; t < touchedCount; t++) {
+                int j = touched[t];
+                if (accumulator[j] != 0.0) {
+                    colIdx[nnz] = j;
+                    values[nnz++] = accumulator[j];
+                }
+            }
+            rowPtr[i + 1] = nnz;
+        }
+        return finish(new CsrStorage(rows, cols, rowPtr, colIdx, values));
+    }
+
+    private static Matrix multiplySparseDense(CsrStorage x, Matrix b) {
+        Matrix dense = b.compact();
+        double[] bd = dense.rawData();
+        int cols = dense.getCols();
+        double[] result = new double[Math.multiplyExact(x.getRows(), cols)];
+        for (int i = 0; i < x.getRows(); i++) {
+            int ci = i * cols;
+            for (int p = x.rowPtr()[i]; p < x.rowPtr()[i + 1]; p++) {
+                double v = x.values()[p];
+                int bk = dense.offset() + x.colIdx()[p] * dense.rowStride();
+                VectorKernels.axpy(v, bd, bk, result, ci, cols);
+            }
+        }
+        return Matrix.wrap(result, x.getRows(), cols);
+    }
+
+    private static Matrix multiplyDenseSparse(Matrix a, CsrStorage y) {
+        int rows = a.getRows();
+        int cols = y.getCols();
+        double[] result = new double[Math.multiplyExact(rows, cols)];
+        for (int i = 0; i < rows; i++) {
+            int ci = i * cols;
+            for (int k = 0; k < a.getCols(); k++) {
+                double v = a.get(i, k);
+                if (v == 0.0) {
+                    continue;
+                }
+                for (int q = y.rowPtr()[k]; q < y.rowPtr()[k + 1]; q++) {
+                    result[ci + y.colIdx()[q]] += v * y.values()[q];
+                }
+            }
+        }
+        return Matrix.wrap(result, rows, cols);
+    }
+
+    // c += alpha * A * B, хотя бы одна из матриц разреженная; c — плотный построчный массив, память не выделяется
+    static void multiplyAdd(Matrix a, Matrix b, double alpha, double[] c) {
+        int cols = b.getCols();
+        if (a.isSparse()) {
+            CsrStorage x = a.csr();
+            for (int i = 0; i < x.getRows(); i++) {
+                int ci = i * cols;
+                for (int p = x.rowPtr()[i]; p < x.rowPtr()[i + 1]; p++) {
+                    double v = alpha * x.values()[p];
+                    int k = x.colIdx()[p];
+                    if (b.isSparse()) {
+                        CsrStorage y = b.csr();
+                        for (int q = y.rowPtr()[k]; q < y.rowPtr()[k + 1]; q++) {
+                            c[ci + y.colIdx()[q]] += v * y.values()[q];
+                        }
+                    } else {
+                        double[] bd = b.rawData();
+                        int bk = b.offset() + k * b.rowStride();
+                        int bcs = b.colStride();
+                        for (int j = 0; j < cols; j++) {
+                            c[ci + j] += v * bd[bk + j * bcs];
+                        }
+                    }
+                }
+            }
+            return;
+        }
+        CsrStorage y = b.csr();
+        double[] ad = a.rawData();
+        for (int i = 0; i < a.getRows(); i++) {
+            int ci = i * cols;
+            int ai = a.offset() + i * a.rowStride();
+            for (int k = 0; k < a.getCols(); k++) {
+                double v = ad[ai + k * a.colStride()];
+                if (v == 0.0) {
+                    continue;
+                }
+                v *= alpha;
+                for (int q = y.rowPtr()[k]; q < y.rowPtr()[k + 1]; q++) {
+                    c[ci + y.colIdx()[q]] += v * y.values()[q];
+                }
+            }
+        }
+    }
+
+    private static Matrix finish(CsrStorage result) {
+        if (result.density() > densifyThreshold && (long) result.getRows() * result.getCols() <= Integer.MAX_VALUE - 8) {
+            logger.debug("Заполнение {} превысило порог {}, результат хранится плотно.", result.density(), densifyThreshold);
+            return Matrix.wrapSparse(result).toDense();
+        }
+        return Matrix.wrapSparse(result);
+    }
+}
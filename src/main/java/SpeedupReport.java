@@ -0,0 +1,56 @@
+public class SpeedupReport {
+    private final String operation;
+    private final long wallNanos;
+    private final long busyNanos;
+    private final long sequentialNanos;
+    private final int parallelism;
+    private final boolean parallel;
+
+    // sequentialNanos — оценка времени той же операции в одном потоке (см. ParallelMatrixOperations)
+    public SpeedupReport(String operation, long wallNanos, long busyNanos, long sequentialNanos, int parallelism,
+                         boolean parallel) {
+        this.operation = operation;
+        this.wallNanos = wallNanos;
+        this.busyNanos = busyNanos;
+        this.sequentialNanos = sequentialNanos;
+        this.parallelism = parallelism;
+        this.parallel = parallel;
+    }
+
+    public String getOperation() { return operation; }
+    public long getWallNanos() { return wallNanos; }
+    public long getBusyNanos() { return busyNanos; }
+    public long getSequentialNanos() { return sequentialNanos; }
+    public int getParallelism() { return parallelism; }
+    public boolean isParallel() { return parallel; }
+
+    // Достигнутое ускорение: оценка последовательного времени, делённая на время выполнения операции.
+    // Последовательное время экстраполируется по первому блоку, выполненному в вызывающем потоке без конкуренции
+    // за память, поэтому замедление блоков при параллельном выполнении ускорение не завышает
+    public double getSpeedup() {
+        if (!parallel || wallNanos <= 0 || sequentialNanos <= 0) {
+            return 1.0;
+        }
+        return (double) sequentialNanos / wallNanos;
+    }
+
+    public double getEfficiency() {
+        return getSpeedup() / parallelism;
+    }
+
+    // Загрузка потоков: доля времени операции, в течение которой потоки пула были заняты блоками. Это не ускорение:
+    // при конкуренции за пропускную способность памяти блоки выполняются дольше и загрузка растёт
+    public double getUtilization() {
+        if (!parallel || wallNanos <= 0) {
+            return 1.0;
+        }
+        return (double) busyNanos / ((double) wallNanos * parallelism);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s, время %.3f мс, ускорение %.2fx на %d потоках (эффективность %.0f%%, загрузка потоков %.0f%%)",
+                operation, parallel ? "параллельно" : "последовательно", wallNanos / 1e6,
+                getSpeedup(), parallelism, getEfficiency() * 100, getUtilization() * 100);
+    }
+}
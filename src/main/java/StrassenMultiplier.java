@@ -0,0 +1,177 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Умножение по схеме Штрассена–Винограда: 7 умножений и 15 сложений блоков на уровень, O(n^2.81).
+// Нечётные размеры отщепляются (peeling): последняя строка, столбец и слагаемое ранга 1 досчитываются классически.
+// Точность: классическое ядро даёт покомпонентную оценку |C - C'| <= n u |A||B|, а Штрассен–Виноград — только
+// нормовую ||C - C'|| <= c(n) u ||A|| ||B||, где c(n) растёт примерно как (n / cutoff)^log2(18) * cutoff^2.
+// Для матриц с элементами одного порядка это незаметно (см. measureError), но при сильном разбросе величин
+// малые элементы результата могут потерять относительную точность.
+public class StrassenMultiplier {
+    private static final Logger logger = LogManager.getLogger(StrassenMultiplier.class);
+    public static final int DEFAULT_CUTOFF = 128;
+    // Глубина рекурсии, до которой семь подпроизведений выполняются параллельно (7^2 = 49 задач)
+    private static final int PARALLEL_DEPTH = 2;
+
+    public static Matrix multiply(Matrix a, Matrix b) {
+        return multiply(a, b, DEFAULT_CUTOFF, ForkJoinPool.commonPool());
+    }
+
+    public static Matrix multiply(Matrix a, Matrix b, int cutoff, ForkJoinPool pool) {
+        if (a.getCols() != b.getRows()) {
+            throw new MatrixException("Для умножения количество столбцов A должно совпадать с количеством строк B.");
+        }
+        if (cutoff < 2) {
+            throw new MatrixException("Порог перехода к классическому умножению должен быть не меньше 2.");
+        }
+        logger.debug("Умножение Штрассена–Винограда {}x{} * {}x{}, порог {}",
+                a.getRows(), a.getCols(), b.getRows(), b.getCols(), cutoff);
+        return pool.invoke(new StrassenTask(a.toDense(), b.toDense(), cutoff, 0));
+    }
+
+    // Нормовая относительная погрешность max|C_s - C_c| / (max|A| * max|B| * k) относительно классического ядра
+    public static double measureError(Matrix a, Matrix b, int cutoff) {
+        Matrix strassen = multiply(a, b, cutoff, ForkJoinPool.commonPool());
+        Matrix classic = MultiplyKernel.multiply(a.toDense(), b.toDense());
+        double maxDiff = 0.0;
+        for (int i = 0; i < classic.getRows(); i++) {
+            for (int j = 0; j < classic.getCols(); j++) {
+                maxDiff = Math.max(maxDiff, Math.abs(strassen.get(i, j) - classic.get(i, j)));
+            }
+        }
+        double scale = maxAbs(a) * maxAbs(b) * a.getCols();
+        double error = scale == 0.0 ? 0.0 : maxDiff / scale;
+        logger.info("Погрешность Штрассена–Винограда для {}x{} * {}x{} (порог {}): {}",
+                a.getRows(), a.getCols(), b.getRows(), b.getCols(), cutoff, error);
+        return error;
+    }
+
+    private static double maxAbs(Matrix m) {
+        double max = 0.0;
+        for (int i = 0; i < m.getRows(); i++) {
+            for (int j = 0; j < m.getCols(); j++) {
+                max = Math.max(max, Math.abs(m.get(i, j)));
+            }
+        }
+        return max;
+    }
+
+    private static class StrassenTask extends RecursiveTask<Matrix> {
+        private final Matrix a;
+        private final Matrix b;
+        private final int cutoff;
+        private final int depth;
+
+        StrassenTask(Matrix a, Matrix b, int cutoff, int depth) {
+            this.a = a;
+            this.b = b;
+            this.cutoff = cutoff;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Matrix compute() {
+            int m = a.getRows();
+            int k = a.getCols();
+            int n = b.getCols();
+            if (m <= cutoff || k <= cutoff || n <= cutoff) {
+                return MultiplyKernel.multiply(a, b);
+            }
+            if ((m | k | n) % 2 != 0) {
+                return multiplyPeeled(m, k, n);
+            }
+            return multiplyEven(m, k, n);
+        }
+
+        private Matrix multiplyPeeled(int m, int k, int n) {
+            int me = m & ~1, ke = k & ~1, ne = n & ~1;
+            Matrix core = new StrassenTask(a.submatrix(0, 0, me, ke), b.submatrix(0, 0, ke, ne), cutoff, depth).compute();
+            double[] c = Matrix.newDenseData(m, n);
+            double[] coreData = core.rawData();
+            for (int i = 0; i < me; i++) {
+                System.arraycopy(coreData, i * ne, c, i * n, ne);
+            }
+            if (ke != k) {
+                // Слагаемое ранга 1 от последнего столбца A и последней строки B
+                for (int i = 0; i < me; i++) {
+                    double v = a.get(i, k - 1);
+                    for (int j = 0; j < ne; j++) {
+                        c[i * n + j] += v * b.get(k - 1, j);
+                    }
+                }
+            }
+            if (ne != n) {
+                MultiplyKernel.multiplyRows(a, b.column(n - 1), c, n - 1, n, 0, me);
+            }
+            if (me != m) {
+                MultiplyKernel.multiplyRows(a, b, c, 0, n, m - 1, m);
+            }
+            return Matrix.wrap(c, m, n);
+        }
+
+        private Matrix multiplyEven(int m, int k, int n) {
+            int m2 = m / 2, k2 = k / 2, n2 = n / 2;
+            Matrix a11 = a.submatrix(0, 0, m2, k2), a12 = a.submatrix(0, k2, m2, k2);
+            Matrix a21 = a.submatrix(m2, 0, m2, k2), a22 = a.submatrix(m2, k2, m2, k2);
+            Matrix b11 = b.submatrix(0, 0, k2, n2), b12 = b.submatrix(0, n2, k2, n2);
+            Matrix b21 = b.submatrix(k2, 0, k2, n2), b22 = b.submatrix(k2, n2, k2, n2);
+
+            Matrix s1 = combine(a21, a22, 1.0);
+            Matrix s2 = combine(s1, a11, -1.0);
+            Matrix s3 = combine(a11, a21, -1.0);
+            Matrix s4 = combine(a12, s2, -1.0);
+            Matrix t1 = combine(b12, b11, -1.0);
+            Matrix t2 = combine(b22, t1, -1.0);
+            Matrix t3 = combine(b22, b12, -1.0);
+            Matrix t4 = combine(t2, b21, -1.0);
+
+            StrassenTask[] products = {
+                    new StrassenTask(a11, b11, cutoff, depth + 1),
+                    new StrassenTask(a12, b21, cutoff, depth + 1),
+                    new StrassenTask(s4, b22, cutoff, depth + 1),
+                    new StrassenTask(a22, t4, cutoff, depth + 1),
+                    new StrassenTask(s1, t1, cutoff, depth + 1),
+                    new StrassenTask(s2, t2, cutoff, depth + 1),
+                    new StrassenTask(s3, t3, cutoff, depth + 1)
+            };
+            Matrix[] p = new Matrix[products.length];
+            if (depth < PARALLEL_DEPTH) {
+                invokeAll(products);
+                for (int i = 0; i < products.length; i++) {
+                    p[i] = products[i].join();
+                }
+            } else {
+                for (int i = 0; i < products.length; i++) {
+                    p[i] = products[i].compute();
+                }
+            }
+
+            double[] c = Matrix.newDenseData(m, n);
+            double[] m1 = p[0].rawData(), m2d = p[1].rawData(), m3 = p[2].rawData(), m4 = p[3].rawData();
+            double[] m5 = p[4].rawData(), m6 = p[5].rawData(), m7 = p[6].rawData();
+            for (int i = 0; i < m2; i++) {
+                int top = i * n;
+                int bottom = (i + m2) * n;
+                for (int j = 0; j < n2; j++) {
+                    int q = i * n2 + j;
+                    double u2 = m1[q] + m6[q];
+                    double u3 = u2 + m7[q];
+                    double u4 = u2 + m5[q];
+                    c[top + j] = m1[q] + m2d[q];
+                    c[top + n2 + j] = u4 + m3[q];
+                    c[bottom + j] = u3 - m4[q];
+                    c[bottom + n2 + j] = u3 + m5[q];
+                }
+            }
+            return Matrix.wrap(c, m, n);
+        }
+
+        private static Matrix combine(Matrix x, Matrix y, double sign) {
+            double[] out = new double[x.getRows() * x.getCols()];
+            MatrixOperations.combineRows(x, y, sign, out, 0, x.getRows());
+            return Matrix.wrap(out, x.getRows(), x.getCols());
+        }
+    }
+}
@@ -0,0 +1,359 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Потоковый разбор текстового файла матрицы прямо из байтов канала, без промежуточных строк
+public class TextMatrixParser {
+    private static final Logger logger = LogManager.getLogger(TextMatrixParser.class);
+    static final long PARALLEL_THRESHOLD_BYTES = 16L << 20;
+    private static final int BUFFER_BYTES = 1 << 16;
+    // 10^0..10^22 представимы в double точно, поэтому m * 10^e при m < 2^53 округляется корректно
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final int MAX_FAST_DIGITS = 15;
+
+    public static Matrix parse(Path path) throws IOException {
+        return parse(path, ProgressMonitor.NONE);
+    }
+
+    // Прогресс измеряется в прочитанных байтах файла
+    public static Matrix parse(Path path, ProgressMonitor monitor) throws IOException {
+        long size = path.toFile().length();
+        int chunks = 1;
+        if (size >= PARALLEL_THRESHOLD_BYTES) {
+            chunks = (int) Math.min(ForkJoinPool.getCommonPoolParallelism(), size / (PARALLEL_THRESHOLD_BYTES / 4));
+        }
+        return parse(path, chunks, monitor);
+    }
+
+    static Matrix parse(Path path, int chunks) throws IOException {
+        return parse(path, chunks, ProgressMonitor.NONE);
+    }
+
+    static Matrix parse(Path path, int chunks, ProgressMonitor monitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            monitor.begin(size);
+            if (chunks <= 1 || size < chunks) {
+                ChunkParser parser = new ChunkParser();
+                parser.parse(channel, 0, size, monitor);
+                return toMatrix(parser.finish());
+            }
+            return parseInChunks(channel, size, chunks, monitor);
+        }
+    }
+
+    private static Matrix parseInChunks(FileChannel channel, long size, int chunks, ProgressMonitor monitor) throws IOException {
+        long[] bounds = new long[chunks + 1];
+        for (int i = 1; i < chunks; i++) {
+            bounds[i] = Math.max(bounds[i - 1], nextLineStart(channel, size * i / chunks, size));
+        }
+        bounds[chunks] = size;
+        logger.debug("Параллельный разбор файла размером {} байт на {} частей", size, chunks);
+
+        List<ChunkResult> results = IntStream.range(0, chunks).parallel()
+                .mapToObj(i -> {
+                    ChunkParser parser = new ChunkParser();
+                    try {
+                        parser.parse(channel, bounds[i], bounds[i + 1], monitor);
+                        return parser.finish();
+                    } catch (IOException | RuntimeException e) {
+                        return new ChunkResult(e);
+                    }
+                })
+                .collect(Collectors.toList());
+
+        // Ошибки и прямоугольность проверяются в порядке частей, как при последовательном чтении
+        int cols = -1;
+        int rows = 0;
+        for (ChunkResult result : results) {
+            result.rethrow();
+            checkRectangular(result, rows, cols);
+            if (result.rows == 0) {
+                continue;
+            }
+            cols = result.cols;
+            rows += result.rows;
+        }
+        if (rows == 0) {
+            return toMatrix(results.get(0));
+        }
+        double[] data = new double[Math.multiplyExact(rows, cols)];
+        int position = 0;
+        for (ChunkResult result : results) {
+            int count = result.rows * Math.max(result.cols, 0);
+            System.arraycopy(result.values, 0, data, position, count);
+            position += count;
+        }
+        return Matrix.wrap(data, rows, cols);
+    }
+
+    // Части разбираются параллельно и не знают своего первого номера строки, поэтому об ошибке
+    // сообщается здесь: номер строки в файле — смещение части плюс номер строки внутри неё
+    private static void checkRectangular(ChunkResult result, int rowOffset, int expectedCols) {
+        if (result.rows > 0 && expectedCols != -1 && result.cols != expectedCols) {
+            throw notRectangular(rowOffset + 1, result.cols, expectedCols);
+        }
+        if (result.raggedCols >= 0) {
+            throw notRectangular(rowOffset + result.rows + 1, result.raggedCols, result.cols);
+        }
+    }
+
+    private static MatrixException notRectangular(int row, int found, int expected) {
+        logger.error("Нарушена прямоугольность: строка {} содержит {} столбцов, ожидалось {}.", row, found, expected);
+        return new MatrixException("Количество элементов в некоторых строках отличается от большинства (строка " + row + ")");
+    }
+
+    private static Matrix toMatrix(ChunkResult result) {
+        result.rethrow();
+        checkRectangular(result, 0, -1);
+        if (result.rows == 0) {
+            throw new MatrixException("В файле не найдено действительных строк матрицы.");
+        }
+        int count = result.rows * result.cols;
+        double[] data = result.values.length == count ? result.values : Arrays.copyOf(result.values, count);
+        return Matrix.wrap(data, result.rows, result.cols);
+    }
+
+    // Позиция первого байта после ближайшего перевода строки, начиная с from - 1
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = from - 1;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    static double parseDouble(byte[] token, int length) {
+        int i = 0;
+        boolean negative = false;
+        if (token[0] == '-' || token[0] == '+') {
+            negative = token[0] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean seenDigit = false;
+        boolean seenSeparator = false;
+        for (; i < length; i++) {
+            byte b = token[i];
+            if (b >= '0' && b <= '9') {
+                seenDigit = true;
+                if (mantissa == 0 && b == '0') {
+                    if (seenSeparator) {
+                        exponent--;
+                    }
+                    continue;
+                }
+                if (++digits > MAX_FAST_DIGITS) {
+                    return parseSlow(token, length);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (seenSeparator) {
+                    exponent--;
+                }
+            } else if ((b == '.' || b == ',') && !seenSeparator) {
+                seenSeparator = true;
+            } else if ((b == 'e' || b == 'E') && seenDigit) {
+                int exp = parseExponent(token, i + 1, length);
+                if (exp == Integer.MIN_VALUE) {
+                    return parseSlow(token, length);
+                }
+                exponent += exp;
+                break;
+            } else {
+                return parseSlow(token, length);
+            }
+        }
+        if (!seenDigit) {
+            return parseSlow(token, length);
+        }
+        double value;
+        if (mantissa == 0) {
+            value = 0.0;
+        } else if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+            value = mantissa * POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            value = mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            return parseSlow(token, length);
+        }
+        return negative ? -value : value;
+    }
+
+    private static int parseExponent(byte[] token, int from, int length) {
+        int i = from;
+        boolean negative = false;
+        if (i < length && (token[i] == '-' || token[i] == '+')) {
+            negative = token[i] == '-';
+            i++;
+        }
+        if (i >= length || length - i > 4) {
+            return Integer.MIN_VALUE;
+        }
+        int exp = 0;
+        for (; i < length; i++) {
+            byte b = token[i];
+            if (b < '0' || b > '9') {
+                return Integer.MIN_VALUE;
+            }
+            exp = exp * 10 + (b - '0');
+        }
+        return negative ? -exp : exp;
+    }
+
+    // Медленный путь для длинных мантисс, NaN, Infinity, шестнадцатеричной записи и ошибок формата
+    private static double parseSlow(byte[] token, int length) {
+        String text = new String(token, 0, length, StandardCharsets.UTF_8);
+        try {
+            return Double.parseDouble(text.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            logger.error("Неверный формат числа '{}' в строке парсинга.", text, e);
+            throw new MatrixException("Неверный формат числа в файле:");
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B;
+    }
+
+    static class ChunkParser {
+        private double[] values = new double[1024];
+        private int count;
+        private int rows;
+        private int cols = -1;
+        // Число элементов первой строки, нарушившей прямоугольность; после неё разбор части прекращается
+        private int raggedCols = -1;
+        private int rowTokens;
+        private byte[] token = new byte[64];
+        private int tokenLength;
+
+        void parse(FileChannel channel, long from, long to, ProgressMonitor monitor) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+            byte[] bytes = buffer.array();
+            long position = from;
+            while (position < to && raggedCols < 0) {
+                buffer.clear();
+                buffer.limit((int) Math.min(BUFFER_BYTES, to - position));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                feed(bytes, read);
+                position += read;
+                monitor.worked(read);
+            }
+        }
+
+        void feed(byte[] bytes, int length) {
+            for (int i = 0; i < length && raggedCols < 0; i++) {
+                byte b = bytes[i];
+                if (b == '\n') {
+                    endToken();
+                    endLine();
+                } else if (isWhitespace(b)) {
+                    endToken();
+                } else {
+                    if (tokenLength == token.length) {
+                        token = Arrays.copyOf(token, token.length * 2);
+                    }
+                    token[tokenLength++] = b;
+                }
+            }
+        }
+
+        private void endToken() {
+            if (tokenLength == 0 || raggedCols >= 0) {
+                return;
+            }
+            if (count == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[count++] = parseDouble(token, tokenLength);
+            tokenLength = 0;
+            rowTokens++;
+        }
+
+        private void endLine() {
+            if (rowTokens == 0 || raggedCols >= 0) {
+                return;
+            }
+            if (cols == -1) {
+                cols = rowTokens;
+                logger.debug("Установлено ожидаемое количество столбцов: {}", cols);
+            } else if (rowTokens != cols) {
+                raggedCols = rowTokens;
+                return;
+            }
+            rows++;
+            rowTokens = 0;
+        }
+
+        ChunkResult finish() {
+            endToken();
+            endLine();
+            return new ChunkResult(values, rows, cols, raggedCols);
+        }
+    }
+
+    static class ChunkResult {
+        final double[] values;
+        final int rows;
+        final int cols;
+        final int raggedCols;
+        final Exception error;
+
+        ChunkResult(double[] values, int rows, int cols, int raggedCols) {
+            this.values = values;
+            this.rows = rows;
+            this.cols = cols;
+            this.raggedCols = raggedCols;
+            this.error = null;
+        }
+
+        ChunkResult(Exception error) {
+            this.values = new double[0];
+            this.rows = 0;
+            this.cols = -1;
+            this.raggedCols = -1;
+            this.error = error;
+        }
+
+        void rethrow() {
+            if (error instanceof MatrixException) {
+                throw (MatrixException) error;
+            }
+            if (error instanceof CancellationException) {
+                throw (CancellationException) error;
+            }
+            if (error != null) {
+                throw new MatrixException("Ошибка чтения файла: ", error);
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+// Внутренние циклы над подряд лежащими элементами: скалярное произведение, y += alpha * x и поэлементная
+// комбинация. Если SimdKernels (src/simd/java, подключается в Gradle ключом -Pmatrix.simd) есть в classpath и JVM
+// запущена с --add-modules jdk.incubator.vector, используется он на DoubleVector
+// предпочтительной для процессора ширины; иначе — скалярные циклы, которые JIT векторизует сам, где может.
+// Реализация выбирается один раз при загрузке класса и хранится в static final поле, поэтому вызов
+// через интерфейс JIT превращает в прямой и встраивает. -Dmatrix.simd=false принудительно отключает SIMD
+public class VectorKernels {
+    private static final Logger logger = LogManager.getLogger(VectorKernels.class);
+    static final String SIMD_MODULE = "jdk.incubator.vector";
+
+    interface Impl {
+        double dot(double[] x, int xOff, double[] y, int yOff, int n);
+
+        // out[outOff + q] += alpha * (x · y_q) для четырёх векторов y_q с началами y0..y3: x читается один раз
+        void dot4(double alpha, double[] x, int xOff, double[] y, int y0, int y1, int y2, int y3, int n,
+                  double[] out, int outOff);
+
+        void axpy(double alpha, double[] x, int xOff, double[] y, int yOff, int n);
+
+        // y0..y3 += v0..v3 * x: одна загрузка x обновляет четыре строки результата
+        void axpy4(double v0, double v1, double v2, double v3, double[] x, int xOff,
+                   double[] y, int y0, int y1, int y2, int y3, int n);
+
+        void combine(double[] x, int xOff, double[] y, int yOff, double sign, double[] out, int outOff, int n);
+
+        // Варианты для FloatMatrix: в вектор той же ширины помещается вдвое больше элементов float
+        void axpy(float alpha, float[] x, int xOff, float[] y, int yOff, int n);
+
+        void axpy4(float v0, float v1, float v2, float v3, float[] x, int xOff,
+                   float[] y, int y0, int y1, int y2, int y3, int n);
+
+        void combine(float[] x, int xOff, float[] y, int yOff, float sign, float[] out, int outOff, int n);
+
+        String description();
+    }
+
+    private static final Impl SCALAR = new Scalar();
+    private static final Impl IMPL = load();
+
+    private VectorKernels() {
+    }
+
+    private static Impl load() {
+        if (!Boolean.parseBoolean(System.getProperty("matrix.simd", "true"))) {
+            logger.info("SIMD-ядра отключены параметром matrix.simd.");
+            return SCALAR;
+        }
+        if (ModuleLayer.boot().findModule(SIMD_MODULE).isEmpty()) {
+            logger.info("Модуль {} не подключён, используются скалярные ядра.", SIMD_MODULE);
+            return SCALAR;
+        }
+        try {
+            // Класс загружается только по имени, чтобы без модуля не возникало NoClassDefFoundError
+            Impl simd = (Impl) Class.forName("SimdKernels").getDeclaredConstructor().newInstance();
+            logger.info("Используются SIMD-ядра: {}", simd.description());
+            return simd;
+        } catch (ReflectiveOperationException | LinkageError | MatrixException e) {
+            logger.info("SIMD-ядра недоступны ({}), используются скалярные.", e.getMessage());
+            return SCALAR;
+        }
+    }
+
+    public static boolean isVectorized() {
+        return IMPL != SCALAR;
+    }
+
+    public static String description() {
+        return IMPL.description();
+    }
+
+    static Impl scalar() {
+        return SCALAR;
+    }
+
+    static Impl active() {
+        return IMPL;
+    }
+
+    // Сумма x[xOff + k] * y[yOff + k] для k < n
+    public static double dot(double[] x, int xOff, double[] y, int yOff, int n) {
+        return IMPL.dot(x, xOff, y, yOff, n);
+    }
+
+    static void dot4(double alpha, double[] x, int xOff, double[] y, int y0, int y1, int y2, int y3, int n,
+                     double[] out, int outOff) {
+        IMPL.dot4(alpha, x, xOff, y, y0, y1, y2, y3, n, out, outOff);
+    }
+
+    // y[yOff + k] += alpha * x[xOff + k] для k < n
+    public static void axpy(double alpha, double[] x, int xOff, double[] y, int yOff, int n) {
+        IMPL.axpy(alpha, x, xOff, y, yOff, n);
+    }
+
+    static void axpy4(double v0, double v1, double v2, double v3, double[] x, int xOff,
+                      double[] y, int y0, int y1, int y2, int y3, int n) {
+        IMPL.axpy4(v0, v1, v2, v3, x, xOff, y, y0, y1, y2, y3, n);
+    }
+
+    // out[outOff + k] = x[xOff + k] + sign * y[yOff + k] для k < n
+    public static void combine(double[] x, int xOff, double[] y, int yOff, double sign, double[] out, int outOff, int n) {
+        IMPL.combine(x, xOff, y, yOff, sign, out, outOff, n);
+    }
+
+    public static void axpy(float alpha, float[] x, int xOff, float[] y, int yOff, int n) {
+        IMPL.axpy(alpha, x, xOff, y, yOff, n);
+    }
+
+    static void axpy4(float v0, float v1, float v2, float v3, float[] x, int xOff,
+                      float[] y, int y0, int y1, int y2, int y3, int n) {
+        IMPL.axpy4(v0, v1, v2, v3, x, xOff, y, y0, y1, y2, y3, n);
+    }
+
+    public static void combine(float[] x, int xOff, float[] y, int yOff, float sign, float[] out, int outOff, int n) {
+        IMPL.combine(x, xOff, y, yOff, sign, out, outOff, n);
+    }
+
+    private static final class Scalar implements Impl {
+        @Override
+        public double dot(double[] x, int xOff, double[] y, int yOff, int n) {
+            // Четыре независимые суммы: цепочка зависимостей по сложению короче в четыре раза
+            double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+            int k = 0;
+            for (; k + 3 < n; k += 4) {
+                s0 += x[xOff + k] * y[yOff + k];
+                s1 += x[xOff + k + 1] * y[yOff + k + 1];
+                s2 += x[xOff + k + 2] * y[yOff + k + 2];
+                s3 += x[xOff + k + 3] * y[yOff + k + 3];
+            }
+            for (; k < n; k++) {
+                s0 += x[xOff + k] * y[yOff + k];
+            }
+            return (s0 + s1) + (s2 + s3);
+        }
+
+        @Override
+        public void dot4(double alpha, double[] x, int xOff, double[] y, int y0, int y1, int y2, int y3, int n,
+                         double[] out, int outOff) {
+            double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+            for (int k = 0; k < n; k++) {
+                double v = x[xOff + k];
+                s0 += v * y[y0 + k];
+                s1 += v * y[y1 + k];
+                s2 += v * y[y2 + k];
+                s3 += v * y[y3 + k];
+            }
+            out[outOff] += alpha * s0;
+            out[outOff + 1] += alpha * s1;
+            out[outOff + 2] += alpha * s2;
+            out[outOff + 3] += alpha * s3;
+        }
+
+        @Override
+        public void axpy(double alpha, double[] x, int xOff, double[] y, int yOff, int n) {
+            for (int k = 0; k < n; k++) {
+                y[yOff + k] += alpha * x[xOff + k];
+            }
+        }
+
+        @Override
+        public void axpy4(double v0, double v1, double v2, double v3, double[] x, int xOff,
+                          double[] y, int y0, int y1, int y2, int y3, int n) {
+            for (int k = 0; k < n; k++) {
+                double xk = x[xOff + k];
+                y[y0 + k] += v0 * xk;
+                y[y1 + k] += v1 * xk;
+                y[y2 + k] += v2 * xk;
+                y[y3 + k] += v3 * xk;
+            }
+        }
+
+        @Override
+        public void combine(double[] x, int xOff, double[] y, int yOff, double sign, double[] out, int outOff, int n) {
+            for (int k = 0; k < n; k++) {
+                out[outOff + k] = x[xOff + k] + sign * y[yOff + k];
+            }
+        }
+
+        @Override
+        public void axpy(float alpha, float[] x, int xOff, float[] y, int yOff, int n) {
+            for (int k = 0; k < n; k++) {
+                y[yOff + k] += alpha * x[xOff + k];
+            }
+        }
+
+        @Override
+        public void axpy4(float v0, float v1, float v2, float v3, float[] x, int xOff,
+                          float[] y, int y0, int y1, int y2, int y3, int n) {
+            for (int k = 0; k < n; k++) {
+                float xk = x[xOff + k];
+                y[y0 + k] += v0 * xk;
+                y[y1 + k] += v1 * xk;
+                y[y2 + k] += v2 * xk;
+                y[y3 + k] += v3 * xk;
+            }
+        }
+
+        @Override
+        public void combine(float[] x, int xOff, float[] y, int yOff, float sign, float[] out, int outOff, int n) {
+            for (int k = 0; k < n; k++) {
+                out[outOff + k] = x[xOff + k] + sign * y[yOff + k];
+            }
+        }
+
+        @Override
+        public String description() {
+            return "скалярные циклы";
+        }
+    }
+}
@@ -0,0 +1,169 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Реализация VectorKernels на Vector API. Загружается только через VectorKernels, когда модуль
+// jdk.incubator.vector подключён. Умножение и сложение выполняются отдельно, а не через fma: поэлементные
+// результаты совпадают со скалярными до бита, а на процессорах без FMA не появляется медленная эмуляция
+class SimdKernels implements VectorKernels.Impl {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+    private static final VectorSpecies<Float> FLOAT_SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final int FLOAT_LANES = FLOAT_SPECIES.length();
+
+    SimdKernels() {
+        if (LANES < 2) {
+            throw new MatrixException("Предпочтительная ширина вектора — один элемент double.");
+        }
+    }
+
+    @Override
+    public double dot(double[] x, int xOff, double[] y, int yOff, int n) {
+        DoubleVector s0 = DoubleVector.zero(SPECIES);
+        DoubleVector s1 = DoubleVector.zero(SPECIES);
+        int k = 0;
+        for (; k + 2 * LANES <= n; k += 2 * LANES) {
+            s0 = s0.add(DoubleVector.fromArray(SPECIES, x, xOff + k).mul(DoubleVector.fromArray(SPECIES, y, yOff + k)));
+            s1 = s1.add(DoubleVector.fromArray(SPECIES, x, xOff + k + LANES)
+                    .mul(DoubleVector.fromArray(SPECIES, y, yOff + k + LANES)));
+        }
+        for (; k + LANES <= n; k += LANES) {
+            s0 = s0.add(DoubleVector.fromArray(SPECIES, x, xOff + k).mul(DoubleVector.fromArray(SPECIES, y, yOff + k)));
+        }
+        double sum = s0.add(s1).reduceLanes(VectorOperators.ADD);
+        for (; k < n; k++) {
+            sum += x[xOff + k] * y[yOff + k];
+        }
+        return sum;
+    }
+
+    @Override
+    public void dot4(double alpha, double[] x, int xOff, double[] y, int y0, int y1, int y2, int y3, int n,
+                     double[] out, int outOff) {
+        DoubleVector s0 = DoubleVector.zero(SPECIES);
+        DoubleVector s1 = DoubleVector.zero(SPECIES);
+        DoubleVector s2 = DoubleVector.zero(SPECIES);
+        DoubleVector s3 = DoubleVector.zero(SPECIES);
+        int k = 0;
+        for (int bound = SPECIES.loopBound(n); k < bound; k += LANES) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, x, xOff + k);
+            s0 = s0.add(v.mul(DoubleVector.fromArray(SPECIES, y, y0 + k)));
+            s1 = s1.add(v.mul(DoubleVector.fromArray(SPECIES, y, y1 + k)));
+            s2 = s2.add(v.mul(DoubleVector.fromArray(SPECIES, y, y2 + k)));
+            s3 = s3.add(v.mul(DoubleVector.fromArray(SPECIES, y, y3 + k)));
+        }
+        double r0 = s0.reduceLanes(VectorOperators.ADD);
+        double r1 = s1.reduceLanes(VectorOperators.ADD);
+        double r2 = s2.reduceLanes(VectorOperators.ADD);
+        double r3 = s3.reduceLanes(VectorOperators.ADD);
+        for (; k < n; k++) {
+            double v = x[xOff + k];
+            r0 += v * y[y0 + k];
+            r1 += v * y[y1 + k];
+            r2 += v * y[y2 + k];
+            r3 += v * y[y3 + k];
+        }
+        out[outOff] += alpha * r0;
+        out[outOff + 1] += alpha * r1;
+        out[outOff + 2] += alpha * r2;
+        out[outOff + 3] += alpha * r3;
+    }
+
+    @Override
+    public void axpy(double alpha, double[] x, int xOff, double[] y, int yOff, int n) {
+        int k = 0;
+        for (int bound = SPECIES.loopBound(n); k < bound; k += LANES) {
+            DoubleVector.fromArray(SPECIES, x, xOff + k).mul(alpha)
+                    .add(DoubleVector.fromArray(SPECIES, y, yOff + k))
+                    .intoArray(y, yOff + k);
+        }
+        for (; k < n; k++) {
+            y[yOff + k] += alpha * x[xOff + k];
+        }
+    }
+
+    @Override
+    public void axpy4(double v0, double v1, double v2, double v3, double[] x, int xOff,
+                      double[] y, int y0, int y1, int y2, int y3, int n) {
+        int k = 0;
+        for (int bound = SPECIES.loopBound(n); k < bound; k += LANES) {
+            DoubleVector xk = DoubleVector.fromArray(SPECIES, x, xOff + k);
+            xk.mul(v0).add(DoubleVector.fromArray(SPECIES, y, y0 + k)).intoArray(y, y0 + k);
+            xk.mul(v1).add(DoubleVector.fromArray(SPECIES, y, y1 + k)).intoArray(y, y1 + k);
+            xk.mul(v2).add(DoubleVector.fromArray(SPECIES, y, y2 + k)).intoArray(y, y2 + k);
+            xk.mul(v3).add(DoubleVector.fromArray(SPECIES, y, y3 + k)).intoArray(y, y3 + k);
+        }
+        for (; k < n; k++) {
+            double xk = x[xOff + k];
+            y[y0 + k] += v0 * xk;
+            y[y1 + k] += v1 * xk;
+            y[y2 + k] += v2 * xk;
+            y[y3 + k] += v3 * xk;
+        }
+    }
+
+    @Override
+    public void combine(double[] x, int xOff, double[] y, int yOff, double sign, double[] out, int outOff, int n) {
+        int k = 0;
+        for (int bound = SPECIES.loopBound(n); k < bound; k += LANES) {
+            DoubleVector.fromArray(SPECIES, y, yOff + k).mul(sign)
+                    .add(DoubleVector.fromArray(SPECIES, x, xOff + k))
+                    .intoArray(out, outOff + k);
+        }
+        for (; k < n; k++) {
+            out[outOff + k] = x[xOff + k] + sign * y[yOff + k];
+        }
+    }
+
+    @Override
+    public void axpy(float alpha, float[] x, int xOff, float[] y, int yOff, int n) {
+        int k = 0;
+        for (int bound = FLOAT_SPECIES.loopBound(n); k < bound; k += FLOAT_LANES) {
+            FloatVector.fromArray(FLOAT_SPECIES, x, xOff + k).mul(alpha)
+                    .add(FloatVector.fromArray(FLOAT_SPECIES, y, yOff + k))
+                    .intoArray(y, yOff + k);
+        }
+        for (; k < n; k++) {
+            y[yOff + k] += alpha * x[xOff + k];
+        }
+    }
+
+    @Override
+    public void axpy4(float v0, float v1, float v2, float v3, float[] x, int xOff,
+                      float[] y, int y0, int y1, int y2, int y3, int n) {
+        int k = 0;
+        for (int bound = FLOAT_SPECIES.loopBound(n); k < bound; k += FLOAT_LANES) {
+            FloatVector xk = FloatVector.fromArray(FLOAT_SPECIES, x, xOff + k);
+            xk.mul(v0).add(FloatVector.fromArray(FLOAT_SPECIES, y, y0 + k)).intoArray(y, y0 + k);
+            xk.mul(v1).add(FloatVector.fromArray(FLOAT_SPECIES, y, y1 + k)).intoArray(y, y1 + k);
+            xk.mul(v2).add(FloatVector.fromArray(FLOAT_SPECIES, y, y2 + k)).intoArray(y, y2 + k);
+            xk.mul(v3).add(FloatVector.fromArray(FLOAT_SPECIES, y, y3 + k)).intoArray(y, y3 + k);
+        }
+        for (; k < n; k++) {
+            float xk = x[xOff + k];
+            y[y0 + k] += v0 * xk;
+            y[y1 + k] += v1 * xk;
+            y[y2 + k] += v2 * xk;
+            y[y3 + k] += v3 * xk;
+        }
+    }
+
+    @Override
+    public void combine(float[] x, int xOff, float[] y, int yOff, float sign, float[] out, int outOff, int n) {
+        int k = 0;
+        for (int bound = FLOAT_SPECIES.loopBound(n); k < bound; k += FLOAT_LANES) {
+            FloatVector.fromArray(FLOAT_SPECIES, y, yOff + k).mul(sign)
+                    .add(FloatVector.fromArray(FLOAT_SPECIES, x, xOff + k))
+                    .intoArray(out, outOff + k);
+        }
+        for (; k < n; k++) {
+            out[outOff + k] = x[xOff + k] + sign * y[yOff + k];
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Vector API, " + SPECIES.vectorBitSize() + " бит, " + LANES + " x double";
+    }
+}
@@ -0,0 +1,134 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExactDeterminantTest {
+
+    private static Matrix randomIntegers(int n, int bound, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[n * n];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(2 * bound + 1) - bound;
+        }
+        return Matrix.wrap(values, n, n);
+    }
+
+    // Эталон: исключение Барейсса в BigInteger, все деления точные
+    private static BigInteger bareiss(Matrix matrix) {
+        int n = matrix.getRows();
+        BigInteger[][] a = new BigInteger[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a[i][j] = new BigDecimal(matrix.get(i, j)).toBigIntegerExact();
+            }
+        }
+        int sign = 1;
+        BigInteger previous = BigInteger.ONE;
+        for (int k = 0; k < n - 1; k++) {
+            if (a[k][k].signum() == 0) {
+                int swap = k + 1;
+                while (swap < n && a[swap][k].signum() == 0) {
+                    swap++;
+                }
+                if (swap == n) {
+                    return BigInteger.ZERO;
+                }
+                BigInteger[] temp = a[k];
+                a[k] = a[swap];
+                a[swap] = temp;
+                sign = -sign;
+            }
+            for (int i = k + 1; i < n; i++) {
+                for (int j = k + 1; j < n; j++) {
+                    a[i][j] = a[i][j].multiply(a[k][k]).subtract(a[i][k].multiply(a[k][j])).divide(previous);
+                }
+            }
+            previous = a[k][k];
+        }
+        return sign > 0 ? a[n - 1][n - 1] : a[n - 1][n - 1].negate();
+    }
+
+    @Test
+    @DisplayName("Известные определители: Единичная, треугольная, перестановка строк")
+    void knownMatrices() {
+        assertEquals(BigInteger.ONE, ExactDeterminant.determinant(new Matrix(new double[][]{{1, 0}, {0, 1}})));
+        assertEquals(BigInteger.valueOf(-2), ExactDeterminant.determinant(new Matrix(new double[][]{{1, 2}, {3, 4}})));
+        assertEquals(BigInteger.valueOf(-30), ExactDeterminant.determinant(
+                new Matrix(new double[][]{{0, 0, 5}, {0, 3, 7}, {2, 1, 1}})));
+        assertEquals(BigInteger.valueOf(7), ExactDeterminant.determinant(new Matrix(new double[][]{{7}})));
+    }
+
+    @Test
+    @DisplayName("Случайные целочисленные матрицы: Совпадение с исключением Барейсса в BigInteger")
+    void randomMatrices_MatchBareiss() {
+        int[] sizes = {5, 12, 40};
+        int[] bounds = {3, 1000, 50};
+        for (int t = 0; t < sizes.length; t++) {
+            Matrix matrix = randomIntegers(sizes[t], bounds[t], t);
+            assertEquals(bareiss(matrix), DeterminantCalculator.calculateExact(matrix), "Размер " + sizes[t]);
+        }
+    }
+
+    @Test
+    @DisplayName("Определитель за пределами double и элементы больше 2^62: Результат точен")
+    void hugeValues_Exact() {
+        Matrix large = randomIntegers(30, 1_000_000, 7);
+        double twoTo70 = 0x1p70;
+        Matrix beyondLong = new Matrix(new double[][]{{twoTo70, 1}, {-twoTo70, 3}});
+
+        BigInteger expected = bareiss(large);
+
+        assertTrue(expected.bitLength() > 53, "Определитель должен требовать больше бит, чем мантисса double");
+        assertEquals(expected, MatrixOperations.determinantExact(large));
+        assertEquals(BigInteger.ONE.shiftLeft(72), ExactDeterminant.determinant(beyondLong));
+    }
+
+    @Test
+    @DisplayName("Плохо масштабированная матрица: LU в double теряет определитель, точный режим даёт 1")
+    void illScaled_ExactWhereDoubleFails() {
+        Matrix matrix = new Matrix(new double[][]{{3e9, 3e9 + 1, 0}, {3e9 - 1, 3e9, 0}, {0, 0, 1}});
+
+        double approximate = new LUDecomposition(matrix).determinant();
+
+        assertTrue(Math.abs(approximate - 1.0) > 0.5, "LU в double: " + approximate);
+        assertEquals(BigInteger.ONE, ExactDeterminant.determinant(matrix));
+    }
+
+    @Test
+    @DisplayName("Вырожденная матрица и нулевая строка: Определитель 0")
+    void singular_Zero() {
+        Matrix dependent = new Matrix(new double[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 9}});
+        Matrix zeroRow = new Matrix(new double[][]{{1, 2}, {0, 0}});
+
+        assertEquals(BigInteger.ZERO, ExactDeterminant.determinant(dependent));
+        assertEquals(BigInteger.ZERO, ExactDeterminant.determinant(zeroRow));
+    }
+
+    @Test
+    @DisplayName("Китайская теорема об остатках: Отрицательные и положительные значения восстанавливаются по вычетам")
+    void reconstruct_SymmetricRange() {
+        long[] primes = ExactDeterminant.primes(100);
+        BigInteger[] values = {BigInteger.TEN.pow(25), BigInteger.TEN.pow(25).negate(), BigInteger.valueOf(-1)};
+        for (BigInteger value : values) {
+            long[] residues = new long[primes.length];
+            for (int q = 0; q < primes.length; q++) {
+                residues[q] = value.mod(BigInteger.valueOf(primes[q])).longValue();
+                assertTrue(primes[q] <= ExactDeterminant.MAX_PRIME);
+            }
+            assertEquals(value, ExactDeterminant.reconstruct(residues, primes));
+        }
+    }
+
+    @Test
+    @DisplayName("Нецелые, бесконечные элементы и неквадратная матрица: Выбрасывается MatrixException")
+    void invalidInput_Throws() {
+        assertThrows(MatrixException.class, () -> ExactDeterminant.determinant(new Matrix(new double[][]{{1.5, 0}, {0, 1}})));
+        assertThrows(MatrixException.class, () -> ExactDeterminant.determinant(
+                new Matrix(new double[][]{{Double.POSITIVE_INFINITY, 0}, {0, 1}})));
+        assertThrows(MatrixException.class, () -> DeterminantCalculator.calculateExact(
+                new Matrix(new double[][]{{1, 2, 3}, {4, 5, 6}})));
+    }
+}
@@ -0,0 +1,119 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalDeterminantTest {
+
+    private static void assertDeterminant(IncrementalDeterminant tracker) {
+        double expected = new LUDecomposition(tracker.toMatrix()).determinant();
+        assertEquals(expected, tracker.determinant(), 1e-9 * Math.max(1.0, Math.abs(expected)));
+    }
+
+    @Test
+    @DisplayName("Правки ячеек: Определитель совпадает с полным пересчётом без новых разложений")
+    void set_MatchesFullRecomputation() {
+        IncrementalDeterminant tracker = new IncrementalDeterminant(TestMatrices.random(40, 40, 1));
+        Random random = new Random(2);
+
+        for (int step = 0; step < 30; step++) {
+            tracker.set(random.nextInt(40), random.nextInt(40), random.nextDouble() * 4 - 2);
+            assertDeterminant(tracker);
+        }
+
+        assertEquals(1, tracker.getFactorizations());
+        assertEquals(30, tracker.getUpdates());
+    }
+
+    @Test
+    @DisplayName("Замена строки и обновление ранга 1: Определитель совпадает с полным пересчётом")
+    void rowAndRankOneUpdates_MatchFullRecomputation() {
+        IncrementalDeterminant tracker = new IncrementalDeterminant(TestMatrices.random(25, 25, 3));
+        Random random = new Random(4);
+        double[] row = new double[25];
+        double[] u = new double[25];
+        double[] v = new double[25];
+        for (int k = 0; k < 25; k++) {
+            row[k] = random.nextDouble();
+            u[k] = random.nextDouble() - 0.5;
+            v[k] = random.nextDouble() - 0.5;
+        }
+
+        tracker.setRow(7, row);
+        assertDeterminant(tracker);
+        assertEquals(row[3], tracker.get(7, 3), 0.0);
+        tracker.rankOneUpdate(u, v);
+        assertDeterminant(tracker);
+        assertEquals(1, tracker.getFactorizations());
+    }
+
+    @Test
+    @DisplayName("Правка делает матрицу вырожденной и обратно: Выполняется полное разложение")
+    void singularTransitions_Refactorize() {
+        IncrementalDeterminant tracker = new IncrementalDeterminant(new Matrix(new double[][]{{1, 2}, {3, 4}}));
+        assertEquals(-2.0, tracker.determinant(), 1e-12);
+
+        // 1 * 4 - 2 * 2 = 0: множитель обновления обнуляется
+        assertEquals(0.0, tracker.set(1, 0, 2), 0.0);
+        assertEquals(2, tracker.getFactorizations());
+        // Вырожденная матрица не имеет обратной, следующая правка снова раскладывает заново
+        assertEquals(2.0, tracker.set(1, 1, 6), 1e-12);
+        assertEquals(3, tracker.getFactorizations());
+        assertEquals(0, tracker.getUpdates());
+        // Повторная запись того же значения ничего не пересчитывает
+        tracker.set(1, 1, 6);
+        assertEquals(3, tracker.getFactorizations());
+    }
+
+    @Test
+    @DisplayName("После n обновлений разложение пересчитывается, чтобы не накапливать погрешность")
+    void manyUpdates_PeriodicallyRefactorize() {
+        IncrementalDeterminant tracker = new IncrementalDeterminant(TestMatrices.random(8, 8, 5));
+        Random random = new Random(6);
+
+        for (int step = 0; step < 100; step++) {
+            tracker.set(random.nextInt(8), random.nextInt(8), random.nextDouble() + 1);
+        }
+
+        assertTrue(tracker.getFactorizations() >= 3, "Разложений: " + tracker.getFactorizations());
+        assertDeterminant(tracker);
+    }
+
+    @Test
+    @DisplayName("Неквадратная матрица, индекс вне границ или нечисловое значение: Исключения")
+    void invalidArguments_Throw() {
+        IncrementalDeterminant tracker = new IncrementalDeterminant(TestMatrices.random(3, 3, 7));
+
+        assertThrows(MatrixException.class, () -> new IncrementalDeterminant(new Matrix(new double[][]{{1, 2, 3}})));
+        assertThrows(IndexOutOfBoundsException.class, () -> tracker.set(3, 0, 1.0));
+        assertThrows(MatrixException.class, () -> tracker.set(0, 0, Double.NaN));
+        assertThrows(MatrixException.class, () -> tracker.setRow(0, new double[2]));
+    }
+
+    @Test
+    @DisplayName("needsFactorization: Сообщает заранее о правках, требующих полного разложения")
+    void needsFactorization_PredictsRefactorization() {
+        IncrementalDeterminant tracker = new IncrementalDeterminant(new Matrix(new double[][]{{1, 0}, {0, 1}}));
+
+        assertFalse(tracker.needsFactorization(0, 1, 0.5));
+        // det [[1, 1], [1, 1]] = 0: множитель обновления равен нулю
+        tracker.set(0, 1, 1.0);
+        assertTrue(tracker.needsFactorization(1, 0, 1.0));
+        assertFalse(tracker.needsFactorization(1, 0, 0.0), "Значение не меняется");
+
+        int factorizations = tracker.getFactorizations();
+        tracker.set(1, 0, 1.0);
+        assertEquals(factorizations + 1, tracker.getFactorizations());
+        assertEquals(0.0, tracker.determinant(), 0.0);
+        // Вырожденная матрица: любая правка требует разложения
+        assertTrue(tracker.needsFactorization(0, 0, 2.0));
+
+        IncrementalDeterminant refreshed = new IncrementalDeterminant(TestMatrices.random(4, 4, 9));
+        int edits = 0;
+        while (!refreshed.needsFactorization(edits % 4, (edits / 4) % 4, edits + 0.5)) {
+            refreshed.set(edits % 4, (edits / 4) % 4, edits + 0.5);
+            edits++;
+        }
+        assertEquals(1, refreshed.getFactorizations(), "Предсказанные дешёвыми правки не выполняют разложения");
+    }
+}
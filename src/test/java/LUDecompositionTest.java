@@ -0,0 +1,94 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LUDecompositionTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    @DisplayName("LU: Определитель и логарифм модуля определителя для матрицы 3x3")
+    void determinant_And_LogAbsDeterminant_3x3() {
+        Matrix a = new Matrix(new double[][]{
+                {1.0, 2.0, 3.0},
+                {0.0, 1.0, 4.0},
+                {5.0, 6.0, 0.0}
+        });
+        LUDecomposition lu = new LUDecomposition(a);
+
+        assertEquals(1.0, lu.determinant(), DELTA);
+        assertEquals(0.0, lu.logAbsDeterminant(), DELTA);
+        assertEquals(1, lu.determinantSign());
+    }
+
+    @Test
+    @DisplayName("LU: Логарифм определителя конечен там, где произведение переполняется")
+    void logAbsDeterminant_NoOverflow() {
+        int n = 400;
+        double[][] data = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            data[i][(i + 1) % n] = 1e3;
+        }
+        LUDecomposition lu = new LUDecomposition(new Matrix(data));
+
+        assertTrue(Double.isInfinite(lu.determinant()));
+        assertEquals(n * Math.log(1e3), lu.logAbsDeterminant(), 1e-6);
+        assertEquals(-1, lu.determinantSign());
+    }
+
+    @Test
+    @DisplayName("LU: Решение для нескольких правых частей и обратная матрица")
+    void solve_MultipleRightHandSides_And_Inverse() {
+        Matrix a = TestMatrices.random(30, 30, 1);
+        Matrix b = TestMatrices.random(30, 4, 2);
+        LUDecomposition lu = new LUDecomposition(a);
+
+        Matrix x = lu.solve(b);
+        Matrix inverse = lu.inverse();
+
+        TestMatrices.assertClose(b, MatrixOperations.multiply(a, x), 1e-9);
+        TestMatrices.assertClose(MatrixOperations.multiply(inverse, b), x, 1e-9);
+    }
+
+    @Test
+    @DisplayName("LU: Исключение при решении системы с вырожденной матрицей")
+    void solve_ThrowsException_Singular() {
+        LUDecomposition lu = new LUDecomposition(new Matrix(new double[][]{
+                {1.0, 2.0},
+                {2.0, 4.0}
+        }));
+
+        assertTrue(lu.isSingular());
+        assertEquals(0.0, lu.determinant(), DELTA);
+        assertEquals(Double.NEGATIVE_INFINITY, lu.logAbsDeterminant(), DELTA);
+        MatrixException exception = assertThrows(MatrixException.class, lu::inverse);
+        assertEquals("Матрица вырождена, решение невозможно.", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Блочное LU: Определитель и решение совпадают с построчным исключением")
+    void blocked_MatchesUnblocked() {
+        Matrix a = TestMatrices.random(301, 301, 3);
+        Matrix b = TestMatrices.random(301, 2, 4);
+        LUDecomposition unblocked = new LUDecomposition(a);
+        LUDecomposition blocked = new LUDecomposition(a, new ForkJoinPool(4), 0, null, 32);
+
+        assertEquals(unblocked.logAbsDeterminant(), blocked.logAbsDeterminant(), 1e-9);
+        assertEquals(unblocked.determinantSign(), blocked.determinantSign());
+        assertEquals(unblocked.determinant(), blocked.determinant(), Math.abs(unblocked.determinant()) * 1e-9);
+        TestMatrices.assertClose(unblocked.solve(b), blocked.solve(b), 1e-8);
+    }
+
+    @Test
+    @DisplayName("Блочное LU: Вырожденная матрица даёт нулевой определитель")
+    void blocked_SingularMatrix() {
+        double[][] data = TestMatrices.random(100, 100, 5).getData();
+        data[70] = data[10].clone();
+
+        LUDecomposition blocked = new LUDecomposition(new Matrix(data), null, 0, null, 16);
+
+        assertTrue(blocked.isSingular());
+        assertEquals(0.0, blocked.determinant(), DELTA);
+    }
+}
@@ -0,0 +1,103 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatrixArchiveTest {
+    @TempDir
+    Path tempDir;
+
+    // 300 строк по 1000 элементов: 131 строка на блок, три блока
+    private static Matrix sample(long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[300 * 1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 7 == 0 ? random.nextGaussian() : Math.round(random.nextDouble() * 1000) / 4.0;
+        }
+        return Matrix.wrap(values, 300, 1000);
+    }
+
+    @Test
+    @DisplayName("Архив: Запись в несколько потоков и чтение восстанавливают матрицу до бита, файл меньше двоичного")
+    void roundTrip_IsLosslessAndSmallerThanBinary() throws IOException {
+        Matrix original = sample(1);
+        Path archive = tempDir.resolve("matrix.mtxz");
+        Path binary = tempDir.resolve("matrix.bin");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            MatrixArchive.write(original, archive, Deflater.DEFAULT_COMPRESSION, pool);
+        } finally {
+            pool.shutdown();
+        }
+        BinaryMatrixFormat.write(original, binary);
+
+        Matrix result = MatrixIO.readMatrixFromFile(archive.toString());
+
+        assertArrayEquals(original.toArray(), result.toArray(), 0.0);
+        assertTrue(Files.size(archive) < Files.size(binary) / 2,
+                "Архив " + Files.size(archive) + " байт, двоичный файл " + Files.size(binary));
+    }
+
+    @Test
+    @DisplayName("Диапазон строк на стыке блоков: Загружаются только нужные строки")
+    void readRowRange_AcrossChunkBoundary() throws IOException {
+        Matrix original = sample(2);
+        Path archive = tempDir.resolve("matrix.mtxz");
+        MatrixIO.writeMatrix(original, archive.toString());
+
+        Matrix rows = MatrixIO.readMatrixArchive(archive.toString(), 120, 30);
+        Matrix last = MatrixArchive.read(archive, 299, 1);
+
+        assertEquals(30, rows.getRows());
+        assertEquals(1000, rows.getCols());
+        assertArrayEquals(original.submatrix(120, 0, 30, 1000).toArray(), rows.toArray(), 0.0);
+        assertArrayEquals(original.row(299).toArray(), last.toArray(), 0.0);
+        assertThrows(MatrixException.class, () -> MatrixArchive.read(archive, 290, 11));
+    }
+
+    @Test
+    @DisplayName("Специальные значения и разреженная матрица сохраняются без изменений")
+    void specialValuesAndSparse_RoundTrip() throws IOException {
+        Matrix special = new Matrix(new double[][]{{Double.NaN, -0.0, Double.MIN_VALUE}, {Double.MAX_VALUE, 1e-300, -7.5}});
+        Matrix sparse = Matrix.sparse(3, 4, new int[]{0, 1, 1, 3}, new int[]{2, 0, 3}, new double[]{5, -1, 2.5});
+        Path a = tempDir.resolve("special.mtxz");
+        Path b = tempDir.resolve("sparse.mtxz");
+
+        MatrixArchive.write(special, a);
+        MatrixArchive.write(sparse, b);
+        double[] restored = MatrixArchive.read(a).toArray();
+
+        double[] expected = special.toArray();
+        for (int k = 0; k < expected.length; k++) {
+            assertEquals(Double.doubleToRawLongBits(expected[k]), Double.doubleToRawLongBits(restored[k]), "Элемент " + k);
+        }
+        assertArrayEquals(sparse.toArray(), MatrixArchive.read(b).toArray(), 0.0);
+    }
+
+    @Test
+    @DisplayName("Обрезанный или испорченный архив: Выбрасывается MatrixException")
+    void corruptedArchive_Throws() throws IOException {
+        Path archive = tempDir.resolve("matrix.mtxz");
+        MatrixArchive.write(sample(3), archive);
+        byte[] bytes = Files.readAllBytes(archive);
+        Path truncated = tempDir.resolve("truncated.mtxz");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 5));
+        byte[] damaged = bytes.clone();
+        for (int k = 100; k < 200; k++) {
+            damaged[k] ^= 0x5A;
+        }
+        Path broken = tempDir.resolve("broken.mtxz");
+        Files.write(broken, damaged);
+
+        assertThrows(MatrixException.class, () -> MatrixArchive.read(truncated));
+        MatrixException exception = assertThrows(MatrixException.class, () -> MatrixArchive.read(broken));
+        assertTrue(exception.getMessage().contains("блок 0"), exception.getMessage());
+    }
+}
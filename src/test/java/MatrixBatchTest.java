@@ -0,0 +1,138 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatrixBatchTest {
+    @TempDir
+    Path tempDir;
+
+    private Path write(String name, String... lines) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, Arrays.asList(lines));
+        return file;
+    }
+
+    private static String[] resultLine(String output, int number) {
+        for (String line : output.split("\n")) {
+            String[] fields = line.split("\t");
+            if (fields[0].equals(Integer.toString(number))) {
+                return fields;
+            }
+        }
+        fail("Нет строки результата для задания " + number);
+        return null;
+    }
+
+    @Test
+    @DisplayName("Сценарий: Определитель и произведение с записью результата в файл")
+    void run_ScriptWithDeterminantAndProduct() throws IOException {
+        write("a.txt", "1 2", "3 4");
+        write("b.txt", "0 1", "1 0");
+        Path script = write("jobs.txt",
+                "# проверочный сценарий",
+                "det a.txt",
+                "",
+                "mul a.txt b.txt product.txt");
+        StringWriter out = new StringWriter();
+
+        int code = MatrixBatch.run(new String[]{"--threads", "2", "--memory", "16", script.toString()}, out);
+
+        assertEquals(0, code);
+        String[] det = resultLine(out.toString(), 1);
+        assertEquals("det", det[1]);
+        assertEquals("OK", det[3]);
+        assertEquals(-2.0, Double.parseDouble(det[4]), 1e-9);
+        assertEquals("OK", resultLine(out.toString(), 2)[3]);
+
+        Matrix product = MatrixIO.readMatrixFromFile(tempDir.resolve("product.txt").toString());
+        assertEquals(2.0, product.get(0, 0), 1e-12);
+        assertEquals(1.0, product.get(0, 1), 1e-12);
+        assertEquals(4.0, product.get(1, 0), 1e-12);
+        assertEquals(3.0, product.get(1, 1), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Шаблон: Определитель вычисляется для каждого подходящего файла")
+    void run_GlobComputesDeterminantForEachFile() throws IOException {
+        write("data/m1.txt", "2 0", "0 3");
+        write("data/m2.txt", "1 1", "1 1");
+        write("data/skip.csv", "1");
+        StringWriter out = new StringWriter();
+
+        int code = MatrixBatch.run(new String[]{"--threads", "1", tempDir.resolve("data") + "/*.txt"}, out);
+
+        assertEquals(0, code);
+        List<String> lines = Arrays.asList(out.toString().trim().split("\n"));
+        assertEquals(2, lines.size());
+        assertTrue(out.toString().contains("m1.txt\tOK\t6.0"));
+        assertTrue(out.toString().contains("m2.txt\tOK\t0.0"));
+    }
+
+    @Test
+    @DisplayName("Ошибка в одном задании не останавливает остальные, код завершения 1")
+    void run_FailedJobDoesNotStopBatch() throws IOException {
+        write("ok.txt", "5");
+        write("rect.txt", "1 2 3", "4 5 6");
+        Path script = write("jobs.txt", "det rect.txt", "det missing.txt", "det ok.txt");
+        StringWriter out = new StringWriter();
+
+        int code = MatrixBatch.run(new String[]{script.toString()}, out);
+
+        assertEquals(1, code);
+        assertEquals("ERROR", resultLine(out.toString(), 1)[3]);
+        assertEquals("ERROR", resultLine(out.toString(), 2)[3]);
+        assertEquals("OK", resultLine(out.toString(), 3)[3]);
+    }
+
+    @Test
+    @DisplayName("Неверные аргументы и сценарий: Код завершения 2")
+    void run_InvalidArguments() throws IOException {
+        Path script = write("jobs.txt", "inv a.txt");
+
+        assertEquals(2, MatrixBatch.run(new String[0], new StringWriter()));
+        assertEquals(2, MatrixBatch.run(new String[]{"--threads"}, new StringWriter()));
+        assertEquals(2, MatrixBatch.run(new String[]{script.toString()}, new StringWriter()));
+    }
+
+    @Test
+    @DisplayName("Резерв памяти: Произведение столбца на строку резервирует память под результат")
+    void permitsFor_ReservesProductOfBinaryInputs() throws IOException {
+        Path column = tempDir.resolve("column.bin");
+        Path row = tempDir.resolve("row.bin");
+        BinaryMatrixFormat.write(TestMatrices.random(10000, 1, 1), column);
+        BinaryMatrixFormat.write(TestMatrices.random(1, 10000, 2), row);
+        MatrixBatch batch = new MatrixBatch(1, 1L << 30, new StringWriter());
+
+        int permits = batch.permitsFor(new MatrixBatch.Job(1, "mul", List.of(column, row), null));
+
+        // 8 * 10000 * 10000 байт результата плюс 160 КБ операндов
+        assertEquals((800_000_000L + 160_000 + 1023) >> 10, permits);
+    }
+
+    @Test
+    @DisplayName("Резерв памяти: Результат текстовых операндов сверх лимита не блокирует пакет")
+    void run_TextProductLargerThanLimit() throws IOException {
+        String[] column = new String[500];
+        Arrays.fill(column, "1");
+        write("column.txt", column);
+        write("row.txt", String.join(" ", column));
+        Path script = write("jobs.txt", "mul column.txt row.txt", "mul row.txt column.txt", "det column.txt");
+        StringWriter out = new StringWriter();
+
+        // Произведение 500x500 занимает 2 МБ при лимите 1 МБ
+        int code = MatrixBatch.run(new String[]{"--threads", "2", "--memory", "1", script.toString()}, out);
+
+        assertEquals(1, code);
+        assertEquals("500x500", resultLine(out.toString(), 1)[4]);
+        assertEquals("1x1", resultLine(out.toString(), 2)[4]);
+        assertEquals("ERROR", resultLine(out.toString(), 3)[3]);
+    }
+}
@@ -0,0 +1,55 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatrixExpressionTest {
+
+    @Test
+    @DisplayName("Выражение: (A + B) * C * D - E совпадает с пошаговым вычислением")
+    void evaluate_MatchesEagerOperations() {
+        Matrix a = TestMatrices.random(6, 5, 1);
+        Matrix b = TestMatrices.random(6, 5, 2);
+        Matrix c = TestMatrices.random(5, 40, 3);
+        Matrix d = TestMatrices.random(40, 3, 4);
+        Matrix e = TestMatrices.random(6, 3, 5);
+
+        Matrix expected = MatrixOperations.subtract(
+                MatrixOperations.multiply(MatrixOperations.multiply(MatrixOperations.sum(a, b), c), d), e);
+        Matrix actual = MatrixExpression.of(a).plus(b).times(c).times(d).minus(e).evaluate();
+
+        TestMatrices.assertClose(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Выражение: Порядок умножений выбирается по минимуму операций")
+    void explain_ChoosesCheaperChainOrder() {
+        // 10x100 * 100x5 * 5x50: (M1 * M2) * M3 стоит 7500 умножений, M1 * (M2 * M3) — 75000
+        MatrixExpression expression = MatrixExpression.of(TestMatrices.random(10, 100, 6))
+                .times(TestMatrices.random(100, 5, 7))
+                .times(TestMatrices.random(5, 50, 8));
+
+        assertEquals(2L * 7500, expression.estimatedFlops());
+        assertTrue(expression.explain().contains("((M1[10x100] * M2[100x5]) * M3[5x50])"), expression.explain());
+    }
+
+    @Test
+    @DisplayName("Выражение: Линейные комбинации сливаются с учётом коэффициентов")
+    void evaluate_FusesLinearCombination() {
+        Matrix a = new Matrix(new double[][]{{1, 2}, {3, 4}});
+        Matrix b = new Matrix(new double[][]{{1, 1}, {1, 1}});
+
+        MatrixExpression expression = MatrixExpression.of(a).minus(MatrixExpression.of(b).scale(2.0)).plus(a.toSparse());
+
+        assertTrue(expression.explain().contains("из 3 слагаемых"), expression.explain());
+        TestMatrices.assertClose(new Matrix(new double[][]{{0, 2}, {4, 6}}), expression.evaluate());
+    }
+
+    @Test
+    @DisplayName("Выражение: Несогласованные размеры обнаруживаются при построении")
+    void times_ThrowsException_InvalidDimensions() {
+        MatrixExpression expression = MatrixExpression.of(TestMatrices.random(2, 3, 9));
+
+        MatrixException exception = assertThrows(MatrixException.class, () -> expression.times(TestMatrices.random(2, 3, 10)));
+        assertEquals("Для умножения количество столбцов A должно совпадать с количеством строк B.", exception.getMessage());
+    }
+}
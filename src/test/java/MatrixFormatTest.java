@@ -0,0 +1,48 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.Locale;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatrixFormatTest {
+
+    @Test
+    @DisplayName("Форматирование: Совпадает со String.format(\"%.2f\") на случайных и пограничных значениях")
+    void formatFixed2_MatchesStringFormat() {
+        double[] special = {0.0, -0.0, -0.001, 0.005, 0.015, 1.005, 0.125, 2.675, 9.995, -999.995,
+                1e7 + 0.125, 123456789.125, 1e15, -1e300, Double.NaN, Double.POSITIVE_INFINITY};
+        for (double value : special) {
+            assertEquals(String.format("%.2f", value), MatrixFormat.formatFixed2(value), "Значение " + value);
+        }
+        Random random = new Random(42);
+        for (int k = 0; k < 100000; k++) {
+            double value = k % 2 == 0
+                    ? (random.nextInt(2000000) - 1000000 + 0.5) / 100.0
+                    : random.nextGaussian() * Math.pow(10, random.nextInt(12));
+            assertEquals(String.format("%.2f", value), MatrixFormat.formatFixed2(value), "Значение " + value);
+        }
+    }
+
+    @Test
+    @DisplayName("Форматирование: Используется десятичный разделитель локали")
+    void formatFixed2_UsesLocaleSeparator() {
+        Locale initial = Locale.getDefault(Locale.Category.FORMAT);
+        try {
+            Locale.setDefault(Locale.Category.FORMAT, new Locale("ru", "RU"));
+            assertEquals("-3,14", MatrixFormat.formatFixed2(-3.14159));
+            Locale.setDefault(Locale.Category.FORMAT, Locale.US);
+            assertEquals("-3.14", MatrixFormat.formatFixed2(-3.14159));
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, initial);
+        }
+    }
+
+    @Test
+    @DisplayName("Форматирование: toString матрицы сохраняет прежний вид")
+    void matrixToString_KeepsLayout() {
+        Matrix matrix = new Matrix(new double[][]{{1, 2.345}, {-0.5, 100}});
+
+        String expected = String.format("%.2f\t%.2f\t\n%.2f\t%.2f\t\n", 1.0, 2.345, -0.5, 100.0);
+        assertEquals(expected, matrix.toString());
+    }
+}
@@ -2,6 +2,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
@@ -106,7 +108,7 @@ public class MatrixIOTest {
                 MatrixIO.readMatrixFromFile(file.toString())
         );
 
-        assertEquals("Количество элементов в некоторых строках отличается от большинства", exception.getMessage());
+        assertEquals("Количество элементов в некоторых строках отличается от большинства (строка 2)", exception.getMessage());
     }
 
     @Test
@@ -149,4 +151,50 @@ public class MatrixIOTest {
         Matrix result = MatrixIO.readMatrixFromFile(file.toString());
         assertMatricesEqual(expected, result);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Двоичный формат: Запись и чтение сохраняют матрицу, формат определяется по сигнатуре")
+    void binaryFormat_RoundTrip_AutoDetected() {
+        Matrix original = new Matrix(new double[][]{
+                {1.5, -2.25, 3.0},
+                {Double.MAX_VALUE, 0.0, -1e-300}
+        });
+        String path = tempDir.resolve("matrix.bin").toString();
+
+        MatrixIO.writeMatrixBinary(original, path);
+        Matrix result = MatrixIO.readMatrixFromFile(path);
+
+        assertMatricesEqual(original, result);
+    }
+
+    @Test
+    @DisplayName("Двоичный формат: Заголовок и элементы записываются в порядке little-endian")
+    void binaryFormat_WritesLittleEndianLayout() throws IOException {
+        Path file = tempDir.resolve("layout.bin");
+        MatrixIO.writeMatrixBinary(new Matrix(new double[][]{{1.0, 2.0}}), file.toString());
+
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+
+        assertEquals(24 + 2 * Double.BYTES, bytes.capacity());
+        assertEquals('M', bytes.get(0));
+        assertEquals('B', bytes.get(3));
+        assertEquals(1, bytes.getInt(8));
+        assertEquals(2, bytes.getInt(12));
+        assertEquals(2.0, bytes.getDouble(32), DELTA);
+    }
+
+    @Test
+    @DisplayName("Двоичный формат: Исключение, если размер файла не соответствует заголовку")
+    void binaryFormat_ThrowsException_TruncatedFile() throws IOException {
+        Path file = tempDir.resolve("truncated.bin");
+        MatrixIO.writeMatrixBinary(new Matrix(new double[][]{{1.0, 2.0}, {3.0, 4.0}}), file.toString());
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+
+        MatrixException exception = assertThrows(MatrixException.class, () ->
+                MatrixIO.readMatrixFromFile(file.toString())
+        );
+
+        assertEquals("Размер двоичного файла матрицы не соответствует заголовку.", exception.getMessage());
+    }
+}
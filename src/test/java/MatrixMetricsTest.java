@@ -0,0 +1,63 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatrixMetricsTest {
+
+    @Test
+    @DisplayName("Метрики: Умножение учитывается в числе вызовов, байтах и гистограммах")
+    void multiply_RecordsStatistics() {
+        OperationStats stats = MatrixMetrics.stats("multiply");
+        long callsBefore = stats.getCalls();
+        long bytesBefore = stats.getBytesAllocated();
+        // Матрицы до 4x4 идут через SmallMatrixKernels без метрик, поэтому берётся 5x5
+        double[][] data = new double[5][5];
+        for (int i = 0; i < 5; i++) {
+            data[i][i] = i + 1;
+            data[i][(i + 1) % 5] = 2;
+        }
+        Matrix a = new Matrix(data);
+
+        MatrixOperations.multiply(a, a);
+
+        assertEquals(callsBefore + 1, stats.getCalls());
+        assertEquals(bytesBefore + 25 * 8, stats.getBytesAllocated());
+        assertTrue(stats.getSizeHistogram()[4] > 0, "Результат из 25 элементов попадает в корзину 4");
+        long total = 0;
+        for (long count : stats.getLatencyHistogram()) {
+            total += count;
+        }
+        assertEquals(stats.getCalls(), total);
+        assertTrue(stats.getGflops() > 0.0);
+    }
+
+    @Test
+    @DisplayName("Метрики: Статистика операций публикуется через JMX")
+    void stats_AreRegisteredAsMBeans() throws Exception {
+        MatrixOperations.sum(new Matrix(new double[][]{{1}}), new Matrix(new double[][]{{2}}));
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        Object calls = server.getAttribute(new ObjectName("MatrixCalculator:type=OperationStats,name=\"sum\""), "Calls");
+
+        assertTrue((Long) calls > 0);
+        assertTrue(server.isRegistered(new ObjectName("MatrixCalculator:type=Metrics")));
+    }
+
+    @Test
+    @DisplayName("Метрики: Журнал горячих путей переключается через JMX")
+    void hotPathLogging_TogglesThroughMBean() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("MatrixCalculator:type=Metrics");
+        boolean initial = MatrixMetrics.hotPathLogging();
+        try {
+            server.setAttribute(name, new Attribute("HotPathLogging", !initial));
+            assertEquals(!initial, MatrixMetrics.hotPathLogging());
+        } finally {
+            MatrixMetrics.setHotPathLoggingEnabled(initial);
+        }
+    }
+}
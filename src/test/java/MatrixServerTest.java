@@ -0,0 +1,160 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatrixServerTest {
+
+    private MatrixServer server;
+    private MatrixClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MatrixServer(0, 2);
+        client = new MatrixClient(server.getPort());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Операции через сервер дают тот же результат, что и локальный вызов")
+    void operations_MatchLocalResults() {
+        Matrix a = TestMatrices.random(3, 4, 1);
+        Matrix b = TestMatrices.random(4, 2, 2);
+        Matrix c = TestMatrices.random(3, 4, 3);
+        Matrix square = TestMatrices.random(5, 5, 4);
+
+        TestMatrices.assertClose(MatrixOperations.multiply(a, b), client.multiply(a, b), 0.0);
+        TestMatrices.assertClose(MatrixOperations.sum(a, c), client.sum(a, c), 0.0);
+        TestMatrices.assertClose(MatrixOperations.subtract(a, c), client.subtract(a, c), 0.0);
+        TestMatrices.assertClose(MatrixOperations.multiply(a.transpose(), c), client.multiply(a.transpose(), c), 0.0);
+        assertEquals(MatrixOperations.determinant(square), client.determinant(square), 0.0);
+    }
+
+    @Test
+    @DisplayName("Ошибка операции возвращается клиенту как MatrixException, соединение остаётся рабочим")
+    void error_IsReportedAndConnectionSurvives() {
+        Matrix a = TestMatrices.random(2, 3, 1);
+
+        MatrixException e = assertThrows(MatrixException.class, () -> client.multiply(a, a));
+        assertTrue(e.getMessage().contains("столбцов"));
+        assertEquals(6.0, client.determinant(new Matrix(new double[][]{{2, 0}, {0, 3}})), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Запросы без ожидания ответа: все ответы приходят, одинаковые склеиваются")
+    void pipelinedRequests_AreAnsweredAndCoalesced() throws InterruptedException {
+        Matrix a = TestMatrices.random(400, 400, 5);
+        Matrix b = TestMatrices.random(400, 400, 6);
+        // Вычисления стоят, пока все восемь одинаковых умножений не дойдут до диспетчера
+        CountDownLatch gate = new CountDownLatch(1);
+        server.executionGate = gate;
+        List<CompletableFuture<Matrix>> products = new ArrayList<>();
+        List<CompletableFuture<Double>> determinants = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            products.add(client.multiplyAsync(a, b));
+            determinants.add(client.determinantAsync(new Matrix(new double[][]{{i, 1}, {1, 1}})));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (server.getCoalesced() < 7 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        gate.countDown();
+
+        Matrix expected = MatrixOperations.multiplyReference(a, b);
+        for (int i = 0; i < 8; i++) {
+            Matrix product = products.get(i).join();
+            assertEquals(expected.get(17, 23), product.get(17, 23), 1e-9);
+            assertEquals(i - 1.0, determinants.get(i).join(), 1e-12);
+        }
+        assertEquals(16, server.getRequests());
+        assertEquals(7, server.getCoalesced(), "Одинаковые запросы в полёте должны склеиваться");
+    }
+
+    @Test
+    @DisplayName("Лимит памяти: Запросы сверх лимита ждут освобождения, запрос больше лимита выполняется в одиночку")
+    void memoryLimit_BoundsRequestsInFlight() throws IOException, InterruptedException {
+        // 256 КБ: умножение 100x100 резервирует 240 КБ, поэтому запросы выполняются по одному
+        try (MatrixServer limited = new MatrixServer(0, 2, 256 << 10);
+             MatrixClient limitedClient = new MatrixClient(limited.getPort())) {
+            Matrix a = TestMatrices.random(100, 100, 7);
+            Matrix b = TestMatrices.random(100, 100, 8);
+            Matrix large = TestMatrices.random(200, 200, 9);
+            List<CompletableFuture<Matrix>> products = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                products.add(limitedClient.multiplyAsync(a, i % 2 == 0 ? b : a));
+            }
+            CompletableFuture<Double> determinant = limitedClient.determinantAsync(large);
+
+            Matrix expectedAb = MatrixOperations.multiplyReference(a, b);
+            Matrix expectedAa = MatrixOperations.multiplyReference(a, a);
+            for (int i = 0; i < 6; i++) {
+                Matrix expected = i % 2 == 0 ? expectedAb : expectedAa;
+                assertEquals(expected.get(42, 17), products.get(i).join().get(42, 17), 1e-9);
+            }
+            assertEquals(new LUDecomposition(large).determinant(), determinant.join(), 0.0);
+            // Резерв освобождается после записи ответа, клиент мог получить его чуть раньше
+            for (int attempt = 0; attempt < 100 && limited.getReservedBytes() > 0; attempt++) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, limited.getReservedBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Клиент, не читающий ответы, не занимает потоки вычисления: другие клиенты обслуживаются")
+    void nonReadingClient_DoesNotBlockOthers() throws IOException, InterruptedException {
+        Matrix row = TestMatrices.random(1, 1000, 11);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            MatrixProtocol.writeInt(out, MatrixProtocol.MAGIC);
+            // Шестнадцать разных ответов по 8 МБ больше буферов сокета: раньше запись ответа блокировала оба потока вычисления
+            for (int id = 0; id < 16; id++) {
+                MatrixProtocol.writeInt(out, id);
+                out.writeByte(MatrixProtocol.OP_MULTIPLY);
+                out.writeByte(2);
+                MatrixProtocol.writeMatrix(out, TestMatrices.random(1000, 1, id));
+                MatrixProtocol.writeMatrix(out, row);
+            }
+            out.flush();
+            // Запрос другого клиента отправляется, когда ответы первого уже упёрлись в полный буфер сокета
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (server.getRequests() < 16 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            Thread.sleep(200);
+
+            Double determinant = client.determinantAsync(new Matrix(new double[][]{{2, 0}, {0, 3}}))
+                    .orTimeout(30, TimeUnit.SECONDS).join();
+
+            assertEquals(6.0, determinant, 1e-12);
+        }
+    }
+
+    @Test
+    @DisplayName("Соединение с неверной сигнатурой закрывается, сервер продолжает работу")
+    void wrongMagic_ClosesConnection() throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            out.writeInt(0x12345678);
+            out.flush();
+            assertEquals(-1, socket.getInputStream().read());
+        }
+        assertEquals(1.0, client.determinant(new Matrix(new double[][]{{1}})), 0.0);
+    }
+}
@@ -0,0 +1,58 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatrixTest {
+
+    private static final double DELTA = 1e-9;
+
+    private final Matrix matrix = new Matrix(new double[][]{
+            {1.0, 2.0, 3.0},
+            {4.0, 5.0, 6.0},
+            {7.0, 8.0, 9.0}
+    });
+
+    @Test
+    @DisplayName("Представления: Подматрица читает элементы исходной матрицы без копирования")
+    void submatrix_ReadsUnderlyingStorage() {
+        Matrix sub = matrix.submatrix(1, 1, 2, 2);
+
+        assertEquals(2, sub.getRows());
+        assertEquals(2, sub.getCols());
+        assertEquals(5.0, sub.get(0, 0), DELTA);
+        assertEquals(9.0, sub.get(1, 1), DELTA);
+        assertSame(matrix.rawData(), sub.rawData());
+    }
+
+    @Test
+    @DisplayName("Представления: Транспонирование, строка и столбец")
+    void transposeRowAndColumn() {
+        Matrix t = matrix.transpose();
+
+        assertEquals(4.0, t.get(0, 1), DELTA);
+        assertEquals(6.0, t.get(2, 1), DELTA);
+        assertArrayEquals(new double[]{4.0, 5.0, 6.0}, matrix.row(1).toArray(), DELTA);
+        assertArrayEquals(new double[]{3.0, 6.0, 9.0}, matrix.column(2).toArray(), DELTA);
+        assertArrayEquals(new double[]{2.0, 5.0, 8.0}, t.row(1).toArray(), DELTA);
+    }
+
+    @Test
+    @DisplayName("Представления: getData возвращает копию представления")
+    void getData_ReturnsCopyOfView() {
+        double[][] data = matrix.submatrix(0, 1, 3, 2).transpose().getData();
+
+        assertEquals(2, data.length);
+        assertArrayEquals(new double[]{2.0, 5.0, 8.0}, data[0], DELTA);
+        assertArrayEquals(new double[]{3.0, 6.0, 9.0}, data[1], DELTA);
+    }
+
+    @Test
+    @DisplayName("Представления: Исключение при выходе подматрицы за границы")
+    void submatrix_ThrowsException_OutOfBounds() {
+        MatrixException exception = assertThrows(MatrixException.class, () ->
+                matrix.submatrix(2, 2, 2, 1)
+        );
+
+        assertEquals("Подматрица выходит за границы матрицы.", exception.getMessage());
+    }
+}
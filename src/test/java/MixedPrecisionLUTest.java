@@ -0,0 +1,148 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MixedPrecisionLUTest {
+    @TempDir
+    Path tempDir;
+
+    // Диагональное преобладание: хорошо обусловленная матрица, уточнение сходится за несколько шагов
+    private static Matrix wellConditioned(int n, long seed) {
+        double[] values = TestMatrices.random(n, n, seed).toArray();
+        for (int i = 0; i < n; i++) {
+            values[i * n + i] += n;
+        }
+        return Matrix.wrap(values, n, n);
+    }
+
+    @Test
+    @DisplayName("Умножение и сложение FloatMatrix совпадают с double в пределах точности float")
+    void floatOperations_MatchDouble() {
+        Matrix a = TestMatrices.random(37, 70, 1);
+        Matrix b = TestMatrices.random(70, 45, 2);
+        Matrix c = TestMatrices.random(37, 70, 3);
+
+        Matrix product = MatrixOperations.multiply(FloatMatrix.of(a), FloatMatrix.of(b)).toMatrix();
+        Matrix sum = MatrixOperations.sum(FloatMatrix.of(a), FloatMatrix.of(c)).toMatrix();
+        Matrix difference = MatrixOperations.subtract(FloatMatrix.of(a), FloatMatrix.of(c)).toMatrix();
+        Matrix expectedProduct = MatrixOperations.multiplyReference(a, b);
+
+        for (int i = 0; i < 37; i++) {
+            for (int j = 0; j < 45; j++) {
+                assertEquals(expectedProduct.get(i, j), product.get(i, j), 1e-4);
+            }
+            for (int j = 0; j < 70; j++) {
+                assertEquals(a.get(i, j) + c.get(i, j), sum.get(i, j), 1e-6);
+                assertEquals(a.get(i, j) - c.get(i, j), difference.get(i, j), 1e-6);
+            }
+        }
+        assertThrows(MatrixException.class, () -> MatrixOperations.multiply(FloatMatrix.of(a), FloatMatrix.of(c)));
+    }
+
+    @Test
+    @DisplayName("Двоичный float32: Запись вдвое меньше, чтение в float и в double, преобразование float64 -> float32")
+    void binaryFloat32_RoundTrip() throws IOException {
+        FloatMatrix original = FloatMatrix.of(new Matrix(new double[][]{{1.5, -2.25, 3.0}, {1e30, 0.0, -1e-20}}));
+        Path file = tempDir.resolve("matrix32.bin");
+        Path wide = tempDir.resolve("matrix64.bin");
+
+        MatrixIO.writeMatrixBinary(original, file.toString());
+        MatrixIO.writeMatrixBinary(original.toMatrix(), wide.toString());
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        FloatMatrix fromFloat = MatrixIO.readFloatMatrixFromFile(file.toString());
+        FloatMatrix fromDouble = MatrixIO.readFloatMatrixFromFile(wide.toString());
+        Matrix widened = MatrixIO.readMatrixFromFile(file.toString());
+
+        assertEquals(24 + 6 * Float.BYTES, bytes.capacity());
+        assertEquals(BinaryMatrixFormat.DTYPE_FLOAT32, bytes.getInt(16));
+        assertArrayEquals(original.toArray(), fromFloat.toArray());
+        assertArrayEquals(original.toArray(), fromDouble.toArray());
+        for (int j = 0; j < 3; j++) {
+            assertEquals(original.get(1, j), widened.get(1, j), 0.0);
+        }
+    }
+
+    @Test
+    @DisplayName("Уточнение восстанавливает точность double для хорошо обусловленной системы")
+    void solve_RefinementReachesDoubleAccuracy() {
+        int n = 300;
+        Matrix a = wellConditioned(n, 10);
+        Matrix expected = TestMatrices.random(n, 2, 11);
+        Matrix b = MatrixOperations.multiplyReference(a, expected);
+
+        MixedPrecisionLU lu = new MixedPrecisionLU(a);
+        MixedPrecisionLU.RefinedSolution solution = lu.solve(b);
+
+        assertFalse(lu.isFallback());
+        assertFalse(solution.isFallback());
+        assertTrue(solution.isConverged());
+        assertTrue(solution.getIterations() >= 1, "Одного решения во float недостаточно для точности double");
+        double[] residuals = solution.getResiduals();
+        assertTrue(residuals[0] > 1e-10, "Невязка решения во float: " + residuals[0]);
+        assertTrue(solution.getResidual() <= Math.ulp(1.0) * Math.sqrt(n));
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < 2; j++) {
+                assertEquals(expected.get(i, j), solution.getSolution().get(i, j), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Определитель по float-множителям близок к double, невязка разложения порядка точности float")
+    void determinant_MatchesDoubleWithinFloatAccuracy() {
+        Matrix a = wellConditioned(120, 20);
+        double expected = new LUDecomposition(a).determinant();
+
+        double actual = DeterminantCalculator.calculateMixedPrecision(a);
+        MixedPrecisionLU lu = DeterminantCalculator.decomposeMixedPrecision(a);
+
+        assertEquals(expected, actual, 1e-4 * Math.abs(expected));
+        assertEquals(actual, lu.determinant(), 0.0);
+        assertFalse(lu.isFallback());
+        assertTrue(lu.factorizationResidual() > 0 && lu.factorizationResidual() < 1e-5,
+                "Невязка разложения: " + lu.factorizationResidual());
+    }
+
+    @Test
+    @DisplayName("Элементы вне диапазона float и вырожденная во float матрица: Расчёт переходит на double")
+    void outOfFloatRange_FallsBackToDouble() {
+        Matrix huge = new Matrix(new double[][]{{1e300, 2}, {3, 4e300}});
+        Matrix nearlySingular = new Matrix(new double[][]{{1, 1, 0}, {1, 1 + 1e-9, 0}, {0, 0, 1}});
+
+        MixedPrecisionLU hugeLu = new MixedPrecisionLU(huge);
+        MixedPrecisionLU.RefinedSolution solution = new MixedPrecisionLU(nearlySingular)
+                .solve(new Matrix(new double[][]{{2}, {2 + 1e-9}, {1}}));
+
+        assertTrue(hugeLu.isFallback());
+        assertEquals(new LUDecomposition(huge).determinant(), hugeLu.determinant(), 0.0);
+        assertTrue(Double.isNaN(hugeLu.factorizationResidual()));
+        assertTrue(solution.isFallback());
+        assertEquals(0, solution.getIterations());
+        assertEquals(1.0, solution.getSolution().get(0, 0), 1e-6);
+        assertEquals(1.0, solution.getSolution().get(1, 0), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Неквадратная матрица или несогласованная правая часть: Выбрасывается MatrixException")
+    void invalidArguments_Throw() {
+        assertThrows(MatrixException.class, () -> new MixedPrecisionLU(TestMatrices.random(2, 3, 1)));
+        assertThrows(MatrixException.class, () -> new MixedPrecisionLU(TestMatrices.random(3, 3, 1)).solve(TestMatrices.random(2, 1, 2)));
+        assertThrows(MatrixException.class, () -> DeterminantCalculator.calculateMixedPrecision(TestMatrices.random(2, 3, 1)));
+    }
+
+    @Test
+    @DisplayName("Произведение float больше 2^31 элементов: Выбрасывается MatrixException, а не переполнение размера массива")
+    void multiplyFloat_ResultTooLarge_Throws() {
+        FloatMatrix column = FloatMatrix.wrap(new float[50_000], 50_000, 1);
+        FloatMatrix row = FloatMatrix.wrap(new float[50_000], 1, 50_000);
+
+        assertThrows(MatrixException.class, () -> MatrixOperations.multiply(column, row));
+        assertThrows(MatrixException.class, () -> FloatMatrix.newDenseData(65_536, 65_536));
+    }
+}
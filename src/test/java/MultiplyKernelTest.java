@@ -0,0 +1,58 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultiplyKernelTest {
+
+    @Test
+    @DisplayName("Блочное умножение: Совпадает с эталоном для вектора-строки на вектор-столбец")
+    void multiply_MatchesReference_RowByColumn() {
+        Matrix a = TestMatrices.random(1, 17, 1);
+        Matrix b = TestMatrices.random(17, 1, 2);
+
+        TestMatrices.assertClose(MatrixOperations.multiplyReference(a, b), MatrixOperations.multiply(a, b));
+    }
+
+    @Test
+    @DisplayName("Блочное умножение: Совпадает с эталоном, когда размеры не кратны размеру блока")
+    void multiply_MatchesReference_UnalignedSizes() {
+        Matrix a = TestMatrices.random(67, 131, 3);
+        Matrix b = TestMatrices.random(131, 259, 4);
+
+        TestMatrices.assertClose(MatrixOperations.multiplyReference(a, b), MatrixOperations.multiply(a, b));
+    }
+
+    @Test
+    @DisplayName("Блочное умножение: Совпадает с эталоном для квадратных матриц нескольких блоков")
+    void multiply_MatchesReference_MultiBlockSquare() {
+        Matrix a = TestMatrices.random(200, 200, 5);
+        Matrix b = TestMatrices.random(200, 200, 6);
+
+        TestMatrices.assertClose(MatrixOperations.multiplyReference(a, b), MatrixOperations.multiply(a, b));
+    }
+
+    @Test
+    @DisplayName("Блочное умножение: Транспонированные представления и подматрицы без копирования")
+    void multiply_MatchesReference_Views() {
+        Matrix a = TestMatrices.random(90, 70, 7);
+        Matrix b = TestMatrices.random(45, 70, 8).transpose();
+        Matrix c = TestMatrices.random(100, 100, 9).submatrix(5, 10, 70, 33);
+
+        TestMatrices.assertClose(MatrixOperations.multiplyReference(a, b), MatrixOperations.multiply(a, b));
+        TestMatrices.assertClose(MatrixOperations.multiplyReference(a.transpose().transpose(), c),
+                MatrixOperations.multiply(a, c));
+        TestMatrices.assertClose(MatrixOperations.multiplyReference(c.transpose(), a.transpose()),
+                MatrixOperations.multiply(c.transpose(), a.transpose()));
+    }
+
+    @Test
+    @DisplayName("Результат больше 2^31 элементов: Выбрасывается MatrixException, а не переполнение размера массива")
+    void multiply_ResultTooLarge_Throws() {
+        Matrix column = Matrix.wrap(new double[50_000], 50_000, 1);
+        Matrix row = Matrix.wrap(new double[50_000], 1, 50_000);
+
+        assertThrows(MatrixException.class, () -> MultiplyKernel.multiply(column, row));
+        assertThrows(MatrixException.class, () -> new ParallelMatrixOperations(ForkJoinPool.commonPool(), 0).multiply(column, row));
+    }
+}
@@ -0,0 +1,80 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MutableMatrixTest {
+
+    @Test
+    @DisplayName("sumInto и subtractInto: Результат совпадает с обычными операциями, в том числе на месте")
+    void sumInto_MatchesSum() {
+        Matrix a = new Matrix(new double[][]{{1, 2}, {3, 4}});
+        Matrix b = new Matrix(new double[][]{{5, 6}, {7, 8}});
+        MutableMatrix out = new MutableMatrix(2, 2);
+
+        MatrixOperations.sumInto(a, b, out);
+        TestMatrices.assertClose(MatrixOperations.sum(a, b), out);
+
+        MatrixOperations.subtractInto(out, b, out);
+        TestMatrices.assertClose(a, out);
+    }
+
+    @Test
+    @DisplayName("gemm: Вычисляет alpha * A * B + beta * C")
+    void gemm_ComputesScaledProductPlusScaledC() {
+        Matrix a = new Matrix(new double[][]{{1, 2, 3}, {4, 5, 6}});
+        Matrix b = new Matrix(new double[][]{{7, 8}, {9, 10}, {11, 12}});
+        MutableMatrix c = MutableMatrix.copyOf(new Matrix(new double[][]{{1, 1}, {1, 1}}));
+
+        MatrixOperations.gemm(2.0, a, b, -1.0, c);
+
+        Matrix expected = new Matrix(new double[][]{{2 * 58 - 1, 2 * 64 - 1}, {2 * 139 - 1, 2 * 154 - 1}});
+        TestMatrices.assertClose(expected, c);
+    }
+
+    @Test
+    @DisplayName("gemm: Транспонированные и разреженные операнды дают тот же результат")
+    void gemm_TransposedAndSparseOperands() {
+        Matrix a = new Matrix(new double[][]{{1, 0, 2}, {0, 3, 0}});
+        Matrix b = new Matrix(new double[][]{{4, 5, 6}, {7, 8, 9}}).transpose();
+        Matrix expected = MatrixOperations.multiply(a, b);
+        MutableMatrix c = new MutableMatrix(2, 2);
+
+        MatrixOperations.multiplyInto(a, b, c);
+        TestMatrices.assertClose(expected, c);
+
+        MatrixOperations.multiplyInto(a.toSparse(), b, c);
+        TestMatrices.assertClose(expected, c);
+
+        MatrixOperations.multiplyInto(a, b.toSparse(), c);
+        TestMatrices.assertClose(expected, c);
+    }
+
+    @Test
+    @DisplayName("axpy: Добавляет alpha * X к Y")
+    void axpy_AddsScaledMatrix() {
+        MutableMatrix y = MutableMatrix.copyOf(new Matrix(new double[][]{{1, 2}, {3, 4}}));
+
+        MatrixOperations.axpy(0.5, new Matrix(new double[][]{{2, 4}, {6, 8}}), y);
+
+        TestMatrices.assertClose(new Matrix(new double[][]{{2, 4}, {6, 8}}), y);
+    }
+
+    @Test
+    @DisplayName("multiplyInto: Результат, разделяющий память с операндом, вызывает исключение")
+    void multiplyInto_ThrowsException_Aliasing() {
+        MutableMatrix c = MutableMatrix.copyOf(new Matrix(new double[][]{{1, 2}, {3, 4}}));
+
+        MatrixException exception = assertThrows(MatrixException.class, () -> MatrixOperations.multiplyInto(c, c, c));
+        assertEquals("Матрица результата не может разделять память с операндом.", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("sumInto: Неверный размер результата вызывает исключение")
+    void sumInto_ThrowsException_WrongResultShape() {
+        Matrix a = new Matrix(new double[][]{{1, 2}, {3, 4}});
+        MutableMatrix out = new MutableMatrix(2, 3);
+
+        MatrixException exception = assertThrows(MatrixException.class, () -> MatrixOperations.sumInto(a, a, out));
+        assertEquals("Размер матрицы результата не соответствует размеру операндов.", exception.getMessage());
+    }
+}
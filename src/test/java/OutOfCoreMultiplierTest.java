@@ -0,0 +1,125 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutOfCoreMultiplierTest {
+    @TempDir
+    Path tempDir;
+
+    // Лимит, при котором сторона тайла равна минимальной: 6 тайлов 64x64 по 8 байт
+    private static final long SMALL_BUDGET = 6L * 64 * 64 * Double.BYTES;
+
+    @Test
+    @DisplayName("Размеры не кратны тайлу: Произведение из файлов совпадает с умножением в памяти")
+    void multiply_MatchesInMemoryProduct() throws IOException {
+        Matrix a = TestMatrices.random(150, 131, 1);
+        Matrix b = TestMatrices.random(131, 70, 2);
+        Path pa = tempDir.resolve("a.bin");
+        Path pb = tempDir.resolve("b.bin");
+        Path pc = tempDir.resolve("c.bin");
+        BinaryMatrixFormat.write(a, pa);
+        BinaryMatrixFormat.write(b, pb);
+        AtomicLong lastDone = new AtomicLong();
+        AtomicLong lastTotal = new AtomicLong();
+        ProgressMonitor monitor = new ProgressMonitor((done, total) -> {
+            lastDone.set(done);
+            lastTotal.set(total);
+        });
+
+        assertEquals(64, OutOfCoreMultiplier.tileSize(SMALL_BUDGET));
+        new OutOfCoreMultiplier(SMALL_BUDGET).multiply(pa, pb, pc, monitor);
+
+        assertEquals(3 * 2 * 3, lastTotal.get(), "Тайлов C 3x2, по три шага вдоль общей размерности");
+        assertEquals(lastTotal.get(), lastDone.get());
+        assertEquals(24 + 150L * 70 * Double.BYTES, Files.size(pc));
+        TestMatrices.assertClose(MultiplyKernel.multiply(a, b), BinaryMatrixFormat.read(pc), 1e-10);
+    }
+
+    @Test
+    @DisplayName("Результат больше 2^31 элементов: Заголовок принимается, внешнее умножение начинается, загрузка в память отклоняется")
+    void multiply_ResultLargerThanArray() throws IOException {
+        int n = 50_000;
+        Path pa = tempDir.resolve("column.bin");
+        Path pb = tempDir.resolve("row.bin");
+        Path pc = tempDir.resolve("huge.bin");
+        MatrixIO.writeMatrixBinary(FloatMatrix.of(Matrix.wrap(new double[n], n, 1)), pa.toString());
+        MatrixIO.writeMatrixBinary(FloatMatrix.of(Matrix.wrap(new double[n], 1, n)), pb.toString());
+        ProgressMonitor monitor = new ProgressMonitor(null);
+        monitor.cancel();
+
+        // Отмена на первом шаге: до неё проверяются заголовки и записывается заголовок результата n x n
+        assertThrows(CancellationException.class,
+                () -> new OutOfCoreMultiplier(6L * 256 * 256 * Double.BYTES).multiply(pa, pb, pc, monitor));
+
+        // Разреженный файл нужного размера: заголовок читается без загрузки элементов
+        try (RandomAccessFile file = new RandomAccessFile(pc.toFile(), "rw")) {
+            file.setLength(BinaryMatrixFormat.HEADER_SIZE + (long) n * n * Double.BYTES);
+        }
+        try (FileChannel channel = FileChannel.open(pc, StandardOpenOption.READ)) {
+            BinaryMatrixFormat.Header header = BinaryMatrixFormat.readHeader(channel);
+            assertEquals(n, header.rows);
+            assertEquals(n, header.cols);
+        }
+        assertThrows(MatrixException.class, () -> BinaryMatrixFormat.read(pc));
+    }
+
+    @Test
+    @DisplayName("Операнды float32 расширяются при чтении тайлов, результат записывается в float64")
+    void multiply_AcceptsFloat32Operands() throws IOException {
+        FloatMatrix a = FloatMatrix.of(TestMatrices.random(90, 100, 3));
+        FloatMatrix b = FloatMatrix.of(TestMatrices.random(100, 65, 4));
+        Path pa = tempDir.resolve("a32.bin");
+        Path pb = tempDir.resolve("b32.bin");
+        Path pc = tempDir.resolve("c.bin");
+        MatrixIO.writeMatrixBinary(a, pa.toString());
+        MatrixIO.writeMatrixBinary(b, pb.toString());
+
+        MatrixOperations.multiplyOutOfCore(pa.toString(), pb.toString(), pc.toString(), SMALL_BUDGET);
+
+        TestMatrices.assertClose(MultiplyKernel.multiply(a.toMatrix(), b.toMatrix()), MatrixIO.readMatrixFromFile(pc.toString()), 1e-10);
+    }
+
+    @Test
+    @DisplayName("Пакетный режим: Произведение больше лимита памяти считается тайлами с диска")
+    void batch_UsesOutOfCoreWhenOperandsExceedMemory() throws IOException {
+        Matrix a = TestMatrices.random(300, 300, 5);
+        BinaryMatrixFormat.write(a, tempDir.resolve("a.bin"));
+        Path script = tempDir.resolve("jobs.txt");
+        Files.write(script, List.of("mul a.bin a.bin product.bin"));
+        StringWriter out = new StringWriter();
+
+        // Лимит 1 МБ меньше удвоенного объёма операндов (2 x 720 КБ)
+        int code = MatrixBatch.run(new String[]{"--memory", "1", script.toString()}, out);
+
+        assertEquals(0, code, out.toString());
+        assertTrue(out.toString().contains("out-of-core"), out.toString());
+        TestMatrices.assertClose(MultiplyKernel.multiply(a, a), BinaryMatrixFormat.read(tempDir.resolve("product.bin")), 1e-10);
+    }
+
+    @Test
+    @DisplayName("Несогласованные размеры, малый лимит и отмена: Исключения")
+    void invalidArguments_Throw() throws IOException {
+        Path pa = tempDir.resolve("a.bin");
+        Path pc = tempDir.resolve("c.bin");
+        BinaryMatrixFormat.write(TestMatrices.random(70, 80, 6), pa);
+        ProgressMonitor cancelled = new ProgressMonitor(null);
+        cancelled.cancel();
+
+        assertThrows(MatrixException.class, () -> new OutOfCoreMultiplier(SMALL_BUDGET).multiply(pa, pa, pc));
+        assertThrows(MatrixException.class, () -> new OutOfCoreMultiplier(SMALL_BUDGET / 2));
+        Path pt = tempDir.resolve("t.bin");
+        BinaryMatrixFormat.write(TestMatrices.random(80, 70, 7), pt);
+        assertThrows(CancellationException.class, () -> new OutOfCoreMultiplier(SMALL_BUDGET).multiply(pa, pt, pc, cancelled));
+    }
+}
@@ -0,0 +1,105 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelMatrixOperationsTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    @DisplayName("Параллельно: Сложение, вычитание и умножение совпадают с последовательными")
+    void operations_MatchSequential() {
+        ParallelMatrixOperations parallel = new ParallelMatrixOperations(new ForkJoinPool(4), 0);
+        Matrix a = TestMatrices.random(150, 150, 1);
+        Matrix b = TestMatrices.random(150, 150, 2);
+
+        TestMatrices.assertClose(MatrixOperations.sum(a, b), parallel.sum(a, b));
+        TestMatrices.assertClose(MatrixOperations.subtract(a, b), parallel.subtract(a, b));
+        TestMatrices.assertClose(MatrixOperations.multiply(a, b), parallel.multiply(a, b));
+        assertTrue(parallel.getLastReport().isParallel());
+        assertTrue(parallel.getLastReport().getSequentialNanos() > 0);
+        assertTrue(parallel.getLastReport().getSpeedup() > 0.0);
+    }
+
+    @Test
+    @DisplayName("Параллельно: Умножение матрицы из 64 строк выше порога выполняется задачами пула, без последовательного прогона")
+    void smallRowCount_RunsOnPool() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ParallelMatrixOperations parallel = new ParallelMatrixOperations(pool, 0);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        boolean[] covered = new boolean[MultiplyKernel.BLOCK_ROWS];
+
+        parallel.runParallel("multiply", covered.length, MultiplyKernel.BLOCK_ROWS, (from, to) -> {
+            threads.add(Thread.currentThread());
+            for (int i = from; i < to; i++) {
+                covered[i] = true;
+            }
+        });
+
+        assertTrue(threads.stream().allMatch(thread -> thread instanceof ForkJoinWorkerThread), "Все строки считаются в пуле");
+        for (boolean row : covered) {
+            assertTrue(row);
+        }
+        assertTrue(parallel.getLastReport().getSequentialNanos() > 0);
+
+        Matrix a = TestMatrices.random(64, 300, 11);
+        Matrix b = TestMatrices.random(300, 200, 12);
+        TestMatrices.assertClose(MatrixOperations.multiply(a, b), parallel.multiply(a, b));
+        assertTrue(parallel.getLastReport().isParallel());
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Отчёт: Ускорение — оценка последовательного времени к фактическому, загрузка потоков считается отдельно")
+    void speedupReport_SeparatesSpeedupFromUtilization() {
+        // Потоки заняты 350 нс из 4 x 100 нс, но последовательное выполнение заняло бы 300 нс
+        SpeedupReport report = new SpeedupReport("multiply", 100, 350, 300, 4, true);
+
+        assertEquals(3.0, report.getSpeedup(), DELTA);
+        assertEquals(0.75, report.getEfficiency(), DELTA);
+        assertEquals(0.875, report.getUtilization(), DELTA);
+        assertTrue(report.toString().contains("ускорение 3"));
+    }
+
+    @Test
+    @DisplayName("Параллельно: Определитель совпадает с последовательным")
+    void determinant_MatchesSequential() {
+        ParallelMatrixOperations parallel = new ParallelMatrixOperations(new ForkJoinPool(4), 0);
+        Matrix a = TestMatrices.random(60, 60, 3);
+
+        double expected = MatrixOperations.determinant(a);
+
+        assertEquals(expected, parallel.determinant(a), Math.abs(expected) * 1e-9);
+        assertEquals("determinant", parallel.getLastReport().getOperation());
+        assertTrue(parallel.getLastReport().isParallel());
+        assertTrue(parallel.getLastReport().getSequentialNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("Параллельно: Ниже порога используется последовательный путь")
+    void belowThreshold_UsesSequentialPath() {
+        ParallelMatrixOperations parallel = new ParallelMatrixOperations(ForkJoinPool.commonPool(), 1_000_000);
+        Matrix a = TestMatrices.random(10, 10, 4);
+
+        parallel.sum(a, a);
+
+        assertFalse(parallel.getLastReport().isParallel());
+        assertEquals(1.0, parallel.getLastReport().getSpeedup(), DELTA);
+    }
+
+    @Test
+    @DisplayName("Параллельно: Исключение при разных размерах сохраняется")
+    void sum_ThrowsException_DifferentSizes() {
+        ParallelMatrixOperations parallel = new ParallelMatrixOperations(ForkJoinPool.commonPool(), 0);
+        Matrix a = TestMatrices.random(2, 2, 6);
+        Matrix b = TestMatrices.random(2, 3, 5);
+
+        MatrixException exception = assertThrows(MatrixException.class, () -> parallel.sum(a, b));
+
+        assertEquals("Для сложения матрицы должны быть одного размера.", exception.getMessage());
+    }
+}
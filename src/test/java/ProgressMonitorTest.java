@@ -0,0 +1,86 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProgressMonitorTest {
+
+    private Matrix filledMatrix(int n) {
+        double[][] data = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                data[i][j] = (i * 31 + j * 17) % 11 - 5 + (i == j ? n : 0);
+            }
+        }
+        return new Matrix(data);
+    }
+
+    @Test
+    @DisplayName("Прогресс: Умножение и определитель сообщают о полном выполнении работы")
+    void kernels_ReportCompleteProgress() {
+        AtomicLong lastDone = new AtomicLong();
+        AtomicLong lastTotal = new AtomicLong();
+        ProgressMonitor monitor = new ProgressMonitor((done, total) -> {
+            lastDone.set(done);
+            lastTotal.set(total);
+        });
+        Matrix a = filledMatrix(150);
+
+        Matrix product = MatrixOperations.multiply(a, a, monitor);
+        assertEquals(lastTotal.get(), lastDone.get());
+        assertEquals(1.0, monitor.getProgress(), 1e-12);
+        assertEquals(MatrixOperations.multiply(a, a).get(7, 9), product.get(7, 9), 1e-9);
+
+        MatrixOperations.determinant(a, monitor);
+        assertEquals(150, lastTotal.get());
+        assertEquals(150, lastDone.get());
+    }
+
+    @Test
+    @DisplayName("Отмена: Отменённый монитор прерывает умножение и определитель")
+    void cancelledMonitor_StopsKernels() {
+        ProgressMonitor monitor = new ProgressMonitor(null);
+        monitor.cancel();
+        Matrix a = filledMatrix(64);
+
+        assertThrows(CancellationException.class, () -> MatrixOperations.multiply(a, a, monitor));
+        assertThrows(CancellationException.class, () -> MatrixOperations.determinant(a, monitor));
+        assertThrows(CancellationException.class, () -> MatrixOperations.sum(a, a, monitor));
+    }
+
+    @Test
+    @DisplayName("Отмена: Отмена во время разбора файла передаётся как CancellationException")
+    void cancelDuringParsing_PropagatesCancellation() throws IOException {
+        Path file = Files.createTempFile("matrix-cancel", ".txt");
+        try {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < 2000; i++) {
+                text.append("1.5 2.5 3.5 4.5 5.5 6.5 7.5 8.5\n");
+            }
+            Files.writeString(file, text.toString());
+            ProgressMonitor[] holder = new ProgressMonitor[1];
+            holder[0] = new ProgressMonitor((done, total) -> {
+                if (done > 0) {
+                    holder[0].cancel();
+                }
+            });
+
+            assertThrows(CancellationException.class, () -> TextMatrixParser.parse(file, 4, holder[0]));
+            assertThrows(CancellationException.class, () -> MatrixIO.readMatrixFromFile(file.toString(), holder[0]));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @DisplayName("Отмена: Монитор NONE нельзя отменить")
+    void noneMonitor_CannotBeCancelled() {
+        ProgressMonitor.NONE.cancel();
+
+        assertFalse(ProgressMonitor.NONE.isCancelled());
+    }
+}
@@ -0,0 +1,190 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultCacheTest {
+
+    private static double[][] filled(int rows, int cols, double seed) {
+        double[][] data = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                data[i][j] = seed + i * cols + j;
+            }
+        }
+        return data;
+    }
+
+    @Test
+    @DisplayName("contentHash: Одинаковое содержимое даёт одинаковый хеш, разное — разный")
+    void contentHash_DependsOnlyOnContent() {
+        Matrix a = new Matrix(filled(3, 4, 1));
+        Matrix b = new Matrix(filled(3, 4, 1));
+        Matrix c = new Matrix(filled(4, 3, 1));
+
+        assertEquals(a.contentHash(), b.contentHash());
+        assertNotEquals(a.contentHash(), c.contentHash(), "Размеры входят в хеш");
+        assertNotEquals(a.contentHash(), a.transpose().contentHash());
+        assertEquals(a.transpose().contentHash(), new Matrix(a.transpose().getData()).contentHash(),
+                "Представление с шагами хешируется так же, как плотная копия");
+    }
+
+    @Test
+    @DisplayName("contentHash: Хеш изменяемой матрицы пересчитывается после изменения")
+    void contentHash_MutableMatrixIsRehashed() {
+        MutableMatrix m = MutableMatrix.copyOf(new Matrix(filled(2, 2, 0)));
+        long before = m.contentHash();
+
+        m.set(1, 1, 42.0);
+
+        assertNotEquals(before, m.contentHash());
+    }
+
+    @Test
+    @DisplayName("getOrCompute: Повторная операция над загруженной заново матрицей берётся из кэша")
+    void getOrCompute_HitsForEqualContent() {
+        ResultCache cache = new ResultCache(1 << 20, 0);
+        AtomicInteger computations = new AtomicInteger();
+        Matrix a = new Matrix(filled(4, 4, 1));
+        Matrix b = new Matrix(filled(4, 4, 2));
+
+        Matrix first = cache.getOrCompute("multiply", a, b, () -> {
+            computations.incrementAndGet();
+            return MatrixOperations.multiplyReference(a, b);
+        });
+        Matrix second = cache.getOrCompute("multiply", new Matrix(filled(4, 4, 1)), new Matrix(filled(4, 4, 2)), () -> {
+            computations.incrementAndGet();
+            return MatrixOperations.multiplyReference(a, b);
+        });
+
+        assertSame(first, second);
+        assertEquals(1, computations.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("contentEquals: Сравнение учитывает шаги представления и каждый элемент")
+    void contentEquals_ComparesElements() {
+        Matrix a = new Matrix(filled(3, 4, 1));
+        Matrix transposedCopy = new Matrix(a.transpose().getData());
+        double[][] changed = filled(3, 4, 1);
+        changed[2][3] = Math.nextUp(changed[2][3]);
+
+        assertTrue(a.contentEquals(new Matrix(filled(3, 4, 1))));
+        assertTrue(a.transpose().contentEquals(transposedCopy));
+        assertTrue(a.toSparse().contentEquals(new Matrix(filled(3, 4, 1)).toSparse()));
+        assertFalse(a.contentEquals(new Matrix(changed)));
+        assertFalse(a.contentEquals(a.toSparse()), "Представление входит в хеш, поэтому и в сравнение");
+    }
+
+    @Test
+    @DisplayName("getOrCompute: Изменяемые операнды не кэшируются, изменение не возвращает старый результат")
+    void getOrCompute_SkipsMutableOperands() {
+        ResultCache cache = new ResultCache(1 << 20, 0);
+        MutableMatrix m = MutableMatrix.copyOf(new Matrix(filled(3, 3, 1)));
+
+        double first = cache.getOrCompute("determinant", m, () -> 1.0);
+        m.set(0, 0, 5.0);
+        double second = cache.getOrCompute("determinant", m, () -> 2.0);
+
+        assertEquals(1.0, first);
+        assertEquals(2.0, second);
+        assertEquals(0, cache.getEntries());
+        assertEquals(2, cache.getSkipped());
+    }
+
+    @Test
+    @DisplayName("getOrCompute: Разные операции над одними операндами не смешиваются")
+    void getOrCompute_KeyIncludesOperation() {
+        ResultCache cache = new ResultCache(1 << 20, 0);
+        Matrix a = new Matrix(filled(3, 3, 1));
+
+        double first = cache.getOrCompute("determinant", a, () -> 1.0);
+        double second = cache.getOrCompute("trace", a, () -> 2.0);
+
+        assertEquals(1.0, first);
+        assertEquals(2.0, second);
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("getOrCompute: Маленькие матрицы не хешируются и не кэшируются")
+    void getOrCompute_SkipsSmallMatrices() {
+        ResultCache cache = new ResultCache(1 << 20, 100);
+        AtomicInteger computations = new AtomicInteger();
+        Matrix a = new Matrix(filled(3, 3, 1));
+
+        cache.getOrCompute("determinant", a, () -> computations.incrementAndGet());
+        cache.getOrCompute("determinant", a, () -> computations.incrementAndGet());
+
+        assertEquals(2, computations.get());
+        assertEquals(2, cache.getSkipped());
+        assertEquals(0, cache.getEntries());
+    }
+
+    @Test
+    @DisplayName("getOrCompute: При превышении лимита байтов вытесняется давно не использованный результат")
+    void getOrCompute_EvictsLeastRecentlyUsed() {
+        // Каждая запись: результат и два операнда 10x10 double (по 800 байт) плюс накладные расходы; помещаются ровно две
+        ResultCache cache = new ResultCache(6000, 0);
+        Matrix x = new Matrix(filled(10, 10, 1));
+        Matrix y = new Matrix(filled(10, 10, 2));
+        Matrix z = new Matrix(filled(10, 10, 3));
+        AtomicInteger computations = new AtomicInteger();
+
+        cache.getOrCompute("sum", x, x, () -> { computations.incrementAndGet(); return x; });
+        cache.getOrCompute("sum", y, y, () -> { computations.incrementAndGet(); return y; });
+        cache.getOrCompute("sum", x, x, () -> { computations.incrementAndGet(); return x; });
+        cache.getOrCompute("sum", z, z, () -> { computations.incrementAndGet(); return z; });
+
+        assertEquals(3, computations.get());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.getEntries());
+        assertTrue(cache.getCurrentBytes() <= cache.getMaxBytes());
+
+        cache.getOrCompute("sum", x, x, () -> { computations.incrementAndGet(); return x; });
+        assertEquals(3, computations.get(), "Недавно использованная запись должна остаться в кэше");
+        cache.getOrCompute("sum", y, y, () -> { computations.incrementAndGet(); return y; });
+        assertEquals(4, computations.get(), "Давно не использованная запись должна быть вытеснена");
+    }
+
+    @Test
+    @DisplayName("MatrixOperations: Повторный определитель большой матрицы считается один раз")
+    void matrixOperations_UseSharedCache() {
+        ResultCache cache = ResultCache.shared();
+        long minElements = cache.getMinElements();
+        boolean enabled = cache.isEnabled();
+        cache.setEnabled(true);
+        cache.setMinElements(0);
+        cache.clear();
+        cache.resetStatistics();
+        try {
+            Matrix a = new Matrix(filled(5, 5, 1));
+            double first = MatrixOperations.determinant(a);
+            double second = MatrixOperations.determinant(new Matrix(filled(5, 5, 1)));
+
+            assertEquals(first, second);
+            assertEquals(1, cache.getHits());
+        } finally {
+            cache.setMinElements(minElements);
+            cache.setEnabled(enabled);
+            cache.clear();
+        }
+    }
+
+    @Test
+    @DisplayName("Общий кэш выключен по умолчанию: Повторная операция вычисляется заново")
+    void sharedCache_DisabledByDefault() {
+        ResultCache cache = ResultCache.shared();
+        assertFalse(cache.isEnabled());
+        Matrix a = new Matrix(filled(8, 8, 1));
+
+        Matrix first = MatrixOperations.multiply(a, a);
+        Matrix second = MatrixOperations.multiply(a, a);
+
+        assertNotSame(first, second);
+        assertEquals(0, cache.getEntries());
+    }
+}
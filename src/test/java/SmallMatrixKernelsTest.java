@@ -0,0 +1,138 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SmallMatrixKernelsTest {
+
+    private static double[] random(int length, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = random.nextDouble() * 4 - 2;
+        }
+        return values;
+    }
+
+    @Test
+    @DisplayName("Определитель в замкнутой форме совпадает с LU-разложением для размеров 1–4")
+    void determinant_MatchesLu() {
+        for (int n = 1; n <= SmallMatrixKernels.MAX_SIZE; n++) {
+            for (int seed = 0; seed < 50; seed++) {
+                double[] values = random(n * n, seed);
+                Matrix m = Matrix.wrap(values, n, n);
+                double expected = new LUDecomposition(m).determinant();
+
+                assertEquals(expected, SmallMatrixKernels.determinant(n, values, 0), 1e-12 * Math.max(1, Math.abs(expected)));
+                assertEquals(expected, MatrixOperations.determinant(m), 1e-12 * Math.max(1, Math.abs(expected)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("MatrixOperations.determinant для n <= 4: Порог вырожденности тот же, что у LU и у больших матриц")
+    void matrixOperationsDeterminant_KeepsPivotTolerance() {
+        Matrix tinyPivot = new Matrix(new double[][]{{1e-10, 0}, {0, 1}});
+        Matrix nearlySingular = new Matrix(new double[][]{{1, 1}, {1, 1 + 1e-12}});
+        double[] diagonal = new double[25];
+        diagonal[0] = 1e-10;
+        for (int i = 1; i < 5; i++) {
+            diagonal[i * 5 + i] = 1;
+        }
+
+        assertEquals(0.0, MatrixOperations.determinant(tinyPivot), 0.0);
+        assertEquals(0.0, MatrixOperations.determinant(nearlySingular), 0.0);
+        assertEquals(0.0, MatrixOperations.determinant(Matrix.wrap(diagonal, 5, 5)), 0.0);
+        assertEquals(1e-10, SmallMatrixKernels.determinant(tinyPivot), 0.0, "Замкнутая форма порога не применяет");
+        for (int n = 1; n <= SmallMatrixKernels.MAX_SIZE; n++) {
+            for (int seed = 0; seed < 20; seed++) {
+                Matrix m = Matrix.wrap(random(n * n, 300 + seed), n, n);
+                double expected = new LUDecomposition(m).determinant();
+                assertEquals(expected, MatrixOperations.determinant(m), 1e-14 * Math.max(1, Math.abs(expected)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Развёрнутое умножение совпадает с эталонным, результат может совпадать с операндом")
+    void multiply_MatchesReference() {
+        for (int n = 1; n <= SmallMatrixKernels.MAX_SIZE; n++) {
+            double[] a = random(n * n, n);
+            double[] b = random(n * n, n + 10);
+            Matrix expected = MatrixOperations.multiplyReference(Matrix.wrap(a, n, n), Matrix.wrap(b, n, n));
+
+            Matrix viaOperations = MatrixOperations.multiply(Matrix.wrap(a, n, n), Matrix.wrap(b, n, n));
+            double[] inPlace = a.clone();
+            SmallMatrixKernels.multiply(n, inPlace, 0, b, 0, inPlace, 0);
+
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    assertEquals(expected.get(i, j), viaOperations.get(i, j), 1e-12);
+                    assertEquals(expected.get(i, j), inPlace[i * n + j], 1e-12);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Пакеты AoS и SoA дают те же результаты, что и поштучный расчёт, в том числе параллельно")
+    void batches_MatchSingleMatrixKernels() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int n = 1; n <= SmallMatrixKernels.MAX_SIZE; n++) {
+                // Достаточно матриц, чтобы превысить порог параллельного выполнения
+                int count = 20_000;
+                int size = n * n;
+                double[] a = random(count * size, 100 + n);
+                double[] b = random(count * size, 200 + n);
+
+                double[] determinants = new double[count];
+                double[] determinantsSoA = new double[count];
+                double[] products = new double[count * size];
+                double[] productsSoA = new double[count * size];
+                SmallMatrixKernels.determinants(n, a, determinants, count, pool);
+                SmallMatrixKernels.determinantsSoA(n, SmallMatrixKernels.toSoA(n, a, count), determinantsSoA, count, pool);
+                SmallMatrixKernels.multiplyBatch(n, a, b, products, count, pool);
+                SmallMatrixKernels.multiplyBatchSoA(n, SmallMatrixKernels.toSoA(n, a, count),
+                        SmallMatrixKernels.toSoA(n, b, count), productsSoA, count, pool);
+                double[] productsFromSoA = SmallMatrixKernels.toAoS(n, productsSoA, count);
+
+                double[] single = new double[size];
+                for (int q = 0; q < count; q += 997) {
+                    double expected = SmallMatrixKernels.determinant(n, a, q * size);
+                    assertEquals(expected, determinants[q], 0.0);
+                    assertEquals(expected, determinantsSoA[q], 1e-12);
+                    SmallMatrixKernels.multiply(n, a, q * size, b, q * size, single, 0);
+                    for (int e = 0; e < size; e++) {
+                        assertEquals(single[e], products[q * size + e], 0.0);
+                        assertEquals(single[e], productsFromSoA[q * size + e], 1e-12);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Перекладка AoS -> SoA -> AoS возвращает исходный массив")
+    void layoutConversion_RoundTrips() {
+        double[] packed = random(3 * 9, 7);
+
+        double[] soa = SmallMatrixKernels.toSoA(3, packed, 3);
+
+        assertEquals(packed[9 + 5], soa[5 * 3 + 1], 0.0, "Элемент (1, 2) второй матрицы");
+        assertArrayEquals(packed, SmallMatrixKernels.toAoS(3, soa, 3), 0.0);
+    }
+
+    @Test
+    @DisplayName("Неверный размер или длина пакета: Выбрасывается MatrixException")
+    void invalidArguments_Throw() {
+        assertThrows(MatrixException.class, () -> SmallMatrixKernels.determinant(5, new double[25], 0));
+        assertThrows(MatrixException.class, () -> SmallMatrixKernels.determinants(2, new double[7], new double[2], 2));
+        assertThrows(MatrixException.class, () -> SmallMatrixKernels.multiplyBatch(3, new double[9], new double[9], new double[8], 1));
+        double[] same = new double[4];
+        assertThrows(MatrixException.class, () -> SmallMatrixKernels.multiplyBatchSoA(2, same, new double[4], same, 1));
+    }
+}
@@ -0,0 +1,136 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SparseOperationsTest {
+    @TempDir
+    Path tempDir;
+
+    private Matrix randomSparse(int rows, int cols, double density, long seed) {
+        Random random = new Random(seed);
+        double[][] data = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (random.nextDouble() < density) {
+                    data[i][j] = random.nextInt(19) - 9;
+                }
+            }
+        }
+        return new Matrix(data);
+    }
+
+    @AfterEach
+    void restoreThreshold() {
+        SparseOperations.setDensifyThreshold(SparseOperations.DEFAULT_DENSIFY_THRESHOLD);
+    }
+
+    @Test
+    @DisplayName("Разреженные: Сложение и вычитание CSR совпадают с плотными и остаются разреженными")
+    void sumAndSubtract_SparseBySparse() {
+        Matrix a = randomSparse(40, 30, 0.05, 1);
+        Matrix b = randomSparse(40, 30, 0.05, 2);
+
+        Matrix sum = MatrixOperations.sum(a.toSparse(), b.toSparse());
+        Matrix difference = MatrixOperations.subtract(a.toSparse(), b.toSparse());
+
+        assertTrue(sum.isSparse());
+        TestMatrices.assertClose(MatrixOperations.sum(a, b), sum);
+        TestMatrices.assertClose(MatrixOperations.subtract(a, b), difference);
+        assertTrue(MatrixOperations.subtract(a.toSparse(), a.toSparse()).csr().nonZeros() == 0);
+    }
+
+    @Test
+    @DisplayName("Разреженные: Умножение для всех сочетаний представлений")
+    void multiply_AllRepresentations() {
+        Matrix a = randomSparse(35, 50, 0.04, 3);
+        Matrix b = randomSparse(50, 20, 0.04, 4);
+        Matrix expected = MatrixOperations.multiplyReference(a, b);
+
+        Matrix sparseSparse = MatrixOperations.multiply(a.toSparse(), b.toSparse());
+
+        assertTrue(sparseSparse.isSparse());
+        TestMatrices.assertClose(expected, sparseSparse);
+        TestMatrices.assertClose(expected, MatrixOperations.multiply(a.toSparse(), b));
+        TestMatrices.assertClose(expected, MatrixOperations.multiply(a, b.toSparse()));
+        TestMatrices.assertClose(expected, MatrixOperations.multiply(a.toSparse().transpose().transpose(), b.toSparse()));
+    }
+
+    @Test
+    @DisplayName("Разреженные: Результат становится плотным при превышении порога заполнения")
+    void multiply_DensifiesAboveThreshold() {
+        Matrix a = randomSparse(20, 20, 0.5, 5).toSparse();
+        SparseOperations.setDensifyThreshold(0.1);
+
+        Matrix result = MatrixOperations.multiply(a, a);
+
+        assertFalse(result.isSparse());
+        TestMatrices.assertClose(MatrixOperations.multiplyReference(a.toDense(), a.toDense()), result);
+    }
+
+    @Test
+    @DisplayName("Matrix Market: Запись и чтение, симметричное хранение и определение формата")
+    void matrixMarket_RoundTripAndSymmetric() throws IOException {
+        Matrix original = randomSparse(12, 9, 0.2, 6).toSparse();
+        String path = tempDir.resolve("matrix.mtx").toString();
+
+        MatrixIO.writeMatrixMarket(original, path);
+        Matrix loaded = MatrixIO.readMatrixFromFile(path);
+
+        assertTrue(loaded.isSparse());
+        TestMatrices.assertClose(original, loaded);
+
+        Path symmetric = tempDir.resolve("symmetric.mtx");
+        Files.write(symmetric, Arrays.asList(
+                "%%MatrixMarket matrix coordinate real symmetric",
+                "% комментарий",
+                "3 3 3",
+                "1 1 2.5",
+                "3 1 -1",
+                "3 1 0.5"
+        ));
+        Matrix expected = new Matrix(new double[][]{
+                {2.5, 0.0, -0.5},
+                {0.0, 0.0, 0.0},
+                {-0.5, 0.0, 0.0}
+        });
+        TestMatrices.assertClose(expected, MatrixIO.readMatrixFromFile(symmetric.toString()));
+    }
+
+    @Test
+    @DisplayName("Matrix Market: Некорректное число элементов в заголовке отклоняется, массивы растут по мере чтения")
+    void matrixMarket_ValidatesDeclaredCount() throws IOException {
+        Path negative = tempDir.resolve("negative.mtx");
+        Files.write(negative, Arrays.asList("%%MatrixMarket matrix coordinate real general", "2 2 -1"));
+        Path huge = tempDir.resolve("huge.mtx");
+        Files.write(huge, Arrays.asList("%%MatrixMarket matrix coordinate real general", "2 2 2000000000", "1 1 1"));
+
+        assertThrows(MatrixException.class, () -> MatrixIO.readMatrixFromFile(negative.toString()));
+        assertThrows(MatrixException.class, () -> MatrixIO.readMatrixFromFile(huge.toString()));
+
+        int n = 80;
+        Path lower = tempDir.resolve("lower.mtx");
+        List<String> lines = new ArrayList<>();
+        lines.add("%%MatrixMarket matrix coordinate real symmetric");
+        lines.add(n + " " + n + " " + n * (n + 1) / 2);
+        double[][] expected = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                lines.add((i + 1) + " " + (j + 1) + " " + (i * n + j + 1));
+                expected[i][j] = i * n + j + 1;
+                expected[j][i] = i * n + j + 1;
+            }
+        }
+        Files.write(lower, lines);
+
+        TestMatrices.assertClose(new Matrix(expected), MatrixIO.readMatrixFromFile(lower.toString()));
+    }
+}
@@ -0,0 +1,58 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StrassenMultiplierTest {
+
+    @Test
+    @DisplayName("Штрассен–Виноград: Совпадает с эталоном для квадратных матриц степени двойки")
+    void multiply_MatchesReference_PowerOfTwo() {
+        Matrix a = TestMatrices.random(64, 64, 1);
+        Matrix b = TestMatrices.random(64, 64, 2);
+
+        TestMatrices.assertClose(MatrixOperations.multiplyReference(a, b),
+                StrassenMultiplier.multiply(a, b, 8, ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    @DisplayName("Штрассен–Виноград: Нечётные и прямоугольные размеры обрабатываются отщеплением")
+    void multiply_MatchesReference_OddRectangular() {
+        Matrix a = TestMatrices.random(77, 53, 3);
+        Matrix b = TestMatrices.random(53, 91, 4);
+
+        TestMatrices.assertClose(MatrixOperations.multiplyReference(a, b),
+                StrassenMultiplier.multiply(a, b, 5, ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    @DisplayName("Штрассен–Виноград: Работает с представлениями и транспонированными матрицами")
+    void multiply_MatchesReference_Views() {
+        Matrix a = TestMatrices.random(90, 90, 5).submatrix(3, 7, 41, 60);
+        Matrix b = TestMatrices.random(70, 60, 6).transpose();
+
+        TestMatrices.assertClose(MatrixOperations.multiplyReference(a, b),
+                StrassenMultiplier.multiply(a, b, 4, ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    @DisplayName("Штрассен–Виноград: Нормовая погрешность относительно классического ядра мала")
+    void measureError_IsSmall() {
+        Matrix a = TestMatrices.random(256, 256, 7);
+        Matrix b = TestMatrices.random(256, 256, 8);
+
+        double error = StrassenMultiplier.measureError(a, b, 16);
+
+        assertTrue(error < 1e-13, "Относительная погрешность должна быть порядка машинной точности: " + error);
+    }
+
+    @Test
+    @DisplayName("Штрассен–Виноград: Несогласованные размеры вызывают исключение")
+    void multiplyStrassen_ThrowsException_InvalidDimensions() {
+        Matrix a = TestMatrices.random(3, 4, 9);
+        Matrix b = TestMatrices.random(3, 4, 10);
+
+        MatrixException exception = assertThrows(MatrixException.class, () -> MatrixOperations.multiplyStrassen(a, b));
+        assertEquals("Для умножения количество столбцов A должно совпадать с количеством строк B.", exception.getMessage());
+    }
+}
@@ -0,0 +1,40 @@
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Общие заготовки тестов: воспроизводимые случайные матрицы и поэлементное сравнение с допуском
+class TestMatrices {
+    static final double DELTA = 1e-9;
+
+    private TestMatrices() {
+    }
+
+    // Элементы равномерно распределены в [-1, 1); одинаковый seed даёт одинаковые значения
+    static double[] values(int length, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = random.nextDouble() * 2 - 1;
+        }
+        return values;
+    }
+
+    static Matrix random(int rows, int cols, long seed) {
+        return Matrix.wrap(values(rows * cols, seed), rows, cols);
+    }
+
+    static void assertClose(Matrix expected, Matrix actual) {
+        assertClose(expected, actual, DELTA);
+    }
+
+    static void assertClose(Matrix expected, Matrix actual, double delta) {
+        assertNotNull(actual, "Результирующая матрица не должна быть null");
+        assertEquals(expected.getRows(), actual.getRows(), "Количество строк должно совпадать");
+        assertEquals(expected.getCols(), actual.getCols(), "Количество столбцов должно совпадать");
+        for (int i = 0; i < expected.getRows(); i++) {
+            for (int j = 0; j < expected.getCols(); j++) {
+                assertEquals(expected.get(i, j), actual.get(i, j), delta,
+                        String.format("Элементы в позиции (%d, %d) должны совпадать", i, j));
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextMatrixParserTest {
+    @TempDir
+    Path tempDir;
+
+    private static final double DELTA = 1e-9;
+
+    private double parse(String token) {
+        byte[] bytes = token.getBytes(StandardCharsets.UTF_8);
+        return TextMatrixParser.parseDouble(bytes, bytes.length);
+    }
+
+    @Test
+    @DisplayName("Разбор чисел: Быстрый путь даёт тот же double, что и Double.parseDouble")
+    void parseDouble_MatchesJdk() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(20) - 10);
+            String text = Double.toString(value);
+            assertEquals(Double.parseDouble(text), parse(text), 0.0, text);
+            String fixed = String.format(java.util.Locale.ROOT, "%.6f", value);
+            assertEquals(Double.parseDouble(fixed), parse(fixed), 0.0, fixed);
+        }
+    }
+
+    @Test
+    @DisplayName("Разбор чисел: Запятая, экспонента, знак и особые значения")
+    void parseDouble_SpecialForms() {
+        assertEquals(1.25, parse("1,25"), 0.0);
+        assertEquals(-0.0, parse("-0"), 0.0);
+        assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(parse("-0")));
+        assertEquals(1.5e-7, parse("1.5E-7"), 0.0);
+        assertEquals(0.5, parse(".5"), 0.0);
+        assertEquals(12345678901234567890.0, parse("12345678901234567890"), 0.0);
+        assertTrue(Double.isNaN(parse("NaN")));
+        assertEquals(Double.NEGATIVE_INFINITY, parse("-Infinity"), 0.0);
+    }
+
+    @Test
+    @DisplayName("Разбор чисел: Исключение для некорректной записи")
+    void parseDouble_ThrowsException_InvalidToken() {
+        for (String token : new String[]{"1,2,3", "-", "1e", "1-2", "abc"}) {
+            MatrixException exception = assertThrows(MatrixException.class, () -> parse(token));
+            assertEquals("Неверный формат числа в файле:", exception.getMessage());
+        }
+    }
+
+    @Test
+    @DisplayName("Параллельный разбор: Части по границам строк дают ту же матрицу")
+    void parse_InChunks_MatchesSequential() throws IOException {
+        StringBuilder text = new StringBuilder();
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            for (int j = 0; j < 13; j++) {
+                text.append(random.nextInt(2000) - 1000).append(j % 2 == 0 ? ",5 " : "\t");
+            }
+            text.append(i % 10 == 0 ? "\r\n\n" : "\n");
+        }
+        Path file = tempDir.resolve("chunks.txt");
+        Files.writeString(file, text);
+
+        Matrix sequential = TextMatrixParser.parse(file, 1);
+        Matrix parallel = TextMatrixParser.parse(file, 7);
+
+        assertEquals(200, parallel.getRows());
+        assertEquals(13, parallel.getCols());
+        assertArrayEquals(sequential.toArray(), parallel.toArray(), DELTA);
+    }
+
+    @Test
+    @DisplayName("Параллельный разбор: Непрямоугольность между частями обнаруживается")
+    void parse_InChunks_ThrowsException_NonRectangular() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            text.append(i < 80 ? "1 2 3\n" : "1 2\n");
+        }
+        Path file = tempDir.resolve("non_rectangular.txt");
+        Files.writeString(file, text);
+
+        MatrixException exception = assertThrows(MatrixException.class, () ->
+                TextMatrixParser.parse(file, 4)
+        );
+
+        assertEquals("Количество элементов в некоторых строках отличается от большинства (строка 81)", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Параллельный разбор: Короткая строка внутри части обнаруживается так же, как при последовательном чтении")
+    void parse_InChunks_ThrowsException_RaggedRowInsideChunk() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            text.append(i == 63 ? "1 2\n" : "1 2 3\n");
+        }
+        Path file = tempDir.resolve("ragged_row.txt");
+        Files.writeString(file, text);
+
+        MatrixException sequential = assertThrows(MatrixException.class, () -> TextMatrixParser.parse(file, 1));
+        MatrixException parallel = assertThrows(MatrixException.class, () -> TextMatrixParser.parse(file, 4));
+
+        assertEquals("Количество элементов в некоторых строках отличается от большинства (строка 64)", sequential.getMessage());
+        assertEquals(sequential.getMessage(), parallel.getMessage());
+    }
+}
@@ -0,0 +1,118 @@
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VectorKernelsTest {
+
+    private static void checkImplementation(VectorKernels.Impl impl) {
+        // Длины захватывают пустой случай, хвост меньше вектора и несколько полных векторов; смещения — невыровненные
+        for (int n = 0; n <= 67; n++) {
+            for (int offset = 0; offset < 3; offset++) {
+                double[] x = TestMatrices.values(n + 5, n);
+                double[] y = TestMatrices.values(n + 5, n + 100);
+
+                double expectedDot = 0;
+                for (int k = 0; k < n; k++) {
+                    expectedDot += x[offset + k] * y[2 + k];
+                }
+                assertEquals(expectedDot, impl.dot(x, offset, y, 2, n), 1e-12, impl.description() + ": dot, n = " + n);
+
+                double[] expected = y.clone();
+                double[] actual = y.clone();
+                for (int k = 0; k < n; k++) {
+                    expected[1 + k] += 0.75 * x[offset + k];
+                }
+                impl.axpy(0.75, x, offset, actual, 1, n);
+                assertArrayEquals(expected, actual, 0.0, impl.description() + ": axpy, n = " + n);
+
+                double[] out = new double[n + 4];
+                double[] expectedOut = new double[n + 4];
+                for (int k = 0; k < n; k++) {
+                    expectedOut[3 + k] = x[offset + k] - y[k];
+                }
+                impl.combine(x, offset, y, 0, -1.0, out, 3, n);
+                assertArrayEquals(expectedOut, out, 0.0, impl.description() + ": combine, n = " + n);
+
+                double[] sums = TestMatrices.values(6, n + 300);
+                double[] expectedSums = sums.clone();
+                for (int q = 0; q < 4; q++) {
+                    double s = 0;
+                    for (int k = 0; k < n; k++) {
+                        s += x[offset + k] * y[q + k];
+                    }
+                    expectedSums[1 + q] += -0.5 * s;
+                }
+                impl.dot4(-0.5, x, offset, y, 0, 1, 2, 3, n, sums, 1);
+                assertArrayEquals(expectedSums, sums, 1e-12, impl.description() + ": dot4, n = " + n);
+
+                double[] rows = TestMatrices.values(4 * n + 8, n + 200);
+                double[] expectedRows = rows.clone();
+                for (int k = 0; k < n; k++) {
+                    expectedRows[k] += 1.5 * x[offset + k];
+                    expectedRows[n + 2 + k] += -2.0 * x[offset + k];
+                    expectedRows[2 * n + 4 + k] += 0.5 * x[offset + k];
+                    expectedRows[3 * n + 6 + k] += 3.0 * x[offset + k];
+                }
+                impl.axpy4(1.5, -2.0, 0.5, 3.0, x, offset, rows, 0, n + 2, 2 * n + 4, 3 * n + 6, n);
+                assertArrayEquals(expectedRows, rows, 0.0, impl.description() + ": axpy4, n = " + n);
+
+                float[] xf = new float[n + 5];
+                float[] yf = new float[4 * n + 8];
+                for (int k = 0; k < xf.length; k++) {
+                    xf[k] = (float) x[k];
+                }
+                for (int k = 0; k < yf.length; k++) {
+                    yf[k] = (float) rows[k];
+                }
+                float[] expectedFloat = yf.clone();
+                for (int k = 0; k < n; k++) {
+                    expectedFloat[k] += 1.5f * xf[offset + k];
+                    expectedFloat[n + 2 + k] += -2.0f * xf[offset + k];
+                    expectedFloat[2 * n + 4 + k] += 0.5f * xf[offset + k];
+                    expectedFloat[3 * n + 6 + k] += 3.0f * xf[offset + k] + 0.25f * xf[offset + k];
+                }
+                impl.axpy4(1.5f, -2.0f, 0.5f, 3.0f, xf, offset, yf, 0, n + 2, 2 * n + 4, 3 * n + 6, n);
+                impl.axpy(0.25f, xf, offset, yf, 3 * n + 6, n);
+                float[] combined = new float[n];
+                float[] expectedCombined = new float[n];
+                impl.combine(xf, offset, yf, 0, -1.0f, combined, 0, n);
+                for (int k = 0; k < n; k++) {
+                    expectedCombined[k] = xf[offset + k] - yf[k];
+                }
+                assertArrayEquals(expectedCombined, combined, 0.0f);
+                assertArrayEquals(expectedFloat, yf, 1e-6f);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Скалярные ядра совпадают с наивными циклами")
+    void scalarKernels_MatchNaiveLoops() {
+        checkImplementation(VectorKernels.scalar());
+    }
+
+    @Test
+    @DisplayName("Выбранные при запуске ядра (SIMD или скалярные) совпадают с наивными циклами")
+    void activeKernels_MatchNaiveLoops() {
+        assertNotNull(VectorKernels.description());
+        assertEquals(VectorKernels.isVectorized(), VectorKernels.active() != VectorKernels.scalar());
+        checkImplementation(VectorKernels.active());
+    }
+
+    @Test
+    @DisplayName("Умножение и определитель через ядра совпадают с эталонной реализацией")
+    void operations_MatchReference() {
+        Matrix a = new Matrix(new double[][]{{2, -1, 0, 3, 1}, {1, 4, 2, 0, -2}, {0, 3, 5, 1, 1}, {2, 0, 1, 6, 0}, {1, 1, 1, 1, 7}});
+        Matrix b = a.transpose();
+
+        Matrix expected = MatrixOperations.multiplyReference(a, b);
+        Matrix actual = MatrixOperations.multiply(a, b);
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                assertEquals(expected.get(i, j), actual.get(i, j), 1e-12);
+            }
+        }
+        assertEquals(new LUDecomposition(a).determinant(), DeterminantCalculator.calculate(a), 0.0);
+        assertTrue(Math.abs(DeterminantCalculator.calculate(a)) > 1.0);
+    }
+}